@@ -403,7 +403,7 @@ public final class LandscapeDummyCreator {
     DummyLandscapeHelper.createClazz("AccountSqlMapDao2", logging, 5);
 
     // specify a first trace for the dummy landscape
-    final String firstTraceId = "1";
+    final long firstTraceId = 1;
 
     DummyLandscapeHelper
         .createClazzCommunication(firstTraceId, 1, 40, graphDbClazz, helpersClazz, application);
@@ -437,7 +437,7 @@ public final class LandscapeDummyCreator {
         .createClazzCommunication(firstTraceId, 15, 2100, helpersClazz, implClazz, application);
 
     // specify a second trace for the dummy landscape
-    final String secondTraceId = "2";
+    final long secondTraceId = 2;
 
     DummyLandscapeHelper
         .createClazzCommunication(secondTraceId, 1, 2500, implClazz, loggingClazz, application);
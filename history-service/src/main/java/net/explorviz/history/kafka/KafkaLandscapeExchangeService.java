@@ -1,17 +1,26 @@
 package net.explorviz.history.kafka;
 
 import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Properties;
 import javax.inject.Inject;
 import net.explorviz.history.repository.persistence.mongo.LandscapeSerializationHelper;
 import net.explorviz.history.repository.persistence.mongo.MongoLandscapeJsonApiRepository;
+import net.explorviz.landscape.model.helper.JsonApiLandscapeCodec;
+import net.explorviz.landscape.model.helper.LandscapeChunkAssembler;
+import net.explorviz.landscape.model.helper.LandscapeChunker;
+import net.explorviz.landscape.model.helper.LandscapeCodec;
+import net.explorviz.landscape.model.helper.LandscapeDeltaDecoder;
+import net.explorviz.landscape.model.helper.LandscapeDeltaEncoder;
 import net.explorviz.landscape.model.landscape.Landscape;
 import net.explorviz.shared.config.annotations.Config;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.header.Header;
 import org.jvnet.hk2.annotations.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,7 +37,11 @@ public class KafkaLandscapeExchangeService implements Runnable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(KafkaLandscapeExchangeService.class);
 
-  private final KafkaConsumer<String, String> kafkaConsumer;
+  private final KafkaConsumer<String, byte[]> kafkaConsumer;
+
+  private final LandscapeChunkAssembler chunkAssembler = new LandscapeChunkAssembler();
+
+  private final LandscapeDeltaDecoder deltaDecoder = new LandscapeDeltaDecoder();
 
   private final LandscapeSerializationHelper serializationHelper;
 
@@ -59,7 +72,7 @@ public class KafkaLandscapeExchangeService implements Runnable {
     properties.put("auto.commit.interval.ms", "1000");
     properties.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");// NOCS
     properties.put("value.deserializer",
-        "org.apache.kafka.common.serialization.StringDeserializer");
+        "org.apache.kafka.common.serialization.ByteArrayDeserializer");
 
     this.kafkaConsumer = new KafkaConsumer<>(properties);
   }
@@ -71,21 +84,40 @@ public class KafkaLandscapeExchangeService implements Runnable {
     this.kafkaConsumer.subscribe(Arrays.asList(this.kafkaTopic));
 
     while (true) {
-      final ConsumerRecords<String, String> records =
+      final ConsumerRecords<String, byte[]> records =
           this.kafkaConsumer.poll(Duration.ofMillis(100));
 
-      for (final ConsumerRecord<String, String> record : records) {
-
-        LOGGER.debug("Recevied landscape Kafka record: {}", record.value());
+      for (final ConsumerRecord<String, byte[]> record : records) {
 
-        final String serializedLandscape = record.value();
+        final byte[] value = this.chunkAssembler
+            .add(headerValue(record, LandscapeChunker.CHUNK_HEADER), record.value());
+        if (value == null) {
+          // further chunks of the landscape are required
+          continue;
+        }
 
+        final String codecName = headerValue(record, LandscapeCodec.CODEC_HEADER);
         Landscape l;
-        try {
-          l = this.serializationHelper.deserialize(serializedLandscape);
-        } catch (final DocumentSerializationException e) {
-          LOGGER.error("Could not deserialize landscape with value {}", serializedLandscape, e);
-          continue;
+
+        if (codecName == null || JsonApiLandscapeCodec.NAME.equals(codecName)) {
+          final String serializedLandscape = this.reconstruct(record, value);
+          if (serializedLandscape == null) {
+            continue;
+          }
+
+          LOGGER.debug("Recevied landscape Kafka record: {}", serializedLandscape);
+
+          try {
+            l = this.serializationHelper.deserialize(serializedLandscape);
+          } catch (final DocumentSerializationException e) {
+            LOGGER.error("Could not deserialize landscape with value {}", serializedLandscape, e);
+            continue;
+          }
+        } else {
+          l = this.decode(value, codecName);
+          if (l == null) {
+            continue;
+          }
         }
 
         this.mongoLandscapeRepo
@@ -95,4 +127,49 @@ public class KafkaLandscapeExchangeService implements Runnable {
 
   }
 
+  /**
+   * Reconstructs the complete landscape of a (reassembled) record, which may contain a delta to
+   * the previous record.
+   *
+   * @return the serialized landscape or null, if it could not be reconstructed
+   */
+  private String reconstruct(final ConsumerRecord<String, byte[]> record, final byte[] value) {
+    final String frameType = headerValue(record, LandscapeDeltaEncoder.FRAME_HEADER);
+    if (frameType == null) {
+      return new String(value, StandardCharsets.UTF_8);
+    }
+
+    try {
+      final byte[] landscape = this.deltaDecoder.decode(value, frameType);
+      if (landscape == null) {
+        LOGGER.debug("Skipping landscape delta until the next keyframe is received");
+        return null;
+      }
+      return new String(landscape, StandardCharsets.UTF_8);
+    } catch (final IOException e) {
+      LOGGER.error("Could not decode landscape delta", e);
+      return null;
+    }
+  }
+
+  /**
+   * Decodes a (reassembled) record, which is not encoded as json api.
+   *
+   * @return the landscape or null, if it could not be decoded
+   */
+  private Landscape decode(final byte[] value, final String codecName) {
+    try {
+      return this.serializationHelper.getCodec(codecName).decode(value);
+    } catch (final IOException | IllegalArgumentException e) {
+      LOGGER.error("Could not decode landscape with the {} codec", codecName, e);
+      return null;
+    }
+  }
+
+  private static String headerValue(final ConsumerRecord<String, byte[]> record,
+      final String name) {
+    final Header header = record.headers().lastHeader(name);
+    return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+  }
+
 }
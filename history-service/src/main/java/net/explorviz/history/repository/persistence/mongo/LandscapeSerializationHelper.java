@@ -3,8 +3,12 @@ package net.explorviz.history.repository.persistence.mongo;
 import com.github.jasminb.jsonapi.JSONAPIDocument;
 import com.github.jasminb.jsonapi.ResourceConverter;
 import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import java.io.IOException;
 import java.util.List;
 import javax.inject.Inject;
+import net.explorviz.landscape.model.helper.JsonApiLandscapeWriter;
+import net.explorviz.landscape.model.helper.LandscapeCodec;
+import net.explorviz.landscape.model.helper.LandscapeCodecs;
 import net.explorviz.landscape.model.landscape.Landscape;
 
 /**
@@ -14,10 +18,25 @@ import net.explorviz.landscape.model.landscape.Landscape;
 public class LandscapeSerializationHelper {
 
   private final ResourceConverter jsonApiConverter;
+  private final LandscapeCodecs codecs;
+  private final JsonApiLandscapeWriter writer = new JsonApiLandscapeWriter();
 
   @Inject
   public LandscapeSerializationHelper(final ResourceConverter jsonApiConverter) {
     this.jsonApiConverter = jsonApiConverter;
+    this.codecs = new LandscapeCodecs(jsonApiConverter);
+  }
+
+  /**
+   * Returns the codec of the landscape exchange with the passed name.
+   *
+   * @param name the name of the codec, e.g., the value of {@link LandscapeCodec#CODEC_HEADER}, or
+   *        null for the json api codec
+   * @return the codec
+   * @throws IllegalArgumentException if there is no codec with this name
+   */
+  public LandscapeCodec getCodec(final String name) {
+    return this.codecs.get(name);
   }
 
 
@@ -27,9 +46,12 @@ public class LandscapeSerializationHelper {
    * @throws DocumentSerializationException if the landscape could not be parsed.
    */
   public String serialize(final Landscape l) throws DocumentSerializationException {
-    final JSONAPIDocument<Landscape> landscapeDoc = new JSONAPIDocument<>(l);
-    final byte[] landscapeBytes = this.jsonApiConverter.writeDocument(landscapeDoc);
-    return new String(landscapeBytes);
+    // streams the document into the string without an intermediate byte array
+    try {
+      return this.writer.writeAsString(l);
+    } catch (final IOException e) {
+      throw new DocumentSerializationException(e);
+    }
   }
 
   /**
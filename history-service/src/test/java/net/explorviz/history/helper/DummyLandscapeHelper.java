@@ -223,7 +223,7 @@ public final class DummyLandscapeHelper {
    * @param targetClazz - targetClazz
    * @param application - parent application
    */
-  public static void createClazzCommunication(final String traceId, final int tracePosition,
+  public static void createClazzCommunication(final long traceId, final int tracePosition,
       final int requests, final Clazz sourceClazz, final Clazz targetClazz,
       final Application application) {
 
@@ -231,10 +231,7 @@ public final class DummyLandscapeHelper {
     final float overallTraceDuration = 0L + getRandomNum(1000, 10000);
     final String operationName = "getMethod" + getRandomNum(1, 50) + "()";
 
-    ModelHelper.addClazzCommunication(idGen.generateId(),
-        idGen.generateId(),
-        idGen.generateId(),
-        idGen.generateId(),
+    ModelHelper.addClazzCommunication(idGen::generateId,
         sourceClazz,
         targetClazz,
         application,
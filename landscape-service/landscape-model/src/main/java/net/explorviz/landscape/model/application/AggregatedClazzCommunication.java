@@ -9,6 +9,7 @@ import com.github.jasminb.jsonapi.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.LatencySketch;
 
 /**
  * Model representing unidirectional communication between classes (from sourceClazz to targetClazz)
@@ -32,6 +33,11 @@ public class AggregatedClazzCommunication extends BaseEntity {
 
   private float averageResponseTime;
 
+  // percentiles of the response times (in ns) of all clazzCommunications, see #aggregate
+  private float responseTimeP50;
+  private float responseTimeP95;
+  private float responseTimeP99;
+
   @JsonCreator
   public AggregatedClazzCommunication(@JsonProperty("id") final String id) {
     super(id);
@@ -77,22 +83,90 @@ public class AggregatedClazzCommunication extends BaseEntity {
     this.averageResponseTime = averageResponseTime;
   }
 
+  public float getResponseTimeP50() {
+    return this.responseTimeP50;
+  }
+
+  public void setResponseTimeP50(final float responseTimeP50) {
+    this.responseTimeP50 = responseTimeP50;
+  }
+
+  public float getResponseTimeP95() {
+    return this.responseTimeP95;
+  }
+
+  public void setResponseTimeP95(final float responseTimeP95) {
+    this.responseTimeP95 = responseTimeP95;
+  }
+
+  public float getResponseTimeP99() {
+    return this.responseTimeP99;
+  }
+
+  public void setResponseTimeP99(final float responseTimeP99) {
+    this.responseTimeP99 = responseTimeP99;
+  }
+
   // adds a clazzCommunication if sourceClazz and targetClazz matches
   public boolean addClazzCommunication(final ClazzCommunication clazzcommunication) {
 
     if (this.sourceClazz.equals(clazzcommunication.getSourceClazz())
         && this.targetClazz.equals(clazzcommunication.getTargetClazz())) {
-      this.setTotalRequests(this.getTotalRequests() + clazzcommunication.getTotalRequests());
       this.clazzCommunications.add(clazzcommunication);
+
+      // the clazzCommunication may receive further requests, which are folded in by #aggregate
+      final long requests = (long) this.totalRequests + clazzcommunication.getTotalRequests();
+      if (requests > 0) {
+        this.averageResponseTime = (float) (((double) this.averageResponseTime * this.totalRequests
+            + (double) clazzcommunication.getAverageResponseTime()
+                * clazzcommunication.getTotalRequests())
+            / requests);
+      }
+      this.totalRequests = (int) Math.min(Integer.MAX_VALUE, requests);
       return true;
     }
     return false;
   }
 
+  /**
+   * Updates the total requests and the (request-weighted) average response time from the current
+   * state of the clazzCommunications. If a sketch is passed, the percentiles are estimated by
+   * merging the response time sketches of the clazzCommunications into it.
+   *
+   * @param sketch - reusable sketch for the merge, is reset beforehand, or null to keep the
+   *        percentiles
+   */
+  public void aggregate(final LatencySketch sketch) {
+    long requests = 0;
+    double responseTimeSum = 0;
+    for (final ClazzCommunication commu : this.clazzCommunications) {
+      requests += commu.getTotalRequests();
+      responseTimeSum += (double) commu.getTotalRequests() * commu.getAverageResponseTime();
+    }
+
+    this.totalRequests = (int) Math.min(Integer.MAX_VALUE, requests);
+    this.averageResponseTime = requests == 0 ? 0 : (float) (responseTimeSum / requests);
+
+    if (sketch != null) {
+      sketch.reset();
+      for (final ClazzCommunication commu : this.clazzCommunications) {
+        if (commu.getResponseTimes() != null) {
+          sketch.merge(commu.getResponseTimes());
+        }
+      }
+      this.responseTimeP50 = (float) sketch.getQuantile(LatencySketch.P50);
+      this.responseTimeP95 = (float) sketch.getQuantile(LatencySketch.P95);
+      this.responseTimeP99 = (float) sketch.getQuantile(LatencySketch.P99);
+    }
+  }
+
   public void reset() {
     this.totalRequests = 0;
     this.clazzCommunications.clear();
     this.averageResponseTime = 0;
+    this.responseTimeP50 = 0;
+    this.responseTimeP95 = 0;
+    this.responseTimeP99 = 0;
   }
 
 }
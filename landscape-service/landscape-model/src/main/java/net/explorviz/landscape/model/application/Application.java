@@ -2,15 +2,21 @@ package net.explorviz.landscape.model.application;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
 import com.github.jasminb.jsonapi.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.CommunicationKey;
 import net.explorviz.landscape.model.helper.EProgrammingLanguage;
+import net.explorviz.landscape.model.helper.ListIndex;
+import net.explorviz.landscape.model.helper.LongListIndex;
 import net.explorviz.landscape.model.helper.ModelHelper;
+import net.explorviz.landscape.model.helper.RequestCounter;
 import net.explorviz.landscape.model.landscape.Node;
 
 /**
@@ -34,6 +40,10 @@ public class Application extends BaseEntity {
   @Relationship("databaseQueries")
   private List<DatabaseQuery> databaseQueries = new ArrayList<>();
 
+  // database queries by the fingerprint of their normalized statement, built on demand
+  @JsonIgnore
+  private transient LongListIndex<DatabaseQuery> databaseQueryIndex;
+
   @Relationship("applicationCommunications")
   private List<ApplicationCommunication> applicationCommunications = new ArrayList<>();
 
@@ -41,15 +51,43 @@ public class Application extends BaseEntity {
   @Relationship("aggregatedClazzCommunications")
   private List<AggregatedClazzCommunication> aggregatedClazzCommunications = new ArrayList<>();
 
+  // (source clazz, target clazz) of the aggregatedClazzCommunications, built on demand
+  @JsonIgnore
+  private transient ListIndex<CommunicationKey, AggregatedClazzCommunication>
+      aggregatedClazzCommunicationIndex;
+
   // all tracaes within an application
   @Relationship("traces")
   private List<Trace> traces = new ArrayList<>();
 
+  // traces by their numeric trace id, built on demand from the traces above
+  @JsonIgnore
+  private transient LongListIndex<Trace> traceIndex;
+
+  // requests of this application and its children in the current period
+  @JsonIgnore
+  private final transient RequestCounter requestCounter = new RequestCounter();
+
+  // requests of this application and its children in the last closed period
+  private long totalRequests;
+
   @JsonCreator
   public Application(@JsonProperty("id") final String id) {
     super(id);
   }
 
+  public RequestCounter requestCounter() {
+    return this.requestCounter;
+  }
+
+  public long getTotalRequests() {
+    return this.totalRequests;
+  }
+
+  public void setTotalRequests(final long totalRequests) {
+    this.totalRequests = totalRequests;
+  }
+
   public String getName() {
     return this.name;
   }
@@ -98,6 +136,38 @@ public class Application extends BaseEntity {
     return this.databaseQueries;
   }
 
+  /**
+   * Returns the database query, which aggregates the statements with the passed fingerprint, or
+   * creates it, unless the application already contains the maximum number of queries.
+   *
+   * @param potentialNewQueryId - supplier of the entity id, only requested if the query is created
+   * @param fingerprint - fingerprint of the normalized statement
+   * @param maxDatabaseQueries - maximum number of queries of this application
+   * @return the query or null, if the query does not exist and the maximum is reached
+   */
+  public DatabaseQuery seekOrCreateDatabaseQuery(final Supplier<String> potentialNewQueryId,
+      final long fingerprint, final int maxDatabaseQueries) {
+    if (this.databaseQueryIndex == null) {
+      // queries without fingerprint are never looked up
+      this.databaseQueryIndex =
+          new LongListIndex<>(query -> query.getFingerprint() != 0, DatabaseQuery::getFingerprint);
+    }
+
+    DatabaseQuery query = this.databaseQueryIndex.get(this.databaseQueries, fingerprint);
+
+    if (query == null) {
+      if (this.databaseQueries.size() >= maxDatabaseQueries) {
+        return null;
+      }
+      query = new DatabaseQuery(potentialNewQueryId.get());
+      query.setFingerprint(fingerprint);
+      query.setParentApplication(this);
+      this.databaseQueryIndex.add(this.databaseQueries, fingerprint, query);
+    }
+
+    return query;
+  }
+
   public List<ApplicationCommunication> getApplicationCommunications() {
     return this.applicationCommunications;
   }
@@ -116,6 +186,20 @@ public class Application extends BaseEntity {
     this.aggregatedClazzCommunications = aggregatedClazzCommunications;
   }
 
+  /**
+   * Returns the index of the aggregatedClazzCommunications by source and target clazz.
+   *
+   * @return the index, which is kept in sync with {@link #getAggregatedClazzCommunications()}
+   */
+  public ListIndex<CommunicationKey, AggregatedClazzCommunication>
+      aggregatedClazzCommunicationIndex() {
+    if (this.aggregatedClazzCommunicationIndex == null) {
+      this.aggregatedClazzCommunicationIndex = new ListIndex<>(
+          commu -> new CommunicationKey(commu.getSourceClazz(), commu.getTargetClazz(), null));
+    }
+    return this.aggregatedClazzCommunicationIndex;
+  }
+
   public List<Trace> getTraces() {
     return this.traces;
   }
@@ -124,6 +208,41 @@ public class Application extends BaseEntity {
     this.traces = traces;
   }
 
+  /**
+   * Returns the trace with the passed numeric trace id or creates it, if it does not exist yet. The
+   * lookup is a primitive hash lookup, the trace id is only formatted for new traces.
+   *
+   * @param potentialNewTraceId - supplier of the entity id, only requested if the trace is created
+   * @param traceId - the trace id of the monitoring records
+   * @return the trace
+   */
+  public Trace seekOrCreateTrace(final Supplier<String> potentialNewTraceId,
+      final long traceId) {
+    if (this.traceIndex == null) {
+      this.traceIndex = new LongListIndex<>(Application::hasNumericTraceId,
+          trace -> Long.parseLong(trace.getTraceId()));
+    }
+
+    Trace trace = this.traceIndex.get(this.traces, traceId);
+
+    if (trace == null) {
+      trace = new Trace(potentialNewTraceId.get(), Long.toString(traceId));
+      this.traceIndex.add(this.traces, traceId, trace);
+    }
+
+    return trace;
+  }
+
+  // traces, which were not created from monitoring records, are never looked up
+  private static boolean hasNumericTraceId(final Trace trace) {
+    try {
+      Long.parseLong(trace.getTraceId());
+      return true;
+    } catch (final NumberFormatException e) {
+      return false;
+    }
+  }
+
   /**
    * Clears all existings communication from (landscape-perspective) and within the application
    * (application-perspective).
@@ -148,9 +267,15 @@ public class Application extends BaseEntity {
 
     // clear traces
     this.getTraces().clear();
+    if (this.traceIndex != null) {
+      this.traceIndex.clear();
+    }
 
     // clears database queries
     this.getDatabaseQueries().clear();
+    if (this.databaseQueryIndex != null) {
+      this.databaseQueryIndex.clear();
+    }
   }
 
 }
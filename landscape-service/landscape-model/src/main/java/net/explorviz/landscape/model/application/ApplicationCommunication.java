@@ -2,11 +2,13 @@ package net.explorviz.landscape.model.application;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
 import com.github.jasminb.jsonapi.annotations.Type;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.LatencySketch;
 
 /**
  * Model representing communication between two {@link Application}.
@@ -20,6 +22,14 @@ public class ApplicationCommunication extends BaseEntity {
   private String technology;
   private float averageResponseTime;
 
+  // percentiles of the response times (in ns) of the current period
+  private float responseTimeP50;
+  private float responseTimeP95;
+  private float responseTimeP99;
+
+  @JsonIgnore
+  private transient LatencySketch responseTimes;
+
   @Relationship("sourceApplication")
   private Application sourceApplication;
 
@@ -93,9 +103,67 @@ public class ApplicationCommunication extends BaseEntity {
     this.targetClazz = targetClazz;
   }
 
+  /**
+   * Records calls of this communication, i.e., adds them to the response time sketch of the current
+   * period and updates the average response time.
+   *
+   * @param requests - amount of observed calls
+   * @param averageResponseTime - average response time of the calls in ns
+   */
+  public void recordResponseTime(final int requests, final double averageResponseTime) {
+    if (this.responseTimes == null) {
+      this.responseTimes = new LatencySketch();
+    }
+    this.responseTimes.record(averageResponseTime, requests);
+    this.averageResponseTime = (float) this.responseTimes.getMean();
+  }
+
+  /**
+   * Returns the response time sketch of the current period.
+   *
+   * @return the sketch or null, if no response times were recorded by this instance, e.g., for a
+   *         copy of the communication
+   */
+  @JsonIgnore
+  public LatencySketch getResponseTimes() {
+    return this.responseTimes;
+  }
+
+  // the percentiles are estimated by the sketch, if present, and set explicitly for copies
+
+  public float getResponseTimeP50() {
+    return this.responseTimes == null ? this.responseTimeP50
+        : (float) this.responseTimes.getQuantile(LatencySketch.P50);
+  }
+
+  public void setResponseTimeP50(final float responseTimeP50) {
+    this.responseTimeP50 = responseTimeP50;
+  }
+
+  public float getResponseTimeP95() {
+    return this.responseTimes == null ? this.responseTimeP95
+        : (float) this.responseTimes.getQuantile(LatencySketch.P95);
+  }
+
+  public void setResponseTimeP95(final float responseTimeP95) {
+    this.responseTimeP95 = responseTimeP95;
+  }
+
+  public float getResponseTimeP99() {
+    return this.responseTimes == null ? this.responseTimeP99
+        : (float) this.responseTimes.getQuantile(LatencySketch.P99);
+  }
+
+  public void setResponseTimeP99(final float responseTimeP99) {
+    this.responseTimeP99 = responseTimeP99;
+  }
+
   public void reset() {
     this.requests = 0;
     this.averageResponseTime = 0;
+    if (this.responseTimes != null) {
+      this.responseTimes.reset();
+    }
   }
 
 }
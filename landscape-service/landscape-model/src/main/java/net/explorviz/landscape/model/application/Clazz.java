@@ -2,6 +2,7 @@ package net.explorviz.landscape.model.application;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
@@ -9,6 +10,8 @@ import com.github.jasminb.jsonapi.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.CommunicationKey;
+import net.explorviz.landscape.model.helper.ListIndex;
 
 /**
  * Model representing a single class (instance during runtime within a single application).
@@ -28,6 +31,14 @@ public class Clazz extends BaseEntity {
   @Relationship("clazzCommunications")
   private List<ClazzCommunication> clazzCommunications = new ArrayList<>();
 
+  // (target clazz, operation) of the clazzCommunications, built on demand
+  @JsonIgnore
+  private transient ListIndex<CommunicationKey, ClazzCommunication> clazzCommunicationIndex;
+
+  // end of the last period, in which the clazz was used, for the idle eviction of the repository
+  @JsonIgnore
+  private transient long lastUsage;
+
   @JsonCreator
   public Clazz(@JsonProperty("id") final String id) {
     super(id);
@@ -49,6 +60,15 @@ public class Clazz extends BaseEntity {
     this.fullQualifiedName = name;
   }
 
+  @JsonIgnore
+  public long getLastUsage() {
+    return this.lastUsage;
+  }
+
+  public void setLastUsage(final long lastUsage) {
+    this.lastUsage = lastUsage;
+  }
+
   public Component getParent() {
     return this.parent;
   }
@@ -65,6 +85,19 @@ public class Clazz extends BaseEntity {
     this.clazzCommunications = clazzCommunications;
   }
 
+  /**
+   * Returns the index of the outgoing clazzCommunications by target clazz and operation name.
+   *
+   * @return the index, which is kept in sync with {@link #getClazzCommunications()}
+   */
+  public ListIndex<CommunicationKey, ClazzCommunication> clazzCommunicationIndex() {
+    if (this.clazzCommunicationIndex == null) {
+      this.clazzCommunicationIndex = new ListIndex<>(commu -> new CommunicationKey(
+          commu.getSourceClazz(), commu.getTargetClazz(), commu.getOperationName()));
+    }
+    return this.clazzCommunicationIndex;
+  }
+
   public void setInstanceCount(final int instanceCount) {
     this.instanceCount = instanceCount;
   }
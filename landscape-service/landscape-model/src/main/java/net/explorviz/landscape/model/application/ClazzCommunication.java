@@ -2,13 +2,16 @@ package net.explorviz.landscape.model.application;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
 import com.github.jasminb.jsonapi.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.LatencySketch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +43,14 @@ public class ClazzCommunication extends BaseEntity {
   // average response time (for all involved related tracesteps)
   private float averageResponseTime = 0;
 
+  // percentiles of the response times (in ns) of the current period
+  private float responseTimeP50;
+  private float responseTimeP95;
+  private float responseTimeP99;
+
+  @JsonIgnore
+  private transient LatencySketch responseTimes;
+
   @JsonCreator
   public ClazzCommunication(@JsonProperty("id") final String id) {
     super(id);
@@ -77,33 +88,27 @@ public class ClazzCommunication extends BaseEntity {
     this.traceSteps = traceSteps;
   }
 
-  // returns a trace for a given traceId or creates a new one
-  public Trace seekOrCreateTraceByTraceId(final String potentialNewTraceId,
-      final Application application, final String traceId) {
-    final List<Trace> traces = application.getTraces();
-
-    for (final Trace trace : traces) {
-      if (trace.getTraceId().equals(traceId)) {
-        return trace;
-      }
-    }
-    // create a new trace and refer it
-    final Trace newTrace = new Trace(potentialNewTraceId, traceId);
-    application.getTraces().add(newTrace);
-
-    return newTrace;
-  }
-
-  // checks if a trace is existing and if not creates one and adds the runtime information
-  public void addTraceStep(final String potentialNewTraceId, final String traceStepId,
-      final Application application, final String traceId, final int tracePosition,
-      final int requests, final float averageResponseTime, final float currentTraceDuration) {
-
-    final Trace trace = this.seekOrCreateTraceByTraceId(potentialNewTraceId, application, traceId);
-    final TraceStep newTraceStep = trace.addTraceStep(traceStepId, tracePosition, requests,
+  /**
+   * Adds the runtime information to the trace with the passed numeric trace id, which is looked up
+   * in the trace index of the application. The ids of the trace (if it is created) and the trace
+   * step are requested from the passed supplier.
+   *
+   * @param ids - supplier of the entity ids
+   * @param application - the application containing the trace
+   * @param traceId - the trace id of the monitoring records
+   * @param tracePosition - position within the trace
+   * @param requests - amount of observed calls
+   * @param averageResponseTime - average response time in ns
+   * @param currentTraceDuration - in ns
+   */
+  public void addTraceStep(final Supplier<String> ids, final Application application,
+      final long traceId, final int tracePosition, final int requests,
+      final float averageResponseTime, final float currentTraceDuration) {
+
+    final Trace trace = application.seekOrCreateTrace(ids, traceId);
+    final TraceStep newTraceStep = trace.addTraceStep(ids.get(), tracePosition, requests,
         averageResponseTime, currentTraceDuration, this);
 
-    // reference the new trace for the application for easy access
     this.getTraceSteps().add(newTraceStep);
   }
 
@@ -123,9 +128,67 @@ public class ClazzCommunication extends BaseEntity {
     this.averageResponseTime = averageRepsonseTime;
   }
 
+  /**
+   * Records calls of this communication, i.e., adds them to the response time sketch of the current
+   * period and updates the average response time.
+   *
+   * @param requests - amount of observed calls
+   * @param averageResponseTime - average response time of the calls in ns
+   */
+  public void recordResponseTime(final int requests, final double averageResponseTime) {
+    if (this.responseTimes == null) {
+      this.responseTimes = new LatencySketch();
+    }
+    this.responseTimes.record(averageResponseTime, requests);
+    this.averageResponseTime = (float) this.responseTimes.getMean();
+  }
+
+  /**
+   * Returns the response time sketch of the current period.
+   *
+   * @return the sketch or null, if no response times were recorded by this instance, e.g., for a
+   *         copy of the communication
+   */
+  @JsonIgnore
+  public LatencySketch getResponseTimes() {
+    return this.responseTimes;
+  }
+
+  // the percentiles are estimated by the sketch, if present, and set explicitly for copies
+
+  public float getResponseTimeP50() {
+    return this.responseTimes == null ? this.responseTimeP50
+        : (float) this.responseTimes.getQuantile(LatencySketch.P50);
+  }
+
+  public void setResponseTimeP50(final float responseTimeP50) {
+    this.responseTimeP50 = responseTimeP50;
+  }
+
+  public float getResponseTimeP95() {
+    return this.responseTimes == null ? this.responseTimeP95
+        : (float) this.responseTimes.getQuantile(LatencySketch.P95);
+  }
+
+  public void setResponseTimeP95(final float responseTimeP95) {
+    this.responseTimeP95 = responseTimeP95;
+  }
+
+  public float getResponseTimeP99() {
+    return this.responseTimes == null ? this.responseTimeP99
+        : (float) this.responseTimes.getQuantile(LatencySketch.P99);
+  }
+
+  public void setResponseTimeP99(final float responseTimeP99) {
+    this.responseTimeP99 = responseTimeP99;
+  }
+
   public void reset() {
     this.totalRequests = 0;
     this.averageResponseTime = 0;
+    if (this.responseTimes != null) {
+      this.responseTimes.reset();
+    }
 
   }
 
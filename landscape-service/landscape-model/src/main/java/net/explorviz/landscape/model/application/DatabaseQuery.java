@@ -2,20 +2,28 @@ package net.explorviz.landscape.model.application;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
 import com.github.jasminb.jsonapi.annotations.Type;
+import java.util.ArrayList;
+import java.util.List;
 import net.explorviz.landscape.model.helper.BaseEntity;
 
 /**
- * Model representing executed database queries.
+ * Model representing executed database queries. A query aggregates all executions of statements
+ * with the same normalized SQL within a period, i.e., statements which only differ in their
+ * literals. The response time is the average of the aggregated executions.
  */
 @SuppressWarnings("serial")
 @Type("databasequery")
 @JsonIdentityInfo(generator = ObjectIdGenerators.StringIdGenerator.class, property = "super.id")
 public class DatabaseQuery extends BaseEntity {
 
+  // number of distinct return values retained per query
+  public static final int MAX_RETURN_VALUES = 5;
+
   private long timestamp;
   // at the moment: Statement or PreparedStatement
   private String statementType;
@@ -23,6 +31,18 @@ public class DatabaseQuery extends BaseEntity {
   private String returnValue;
   private long responseTime;
 
+  // aggregated executions and their response times
+  private int count;
+  private long totalResponseTime;
+  private long minResponseTime;
+  private long maxResponseTime;
+  // the first distinct return values of the aggregated executions
+  private List<String> returnValues = new ArrayList<>();
+
+  // fingerprint of the normalized statement, only known for queries created by the insertion
+  @JsonIgnore
+  private transient long fingerprint;
+
   @Relationship("parentApplication")
   private Application parentApplication;
 
@@ -71,6 +91,79 @@ public class DatabaseQuery extends BaseEntity {
     this.responseTime = responseTime;
   }
 
+  public int getCount() {
+    return this.count;
+  }
+
+  public void setCount(final int count) {
+    this.count = count;
+  }
+
+  public long getTotalResponseTime() {
+    return this.totalResponseTime;
+  }
+
+  public void setTotalResponseTime(final long totalResponseTime) {
+    this.totalResponseTime = totalResponseTime;
+  }
+
+  public long getMinResponseTime() {
+    return this.minResponseTime;
+  }
+
+  public void setMinResponseTime(final long minResponseTime) {
+    this.minResponseTime = minResponseTime;
+  }
+
+  public long getMaxResponseTime() {
+    return this.maxResponseTime;
+  }
+
+  public void setMaxResponseTime(final long maxResponseTime) {
+    this.maxResponseTime = maxResponseTime;
+  }
+
+  public List<String> getReturnValues() {
+    return this.returnValues;
+  }
+
+  public void setReturnValues(final List<String> returnValues) {
+    this.returnValues = returnValues;
+  }
+
+  long getFingerprint() {
+    return this.fingerprint;
+  }
+
+  void setFingerprint(final long fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Aggregates a completed execution of the statement.
+   *
+   * @param executionResponseTime - response time of the execution in ns
+   * @param executionReturnValue - formatted return value of the execution
+   */
+  public void addExecution(final long executionResponseTime, final String executionReturnValue) {
+    if (this.count == 0) {
+      this.minResponseTime = executionResponseTime;
+      this.maxResponseTime = executionResponseTime;
+    } else {
+      this.minResponseTime = Math.min(this.minResponseTime, executionResponseTime);
+      this.maxResponseTime = Math.max(this.maxResponseTime, executionResponseTime);
+    }
+    this.count++;
+    this.totalResponseTime += executionResponseTime;
+    this.responseTime = this.totalResponseTime / this.count;
+
+    this.returnValue = executionReturnValue;
+    if (executionReturnValue != null && this.returnValues.size() < MAX_RETURN_VALUES
+        && !this.returnValues.contains(executionReturnValue)) {
+      this.returnValues.add(executionReturnValue);
+    }
+  }
+
   public Application getParentApplication() {
     return this.parentApplication;
   }
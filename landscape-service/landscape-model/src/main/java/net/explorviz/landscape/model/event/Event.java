@@ -22,6 +22,11 @@ public class Event extends BaseEntity {
 
   private String eventMessage;
 
+  // aggregated occurrences of the event, the timestamp denotes the first occurrence
+  private int occurrences = 1;
+
+  private long lastOccurrenceTimestamp;
+
   @JsonCreator
   public Event(@JsonProperty("id") final String id, @JsonProperty("timestamp") final long timestamp,
       @JsonProperty("eventType") final EEventType eventType,
@@ -30,6 +35,7 @@ public class Event extends BaseEntity {
     this.timestamp = timestamp;
     this.eventType = eventType;
     this.eventMessage = eventMessage;
+    this.lastOccurrenceTimestamp = timestamp;
   }
 
   public long getTimestamp() {
@@ -56,4 +62,30 @@ public class Event extends BaseEntity {
     this.eventMessage = eventMessage;
   }
 
+  public int getOccurrences() {
+    return this.occurrences;
+  }
+
+  public void setOccurrences(final int occurrences) {
+    this.occurrences = occurrences;
+  }
+
+  public long getLastOccurrenceTimestamp() {
+    return this.lastOccurrenceTimestamp;
+  }
+
+  public void setLastOccurrenceTimestamp(final long lastOccurrenceTimestamp) {
+    this.lastOccurrenceTimestamp = lastOccurrenceTimestamp;
+  }
+
+  /**
+   * Records a further occurrence of this event.
+   *
+   * @param occurrenceTimestamp - time of the occurrence in milliseconds
+   */
+  public void addOccurrence(final long occurrenceTimestamp) {
+    this.occurrences++;
+    this.lastOccurrenceTimestamp = Math.max(this.lastOccurrenceTimestamp, occurrenceTimestamp);
+  }
+
 }
@@ -0,0 +1,70 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.List;
+
+/**
+ * Index over the elements of a list, which is part of the serialized model. The list stays the
+ * single source of truth: elements appended to the list are indexed on the next access and a
+ * replaced or shrunk list is indexed anew. If several elements share a key, the first one wins,
+ * like a linear search through the list would return.
+ *
+ * @param <V> type of the indexed elements
+ */
+public abstract class AbstractListIndex<V> {
+
+  private List<V> indexedList;
+  private int indexedSize;
+
+  /**
+   * Indexes the passed element, unless the index already contains an element with its key.
+   *
+   * @param element - the element
+   */
+  protected abstract void index(V element);
+
+  /**
+   * Removes all elements from the index.
+   */
+  protected abstract void clearIndex();
+
+  /**
+   * Indexes the elements, which were appended to the passed list since the last call, or all of
+   * them, if the list was replaced or shrunk.
+   *
+   * @param list - the indexed list
+   */
+  protected final void synchronize(final List<V> list) {
+    if (list != this.indexedList || list.size() < this.indexedSize) {
+      this.clearIndex();
+      this.indexedList = list;
+      this.indexedSize = 0;
+    }
+
+    while (this.indexedSize < list.size()) {
+      this.index(list.get(this.indexedSize));
+      this.indexedSize++;
+    }
+  }
+
+  /**
+   * Appends the passed element to the synchronized list without indexing it, i.e., the caller
+   * indexes the element with its known key.
+   *
+   * @param list - the indexed list
+   * @param element - the new element
+   */
+  protected final void append(final List<V> list, final V element) {
+    this.synchronize(list);
+    list.add(element);
+    this.indexedSize++;
+  }
+
+  /**
+   * Forgets all indexed elements, e.g., after the list was cleared.
+   */
+  public void clear() {
+    this.clearIndex();
+    this.indexedSize = 0;
+  }
+
+}
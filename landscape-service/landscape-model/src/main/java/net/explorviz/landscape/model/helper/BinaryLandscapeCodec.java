@@ -0,0 +1,859 @@
+package net.explorviz.landscape.model.helper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.ClazzCommunication;
+import net.explorviz.landscape.model.application.Component;
+import net.explorviz.landscape.model.application.DatabaseQuery;
+import net.explorviz.landscape.model.application.Trace;
+import net.explorviz.landscape.model.application.TraceStep;
+import net.explorviz.landscape.model.event.EEventType;
+import net.explorviz.landscape.model.event.Event;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import net.explorviz.landscape.model.store.Timestamp;
+
+/**
+ * Compact binary encoding of a landscape, which preserves the whole entity graph like the
+ * {@link LandscapeCloner}. Every entity is encoded exactly once and referenced by its position in
+ * the encoding, integral numbers are encoded as (zig-zag) varints and strings are encoded once and
+ * referenced afterwards.
+ *
+ * <p>
+ * The encoding starts with the magic number and version, followed by the number of entities, the
+ * attributes of all entities and, in the same order, their relationships. Extension attributes are
+ * supported for strings, numbers and booleans only.
+ * </p>
+ */
+public final class BinaryLandscapeCodec implements LandscapeCodec { // NOPMD
+
+  public static final String NAME = "binary";
+
+  private static final int MAGIC = 0x45564C53; // EVLS
+  private static final int VERSION = 4;
+
+  private static final int LANDSCAPE = 1;
+  private static final int SYSTEM = 2;
+  private static final int NODE_GROUP = 3;
+  private static final int NODE = 4;
+  private static final int APPLICATION = 5;
+  private static final int COMPONENT = 6;
+  private static final int CLAZZ = 7;
+  private static final int CLAZZ_COMMUNICATION = 8;
+  private static final int AGGREGATED_CLAZZ_COMMUNICATION = 9;
+  private static final int APPLICATION_COMMUNICATION = 10;
+  private static final int TRACE = 11;
+  private static final int TRACE_STEP = 12;
+  private static final int DATABASE_QUERY = 13;
+  private static final int EVENT = 14;
+  private static final int TIMESTAMP = 15;
+
+  private static final int NULL_VALUE = 0;
+  private static final int STRING_VALUE = 1;
+  private static final int INTEGER_VALUE = 2;
+  private static final int LONG_VALUE = 3;
+  private static final int FLOAT_VALUE = 4;
+  private static final int DOUBLE_VALUE = 5;
+  private static final int BOOLEAN_VALUE = 6;
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte[] encode(final Landscape landscape) throws IOException {
+    return new Encoder().encode(landscape);
+  }
+
+  @Override
+  public Landscape decode(final byte[] encoded) throws IOException {
+    return new Decoder(encoded).decode();
+  }
+
+  /**
+   * Byte buffer with varint encoding.
+   */
+  private static final class Output extends ByteArrayOutputStream {
+
+    Output(final int size) {
+      super(size);
+    }
+
+    void writeVarint(final long value) {
+      long remaining = value;
+      while ((remaining & ~0x7FL) != 0) {
+        this.write((int) (remaining & 0x7F | 0x80));
+        remaining >>>= 7;
+      }
+      this.write((int) remaining);
+    }
+
+    void writeSigned(final long value) {
+      this.writeVarint(value << 1 ^ value >> 63);
+    }
+
+    void writeFixed(final long value, final int bytes) {
+      for (int i = 0; i < bytes; i++) {
+        this.write((int) (value >>> 8 * i));
+      }
+    }
+
+    void writeFloat(final float value) {
+      this.writeFixed(Float.floatToIntBits(value), 4);
+    }
+
+    void writeDouble(final double value) {
+      this.writeFixed(Double.doubleToLongBits(value), 8);
+    }
+
+    void writeTo(final Output target) {
+      target.write(this.buf, 0, this.count);
+    }
+  }
+
+  /**
+   * Encodes a single landscape. Entities are numbered in the order of their discovery, hence the
+   * relationships can be written along with the attributes.
+   */
+  private static final class Encoder { // NOPMD
+
+    private static final int INITIAL_SIZE = 4096;
+    // magic number, version and number of entities
+    private static final int HEADER_SIZE = 16;
+
+    private final Map<BaseEntity, Integer> references = new IdentityHashMap<>();
+    private final Deque<BaseEntity> pending = new ArrayDeque<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private final Output attributes = new Output(INITIAL_SIZE);
+    private final Output relationships = new Output(INITIAL_SIZE);
+
+    byte[] encode(final Landscape landscape) throws IOException {
+      this.reference(landscape);
+
+      while (!this.pending.isEmpty()) {
+        final BaseEntity next = this.pending.poll();
+        this.writeAttributes(next);
+        this.writeRelationships(next);
+      }
+
+      final Output output =
+          new Output(HEADER_SIZE + this.attributes.size() + this.relationships.size());
+      output.writeFixed(MAGIC, 4);
+      output.writeVarint(VERSION);
+      output.writeVarint(this.references.size());
+      this.attributes.writeTo(output);
+      this.relationships.writeTo(output);
+      return output.toByteArray();
+    }
+
+    private int reference(final BaseEntity entity) {
+      Integer reference = this.references.get(entity);
+      if (reference == null) {
+        reference = this.references.size();
+        this.references.put(entity, reference);
+        this.pending.add(entity);
+      }
+      return reference;
+    }
+
+    private void writeReference(final BaseEntity entity) {
+      this.relationships.writeVarint(entity == null ? 0 : this.reference(entity) + 1L);
+    }
+
+    private void writeReferences(final List<? extends BaseEntity> entities) {
+      if (entities == null) {
+        this.relationships.writeVarint(0);
+        return;
+      }
+
+      this.relationships.writeVarint(entities.size() + 1L);
+      for (final BaseEntity entity : entities) {
+        this.writeReference(entity);
+      }
+    }
+
+    private void writeString(final String value) {
+      if (value == null) {
+        this.attributes.writeVarint(0);
+        return;
+      }
+
+      final Integer index = this.strings.get(value);
+      if (index == null) {
+        this.strings.put(value, this.strings.size());
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        this.attributes.writeVarint(1);
+        this.attributes.writeVarint(bytes.length);
+        this.attributes.write(bytes, 0, bytes.length);
+      } else {
+        this.attributes.writeVarint(index + 2L);
+      }
+    }
+
+    private void writeEnum(final Enum<?> value) {
+      this.writeString(value == null ? null : value.name());
+    }
+
+    private void writeExtensionAttributes(final Map<String, Object> extensionAttributes)
+        throws IOException {
+      this.attributes.writeVarint(extensionAttributes.size());
+
+      for (final Map.Entry<String, Object> entry : extensionAttributes.entrySet()) {
+        this.writeString(entry.getKey());
+
+        final Object value = entry.getValue();
+        if (value == null) {
+          this.attributes.writeVarint(NULL_VALUE);
+        } else if (value instanceof String) {
+          this.attributes.writeVarint(STRING_VALUE);
+          this.writeString((String) value);
+        } else if (value instanceof Integer) {
+          this.attributes.writeVarint(INTEGER_VALUE);
+          this.attributes.writeSigned((Integer) value);
+        } else if (value instanceof Long) {
+          this.attributes.writeVarint(LONG_VALUE);
+          this.attributes.writeSigned((Long) value);
+        } else if (value instanceof Float) {
+          this.attributes.writeVarint(FLOAT_VALUE);
+          this.attributes.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+          this.attributes.writeVarint(DOUBLE_VALUE);
+          this.attributes.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+          this.attributes.writeVarint(BOOLEAN_VALUE);
+          this.attributes.writeVarint((Boolean) value ? 1 : 0);
+        } else {
+          throw new IOException("Unsupported extension attribute " + entry.getKey() + " of type "
+              + value.getClass().getName());
+        }
+      }
+    }
+
+    private void writeAttributes(final BaseEntity entity) throws IOException { // NOPMD
+      final Output out = this.attributes;
+
+      if (entity instanceof Landscape) {
+        out.writeVarint(LANDSCAPE);
+        this.writeString(entity.getId());
+      } else if (entity instanceof System) {
+        final System system = (System) entity;
+        out.writeVarint(SYSTEM);
+        this.writeString(system.getId());
+        this.writeString(system.getName());
+        out.writeSigned(system.getTotalRequests());
+      } else if (entity instanceof NodeGroup) {
+        final NodeGroup nodeGroup = (NodeGroup) entity;
+        out.writeVarint(NODE_GROUP);
+        this.writeString(nodeGroup.getId());
+        this.writeString(nodeGroup.getName());
+      } else if (entity instanceof Node) {
+        final Node node = (Node) entity;
+        out.writeVarint(NODE);
+        this.writeString(node.getId());
+        this.writeString(node.getName());
+        this.writeString(node.getIpAddress());
+        out.writeDouble(node.getCpuUtilization());
+        out.writeSigned(node.getFreeRAM());
+        out.writeSigned(node.getUsedRAM());
+        out.writeSigned(node.getUtilizationSamples());
+        out.writeDouble(node.getMinCpuUtilization());
+        out.writeDouble(node.getMaxCpuUtilization());
+        out.writeDouble(node.getAverageCpuUtilization());
+        out.writeSigned(node.getMinUsedRAM());
+        out.writeSigned(node.getMaxUsedRAM());
+        out.writeSigned(node.getAverageUsedRAM());
+        out.writeSigned(node.getTotalRequests());
+      } else if (entity instanceof Application) {
+        final Application application = (Application) entity;
+        out.writeVarint(APPLICATION);
+        this.writeString(application.getId());
+        this.writeString(application.getName());
+        this.writeEnum(application.getProgrammingLanguage());
+        out.writeSigned(application.getLastUsage());
+        out.writeSigned(application.getTotalRequests());
+      } else if (entity instanceof Component) {
+        final Component component = (Component) entity;
+        out.writeVarint(COMPONENT);
+        this.writeString(component.getId());
+        this.writeString(component.getName());
+        this.writeString(component.getFullQualifiedName());
+      } else if (entity instanceof Clazz) {
+        final Clazz clazz = (Clazz) entity;
+        out.writeVarint(CLAZZ);
+        this.writeString(clazz.getId());
+        this.writeString(clazz.getName());
+        this.writeString(clazz.getFullQualifiedName());
+        out.writeSigned(clazz.getInstanceCount());
+      } else if (entity instanceof ClazzCommunication) {
+        final ClazzCommunication commu = (ClazzCommunication) entity;
+        out.writeVarint(CLAZZ_COMMUNICATION);
+        this.writeString(commu.getId());
+        this.writeString(commu.getOperationName());
+        out.writeSigned(commu.getTotalRequests());
+        out.writeFloat(commu.getAverageResponseTime());
+        out.writeFloat(commu.getResponseTimeP50());
+        out.writeFloat(commu.getResponseTimeP95());
+        out.writeFloat(commu.getResponseTimeP99());
+      } else if (entity instanceof AggregatedClazzCommunication) {
+        final AggregatedClazzCommunication commu = (AggregatedClazzCommunication) entity;
+        out.writeVarint(AGGREGATED_CLAZZ_COMMUNICATION);
+        this.writeString(commu.getId());
+        out.writeSigned(commu.getTotalRequests());
+        out.writeFloat(commu.getAverageResponseTime());
+        out.writeFloat(commu.getResponseTimeP50());
+        out.writeFloat(commu.getResponseTimeP95());
+        out.writeFloat(commu.getResponseTimeP99());
+      } else if (entity instanceof ApplicationCommunication) {
+        final ApplicationCommunication commu = (ApplicationCommunication) entity;
+        out.writeVarint(APPLICATION_COMMUNICATION);
+        this.writeString(commu.getId());
+        out.writeSigned(commu.getRequests());
+        this.writeString(commu.getTechnology());
+        out.writeFloat(commu.getAverageResponseTime());
+        out.writeFloat(commu.getResponseTimeP50());
+        out.writeFloat(commu.getResponseTimeP95());
+        out.writeFloat(commu.getResponseTimeP99());
+      } else if (entity instanceof Trace) {
+        final Trace trace = (Trace) entity;
+        out.writeVarint(TRACE);
+        this.writeString(trace.getId());
+        this.writeString(trace.getTraceId());
+        out.writeSigned(trace.getTotalRequests());
+        out.writeFloat(trace.getTotalTraceDuration());
+        out.writeFloat(trace.getAverageResponseTime());
+      } else if (entity instanceof TraceStep) {
+        final TraceStep traceStep = (TraceStep) entity;
+        out.writeVarint(TRACE_STEP);
+        this.writeString(traceStep.getId());
+        out.writeSigned(traceStep.getTracePosition());
+        out.writeSigned(traceStep.getRequests());
+        out.writeFloat(traceStep.getAverageResponseTime());
+        out.writeFloat(traceStep.getCurrentTraceDuration());
+      } else if (entity instanceof DatabaseQuery) {
+        final DatabaseQuery query = (DatabaseQuery) entity;
+        out.writeVarint(DATABASE_QUERY);
+        this.writeString(query.getId());
+        out.writeSigned(query.getTimestamp());
+        this.writeString(query.getStatementType());
+        this.writeString(query.getSqlStatement());
+        this.writeString(query.getReturnValue());
+        out.writeSigned(query.getResponseTime());
+        out.writeSigned(query.getCount());
+        out.writeSigned(query.getTotalResponseTime());
+        out.writeSigned(query.getMinResponseTime());
+        out.writeSigned(query.getMaxResponseTime());
+        out.writeVarint(query.getReturnValues().size());
+        for (final String returnValue : query.getReturnValues()) {
+          this.writeString(returnValue);
+        }
+      } else if (entity instanceof Event) {
+        final Event event = (Event) entity;
+        out.writeVarint(EVENT);
+        this.writeString(event.getId());
+        out.writeSigned(event.getTimestamp());
+        this.writeEnum(event.getEventType());
+        this.writeString(event.getEventMessage());
+        out.writeSigned(event.getOccurrences());
+        out.writeSigned(event.getLastOccurrenceTimestamp());
+      } else if (entity instanceof Timestamp) {
+        final Timestamp timestamp = (Timestamp) entity;
+        out.writeVarint(TIMESTAMP);
+        this.writeString(timestamp.getId());
+        out.writeSigned(timestamp.getTimestamp());
+        out.writeSigned(timestamp.getTotalRequests());
+      } else {
+        throw new IOException("Cannot encode entity of type " + entity.getClass().getName());
+      }
+
+      this.writeExtensionAttributes(entity.getExtensionAttributes());
+    }
+
+    private void writeRelationships(final BaseEntity entity) { // NOPMD
+      if (entity instanceof Landscape) {
+        final Landscape landscape = (Landscape) entity;
+        this.writeReference(landscape.getTimestamp());
+        this.writeReferences(landscape.getSystems());
+        this.writeReferences(landscape.getEvents());
+        this.writeReferences(landscape.getTotalApplicationCommunications());
+      } else if (entity instanceof System) {
+        final System system = (System) entity;
+        this.writeReference(system.getParent());
+        this.writeReferences(system.getNodeGroups());
+      } else if (entity instanceof NodeGroup) {
+        final NodeGroup nodeGroup = (NodeGroup) entity;
+        this.writeReference(nodeGroup.getParent());
+        this.writeReferences(nodeGroup.getNodes());
+      } else if (entity instanceof Node) {
+        final Node node = (Node) entity;
+        this.writeReference(node.getParent());
+        this.writeReferences(node.getApplications());
+      } else if (entity instanceof Application) {
+        final Application application = (Application) entity;
+        this.writeReference(application.getParent());
+        this.writeReferences(application.getComponents());
+        this.writeReferences(application.getDatabaseQueries());
+        this.writeReferences(application.getApplicationCommunications());
+        this.writeReferences(application.getAggregatedClazzCommunications());
+        this.writeReferences(application.getTraces());
+      } else if (entity instanceof Component) {
+        final Component component = (Component) entity;
+        this.writeReference(component.getParentComponent());
+        this.writeReference(component.getBelongingApplication());
+        this.writeReferences(component.getChildren());
+        this.writeReferences(component.getClazzes());
+      } else if (entity instanceof Clazz) {
+        final Clazz clazz = (Clazz) entity;
+        this.writeReference(clazz.getParent());
+        this.writeReferences(clazz.getClazzCommunications());
+      } else if (entity instanceof ClazzCommunication) {
+        final ClazzCommunication commu = (ClazzCommunication) entity;
+        this.writeReference(commu.getSourceClazz());
+        this.writeReference(commu.getTargetClazz());
+        this.writeReferences(commu.getTraceSteps());
+      } else if (entity instanceof AggregatedClazzCommunication) {
+        final AggregatedClazzCommunication commu = (AggregatedClazzCommunication) entity;
+        this.writeReference(commu.getSourceClazz());
+        this.writeReference(commu.getTargetClazz());
+        this.writeReferences(commu.getClazzCommunications());
+      } else if (entity instanceof ApplicationCommunication) {
+        final ApplicationCommunication commu = (ApplicationCommunication) entity;
+        this.writeReference(commu.getSourceApplication());
+        this.writeReference(commu.getTargetApplication());
+        this.writeReference(commu.getSourceClazz());
+        this.writeReference(commu.getTargetClazz());
+      } else if (entity instanceof Trace) {
+        this.writeReferences(((Trace) entity).getTraceSteps());
+      } else if (entity instanceof TraceStep) {
+        final TraceStep traceStep = (TraceStep) entity;
+        this.writeReference(traceStep.getParentTrace());
+        this.writeReference(traceStep.getClazzCommunication());
+      } else if (entity instanceof DatabaseQuery) {
+        this.writeReference(((DatabaseQuery) entity).getParentApplication());
+      }
+      // events and timestamps have no relationships
+    }
+  }
+
+  /**
+   * Decodes a single landscape. All entities are created first and linked afterwards.
+   */
+  private static final class Decoder { // NOPMD
+
+    private final byte[] input;
+    private int position;
+
+    private BaseEntity[] entities;
+    private final List<String> strings = new ArrayList<>();
+
+    Decoder(final byte[] input) {
+      this.input = input;
+    }
+
+    Landscape decode() throws IOException {
+      if ((int) this.readFixed(4) != MAGIC) {
+        throw new IOException("Not a binary encoded landscape");
+      }
+      final long version = this.readVarint();
+      if (version != VERSION) {
+        throw new IOException("Unsupported binary landscape version " + version);
+      }
+
+      final long count = this.readVarint();
+      // every entity takes at least one byte
+      if (count < 1 || count > this.input.length) {
+        throw new IOException("Invalid number of entities " + count);
+      }
+
+      this.entities = new BaseEntity[(int) count];
+      for (int i = 0; i < this.entities.length; i++) {
+        this.entities[i] = this.readAttributes();
+      }
+      for (final BaseEntity entity : this.entities) {
+        this.readRelationships(entity);
+      }
+
+      if (!(this.entities[0] instanceof Landscape)) {
+        throw new IOException("The first entity is not a landscape");
+      }
+      return (Landscape) this.entities[0];
+    }
+
+    private int readByte() throws IOException {
+      if (this.position >= this.input.length) {
+        throw new IOException("Unexpected end of binary landscape");
+      }
+      return this.input[this.position++] & 0xFF;
+    }
+
+    private long readVarint() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) { // NOCS
+        final int next = this.readByte();
+        value |= (long) (next & 0x7F) << shift;
+        if ((next & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed varint in binary landscape");
+    }
+
+    private long readSigned() throws IOException {
+      final long value = this.readVarint();
+      return value >>> 1 ^ -(value & 1);
+    }
+
+    private int readInt() throws IOException {
+      return (int) this.readSigned();
+    }
+
+    private long readFixed(final int bytes) throws IOException {
+      long value = 0;
+      for (int i = 0; i < bytes; i++) {
+        value |= (long) this.readByte() << 8 * i;
+      }
+      return value;
+    }
+
+    private float readFloat() throws IOException {
+      return Float.intBitsToFloat((int) this.readFixed(4));
+    }
+
+    private double readDouble() throws IOException {
+      return Double.longBitsToDouble(this.readFixed(8)); // NOCS
+    }
+
+    private String readString() throws IOException {
+      final long code = this.readVarint();
+
+      if (code == 0) {
+        return null;
+      } else if (code == 1) {
+        final long length = this.readVarint();
+        if (length > this.input.length - this.position) {
+          throw new IOException("Unexpected end of binary landscape");
+        }
+        final String value = new String(this.input, this.position, (int) length,
+            StandardCharsets.UTF_8);
+        this.position += (int) length;
+        this.strings.add(value);
+        return value;
+      } else if (code - 2 < this.strings.size()) {
+        return this.strings.get((int) (code - 2));
+      }
+      throw new IOException("Invalid string reference in binary landscape");
+    }
+
+    private <E extends Enum<E>> E readEnum(final Class<E> type) throws IOException {
+      final String name = this.readString();
+      try {
+        return name == null ? null : Enum.valueOf(type, name);
+      } catch (final IllegalArgumentException e) {
+        throw new IOException("Unknown constant " + name + " of " + type.getSimpleName(), e);
+      }
+    }
+
+    private void readExtensionAttributes(final Map<String, Object> extensionAttributes)
+        throws IOException {
+      final long size = this.readVarint();
+
+      for (long i = 0; i < size; i++) {
+        final String key = this.readString();
+        final int type = (int) this.readVarint();
+
+        switch (type) {
+          case NULL_VALUE:
+            extensionAttributes.put(key, null);
+            break;
+          case STRING_VALUE:
+            extensionAttributes.put(key, this.readString());
+            break;
+          case INTEGER_VALUE:
+            extensionAttributes.put(key, this.readInt());
+            break;
+          case LONG_VALUE:
+            extensionAttributes.put(key, this.readSigned());
+            break;
+          case FLOAT_VALUE:
+            extensionAttributes.put(key, this.readFloat());
+            break;
+          case DOUBLE_VALUE:
+            extensionAttributes.put(key, this.readDouble());
+            break;
+          case BOOLEAN_VALUE:
+            extensionAttributes.put(key, this.readVarint() != 0);
+            break;
+          default:
+            throw new IOException("Invalid extension attribute type " + type);
+        }
+      }
+    }
+
+    private BaseEntity readAttributes() throws IOException { // NOPMD
+      final int type = (int) this.readVarint();
+      final BaseEntity entity;
+
+      switch (type) {
+        case LANDSCAPE:
+          entity = new Landscape(this.readString(), null);
+          break;
+        case SYSTEM:
+          final System system = new System(this.readString());
+          system.setName(this.readString());
+          system.setTotalRequests(this.readSigned());
+          entity = system;
+          break;
+        case NODE_GROUP:
+          final NodeGroup nodeGroup = new NodeGroup(this.readString());
+          nodeGroup.setName(this.readString());
+          entity = nodeGroup;
+          break;
+        case NODE:
+          final Node node = new Node(this.readString());
+          node.setName(this.readString());
+          node.setIpAddress(this.readString());
+          node.setCpuUtilization(this.readDouble());
+          node.setFreeRAM(this.readSigned());
+          node.setUsedRAM(this.readSigned());
+          node.setUtilizationSamples(this.readInt());
+          node.setMinCpuUtilization(this.readDouble());
+          node.setMaxCpuUtilization(this.readDouble());
+          node.setAverageCpuUtilization(this.readDouble());
+          node.setMinUsedRAM(this.readSigned());
+          node.setMaxUsedRAM(this.readSigned());
+          node.setAverageUsedRAM(this.readSigned());
+          node.setTotalRequests(this.readSigned());
+          entity = node;
+          break;
+        case APPLICATION:
+          final Application application = new Application(this.readString());
+          application.setName(this.readString());
+          application.setProgrammingLanguage(this.readEnum(EProgrammingLanguage.class));
+          application.setLastUsage(this.readSigned());
+          application.setTotalRequests(this.readSigned());
+          entity = application;
+          break;
+        case COMPONENT:
+          final Component component = new Component(this.readString());
+          component.setName(this.readString());
+          component.setFullQualifiedName(this.readString());
+          entity = component;
+          break;
+        case CLAZZ:
+          final Clazz clazz = new Clazz(this.readString());
+          clazz.setName(this.readString());
+          clazz.setFullQualifiedName(this.readString());
+          clazz.setInstanceCount(this.readInt());
+          entity = clazz;
+          break;
+        case CLAZZ_COMMUNICATION:
+          final ClazzCommunication commu = new ClazzCommunication(this.readString());
+          commu.setOperationName(this.readString());
+          commu.setTotalRequests(this.readInt());
+          commu.setAverageResponseTime(this.readFloat());
+          commu.setResponseTimeP50(this.readFloat());
+          commu.setResponseTimeP95(this.readFloat());
+          commu.setResponseTimeP99(this.readFloat());
+          entity = commu;
+          break;
+        case AGGREGATED_CLAZZ_COMMUNICATION:
+          final AggregatedClazzCommunication aggCommu =
+              new AggregatedClazzCommunication(this.readString());
+          aggCommu.setTotalRequests(this.readInt());
+          aggCommu.setAverageResponseTime(this.readFloat());
+          aggCommu.setResponseTimeP50(this.readFloat());
+          aggCommu.setResponseTimeP95(this.readFloat());
+          aggCommu.setResponseTimeP99(this.readFloat());
+          entity = aggCommu;
+          break;
+        case APPLICATION_COMMUNICATION:
+          final ApplicationCommunication appCommu =
+              new ApplicationCommunication(this.readString());
+          appCommu.setRequests(this.readInt());
+          appCommu.setTechnology(this.readString());
+          appCommu.setAverageResponseTime(this.readFloat());
+          appCommu.setResponseTimeP50(this.readFloat());
+          appCommu.setResponseTimeP95(this.readFloat());
+          appCommu.setResponseTimeP99(this.readFloat());
+          entity = appCommu;
+          break;
+        case TRACE:
+          final Trace trace = new Trace(this.readString(), this.readString());
+          trace.setTotalRequests(this.readInt());
+          trace.setTotalTraceDuration(this.readFloat());
+          trace.setAverageResponseTime(this.readFloat());
+          entity = trace;
+          break;
+        case TRACE_STEP:
+          final String traceStepId = this.readString();
+          final int tracePosition = this.readInt();
+          final int requests = this.readInt();
+          final float averageResponseTime = this.readFloat();
+          entity = new TraceStep(traceStepId, null, null, tracePosition, requests,
+              averageResponseTime, this.readFloat());
+          break;
+        case DATABASE_QUERY:
+          final DatabaseQuery query = new DatabaseQuery(this.readString());
+          query.setTimestamp(this.readSigned());
+          query.setStatementType(this.readString());
+          query.setSqlStatement(this.readString());
+          query.setReturnValue(this.readString());
+          query.setResponseTime(this.readSigned());
+          query.setCount(this.readInt());
+          query.setTotalResponseTime(this.readSigned());
+          query.setMinResponseTime(this.readSigned());
+          query.setMaxResponseTime(this.readSigned());
+          final long returnValueCount = this.readVarint();
+          if (returnValueCount > this.input.length) {
+            throw new IOException("Invalid number of return values " + returnValueCount);
+          }
+          for (long i = 0; i < returnValueCount; i++) {
+            query.getReturnValues().add(this.readString());
+          }
+          entity = query;
+          break;
+        case EVENT:
+          final String eventId = this.readString();
+          final long eventTimestamp = this.readSigned();
+          final EEventType eventType = this.readEnum(EEventType.class);
+          final Event event = new Event(eventId, eventTimestamp, eventType, this.readString());
+          event.setOccurrences(this.readInt());
+          event.setLastOccurrenceTimestamp(this.readSigned());
+          entity = event;
+          break;
+        case TIMESTAMP:
+          final String timestampId = this.readString();
+          final long timestamp = this.readSigned();
+          entity = new Timestamp(timestampId, timestamp, this.readInt());
+          break;
+        default:
+          throw new IOException("Invalid entity type " + type);
+      }
+
+      this.readExtensionAttributes(entity.getExtensionAttributes());
+      return entity;
+    }
+
+    private <T extends BaseEntity> T readReference(final Class<T> type) throws IOException {
+      final long reference = this.readVarint();
+      if (reference == 0) {
+        return null;
+      }
+
+      final BaseEntity entity =
+          reference > this.entities.length ? null : this.entities[(int) reference - 1];
+      if (!type.isInstance(entity)) {
+        throw new IOException("Invalid reference to " + type.getSimpleName());
+      }
+      return type.cast(entity);
+    }
+
+    private <T extends BaseEntity> List<T> readReferences(final Class<T> type)
+        throws IOException {
+      final long size = this.readVarint();
+      if (size == 0) {
+        return null; // NOPMD
+      }
+      if (size - 1 > this.input.length - this.position) {
+        throw new IOException("Unexpected end of binary landscape");
+      }
+
+      final List<T> references = new ArrayList<>((int) size - 1);
+      for (long i = 1; i < size; i++) {
+        references.add(this.readReference(type));
+      }
+      return references;
+    }
+
+    private <T extends BaseEntity> void readReferencesInto(final Class<T> type,
+        final List<T> target) throws IOException {
+      final List<T> references = this.readReferences(type);
+      if (references != null) {
+        target.addAll(references);
+      }
+    }
+
+    private void readRelationships(final BaseEntity entity) throws IOException { // NOPMD
+      if (entity instanceof Landscape) {
+        final Landscape landscape = (Landscape) entity;
+        landscape.setTimestamp(this.readReference(Timestamp.class));
+        this.readReferencesInto(System.class, landscape.getSystems());
+        this.readReferencesInto(Event.class, landscape.getEvents());
+        landscape.setTotalApplicationCommunications(
+            this.readReferences(ApplicationCommunication.class));
+      } else if (entity instanceof System) {
+        final System system = (System) entity;
+        system.setParent(this.readReference(Landscape.class));
+        this.readReferencesInto(NodeGroup.class, system.getNodeGroups());
+      } else if (entity instanceof NodeGroup) {
+        final NodeGroup nodeGroup = (NodeGroup) entity;
+        nodeGroup.setParent(this.readReference(System.class));
+        this.readReferencesInto(Node.class, nodeGroup.getNodes());
+      } else if (entity instanceof Node) {
+        final Node node = (Node) entity;
+        node.setParent(this.readReference(NodeGroup.class));
+        this.readReferencesInto(Application.class, node.getApplications());
+      } else if (entity instanceof Application) {
+        final Application application = (Application) entity;
+        application.setParent(this.readReference(Node.class));
+        application.setComponents(this.readReferences(Component.class));
+        application.setDatabaseQueries(this.readReferences(DatabaseQuery.class));
+        application.setApplicationCommunications(
+            this.readReferences(ApplicationCommunication.class));
+        application.setAggregatedClazzCommunications(
+            this.readReferences(AggregatedClazzCommunication.class));
+        application.setTraces(this.readReferences(Trace.class));
+      } else if (entity instanceof Component) {
+        final Component component = (Component) entity;
+        component.setParentComponent(this.readReference(Component.class));
+        component.setBelongingApplication(this.readReference(Application.class));
+        component.setChildren(this.readReferences(Component.class));
+        component.setClazzes(this.readReferences(Clazz.class));
+      } else if (entity instanceof Clazz) {
+        final Clazz clazz = (Clazz) entity;
+        clazz.setParent(this.readReference(Component.class));
+        clazz.setClazzCommunications(this.readReferences(ClazzCommunication.class));
+      } else if (entity instanceof ClazzCommunication) {
+        final ClazzCommunication commu = (ClazzCommunication) entity;
+        commu.setSourceClazz(this.readReference(Clazz.class));
+        commu.setTargetClazz(this.readReference(Clazz.class));
+        commu.setTraceSteps(this.readReferences(TraceStep.class));
+      } else if (entity instanceof AggregatedClazzCommunication) {
+        final AggregatedClazzCommunication commu = (AggregatedClazzCommunication) entity;
+        commu.setSourceClazz(this.readReference(Clazz.class));
+        commu.setTargetClazz(this.readReference(Clazz.class));
+        commu.setClazzCommunications(this.readReferences(ClazzCommunication.class));
+      } else if (entity instanceof ApplicationCommunication) {
+        final ApplicationCommunication commu = (ApplicationCommunication) entity;
+        commu.setSourceApplication(this.readReference(Application.class));
+        commu.setTargetApplication(this.readReference(Application.class));
+        commu.setSourceClazz(this.readReference(Clazz.class));
+        commu.setTargetClazz(this.readReference(Clazz.class));
+      } else if (entity instanceof Trace) {
+        ((Trace) entity).setTraceSteps(this.readReferences(TraceStep.class));
+      } else if (entity instanceof TraceStep) {
+        final TraceStep traceStep = (TraceStep) entity;
+        traceStep.setParentTrace(this.readReference(Trace.class));
+        traceStep.setClazzCommunication(this.readReference(ClazzCommunication.class));
+      } else if (entity instanceof DatabaseQuery) {
+        ((DatabaseQuery) entity).setParentApplication(this.readReference(Application.class));
+      }
+    }
+  }
+
+}
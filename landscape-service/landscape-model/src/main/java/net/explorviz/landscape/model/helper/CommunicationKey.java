@@ -0,0 +1,70 @@
+package net.explorviz.landscape.model.helper;
+
+import net.explorviz.landscape.model.application.Clazz;
+
+/**
+ * Key of a communication between two clazzes and, optionally, a called operation. Clazzes are
+ * compared by identity, since the hash code of entities is computed from their id on every call.
+ * Operation names are compared case-insensitively, without creating a lowercase copy of them.
+ * Keys are short-lived and usually not allocated at all for lookups, since they do not escape.
+ */
+public final class CommunicationKey {
+
+  private final Clazz sourceClazz;
+  private final Clazz targetClazz;
+  private final String operationName;
+  private final int hash;
+
+  /**
+   * Creates a new key.
+   *
+   * @param sourceClazz - the calling clazz
+   * @param targetClazz - the called clazz
+   * @param operationName - the called operation or null, if the key spans all operations
+   */
+  public CommunicationKey(final Clazz sourceClazz, final Clazz targetClazz,
+      final String operationName) {
+    this.sourceClazz = sourceClazz;
+    this.targetClazz = targetClazz;
+    this.operationName = operationName;
+    this.hash = (31 * java.lang.System.identityHashCode(sourceClazz) // NOCS
+        + java.lang.System.identityHashCode(targetClazz)) * 31 // NOCS
+        + hashIgnoreCase(operationName);
+  }
+
+  // consistent with String#equalsIgnoreCase, which compares the upper and the lower case
+  private static int hashIgnoreCase(final String name) {
+    if (name == null) {
+      return 0;
+    }
+    int hash = 0;
+    for (int i = 0; i < name.length(); i++) {
+      hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(name.charAt(i))); // NOCS
+    }
+    return hash;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CommunicationKey)) {
+      return false;
+    }
+    final CommunicationKey other = (CommunicationKey) obj;
+    if (this.sourceClazz != other.sourceClazz || this.targetClazz != other.targetClazz) {
+      return false;
+    }
+    if (this.operationName == null || other.operationName == null) {
+      return this.operationName == other.operationName; // NOPMD
+    }
+    return this.operationName.equalsIgnoreCase(other.operationName);
+  }
+
+}
@@ -0,0 +1,48 @@
+package net.explorviz.landscape.model.helper;
+
+import com.github.jasminb.jsonapi.ResourceConverter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import net.explorviz.landscape.model.landscape.Landscape;
+
+/**
+ * Encodes landscapes as (UTF-8) json api documents. This is the default codec of the landscape
+ * exchange and the only one supported by the {@link LandscapeDeltaEncoder}. Landscapes are written
+ * by the {@link JsonApiLandscapeWriter} and read by the converter.
+ */
+public final class JsonApiLandscapeCodec implements LandscapeCodec {
+
+  public static final String NAME = "jsonapi";
+
+  private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+  private final ResourceConverter jsonApiConverter;
+  private final JsonApiLandscapeWriter writer = new JsonApiLandscapeWriter();
+
+  public JsonApiLandscapeCodec(final ResourceConverter jsonApiConverter) {
+    this.jsonApiConverter = jsonApiConverter;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public byte[] encode(final Landscape landscape) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+    this.writer.write(landscape, out);
+    return out.toByteArray();
+  }
+
+  @Override
+  public Landscape decode(final byte[] encoded) throws IOException {
+    try {
+      return this.jsonApiConverter.readDocument(encoded, Landscape.class).get();
+    } catch (final RuntimeException e) { // NOPMD
+      // the converter reports malformed documents with unchecked exceptions
+      throw new IOException("Could not deserialize landscape from json api", e);
+    }
+  }
+
+}
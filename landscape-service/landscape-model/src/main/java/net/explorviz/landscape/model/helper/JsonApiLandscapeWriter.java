@@ -0,0 +1,322 @@
+package net.explorviz.landscape.model.helper;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.github.jasminb.jsonapi.ReflectionUtils;
+import com.github.jasminb.jsonapi.annotations.Id;
+import com.github.jasminb.jsonapi.annotations.Relationship;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import net.explorviz.landscape.model.landscape.Landscape;
+
+/**
+ * Writes landscapes as json api documents directly to a stream, i.e., without the intermediate
+ * trees and byte arrays of the {@link com.github.jasminb.jsonapi.ResourceConverter}. The output is
+ * identical to the converter's (with {@code INCLUDE_RELATIONSHIP_ATTRIBUTES} enabled) except for
+ * the object ids (<code>super.id</code>), which are random in both cases.
+ *
+ * <p>
+ * The converter serializes the attributes of every resource by converting the complete object
+ * graph reachable from the resource into a tree and removing its relationships afterwards. This
+ * writer serializes only the attributes instead. Entities, which are attributes (i.e., the
+ * <code>belongingApplication</code> of components), are written as object id references like the
+ * converter does, since the referenced entity is always part of the serialized graph beforehand.
+ * The resources are included in the order of the converter, which depends on the traversal of the
+ * relationships, hence the traversal mirrors the converter's.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe.
+ * </p>
+ */
+public final class JsonApiLandscapeWriter {
+
+  private static final Map<Class<?>, EntityType> TYPES = new ConcurrentHashMap<>();
+
+  private final ObjectMapper attributeMapper;
+
+  /**
+   * Creates a writer, which serializes the attributes like the default mapper of the converter.
+   */
+  public JsonApiLandscapeWriter() {
+    this.attributeMapper = new ObjectMapper();
+    this.attributeMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    // the generator is flushed once per document instead of once per resource
+    this.attributeMapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    this.attributeMapper
+        .registerModule(new SimpleModule().setSerializerModifier(new AttributeModifier()));
+  }
+
+  /**
+   * Writes the landscape as UTF-8 encoded json api document. The stream is not closed.
+   *
+   * @param landscape - the landscape
+   * @param out - the target of the document
+   * @throws IOException if the landscape could not be written
+   */
+  public void write(final Landscape landscape, final OutputStream out) throws IOException {
+    try (JsonGenerator generator =
+        this.attributeMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.writeDocument(landscape, generator);
+    }
+  }
+
+  /**
+   * Writes the landscape as json api document. The writer is not closed.
+   *
+   * @param landscape - the landscape
+   * @param writer - the target of the document
+   * @throws IOException if the landscape could not be written
+   */
+  public void write(final Landscape landscape, final Writer writer) throws IOException {
+    try (JsonGenerator generator = this.attributeMapper.getFactory().createGenerator(writer)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      this.writeDocument(landscape, generator);
+    }
+  }
+
+  /**
+   * Writes the landscape as json api document into a string.
+   *
+   * @param landscape - the landscape
+   * @return the document
+   * @throws IOException if the landscape could not be written
+   */
+  public String writeAsString(final Landscape landscape) throws IOException {
+    final StringWriter writer = new StringWriter();
+    this.write(landscape, writer);
+    return writer.toString();
+  }
+
+  private void writeDocument(final Landscape landscape, final JsonGenerator generator)
+      throws IOException {
+    // like the converter, keyed by id and type and in the order of a hash map
+    final Map<String, Object> included = new HashMap<>(); // NOPMD
+    collect(landscape, included, new HashSet<>());
+
+    generator.writeStartObject();
+    generator.writeFieldName(JsonApiResources.DATA);
+    this.writeResource(landscape, generator);
+    if (!included.isEmpty()) {
+      generator.writeArrayFieldStart(JsonApiResources.INCLUDED);
+      for (final Object resource : included.values()) {
+        this.writeResource(resource, generator);
+      }
+      generator.writeEndArray();
+    }
+    generator.writeEndObject();
+  }
+
+  /**
+   * Traverses the relationships like the converter, i.e., resources referenced by a to-one
+   * relationship are traversed again, if they are not included yet.
+   */
+  private static void collect(final Object entity, final Map<String, Object> included,
+      final Set<String> visited) {
+    final EntityType type = type(entity.getClass());
+    final String entityKey = key(entity);
+    if (entityKey != null) {
+      visited.add(entityKey);
+    }
+
+    for (final Field field : type.relationships) {
+      final Object value = get(field, entity);
+      if (value instanceof Collection) {
+        for (final Object element : (Collection<?>) value) {
+          final String key = key(element);
+          if (key != null && !included.containsKey(key) && !visited.contains(key)) {
+            collect(element, included, visited);
+            included.put(key, element);
+          }
+        }
+      } else if (value != null) {
+        final String key = key(value);
+        if (key != null && !included.containsKey(key)) {
+          collect(value, included, visited);
+          included.put(key, value);
+        }
+      }
+    }
+  }
+
+  private void writeResource(final Object entity, final JsonGenerator generator)
+      throws IOException {
+    final EntityType type = type(entity.getClass());
+
+    generator.writeStartObject();
+    writeIdentifierFields(entity, generator);
+    generator.writeFieldName(JsonApiResources.ATTRIBUTES);
+    this.attributeMapper.writeValue(generator, entity);
+
+    boolean relationships = false;
+    for (int i = 0; i < type.relationships.size(); i++) {
+      final Object value = get(type.relationships.get(i), entity);
+      if (value == null) {
+        continue;
+      }
+      if (!relationships) {
+        generator.writeObjectFieldStart(JsonApiResources.RELATIONSHIPS);
+        relationships = true;
+      }
+
+      generator.writeObjectFieldStart(type.relationshipNames.get(i));
+      if (value instanceof Collection) {
+        generator.writeArrayFieldStart(JsonApiResources.DATA);
+        for (final Object element : (Collection<?>) value) {
+          generator.writeStartObject();
+          writeIdentifierFields(element, generator);
+          generator.writeEndObject();
+        }
+        generator.writeEndArray();
+      } else {
+        generator.writeObjectFieldStart(JsonApiResources.DATA);
+        writeIdentifierFields(value, generator);
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+    }
+    if (relationships) {
+      generator.writeEndObject();
+    }
+
+    generator.writeEndObject();
+  }
+
+  private static void writeIdentifierFields(final Object entity, final JsonGenerator generator)
+      throws IOException {
+    generator.writeStringField(JsonApiResources.TYPE, type(entity.getClass()).name);
+    generator.writeStringField(JsonApiResources.ID, id(entity));
+  }
+
+  private static String key(final Object entity) {
+    final String id = id(entity);
+    return id == null ? null : id.concat(type(entity.getClass()).name);
+  }
+
+  private static String id(final Object entity) {
+    final Object id = get(type(entity.getClass()).id, entity);
+    return id == null ? null : id.toString();
+  }
+
+  private static Object get(final Field field, final Object entity) {
+    try {
+      return field.get(entity);
+    } catch (final IllegalAccessException e) {
+      throw new IllegalStateException("Field " + field.getName() + " is not accessible", e);
+    }
+  }
+
+  private static EntityType type(final Class<?> entityClass) {
+    return TYPES.computeIfAbsent(entityClass, EntityType::new);
+  }
+
+  /**
+   * The json api mapping of an entity class, as determined by the converter.
+   */
+  private static final class EntityType {
+
+    private final String name;
+    private final Field id;
+    // serialized relationships and their names in the order of the converter
+    private final List<Field> relationships = new ArrayList<>();
+    private final List<String> relationshipNames = new ArrayList<>();
+    // fields, which the converter removes from the attributes
+    private final Set<String> nonAttributes = new HashSet<>();
+
+    private EntityType(final Class<?> entityClass) {
+      this.name = ReflectionUtils.getTypeName(entityClass);
+
+      final List<Field> idFields = ReflectionUtils.getAnnotatedFields(entityClass, Id.class, true);
+      if (idFields.isEmpty()) {
+        throw new IllegalArgumentException(entityClass.getName() + " has no id");
+      }
+      this.id = idFields.get(0);
+      this.id.setAccessible(true); // NOPMD
+      this.nonAttributes.add(this.id.getName());
+
+      for (final Field field : ReflectionUtils.getAnnotatedFields(entityClass,
+          Relationship.class, true)) {
+        final Relationship relationship = field.getAnnotation(Relationship.class);
+        this.nonAttributes.add(field.getName());
+        if (relationship.serialise()) {
+          field.setAccessible(true); // NOPMD
+          this.relationships.add(field);
+          this.relationshipNames.add(relationship.value());
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes the id and relationships from the attributes and replaces entities by references.
+   */
+  private static final class AttributeModifier extends BeanSerializerModifier {
+
+    @Override
+    public List<BeanPropertyWriter> changeProperties(final SerializationConfig config,
+        final BeanDescription beanDesc, final List<BeanPropertyWriter> beanProperties) {
+      if (!BaseEntity.class.isAssignableFrom(beanDesc.getBeanClass())) {
+        return beanProperties;
+      }
+
+      final Set<String> nonAttributes = type(beanDesc.getBeanClass()).nonAttributes;
+      final List<BeanPropertyWriter> attributes = new ArrayList<>(beanProperties.size());
+      for (final BeanPropertyWriter property : beanProperties) {
+        if (nonAttributes.contains(property.getName())) {
+          continue;
+        }
+        if (BaseEntity.class.isAssignableFrom(property.getType().getRawClass())) {
+          property.assignSerializer(ObjectIdReferenceSerializer.INSTANCE);
+        }
+        attributes.add(property);
+      }
+      return attributes;
+    }
+  }
+
+  /**
+   * Writes an object id, i.e., a reference to an entity serialized beforehand in the same tree.
+   */
+  private static final class ObjectIdReferenceSerializer extends JsonSerializer<Object> {
+
+    private static final ObjectIdReferenceSerializer INSTANCE = new ObjectIdReferenceSerializer();
+
+    @Override
+    public void serialize(final Object value, final JsonGenerator gen,
+        final SerializerProvider serializers) throws IOException {
+      // the ids of the StringIdGenerator are random, hence they cannot refer to other documents
+      gen.writeString(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public void serializeWithType(final Object value, final JsonGenerator gen,
+        final SerializerProvider serializers, final TypeSerializer typeSer) throws IOException {
+      this.serialize(value, gen, serializers);
+    }
+  }
+
+}
@@ -0,0 +1,77 @@
+package net.explorviz.landscape.model.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resources of a serialized (json api) landscape document, indexed by their type and id. Shared by
+ * the {@link LandscapeDeltaEncoder} and the {@link LandscapeDeltaDecoder}.
+ */
+final class JsonApiResources {
+
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  static final String DATA = "data";
+  static final String INCLUDED = "included";
+  static final String TYPE = "type";
+  static final String ID = "id";
+  static final String ATTRIBUTES = "attributes";
+  static final String RELATIONSHIPS = "relationships";
+
+  // Jackson object id of the model entities, generated randomly for every serialization
+  static final String OBJECT_ID = "super.id";
+  // attributes referencing an object id, which is not contained in the document
+  static final Set<String> UNRESOLVED_REFERENCES = Set.of("belongingApplication");
+
+  private final ObjectNode document;
+  private final Map<String, ObjectNode> resources = new LinkedHashMap<>();
+
+  /**
+   * Indexes the included resources of the passed document.
+   *
+   * @param document - a json api document with a single primary resource
+   */
+  JsonApiResources(final ObjectNode document) {
+    this.document = document;
+
+    final JsonNode included = document.path(INCLUDED);
+    for (final JsonNode resource : included) {
+      this.resources.put(key(resource), (ObjectNode) resource);
+    }
+  }
+
+  static String key(final JsonNode resource) {
+    return resource.path(TYPE).asText() + '/' + resource.path(ID).asText();
+  }
+
+  ObjectNode document() {
+    return this.document;
+  }
+
+  ObjectNode primary() {
+    return (ObjectNode) this.document.get(DATA);
+  }
+
+  String primaryId() {
+    return this.document.path(DATA).path(ID).asText(null);
+  }
+
+  Map<String, ObjectNode> resources() {
+    return this.resources;
+  }
+
+  /**
+   * Writes the indexed resources back to the included array of the document, e.g., after
+   * resources were added or removed.
+   */
+  void updateIncluded() {
+    final ArrayNode included = this.document.putArray(INCLUDED);
+    included.addAll(this.resources.values());
+  }
+
+}
@@ -0,0 +1,94 @@
+package net.explorviz.landscape.model.helper;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Reassembles the chunks produced by the {@link LandscapeChunker}. Only a single landscape is
+ * assembled at a time, since its chunks arrive in order. Incomplete landscapes, e.g., because the
+ * consumer started in the middle of a chunked landscape, are dropped.
+ */
+public final class LandscapeChunkAssembler {
+
+  private String messageId;
+  private int count;
+  private int received;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+  private long droppedLandscapes;
+
+  /**
+   * Adds the next record.
+   *
+   * @param chunkHeader - value of the {@link LandscapeChunker#CHUNK_HEADER}, null if the record is
+   *        not chunked
+   * @param value - the value of the record
+   * @return the complete payload or null, if further chunks are required or the chunk was dropped
+   */
+  public byte[] add(final String chunkHeader, final byte[] value) {
+    if (chunkHeader == null) {
+      this.drop();
+      return value;
+    }
+
+    final int indexStart = chunkHeader.indexOf(LandscapeChunker.SEPARATOR);
+    final int countStart = chunkHeader.indexOf(LandscapeChunker.SEPARATOR, indexStart + 1);
+    final int index;
+    final int chunkCount;
+    try {
+      index = Integer.parseInt(chunkHeader.substring(indexStart + 1, countStart));
+      chunkCount = Integer.parseInt(chunkHeader.substring(countStart + 1));
+    } catch (final NumberFormatException | IndexOutOfBoundsException e) {
+      this.drop();
+      this.droppedLandscapes++;
+      return null;
+    }
+    final String id = chunkHeader.substring(0, indexStart);
+
+    if (index == 0) {
+      this.drop();
+      this.messageId = id;
+      this.count = chunkCount;
+    } else if (!id.equals(this.messageId) || index != this.received
+        || chunkCount != this.count) {
+      // a chunk of a landscape, whose previous chunks were not received
+      this.drop();
+      return null;
+    }
+
+    this.buffer.write(value, 0, value.length);
+    this.received++;
+
+    if (this.received < this.count) {
+      return null;
+    }
+
+    final byte[] payload = this.buffer.toByteArray();
+    this.reset();
+    return payload;
+  }
+
+  private void drop() {
+    if (this.messageId != null) {
+      this.droppedLandscapes++;
+    }
+    this.reset();
+  }
+
+  private void reset() {
+    this.messageId = null;
+    this.count = 0;
+    this.received = 0;
+    this.buffer.reset();
+  }
+
+  /**
+   * Returns the number of landscapes, which were started but could not be completed, and of
+   * malformed chunks.
+   *
+   * @return the number of dropped landscapes
+   */
+  public long getDroppedLandscapes() {
+    return this.droppedLandscapes;
+  }
+
+}
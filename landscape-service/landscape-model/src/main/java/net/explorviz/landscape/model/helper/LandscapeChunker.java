@@ -0,0 +1,62 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits encoded landscapes, which exceed the maximum size of a Kafka record, into ordered chunks.
+ * Every chunk is sent as its own record, denoted by the {@link #CHUNK_HEADER}, and reassembled by
+ * the {@link LandscapeChunkAssembler}. The chunks of a landscape must be sent to the same partition
+ * (i.e., with the same key) without other landscapes in between.
+ */
+public final class LandscapeChunker {
+
+  /**
+   * Name of the Kafka header of a chunk, its value is formatted as
+   * <code>messageId:index:count</code>. Records without this header are not chunked.
+   */
+  public static final String CHUNK_HEADER = "explorviz-landscape-chunk";
+
+  static final char SEPARATOR = ':';
+
+  private LandscapeChunker() {
+    // Utility Class
+  }
+
+  /**
+   * Splits the passed payload into chunks.
+   *
+   * @param payload - the encoded landscape
+   * @param chunkSize - the maximum size of a chunk in bytes, values <= 0 disable chunking
+   * @return the chunks in their order, i.e., only the passed payload, if it is not larger than a
+   *         single chunk
+   */
+  public static List<byte[]> split(final byte[] payload, final int chunkSize) {
+    if (chunkSize <= 0 || payload.length <= chunkSize) {
+      return Collections.singletonList(payload);
+    }
+
+    final List<byte[]> chunks = new ArrayList<>((payload.length - 1) / chunkSize + 1);
+    for (int offset = 0; offset < payload.length; offset += chunkSize) {
+      final int length = Math.min(chunkSize, payload.length - offset);
+      final byte[] chunk = new byte[length];
+      java.lang.System.arraycopy(payload, offset, chunk, 0, length);
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  /**
+   * Formats the value of the {@link #CHUNK_HEADER}.
+   *
+   * @param messageId - identifies the chunks of a single landscape
+   * @param index - the position of the chunk, starting at 0
+   * @param count - the number of chunks of the landscape
+   * @return the header value
+   */
+  public static String header(final long messageId, final int index, final int count) {
+    return String.valueOf(messageId) + SEPARATOR + index + SEPARATOR + count;
+  }
+
+}
@@ -0,0 +1,302 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.ClazzCommunication;
+import net.explorviz.landscape.model.application.Component;
+import net.explorviz.landscape.model.application.DatabaseQuery;
+import net.explorviz.landscape.model.application.Trace;
+import net.explorviz.landscape.model.application.TraceStep;
+import net.explorviz.landscape.model.event.Event;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import net.explorviz.landscape.model.store.Timestamp;
+
+/**
+ * Structural deep copy of a landscape. Every entity is copied exactly once, hence shared entities
+ * and back-references (e.g., parent, sourceClazz and targetClazz) of the copy point to the copied
+ * entities. The graph is traversed iteratively, so the copy takes time linear in the number of
+ * entities independent of the depth of the landscape.
+ *
+ * <p>
+ * Extension attributes are copied shallowly.
+ * </p>
+ */
+public final class LandscapeCloner {
+
+  private final Map<BaseEntity, BaseEntity> copies = new IdentityHashMap<>();
+  private final Deque<BaseEntity> pending = new ArrayDeque<>();
+
+  private LandscapeCloner() {
+    // use deepCopy
+  }
+
+  /**
+   * Creates a deep copy of the passed landscape.
+   *
+   * @param original - the landscape to copy
+   * @return the copied landscape
+   */
+  public static Landscape deepCopy(final Landscape original) {
+    final LandscapeCloner cloner = new LandscapeCloner();
+    final Landscape copy = cloner.copyOf(original);
+
+    while (!cloner.pending.isEmpty()) {
+      final BaseEntity next = cloner.pending.poll();
+      cloner.link(next, cloner.copies.get(next));
+    }
+
+    return copy;
+  }
+
+  /**
+   * Returns the copy of the passed entity. Entities, which are not copied yet, are copied without
+   * their relationships and queued for linking.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends BaseEntity> T copyOf(final T original) {
+    if (original == null) {
+      return null;
+    }
+
+    BaseEntity copy = this.copies.get(original);
+
+    if (copy == null) {
+      copy = shallowCopy(original);
+      copy.getExtensionAttributes().putAll(original.getExtensionAttributes());
+      this.copies.put(original, copy);
+      this.pending.add(original);
+    }
+
+    return (T) copy;
+  }
+
+  private <T extends BaseEntity> List<T> copyOf(final List<T> originals) {
+    final List<T> copiedList = new ArrayList<>(originals.size());
+    this.copyInto(originals, copiedList);
+    return copiedList;
+  }
+
+  private <T extends BaseEntity> void copyInto(final List<T> originals, final List<T> target) {
+    for (final T original : originals) {
+      target.add(this.copyOf(original));
+    }
+  }
+
+  private static BaseEntity shallowCopy(final BaseEntity original) { // NOPMD
+    if (original instanceof Landscape) {
+      return new Landscape(original.getId(), null);
+    } else if (original instanceof System) {
+      final System system = (System) original;
+      final System copy = new System(system.getId());
+      copy.setName(system.getName());
+      copy.setTotalRequests(system.getTotalRequests());
+      return copy;
+    } else if (original instanceof NodeGroup) {
+      final NodeGroup nodeGroup = (NodeGroup) original;
+      final NodeGroup copy = new NodeGroup(nodeGroup.getId());
+      copy.setName(nodeGroup.getName());
+      return copy;
+    } else if (original instanceof Node) {
+      final Node node = (Node) original;
+      final Node copy = new Node(node.getId());
+      copy.setName(node.getName());
+      copy.setIpAddress(node.getIpAddress());
+      copy.setCpuUtilization(node.getCpuUtilization());
+      copy.setFreeRAM(node.getFreeRAM());
+      copy.setUsedRAM(node.getUsedRAM());
+      copy.setUtilizationSamples(node.getUtilizationSamples());
+      copy.setMinCpuUtilization(node.getMinCpuUtilization());
+      copy.setMaxCpuUtilization(node.getMaxCpuUtilization());
+      copy.setAverageCpuUtilization(node.getAverageCpuUtilization());
+      copy.setMinUsedRAM(node.getMinUsedRAM());
+      copy.setMaxUsedRAM(node.getMaxUsedRAM());
+      copy.setAverageUsedRAM(node.getAverageUsedRAM());
+      copy.setTotalRequests(node.getTotalRequests());
+      return copy;
+    } else if (original instanceof Application) {
+      final Application application = (Application) original;
+      final Application copy = new Application(application.getId());
+      copy.setName(application.getName());
+      copy.setProgrammingLanguage(application.getProgrammingLanguage());
+      copy.setLastUsage(application.getLastUsage());
+      copy.setTotalRequests(application.getTotalRequests());
+      return copy;
+    } else if (original instanceof Component) {
+      final Component component = (Component) original;
+      final Component copy = new Component(component.getId());
+      copy.setName(component.getName());
+      copy.setFullQualifiedName(component.getFullQualifiedName());
+      return copy;
+    } else if (original instanceof Clazz) {
+      final Clazz clazz = (Clazz) original;
+      final Clazz copy = new Clazz(clazz.getId());
+      copy.setName(clazz.getName());
+      copy.setFullQualifiedName(clazz.getFullQualifiedName());
+      copy.setInstanceCount(clazz.getInstanceCount());
+      return copy;
+    } else if (original instanceof ClazzCommunication) {
+      final ClazzCommunication commu = (ClazzCommunication) original;
+      final ClazzCommunication copy = new ClazzCommunication(commu.getId());
+      copy.setOperationName(commu.getOperationName());
+      copy.setTotalRequests(commu.getTotalRequests());
+      copy.setAverageResponseTime(commu.getAverageResponseTime());
+      copy.setResponseTimeP50(commu.getResponseTimeP50());
+      copy.setResponseTimeP95(commu.getResponseTimeP95());
+      copy.setResponseTimeP99(commu.getResponseTimeP99());
+      return copy;
+    } else if (original instanceof AggregatedClazzCommunication) {
+      final AggregatedClazzCommunication commu = (AggregatedClazzCommunication) original;
+      final AggregatedClazzCommunication copy = new AggregatedClazzCommunication(commu.getId());
+      copy.setTotalRequests(commu.getTotalRequests());
+      copy.setAverageResponseTime(commu.getAverageResponseTime());
+      copy.setResponseTimeP50(commu.getResponseTimeP50());
+      copy.setResponseTimeP95(commu.getResponseTimeP95());
+      copy.setResponseTimeP99(commu.getResponseTimeP99());
+      return copy;
+    } else if (original instanceof ApplicationCommunication) {
+      final ApplicationCommunication commu = (ApplicationCommunication) original;
+      final ApplicationCommunication copy = new ApplicationCommunication(commu.getId());
+      copy.setRequests(commu.getRequests());
+      copy.setTechnology(commu.getTechnology());
+      copy.setAverageResponseTime(commu.getAverageResponseTime());
+      copy.setResponseTimeP50(commu.getResponseTimeP50());
+      copy.setResponseTimeP95(commu.getResponseTimeP95());
+      copy.setResponseTimeP99(commu.getResponseTimeP99());
+      return copy;
+    } else if (original instanceof Trace) {
+      final Trace trace = (Trace) original;
+      final Trace copy = new Trace(trace.getId(), trace.getTraceId());
+      copy.setTotalRequests(trace.getTotalRequests());
+      copy.setTotalTraceDuration(trace.getTotalTraceDuration());
+      copy.setAverageResponseTime(trace.getAverageResponseTime());
+      return copy;
+    } else if (original instanceof TraceStep) {
+      final TraceStep traceStep = (TraceStep) original;
+      return new TraceStep(traceStep.getId(), null, null, traceStep.getTracePosition(),
+          traceStep.getRequests(), traceStep.getAverageResponseTime(),
+          traceStep.getCurrentTraceDuration());
+    } else if (original instanceof DatabaseQuery) {
+      final DatabaseQuery query = (DatabaseQuery) original;
+      final DatabaseQuery copy = new DatabaseQuery(query.getId());
+      copy.setTimestamp(query.getTimestamp());
+      copy.setStatementType(query.getStatementType());
+      copy.setSqlStatement(query.getSqlStatement());
+      copy.setReturnValue(query.getReturnValue());
+      copy.setResponseTime(query.getResponseTime());
+      copy.setCount(query.getCount());
+      copy.setTotalResponseTime(query.getTotalResponseTime());
+      copy.setMinResponseTime(query.getMinResponseTime());
+      copy.setMaxResponseTime(query.getMaxResponseTime());
+      copy.setReturnValues(new ArrayList<>(query.getReturnValues()));
+      return copy;
+    } else if (original instanceof Event) {
+      final Event event = (Event) original;
+      final Event copy = new Event(event.getId(), event.getTimestamp(), event.getEventType(),
+          event.getEventMessage());
+      copy.setOccurrences(event.getOccurrences());
+      copy.setLastOccurrenceTimestamp(event.getLastOccurrenceTimestamp());
+      return copy;
+    } else if (original instanceof Timestamp) {
+      final Timestamp timestamp = (Timestamp) original;
+      return new Timestamp(timestamp.getId(), timestamp.getTimestamp(),
+          timestamp.getTotalRequests());
+    }
+
+    throw new IllegalArgumentException(
+        "Cannot copy entity of type " + original.getClass().getName());
+  }
+
+  private void link(final BaseEntity original, final BaseEntity copied) { // NOPMD
+    if (original instanceof Landscape) {
+      final Landscape landscape = (Landscape) original;
+      final Landscape copy = (Landscape) copied;
+      copy.setTimestamp(this.copyOf(landscape.getTimestamp()));
+      this.copyInto(landscape.getSystems(), copy.getSystems());
+      this.copyInto(landscape.getEvents(), copy.getEvents());
+      copy.setTotalApplicationCommunications(
+          this.copyOf(landscape.getTotalApplicationCommunications()));
+    } else if (original instanceof System) {
+      final System system = (System) original;
+      final System copy = (System) copied;
+      copy.setParent(this.copyOf(system.getParent()));
+      this.copyInto(system.getNodeGroups(), copy.getNodeGroups());
+    } else if (original instanceof NodeGroup) {
+      final NodeGroup nodeGroup = (NodeGroup) original;
+      final NodeGroup copy = (NodeGroup) copied;
+      copy.setParent(this.copyOf(nodeGroup.getParent()));
+      this.copyInto(nodeGroup.getNodes(), copy.getNodes());
+    } else if (original instanceof Node) {
+      final Node node = (Node) original;
+      final Node copy = (Node) copied;
+      copy.setParent(this.copyOf(node.getParent()));
+      this.copyInto(node.getApplications(), copy.getApplications());
+    } else if (original instanceof Application) {
+      final Application application = (Application) original;
+      final Application copy = (Application) copied;
+      copy.setParent(this.copyOf(application.getParent()));
+      copy.setComponents(this.copyOf(application.getComponents()));
+      copy.setDatabaseQueries(this.copyOf(application.getDatabaseQueries()));
+      copy.setApplicationCommunications(this.copyOf(application.getApplicationCommunications()));
+      copy.setAggregatedClazzCommunications(
+          this.copyOf(application.getAggregatedClazzCommunications()));
+      copy.setTraces(this.copyOf(application.getTraces()));
+    } else if (original instanceof Component) {
+      final Component component = (Component) original;
+      final Component copy = (Component) copied;
+      copy.setParentComponent(this.copyOf(component.getParentComponent()));
+      copy.setBelongingApplication(this.copyOf(component.getBelongingApplication()));
+      copy.setChildren(this.copyOf(component.getChildren()));
+      copy.setClazzes(this.copyOf(component.getClazzes()));
+    } else if (original instanceof Clazz) {
+      final Clazz clazz = (Clazz) original;
+      final Clazz copy = (Clazz) copied;
+      copy.setParent(this.copyOf(clazz.getParent()));
+      copy.setClazzCommunications(this.copyOf(clazz.getClazzCommunications()));
+    } else if (original instanceof ClazzCommunication) {
+      final ClazzCommunication commu = (ClazzCommunication) original;
+      final ClazzCommunication copy = (ClazzCommunication) copied;
+      copy.setSourceClazz(this.copyOf(commu.getSourceClazz()));
+      copy.setTargetClazz(this.copyOf(commu.getTargetClazz()));
+      copy.setTraceSteps(this.copyOf(commu.getTraceSteps()));
+    } else if (original instanceof AggregatedClazzCommunication) {
+      final AggregatedClazzCommunication commu = (AggregatedClazzCommunication) original;
+      final AggregatedClazzCommunication copy = (AggregatedClazzCommunication) copied;
+      copy.setSourceClazz(this.copyOf(commu.getSourceClazz()));
+      copy.setTargetClazz(this.copyOf(commu.getTargetClazz()));
+      copy.setClazzCommunications(this.copyOf(commu.getClazzCommunications()));
+    } else if (original instanceof ApplicationCommunication) {
+      final ApplicationCommunication commu = (ApplicationCommunication) original;
+      final ApplicationCommunication copy = (ApplicationCommunication) copied;
+      copy.setSourceApplication(this.copyOf(commu.getSourceApplication()));
+      copy.setTargetApplication(this.copyOf(commu.getTargetApplication()));
+      copy.setSourceClazz(this.copyOf(commu.getSourceClazz()));
+      copy.setTargetClazz(this.copyOf(commu.getTargetClazz()));
+    } else if (original instanceof Trace) {
+      final Trace trace = (Trace) original;
+      final Trace copy = (Trace) copied;
+      copy.setTraceSteps(this.copyOf(trace.getTraceSteps()));
+    } else if (original instanceof TraceStep) {
+      final TraceStep traceStep = (TraceStep) original;
+      final TraceStep copy = (TraceStep) copied;
+      copy.setParentTrace(this.copyOf(traceStep.getParentTrace()));
+      copy.setClazzCommunication(this.copyOf(traceStep.getClazzCommunication()));
+    } else if (original instanceof DatabaseQuery) {
+      final DatabaseQuery query = (DatabaseQuery) original;
+      final DatabaseQuery copy = (DatabaseQuery) copied;
+      copy.setParentApplication(this.copyOf(query.getParentApplication()));
+    }
+    // events and timestamps have no relationships
+  }
+
+}
@@ -0,0 +1,44 @@
+package net.explorviz.landscape.model.helper;
+
+import java.io.IOException;
+import net.explorviz.landscape.model.landscape.Landscape;
+
+/**
+ * Encoding of a landscape for the exchange between services. Implementations are registered at
+ * {@link LandscapeCodecs}, either as one of the built-in codecs or as a service provider of this
+ * interface (see {@link java.util.ServiceLoader}).
+ */
+public interface LandscapeCodec {
+
+  /**
+   * Name of the Kafka header carrying the name of the codec, which encoded the record. Records
+   * without this header are encoded with the {@link JsonApiLandscapeCodec}.
+   */
+  String CODEC_HEADER = "explorviz-landscape-codec";
+
+  /**
+   * Returns the unique name of the codec, which is used as value of the {@link #CODEC_HEADER}.
+   *
+   * @return the name of the codec
+   */
+  String getName();
+
+  /**
+   * Encodes a landscape and all its entities.
+   *
+   * @param landscape - the landscape to encode
+   * @return the encoded landscape
+   * @throws IOException if the landscape could not be encoded
+   */
+  byte[] encode(Landscape landscape) throws IOException;
+
+  /**
+   * Decodes a landscape, which was encoded by the same codec.
+   *
+   * @param encoded - the encoded landscape
+   * @return the decoded landscape
+   * @throws IOException if the passed bytes are no valid encoding of a landscape
+   */
+  Landscape decode(byte[] encoded) throws IOException;
+
+}
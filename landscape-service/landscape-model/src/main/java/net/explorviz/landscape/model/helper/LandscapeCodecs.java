@@ -0,0 +1,64 @@
+package net.explorviz.landscape.model.helper;
+
+import com.github.jasminb.jsonapi.ResourceConverter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the available {@link LandscapeCodec}s, i.e., the {@link JsonApiLandscapeCodec}, the
+ * {@link BinaryLandscapeCodec} and all service providers of {@link LandscapeCodec} on the class
+ * path.
+ */
+public final class LandscapeCodecs {
+
+  private final Map<String, LandscapeCodec> codecs = new LinkedHashMap<>();
+  private final LandscapeCodec defaultCodec;
+
+  /**
+   * Creates the registry.
+   *
+   * @param jsonApiConverter - converter of the default codec
+   */
+  public LandscapeCodecs(final ResourceConverter jsonApiConverter) {
+    this.defaultCodec = new JsonApiLandscapeCodec(jsonApiConverter);
+    this.register(this.defaultCodec);
+    this.register(new BinaryLandscapeCodec());
+
+    for (final LandscapeCodec codec : ServiceLoader.load(LandscapeCodec.class)) {
+      this.register(codec);
+    }
+  }
+
+  private void register(final LandscapeCodec codec) {
+    if (this.codecs.putIfAbsent(codec.getName(), codec) != null) {
+      throw new IllegalStateException("Duplicate landscape codec " + codec.getName());
+    }
+  }
+
+  /**
+   * Returns the codec with the passed name.
+   *
+   * @param name - the name of the codec, e.g., the value of the
+   *        {@link LandscapeCodec#CODEC_HEADER}, null for the default codec
+   * @return the codec
+   * @throws IllegalArgumentException if no codec with this name is available
+   */
+  public LandscapeCodec get(final String name) {
+    if (name == null) {
+      return this.defaultCodec;
+    }
+
+    final LandscapeCodec codec = this.codecs.get(name);
+    if (codec == null) {
+      throw new IllegalArgumentException(
+          "Unknown landscape codec " + name + ", available: " + this.codecs.keySet());
+    }
+    return codec;
+  }
+
+  public LandscapeCodec getDefault() {
+    return this.defaultCodec;
+  }
+
+}
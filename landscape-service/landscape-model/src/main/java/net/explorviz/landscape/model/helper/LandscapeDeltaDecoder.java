@@ -0,0 +1,82 @@
+package net.explorviz.landscape.model.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Reconstructs the serialized (json api) landscapes of a sequence of keyframes and deltas produced
+ * by the {@link LandscapeDeltaEncoder}. A decoder keeps the last reconstructed landscape, hence
+ * every consumer of the sequence requires its own instance.
+ */
+public final class LandscapeDeltaDecoder {
+
+  private JsonApiResources current;
+
+  /**
+   * Reconstructs the complete landscape of a frame.
+   *
+   * @param payload - the payload of the frame
+   * @param frameType - value of the {@link LandscapeDeltaEncoder#FRAME_HEADER}, null if the
+   *        payload is a complete document
+   * @return the serialized landscape or null, if the delta does not refer to the last
+   *         reconstructed landscape (e.g., when the consumer started after the last keyframe)
+   * @throws IOException if the payload could not be parsed
+   */
+  public byte[] decode(final byte[] payload, final String frameType) throws IOException {
+    final ObjectNode frame = (ObjectNode) JsonApiResources.MAPPER.readTree(payload);
+
+    if (!LandscapeDeltaEncoder.DELTA.equals(frameType)) {
+      this.current = new JsonApiResources(frame);
+      return payload;
+    }
+
+    if (this.current == null || !frame.path(LandscapeDeltaEncoder.BASE).asText()
+        .equals(this.current.primaryId())) {
+      return null;
+    }
+
+    final Map<String, ObjectNode> resources = this.current.resources();
+
+    for (final JsonNode identifier : frame.path(LandscapeDeltaEncoder.REMOVED)) {
+      resources.remove(JsonApiResources.key(identifier));
+    }
+
+    for (final JsonNode resource : frame.path(JsonApiResources.INCLUDED)) {
+      final String key = JsonApiResources.key(resource);
+      final ObjectNode existing = resources.get(key);
+      if (existing == null) {
+        resources.put(key, (ObjectNode) resource);
+      } else {
+        merge(existing, resource, JsonApiResources.ATTRIBUTES);
+        merge(existing, resource, JsonApiResources.RELATIONSHIPS);
+      }
+    }
+
+    this.current.document().set(JsonApiResources.DATA, frame.get(JsonApiResources.DATA));
+    this.current.updateIncluded();
+
+    return JsonApiResources.MAPPER.writeValueAsBytes(this.current.document());
+  }
+
+  private static void merge(final ObjectNode resource, final JsonNode patch, final String member) {
+    final JsonNode changed = patch.get(member);
+    if (changed == null) {
+      return;
+    }
+
+    final ObjectNode fields = resource.with(member);
+    final Iterator<Map.Entry<String, JsonNode>> iterator = changed.fields();
+    while (iterator.hasNext()) {
+      final Map.Entry<String, JsonNode> field = iterator.next();
+      if (field.getValue().isNull()) {
+        fields.remove(field.getKey());
+      } else {
+        fields.set(field.getKey(), field.getValue());
+      }
+    }
+  }
+
+}
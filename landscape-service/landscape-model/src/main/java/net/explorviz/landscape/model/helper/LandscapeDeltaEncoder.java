@@ -0,0 +1,243 @@
+package net.explorviz.landscape.model.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Encodes a sequence of serialized (json api) landscapes as keyframes and deltas. A keyframe is
+ * the complete document, a delta contains the primary resource, all added resources, the changed
+ * attributes and relationships of the remaining resources and the removed resources with respect
+ * to the previous landscape. Deltas are reconstructed by the {@link LandscapeDeltaDecoder}.
+ *
+ * <p>
+ * Since the Jackson object ids ({@value JsonApiResources#OBJECT_ID}) are generated randomly for
+ * every serialization, the object ids of resources which are already known (and references to
+ * them) are replaced by the ones of the previous landscape before comparing.
+ * </p>
+ */
+public final class LandscapeDeltaEncoder {
+
+  /**
+   * Name of the Kafka header carrying the frame type of a record. Records without this header
+   * contain a complete document.
+   */
+  public static final String FRAME_HEADER = "explorviz-landscape-frame";
+
+  public static final String KEYFRAME = "keyframe";
+  public static final String DELTA = "delta";
+
+  static final String BASE = "base";
+  static final String REMOVED = "removed";
+
+  private final int keyframeInterval;
+
+  private JsonApiResources baseline;
+  private int framesSinceKeyframe;
+
+  /**
+   * Creates an encoder.
+   *
+   * @param keyframeInterval - every n-th frame is a keyframe, values <= 1 only produce keyframes
+   */
+  public LandscapeDeltaEncoder(final int keyframeInterval) {
+    this.keyframeInterval = keyframeInterval;
+  }
+
+  /**
+   * Encodes the next landscape of the sequence.
+   *
+   * @param document - the serialized (json api) landscape
+   * @return the keyframe or delta which must be published
+   * @throws IOException if the document could not be parsed
+   */
+  public Frame encode(final byte[] document) throws IOException {
+    final JsonApiResources current =
+        new JsonApiResources((ObjectNode) JsonApiResources.MAPPER.readTree(document));
+
+    if (this.baseline != null && this.framesSinceKeyframe + 1 < this.keyframeInterval) {
+      this.adoptObjectIds(current);
+      final byte[] delta = JsonApiResources.MAPPER.writeValueAsBytes(this.diff(current));
+
+      // a keyframe is cheaper if most resources changed, e.g., after a restart of the monitoring
+      if (delta.length < document.length) {
+        this.baseline = current;
+        this.framesSinceKeyframe++;
+        return new Frame(false, delta);
+      }
+    }
+
+    this.baseline = current;
+    this.framesSinceKeyframe = 0;
+    return new Frame(true, document);
+  }
+
+  /**
+   * Replaces the object ids of the resources, which are contained in the baseline, and all
+   * references to them by the object ids of the baseline.
+   */
+  private void adoptObjectIds(final JsonApiResources current) {
+    final Map<String, JsonNode> objectIds = new HashMap<>();
+
+    for (final Map.Entry<String, ObjectNode> entry : current.resources().entrySet()) {
+      final ObjectNode previous = this.baseline.resources().get(entry.getKey());
+      if (previous != null) {
+        final JsonNode previousId = previous.path(JsonApiResources.ATTRIBUTES)
+            .path(JsonApiResources.OBJECT_ID);
+        final JsonNode currentId = entry.getValue().path(JsonApiResources.ATTRIBUTES)
+            .path(JsonApiResources.OBJECT_ID);
+        if (previousId.isTextual() && currentId.isTextual()) {
+          objectIds.put(currentId.asText(), previousId);
+        }
+      }
+    }
+
+    this.replaceObjectIds(current.primary(), objectIds);
+    for (final Map.Entry<String, ObjectNode> entry : current.resources().entrySet()) {
+      this.replaceObjectIds(entry.getValue(), objectIds);
+    }
+  }
+
+  private void replaceObjectIds(final ObjectNode resource, final Map<String, JsonNode> objectIds) {
+    final ObjectNode previous = this.baseline.resources().get(JsonApiResources.key(resource));
+    final Iterator<Map.Entry<String, JsonNode>> attributes =
+        resource.path(JsonApiResources.ATTRIBUTES).fields();
+
+    while (attributes.hasNext()) {
+      final Map.Entry<String, JsonNode> attribute = attributes.next();
+      if (attribute.getValue().isTextual()) {
+        final JsonNode objectId = objectIds.get(attribute.getValue().asText());
+        if (objectId != null) {
+          attribute.setValue(objectId);
+        } else if (previous != null
+            && JsonApiResources.UNRESOLVED_REFERENCES.contains(attribute.getKey())) {
+          final JsonNode previousReference =
+              previous.path(JsonApiResources.ATTRIBUTES).get(attribute.getKey());
+          if (previousReference != null && previousReference.isTextual()) {
+            attribute.setValue(previousReference);
+          }
+        }
+      }
+    }
+  }
+
+  private ObjectNode diff(final JsonApiResources current) {
+    final ObjectNode delta = JsonApiResources.MAPPER.createObjectNode();
+    delta.put(BASE, this.baseline.primaryId());
+    delta.set(JsonApiResources.DATA, current.primary());
+
+    final ArrayNode included = delta.putArray(JsonApiResources.INCLUDED);
+    for (final Map.Entry<String, ObjectNode> entry : current.resources().entrySet()) {
+      final ObjectNode previous = this.baseline.resources().get(entry.getKey());
+      if (previous == null) {
+        included.add(entry.getValue());
+      } else {
+        final ObjectNode patch = patch(previous, entry.getValue());
+        if (patch != null) {
+          included.add(patch);
+        }
+      }
+    }
+
+    final ArrayNode removed = delta.putArray(REMOVED);
+    for (final Map.Entry<String, ObjectNode> entry : this.baseline.resources().entrySet()) {
+      if (!current.resources().containsKey(entry.getKey())) {
+        final ObjectNode identifier = removed.addObject();
+        identifier.set(JsonApiResources.TYPE, entry.getValue().get(JsonApiResources.TYPE));
+        identifier.set(JsonApiResources.ID, entry.getValue().get(JsonApiResources.ID));
+      }
+    }
+
+    return delta;
+  }
+
+  /**
+   * Computes the changed attributes and relationships of a resource.
+   *
+   * @return the patch or null, if nothing changed
+   */
+  private static ObjectNode patch(final ObjectNode previous, final ObjectNode current) {
+    ObjectNode patch = null;
+
+    for (final String member : new String[] {JsonApiResources.ATTRIBUTES,
+        JsonApiResources.RELATIONSHIPS}) {
+      final ObjectNode changed = changedFields(previous.path(member), current.path(member));
+      if (changed != null) {
+        if (patch == null) {
+          patch = JsonApiResources.MAPPER.createObjectNode();
+          patch.set(JsonApiResources.TYPE, current.get(JsonApiResources.TYPE));
+          patch.set(JsonApiResources.ID, current.get(JsonApiResources.ID));
+        }
+        patch.set(member, changed);
+      }
+    }
+
+    return patch;
+  }
+
+  // removed fields are marked by null
+  private static ObjectNode changedFields(final JsonNode previous, final JsonNode current) {
+    ObjectNode changed = null;
+
+    final Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
+    while (fields.hasNext()) {
+      final Map.Entry<String, JsonNode> field = fields.next();
+      if (!field.getValue().equals(previous.get(field.getKey()))) {
+        if (changed == null) {
+          changed = JsonApiResources.MAPPER.createObjectNode();
+        }
+        changed.set(field.getKey(), field.getValue());
+      }
+    }
+
+    final Iterator<String> previousNames = previous.fieldNames();
+    while (previousNames.hasNext()) {
+      final String name = previousNames.next();
+      if (!current.has(name)) {
+        if (changed == null) {
+          changed = JsonApiResources.MAPPER.createObjectNode();
+        }
+        changed.set(name, NullNode.getInstance());
+      }
+    }
+
+    return changed;
+  }
+
+  /**
+   * An encoded landscape.
+   */
+  public static final class Frame {
+
+    private final boolean keyframe;
+    private final byte[] payload;
+
+    Frame(final boolean keyframe, final byte[] payload) {
+      this.keyframe = keyframe;
+      this.payload = payload;
+    }
+
+    public boolean isKeyframe() {
+      return this.keyframe;
+    }
+
+    /**
+     * Returns the value of the {@link LandscapeDeltaEncoder#FRAME_HEADER} for this frame.
+     *
+     * @return {@link LandscapeDeltaEncoder#KEYFRAME} or {@link LandscapeDeltaEncoder#DELTA}
+     */
+    public String getType() {
+      return this.keyframe ? KEYFRAME : DELTA;
+    }
+
+    public byte[] getPayload() {
+      return this.payload;
+    }
+  }
+
+}
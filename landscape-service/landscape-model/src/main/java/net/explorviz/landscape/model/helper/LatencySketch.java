@@ -0,0 +1,185 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mergeable sketch of response times with a bounded size, similar to an HDR histogram. The response
+ * times are counted in log-linear buckets, i.e., every power of two is divided into eight linear
+ * sub-buckets, hence quantiles are estimated with a relative error of at most 1/16. Response times
+ * below 64 ns share the first bucket, response times above 2^40 ns (about 18 minutes) the last
+ * one. In contrast to the quantiles, the mean is exact.
+ *
+ * <p>
+ * Recording and merging are lock-free and may be called concurrently. Sketches of different
+ * shards or periods are merged by adding their buckets.
+ * </p>
+ *
+ * <p>
+ * The buckets are allocated sparsely in rows of eight, i.e., one power of two, on the first
+ * response time of a row. Since the response times of a single communication usually span only a
+ * few powers of two, a sketch takes a few hundred bytes instead of the 2 KB of all buckets.
+ * </p>
+ */
+public final class LatencySketch {
+
+  public static final double P50 = 0.5;
+  public static final double P95 = 0.95;
+  public static final double P99 = 0.99;
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MIN_EXPONENT = 6;
+  private static final int MAX_EXPONENT = 39;
+
+  // one bucket for the smallest response times and eight per power of two
+  private static final int BUCKETS = 1 + (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+  // the bucket of an index is found in the row index / SUB_BUCKETS, rows are null until used
+  private static final int ROWS = (BUCKETS + SUB_BUCKETS - 1) / SUB_BUCKETS;
+
+  private final AtomicReferenceArray<AtomicLongArray> rows = new AtomicReferenceArray<>(ROWS);
+  private final LongAdder count = new LongAdder();
+  private final DoubleAdder sum = new DoubleAdder();
+
+  /**
+   * Records calls with the passed response time, may be called concurrently.
+   *
+   * @param responseTime - (average) response time of the calls in ns
+   * @param calls - amount of calls, ignored if not positive
+   */
+  public void record(final double responseTime, final long calls) {
+    if (calls <= 0) {
+      return;
+    }
+    this.add(index(responseTime), calls);
+    this.count.add(calls);
+    this.sum.add(responseTime * calls);
+  }
+
+  /**
+   * Adds the response times of the passed sketch to this one, may be called concurrently.
+   *
+   * @param other - the merged sketch, is not modified
+   */
+  public void merge(final LatencySketch other) {
+    for (int row = 0; row < ROWS; row++) {
+      final AtomicLongArray buckets = other.rows.get(row);
+      if (buckets == null) {
+        continue;
+      }
+      for (int i = 0; i < SUB_BUCKETS; i++) {
+        final long calls = buckets.get(i);
+        if (calls != 0) {
+          this.add(row * SUB_BUCKETS + i, calls);
+        }
+      }
+    }
+    this.count.add(other.count.sum());
+    this.sum.add(other.sum.sum());
+  }
+
+  /**
+   * Discards all recorded response times, but keeps the allocated rows for the next period. Calls
+   * recorded concurrently may be lost.
+   */
+  public void reset() {
+    for (int row = 0; row < ROWS; row++) {
+      final AtomicLongArray buckets = this.rows.get(row);
+      if (buckets != null) {
+        for (int i = 0; i < SUB_BUCKETS; i++) {
+          buckets.set(i, 0);
+        }
+      }
+    }
+    this.count.reset();
+    this.sum.reset();
+  }
+
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  /**
+   * Returns the exact mean of the recorded response times.
+   *
+   * @return the mean in ns or 0, if no calls were recorded
+   */
+  public double getMean() {
+    final long calls = this.count.sum();
+    return calls == 0 ? 0 : this.sum.sum() / calls;
+  }
+
+  /**
+   * Estimates a quantile of the recorded response times, i.e., the center of the bucket containing
+   * the response time of the rank <code>ceil(quantile * count)</code>.
+   *
+   * @param quantile - between 0 and 1, e.g., 0.99 for the 99th percentile
+   * @return the estimated response time in ns or 0, if no calls were recorded
+   */
+  public double getQuantile(final double quantile) {
+    // the total is taken from the buckets, since they may be recorded concurrently
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += this.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long calls = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      calls += this.get(i);
+      if (calls >= rank) {
+        return center(i);
+      }
+    }
+    return center(BUCKETS - 1);
+  }
+
+  private void add(final int index, final long calls) {
+    AtomicLongArray buckets = this.rows.get(index / SUB_BUCKETS);
+    if (buckets == null) {
+      // concurrent recorders agree on the first allocated row
+      this.rows.compareAndSet(index / SUB_BUCKETS, null, new AtomicLongArray(SUB_BUCKETS));
+      buckets = this.rows.get(index / SUB_BUCKETS);
+    }
+    buckets.addAndGet(index % SUB_BUCKETS, calls);
+  }
+
+  private long get(final int index) {
+    final AtomicLongArray buckets = this.rows.get(index / SUB_BUCKETS);
+    return buckets == null ? 0 : buckets.get(index % SUB_BUCKETS);
+  }
+
+  private static int index(final double responseTime) {
+    // NaN and negative response times are counted as 0, too large ones are saturated
+    final long value = (long) responseTime;
+    if (value < 1L << MIN_EXPONENT) {
+      return 0;
+    }
+
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    if (exponent > MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return 1 + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+  }
+
+  private static double center(final int index) {
+    if (index == 0) {
+      return (1L << MIN_EXPONENT) / 2d;
+    }
+
+    final int exponent = MIN_EXPONENT + (index - 1) / SUB_BUCKETS;
+    final int subBucket = (index - 1) % SUB_BUCKETS;
+    final long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return (SUB_BUCKETS + subBucket) * width + width / 2d;
+  }
+
+}
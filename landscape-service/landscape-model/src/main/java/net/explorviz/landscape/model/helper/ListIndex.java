@@ -0,0 +1,62 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hash index over the elements of a list, see {@link AbstractListIndex}.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the indexed elements
+ */
+public final class ListIndex<K, V> extends AbstractListIndex<V> {
+
+  private final Function<V, K> keyFunction;
+  private final Map<K, V> index = new HashMap<>();
+
+  /**
+   * Creates a new, empty index.
+   *
+   * @param keyFunction - computes the key of an element
+   */
+  public ListIndex(final Function<V, K> keyFunction) {
+    super();
+    this.keyFunction = keyFunction;
+  }
+
+  /**
+   * Returns the first element of the passed list with the passed key.
+   *
+   * @param list - the indexed list
+   * @param key - the key of the element
+   * @return the element or null, if no element has this key
+   */
+  public V get(final List<V> list, final K key) {
+    this.synchronize(list);
+    return this.index.get(key);
+  }
+
+  /**
+   * Appends the passed element to the list and indexes it.
+   *
+   * @param list - the indexed list
+   * @param element - the new element
+   */
+  public void add(final List<V> list, final V element) {
+    list.add(element);
+    this.synchronize(list);
+  }
+
+  @Override
+  protected void index(final V element) {
+    this.index.putIfAbsent(this.keyFunction.apply(element), element);
+  }
+
+  @Override
+  protected void clearIndex() {
+    this.index.clear();
+  }
+
+}
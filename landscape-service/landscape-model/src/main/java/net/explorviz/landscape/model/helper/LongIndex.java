@@ -0,0 +1,98 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to non-null values, so that lookups neither
+ * box nor format the key.
+ *
+ * @param <V> type of the values
+ */
+public final class LongIndex<V> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private Object[] values = new Object[INITIAL_CAPACITY];
+  private int size;
+
+  private static int mix(final long key) {
+    final long hash = key * 0x9E3779B97F4A7C15L; // NOCS
+    return (int) (hash ^ (hash >>> 32)); // NOCS
+  }
+
+  private int slot(final long[] keyArray, final Object[] valueArray, final long key) {
+    final int mask = keyArray.length - 1;
+    int slot = mix(key) & mask;
+    while (valueArray[slot] != null && keyArray[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Returns the value of the passed key.
+   *
+   * @param key - the key
+   * @return the value or null, if the key is not contained
+   */
+  @SuppressWarnings("unchecked")
+  public V get(final long key) {
+    return (V) this.values[this.slot(this.keys, this.values, key)];
+  }
+
+  /**
+   * Associates the passed value with the passed key, unless the key is already contained.
+   *
+   * @param key - the key
+   * @param value - the non-null value
+   * @return the previously contained value or null, if the value was added
+   */
+  @SuppressWarnings("unchecked")
+  public V putIfAbsent(final long key, final V value) {
+    final int slot = this.slot(this.keys, this.values, key);
+    if (this.values[slot] != null) {
+      return (V) this.values[slot];
+    }
+
+    this.keys[slot] = key;
+    this.values[slot] = value;
+    this.size++;
+
+    // keep the load factor at most 1/2
+    if (this.size * 2 > this.keys.length) {
+      this.grow();
+    }
+    return null;
+  }
+
+  private void grow() {
+    final long[] newKeys = new long[this.keys.length * 2];
+    final Object[] newValues = new Object[this.values.length * 2];
+
+    for (int i = 0; i < this.keys.length; i++) {
+      if (this.values[i] != null) {
+        final int slot = this.slot(newKeys, newValues, this.keys[i]);
+        newKeys[slot] = this.keys[i];
+        newValues[slot] = this.values[i];
+      }
+    }
+
+    this.keys = newKeys;
+    this.values = newValues;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Removes all entries. The capacity is retained, since the next period usually holds a similar
+   * number of entries.
+   */
+  public void clear() {
+    Arrays.fill(this.values, null);
+    this.size = 0;
+  }
+
+}
@@ -0,0 +1,68 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Index over the elements of a list by a primitive long key, see {@link AbstractListIndex}. The
+ * lookups neither box nor format the key.
+ *
+ * @param <V> type of the indexed elements
+ */
+public final class LongListIndex<V> extends AbstractListIndex<V> {
+
+  private final Predicate<V> indexed;
+  private final ToLongFunction<V> keyFunction;
+  private final LongIndex<V> index = new LongIndex<>();
+
+  /**
+   * Creates a new, empty index.
+   *
+   * @param indexed - selects the elements, which have a key, the others are never looked up
+   * @param keyFunction - computes the key of a selected element
+   */
+  public LongListIndex(final Predicate<V> indexed, final ToLongFunction<V> keyFunction) {
+    super();
+    this.indexed = indexed;
+    this.keyFunction = keyFunction;
+  }
+
+  /**
+   * Returns the first element of the passed list with the passed key.
+   *
+   * @param list - the indexed list
+   * @param key - the key of the element
+   * @return the element or null, if no element has this key
+   */
+  public V get(final List<V> list, final long key) {
+    this.synchronize(list);
+    return this.index.get(key);
+  }
+
+  /**
+   * Appends the passed element to the list and indexes it by the passed key, i.e., without
+   * computing its key.
+   *
+   * @param list - the indexed list
+   * @param key - the key of the element
+   * @param element - the new element
+   */
+  public void add(final List<V> list, final long key, final V element) {
+    this.append(list, element);
+    this.index.putIfAbsent(key, element);
+  }
+
+  @Override
+  protected void index(final V element) {
+    if (this.indexed.test(element)) {
+      this.index.putIfAbsent(this.keyFunction.applyAsLong(element), element);
+    }
+  }
+
+  @Override
+  protected void clearIndex() {
+    this.index.clear();
+  }
+
+}
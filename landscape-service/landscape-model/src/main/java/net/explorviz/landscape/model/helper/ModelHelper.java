@@ -2,6 +2,7 @@ package net.explorviz.landscape.model.helper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
 import net.explorviz.landscape.model.application.Application;
 import net.explorviz.landscape.model.application.Clazz;
@@ -19,7 +20,11 @@ public final class ModelHelper {
 
   /**
    * Adds a clazz communication or runtime information to a specific clazz within an application.
+   * The trace is looked up by the numeric trace id of the monitoring records, which is only
+   * formatted if a new trace is created. The ids of new entities are only requested from the
+   * passed supplier, if the entities are actually created.
    *
+   * @param ids - Supplier of the ids of new entities
    * @param caller - Calling clazz
    * @param callee - Called clazz
    * @param application - Related application
@@ -30,45 +35,52 @@ public final class ModelHelper {
    * @param tracePosition - Position within the trace
    * @param operationName - Name of the called operation
    */
-  public static void addClazzCommunication(final String potentialNewTraceId,
-      final String potentialNewClazzCommuId, final String potentialNewAggClazzCommuId,
-      final String traceStepId, final Clazz caller, final Clazz callee,
-      final Application application, final int requests, final double averageResponseTime,
-      final double overallTraceDuration, final String traceId, final int tracePosition,
-      final String operationName) {
+  public static void addClazzCommunication(final Supplier<String> ids, final Clazz caller,
+      final Clazz callee, final Application application, final int requests,
+      final double averageResponseTime, final double overallTraceDuration, final long traceId,
+      final int tracePosition, final String operationName) {
+
+    final ClazzCommunication commu = seekOrCreateClazzCommunication(ids, caller, callee,
+        application, requests, averageResponseTime, operationName);
+    commu.addTraceStep(ids, application, traceId, tracePosition, requests,
+        (float) averageResponseTime, (float) overallTraceDuration);
+  }
+
+  // updates the matching clazzCommunication or creates a new one, without adding the trace step
+  private static ClazzCommunication seekOrCreateClazzCommunication(final Supplier<String> ids,
+      final Clazz caller, final Clazz callee, final Application application, final int requests,
+      final double averageResponseTime, final String operationName) {
+
+    final ListIndex<CommunicationKey, ClazzCommunication> index =
+        caller.clazzCommunicationIndex();
 
     // clazzCommunication already exists
-    for (final ClazzCommunication commu : caller.getClazzCommunications()) {
-      if (commu.getSourceClazz() == caller && commu.getTargetClazz() == callee
-          && commu.getOperationName().equalsIgnoreCase(operationName)) {
-
-        final float currentAverageResponseTime = commu.getAverageResponseTime();
-        commu.setAverageResponseTime(
-            (currentAverageResponseTime + (float) averageResponseTime) / 2f);
-        final int newTotalRequests = commu.getTotalRequests() + requests;
-        commu.setTotalRequests(newTotalRequests);
-        commu.addTraceStep(potentialNewTraceId, traceStepId, application, traceId, tracePosition,
-            requests, (float) averageResponseTime, (float) overallTraceDuration);
-
-        return;
-      }
+    final ClazzCommunication existingCommu = index.get(caller.getClazzCommunications(),
+        new CommunicationKey(caller, callee, operationName));
+
+    if (existingCommu != null) {
+      existingCommu.recordResponseTime(requests, averageResponseTime);
+      final int newTotalRequests = existingCommu.getTotalRequests() + requests;
+      existingCommu.setTotalRequests(newTotalRequests);
+
+      return existingCommu;
     }
 
     // create new clazzCommunication
-    final ClazzCommunication commu = new ClazzCommunication(potentialNewClazzCommuId);
+    final ClazzCommunication commu = new ClazzCommunication(ids.get());
     commu.setSourceClazz(caller);
     commu.setTargetClazz(callee);
     commu.setOperationName(operationName);
-    commu.setAverageResponseTime((float) averageResponseTime);
+    commu.recordResponseTime(requests, averageResponseTime);
     commu.setTotalRequests(requests);
-    commu.addTraceStep(potentialNewTraceId, traceStepId, application, traceId, tracePosition,
-        requests, (float) averageResponseTime, (float) overallTraceDuration);
 
     // add clazzCommunication to calling clazz (sourceClazz)
-    caller.getClazzCommunications().add(commu);
+    index.add(caller.getClazzCommunications(), commu);
 
     // add aggregatedClazzCommunication to application
-    ModelHelper.addAggregatedClazzCommunication(potentialNewAggClazzCommuId, application, commu);
+    ModelHelper.addAggregatedClazzCommunication(ids, application, commu);
+
+    return commu;
   }
 
   /**
@@ -132,43 +144,37 @@ public final class ModelHelper {
   /**
    * Adds a clazzCommunication to a matching aggregatedClazzCommunication or creates a new one.
    *
+   * @param aggregatedCommuId - Supplier of the id, if a new aggregatedClazzCommunication is created
    * @param application - Related application
    * @param newCommunication - The ClazzCommunication which should be added
    */
-  public static void addAggregatedClazzCommunication(final String aggregatedCommuId,
+  public static void addAggregatedClazzCommunication(final Supplier<String> aggregatedCommuId,
       final Application application, final ClazzCommunication newCommunication) {
 
     final List<AggregatedClazzCommunication> aggregatedClazzCommunications =
         application.getAggregatedClazzCommunications();
+    final ListIndex<CommunicationKey, AggregatedClazzCommunication> index =
+        application.aggregatedClazzCommunicationIndex();
 
     // check if a matching aggregatedClazzCommunication already exists
-    for (final AggregatedClazzCommunication aggClazzCommu : aggregatedClazzCommunications) {
-      if (aggClazzCommu.getSourceClazz().equals(newCommunication.getSourceClazz())
-          && aggClazzCommu.getTargetClazz().equals(newCommunication.getTargetClazz())) {
-        aggClazzCommu.addClazzCommunication(newCommunication);
-
-        final float currentAverageResponseTime = aggClazzCommu.getAverageResponseTime();
-        aggClazzCommu.setAverageResponseTime(
-            (currentAverageResponseTime + newCommunication.getAverageResponseTime()) / 2f);
-        final int newTotalRequests =
-            aggClazzCommu.getTotalRequests() + newCommunication.getTotalRequests();
-        aggClazzCommu.setTotalRequests(newTotalRequests);
-
-        return;
-      }
+    final AggregatedClazzCommunication aggClazzCommu = index.get(aggregatedClazzCommunications,
+        new CommunicationKey(newCommunication.getSourceClazz(), newCommunication.getTargetClazz(),
+            null));
+
+    if (aggClazzCommu != null) {
+      aggClazzCommu.addClazzCommunication(newCommunication);
+      return;
     }
 
     // creates a new aggregatedClazzCommunication
     final AggregatedClazzCommunication aggCommu =
-        new AggregatedClazzCommunication(aggregatedCommuId);
+        new AggregatedClazzCommunication(aggregatedCommuId.get());
     aggCommu.setSourceClazz(newCommunication.getSourceClazz());
     aggCommu.setTargetClazz(newCommunication.getTargetClazz());
-    aggCommu.setAverageResponseTime(newCommunication.getAverageResponseTime());
-    aggCommu.setTotalRequests(newCommunication.getTotalRequests());
 
     // adds a clazzCommunication if sourceClazz and targetClazz matches
     if (aggCommu.addClazzCommunication(newCommunication)) {
-      aggregatedClazzCommunications.add(aggCommu);
+      index.add(aggregatedClazzCommunications, aggCommu);
 
     }
   }
@@ -0,0 +1,31 @@
+package net.explorviz.landscape.model.helper;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counter of the requests of an entity within the current period. Closing a period
+ * returns its total, while the counting continues for the next one.
+ */
+public final class RequestCounter {
+
+  private final LongAdder currentPeriod = new LongAdder();
+
+  /**
+   * Adds requests to the current period, may be called concurrently.
+   *
+   * @param requests - number of requests
+   */
+  public void add(final long requests) {
+    this.currentPeriod.add(requests);
+  }
+
+  /**
+   * Closes the current period.
+   *
+   * @return the total requests of the closed period
+   */
+  public long closePeriod() {
+    return this.currentPeriod.sumThenReset();
+  }
+
+}
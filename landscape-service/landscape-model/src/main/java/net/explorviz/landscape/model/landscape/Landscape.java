@@ -2,18 +2,22 @@ package net.explorviz.landscape.model.landscape;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
 import com.github.jasminb.jsonapi.annotations.Type;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import net.explorviz.landscape.model.application.Application;
 import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.application.Clazz;
 import net.explorviz.landscape.model.event.EEventType;
 import net.explorviz.landscape.model.event.Event;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.RequestCounter;
 import net.explorviz.landscape.model.store.Timestamp;
 
 /**
@@ -37,6 +41,36 @@ public class Landscape extends BaseEntity {
   @Relationship("totalApplicationCommunications")
   private List<ApplicationCommunication> totalApplicationCommunications = new ArrayList<>();
 
+  /**
+   * Default maximum number of exception events and of other events, which are retained per period.
+   */
+  public static final int DEFAULT_MAX_EVENTS_PER_PERIOD = 1000;
+
+  @JsonIgnore
+  private int maxEventsPerPeriod = DEFAULT_MAX_EVENTS_PER_PERIOD;
+
+  // bookkeeping of the events list, rebuilt from the list if it was modified elsewhere
+  @JsonIgnore
+  private transient long lastExceptionMillis;
+  @JsonIgnore
+  private transient long lastEventMillis;
+  @JsonIgnore
+  private transient int exceptionEventCount;
+  @JsonIgnore
+  private transient int otherEventCount;
+  @JsonIgnore
+  private transient int trackedEventCount;
+  @JsonIgnore
+  private transient int droppedEvents;
+
+  // exception events of the current period by (application, clazz, cause fingerprint)
+  @JsonIgnore
+  private transient Map<ExceptionKey, Event> exceptionEvents;
+
+  // requests of this landscape and its children in the current period
+  @JsonIgnore
+  private final transient RequestCounter requestCounter = new RequestCounter();
+
   @JsonCreator
   public Landscape(@JsonProperty("id") final String id,
       @JsonProperty("timestamps") final Timestamp timestamp) {
@@ -44,6 +78,10 @@ public class Landscape extends BaseEntity {
     this.timestamp = timestamp;
   }
 
+  public RequestCounter requestCounter() {
+    return this.requestCounter;
+  }
+
   public Timestamp getTimestamp() {
     return this.timestamp;
   }
@@ -60,6 +98,32 @@ public class Landscape extends BaseEntity {
     return this.events;
   }
 
+  @JsonIgnore
+  public int getMaxEventsPerPeriod() {
+    return this.maxEventsPerPeriod;
+  }
+
+  /**
+   * Sets the maximum number of exception events and of other events, which are retained per
+   * period. Further events are dropped and only counted.
+   *
+   * @param maxEventsPerPeriod - maximum number of events of each kind
+   */
+  public void setMaxEventsPerPeriod(final int maxEventsPerPeriod) {
+    this.maxEventsPerPeriod = maxEventsPerPeriod;
+  }
+
+  /**
+   * Returns the number of events, which were dropped in the current period since the maximum number
+   * of events was reached.
+   *
+   * @return the number of dropped events
+   */
+  @JsonIgnore
+  public int getDroppedEvents() {
+    return this.droppedEvents;
+  }
+
   public List<ApplicationCommunication> getTotalApplicationCommunications() {
     return this.totalApplicationCommunications;
   }
@@ -94,33 +158,134 @@ public class Landscape extends BaseEntity {
    * Resets the landscape.
    */
   public void reset() {
-    this.getEvents().clear();
+    this.clearEvents();
     this.clearCommunication();
   }
 
   /**
-   * Creates a new exception event to the list of events in the landscape.
+   * Resets the landscape-level state of a period, i.e., the events and the requests of the
+   * application communication. In contrast to {@link #reset()}, the applications are not
+   * traversed, hence their per-period state must be reset separately.
+   */
+  public void resetPeriod() {
+    this.clearEvents();
+
+    for (final ApplicationCommunication commu : this.getTotalApplicationCommunications()) {
+      commu.reset();
+    }
+  }
+
+  // the last assigned timestamps are kept, hence timestamps stay unique across periods
+  private void clearEvents() {
+    this.events.clear();
+    this.exceptionEventCount = 0;
+    this.otherEventCount = 0;
+    this.trackedEventCount = 0;
+    this.droppedEvents = 0;
+    if (this.exceptionEvents != null) {
+      this.exceptionEvents.clear();
+    }
+  }
+
+  // accounts for events, which were not added by createNewEvent or createNewException
+  private void synchronizeEventTracking() {
+    if (this.events.size() == this.trackedEventCount) {
+      return;
+    }
+
+    // aggregated events might have been removed
+    if (this.exceptionEvents != null) {
+      this.exceptionEvents.clear();
+    }
+
+    this.exceptionEventCount = 0;
+    this.otherEventCount = 0;
+    for (final Event event : this.events) {
+      if (event.getEventType() == EEventType.EXCEPTION) {
+        this.exceptionEventCount++;
+        this.lastExceptionMillis = Math.max(this.lastExceptionMillis, event.getTimestamp());
+      } else {
+        this.otherEventCount++;
+        this.lastEventMillis = Math.max(this.lastEventMillis, event.getTimestamp());
+      }
+    }
+    this.trackedEventCount = this.events.size();
+  }
+
+  /**
+   * Creates a new exception event to the list of events in the landscape. The timestamp is unique
+   * among all exception events, if necessary it is shifted to the next free millisecond.
    *
    * @param id - if of related landscape
    * @param cause - cause of the exception
    */
   public void createNewException(final String id, final String cause) {
-    long currentMillis = java.lang.System.currentTimeMillis();
+    this.synchronizeEventTracking();
 
-    final List<Long> timestampsOfExceptionEvents =
-        this.getEvents().stream().filter(e -> e.getEventType().equals(EEventType.EXCEPTION))
-            .map(Event::getTimestamp).collect(Collectors.toList());
-
-    while (timestampsOfExceptionEvents.contains(currentMillis)) {
-      currentMillis++;
+    if (this.exceptionEventCount >= this.maxEventsPerPeriod) {
+      this.droppedEvents++;
+      return;
     }
 
-    this.getEvents().add(new Event(id, currentMillis, EEventType.EXCEPTION, cause));
+    final long currentMillis =
+        Math.max(java.lang.System.currentTimeMillis(), this.lastExceptionMillis + 1);
+    this.lastExceptionMillis = currentMillis;
+
+    this.events.add(new Event(id, currentMillis, EEventType.EXCEPTION, cause));
+    this.exceptionEventCount++;
+    this.trackedEventCount++;
   }
 
 
   /**
-   * Creates a new event to the list of events in the landscape.
+   * Returns the exception event of the current period, which aggregates the exceptions with the
+   * passed origin and cause.
+   *
+   * @param application - the application, which threw the exception
+   * @param clazz - the clazz, which threw the exception
+   * @param causeFingerprint - fingerprint of the cause of the exception
+   * @return the aggregating event or null, if no such exception occurred in this period
+   */
+  public Event seekException(final Application application, final Clazz clazz,
+      final long causeFingerprint) {
+    this.synchronizeEventTracking();
+
+    if (this.exceptionEvents == null) {
+      return null;
+    }
+    return this.exceptionEvents.get(new ExceptionKey(application, clazz, causeFingerprint));
+  }
+
+  /**
+   * Creates a new exception event, which aggregates further exceptions with the same origin and
+   * cause, see {@link #seekException(Application, Clazz, long)} and
+   * {@link Event#addOccurrence(long)}.
+   *
+   * @param id - id of the new event
+   * @param application - the application, which threw the exception
+   * @param clazz - the clazz, which threw the exception
+   * @param causeFingerprint - fingerprint of the cause of the exception
+   * @param cause - message of the event
+   */
+  public void createNewException(final String id, final Application application,
+      final Clazz clazz, final long causeFingerprint, final String cause) {
+    final int exceptionCount = this.exceptionEventCount;
+    this.createNewException(id, cause);
+
+    // not dropped
+    if (this.exceptionEventCount > exceptionCount) {
+      if (this.exceptionEvents == null) {
+        this.exceptionEvents = new HashMap<>();
+      }
+      this.exceptionEvents.put(new ExceptionKey(application, clazz, causeFingerprint),
+          this.events.get(this.events.size() - 1));
+    }
+  }
+
+  /**
+   * Creates a new event to the list of events in the landscape. The timestamp is unique among all
+   * events, which are not exception events, if necessary it is shifted to the next free
+   * millisecond.
    *
    * @param id - id of related landscape
    * @param eventType - type of event
@@ -128,17 +293,20 @@ public class Landscape extends BaseEntity {
    */
   public void createNewEvent(final String id, final EEventType eventType,
       final String eventMesssage) {
-    long currentMillis = java.lang.System.currentTimeMillis();
-
-    final List<Long> timestampsOfEvents =
-        this.getEvents().stream().filter(e -> !e.getEventType().equals(EEventType.EXCEPTION))
-            .map(Event::getTimestamp).collect(Collectors.toList());
+    this.synchronizeEventTracking();
 
-    while (timestampsOfEvents.contains(currentMillis)) {
-      currentMillis++;
+    if (this.otherEventCount >= this.maxEventsPerPeriod) {
+      this.droppedEvents++;
+      return;
     }
 
-    this.getEvents().add(new Event(id, currentMillis, eventType, eventMesssage));
+    final long currentMillis =
+        Math.max(java.lang.System.currentTimeMillis(), this.lastEventMillis + 1);
+    this.lastEventMillis = currentMillis;
+
+    this.events.add(new Event(id, currentMillis, eventType, eventMesssage));
+    this.otherEventCount++;
+    this.trackedEventCount++;
   }
 
   /**
@@ -154,4 +322,37 @@ public class Landscape extends BaseEntity {
 
   }
 
+  /**
+   * Origin and cause of aggregated exceptions. Entities are compared by identity, since their hash
+   * code is computed from their id on every call.
+   */
+  private static final class ExceptionKey {
+    private final Application application;
+    private final Clazz clazz;
+    private final long causeFingerprint;
+
+    ExceptionKey(final Application application, final Clazz clazz, final long causeFingerprint) {
+      this.application = application;
+      this.clazz = clazz;
+      this.causeFingerprint = causeFingerprint;
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * java.lang.System.identityHashCode(this.application) // NOCS
+          + java.lang.System.identityHashCode(this.clazz)) * 31 // NOCS
+          + Long.hashCode(this.causeFingerprint);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof ExceptionKey)) {
+        return false;
+      }
+      final ExceptionKey other = (ExceptionKey) obj;
+      return this.application == other.application && this.clazz == other.clazz
+          && this.causeFingerprint == other.causeFingerprint;
+    }
+  }
+
 }
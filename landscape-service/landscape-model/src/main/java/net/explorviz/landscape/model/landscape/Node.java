@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 import net.explorviz.landscape.model.application.Application;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.RequestCounter;
 
 /**
  * Model representing a node (host within a software landscape).
@@ -26,17 +27,49 @@ public class Node extends BaseEntity {
   private long freeRAM;
   private long usedRAM;
 
+  // utilization statistics of the current period, the fields above hold the last sample
+  private int utilizationSamples;
+  private double minCpuUtilization;
+  private double maxCpuUtilization;
+  private double averageCpuUtilization;
+  private long minUsedRAM;
+  private long maxUsedRAM;
+  private long averageUsedRAM;
+
+  // sum of the used RAM samples of the current period, the average is only rounded when set
+  @JsonIgnore
+  private transient long usedRAMSum;
+
   @Relationship("applications")
   private final List<Application> applications = new ArrayList<>();
 
   @Relationship("parent")
   private NodeGroup parent;
 
+  // requests of this node and its children in the current period
+  @JsonIgnore
+  private final transient RequestCounter requestCounter = new RequestCounter();
+
+  // requests of this node and its children in the last closed period
+  private long totalRequests;
+
   @JsonCreator
   public Node(@JsonProperty("id") final String id) {
     super(id);
   }
 
+  public RequestCounter requestCounter() {
+    return this.requestCounter;
+  }
+
+  public long getTotalRequests() {
+    return this.totalRequests;
+  }
+
+  public void setTotalRequests(final long totalRequests) {
+    this.totalRequests = totalRequests;
+  }
+
   public String getName() {
     return this.name;
   }
@@ -85,6 +118,112 @@ public class Node extends BaseEntity {
     return this.usedRAM;
   }
 
+  public int getUtilizationSamples() {
+    return this.utilizationSamples;
+  }
+
+  public void setUtilizationSamples(final int utilizationSamples) {
+    this.utilizationSamples = utilizationSamples;
+  }
+
+  public double getMinCpuUtilization() {
+    return this.minCpuUtilization;
+  }
+
+  public void setMinCpuUtilization(final double minCpuUtilization) {
+    this.minCpuUtilization = minCpuUtilization;
+  }
+
+  public double getMaxCpuUtilization() {
+    return this.maxCpuUtilization;
+  }
+
+  public void setMaxCpuUtilization(final double maxCpuUtilization) {
+    this.maxCpuUtilization = maxCpuUtilization;
+  }
+
+  public double getAverageCpuUtilization() {
+    return this.averageCpuUtilization;
+  }
+
+  public void setAverageCpuUtilization(final double averageCpuUtilization) {
+    this.averageCpuUtilization = averageCpuUtilization;
+  }
+
+  public long getMinUsedRAM() {
+    return this.minUsedRAM;
+  }
+
+  public void setMinUsedRAM(final long minUsedRAM) {
+    this.minUsedRAM = minUsedRAM;
+  }
+
+  public long getMaxUsedRAM() {
+    return this.maxUsedRAM;
+  }
+
+  public void setMaxUsedRAM(final long maxUsedRAM) {
+    this.maxUsedRAM = maxUsedRAM;
+  }
+
+  public long getAverageUsedRAM() {
+    return this.averageUsedRAM;
+  }
+
+  public void setAverageUsedRAM(final long averageUsedRAM) {
+    this.averageUsedRAM = averageUsedRAM;
+  }
+
+  /**
+   * Folds a utilization sample into the statistics of the current period and keeps it as the last
+   * sample.
+   *
+   * @param cpuUtilization - the sampled cpu utilization
+   * @param usedRAM - the sampled used RAM
+   * @param freeRAM - the sampled free RAM
+   */
+  public void addUtilizationSample(final double cpuUtilization, final long usedRAM,
+      final long freeRAM) {
+    this.cpuUtilization = cpuUtilization;
+    this.usedRAM = usedRAM;
+    this.freeRAM = freeRAM;
+
+    this.utilizationSamples++;
+
+    if (this.utilizationSamples == 1) {
+      this.minCpuUtilization = cpuUtilization;
+      this.maxCpuUtilization = cpuUtilization;
+      this.averageCpuUtilization = cpuUtilization;
+      this.minUsedRAM = usedRAM;
+      this.maxUsedRAM = usedRAM;
+      this.usedRAMSum = usedRAM;
+      this.averageUsedRAM = usedRAM;
+    } else {
+      this.minCpuUtilization = Math.min(this.minCpuUtilization, cpuUtilization);
+      this.maxCpuUtilization = Math.max(this.maxCpuUtilization, cpuUtilization);
+      this.averageCpuUtilization +=
+          (cpuUtilization - this.averageCpuUtilization) / this.utilizationSamples;
+      this.minUsedRAM = Math.min(this.minUsedRAM, usedRAM);
+      this.maxUsedRAM = Math.max(this.maxUsedRAM, usedRAM);
+      this.usedRAMSum += usedRAM;
+      this.averageUsedRAM = Math.round((double) this.usedRAMSum / this.utilizationSamples);
+    }
+  }
+
+  /**
+   * Starts the utilization statistics of a new period. Until the next sample arrives, the
+   * statistics describe the last sample.
+   */
+  public void resetUtilizationPeriod() {
+    this.utilizationSamples = 0;
+    this.minCpuUtilization = this.cpuUtilization;
+    this.maxCpuUtilization = this.cpuUtilization;
+    this.averageCpuUtilization = this.cpuUtilization;
+    this.minUsedRAM = this.usedRAM;
+    this.maxUsedRAM = this.usedRAM;
+    this.averageUsedRAM = this.usedRAM;
+  }
+
   public List<Application> getApplications() {
     return this.applications;
   }
@@ -2,6 +2,7 @@ package net.explorviz.landscape.model.landscape;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.github.jasminb.jsonapi.annotations.Relationship;
@@ -9,6 +10,7 @@ import com.github.jasminb.jsonapi.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
 import net.explorviz.landscape.model.helper.BaseEntity;
+import net.explorviz.landscape.model.helper.RequestCounter;
 
 /**
  * Model representing a system (a logical container for {@link NodeGroup} within a software
@@ -27,11 +29,30 @@ public class System extends BaseEntity {
   @Relationship("parent")
   private Landscape parent;
 
+  // requests of this system and its children in the current period
+  @JsonIgnore
+  private final transient RequestCounter requestCounter = new RequestCounter();
+
+  // requests of this system and its children in the last closed period
+  private long totalRequests;
+
   @JsonCreator
   public System(@JsonProperty("id") final String id) {
     super(id);
   }
 
+  public RequestCounter requestCounter() {
+    return this.requestCounter;
+  }
+
+  public long getTotalRequests() {
+    return this.totalRequests;
+  }
+
+  public void setTotalRequests(final long totalRequests) {
+    this.totalRequests = totalRequests;
+  }
+
   public String getName() {
     return this.name;
   }
@@ -0,0 +1,41 @@
+package net.explorviz.landscape.model.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import net.explorviz.landscape.model.helper.LatencySketch;
+import net.explorviz.landscape.model.helper.ModelHelper;
+import org.junit.jupiter.api.Test;
+
+public class AggregatedClazzCommunicationTest {
+
+  /**
+   * Check if the aggregate carries the request-weighted mean and the merged percentiles of its
+   * clazzCommunications, including requests recorded after their creation.
+   */
+  @Test
+  public void testAggregatesClazzCommunications() {
+    final Application application = new Application("application");
+    final Clazz caller = new Clazz("caller");
+    final Clazz callee = new Clazz("callee");
+    final int[] ids = new int[1];
+
+    ModelHelper.addClazzCommunication(() -> "id" + ids[0]++, caller, callee, application, 90,
+        100, 100, 1, 1, "fast");
+    ModelHelper.addClazzCommunication(() -> "id" + ids[0]++, caller, callee, application, 5,
+        1_000_000, 1_000_000, 1, 2, "slow");
+    ModelHelper.addClazzCommunication(() -> "id" + ids[0]++, caller, callee, application, 5,
+        1_000_000, 1_000_000, 2, 1, "slow");
+
+    final AggregatedClazzCommunication aggregate =
+        application.getAggregatedClazzCommunications().get(0);
+    aggregate.aggregate(new LatencySketch());
+
+    assertEquals(2, aggregate.getClazzCommunications().size());
+    assertEquals(100, aggregate.getTotalRequests());
+    assertEquals((90 * 100 + 10 * 1_000_000) / 100f, aggregate.getAverageResponseTime(), 1f);
+    assertEquals(100f, aggregate.getResponseTimeP50(), 100f / 16);
+    assertEquals(1_000_000f, aggregate.getResponseTimeP95(), 1_000_000f / 16);
+    assertEquals(1_000_000f, aggregate.getResponseTimeP99(), 1_000_000f / 16);
+  }
+
+}
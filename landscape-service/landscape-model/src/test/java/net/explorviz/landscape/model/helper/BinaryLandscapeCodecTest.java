@@ -0,0 +1,79 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Arrays;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.ClazzCommunication;
+import net.explorviz.landscape.model.event.EEventType;
+import net.explorviz.landscape.model.landscape.Landscape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BinaryLandscapeCodecTest {
+
+  private BinaryLandscapeCodec codec;
+  private Landscape landscape;
+
+  @BeforeEach
+  public void setUp() {
+    this.codec = new BinaryLandscapeCodec();
+    this.landscape = LandscapeFixture.createLandscape(1000);
+    this.landscape.createNewEvent("event", EEventType.NEWAPPLICATION, "New application");
+    this.landscape.getExtensionAttributes().put("string", "value");
+    this.landscape.getExtensionAttributes().put("long", 42L);
+  }
+
+  private static Application application(final Landscape landscape, final int index) {
+    return landscape.getSystems().get(0).getNodeGroups().get(0).getNodes().get(index)
+        .getApplications().get(0);
+  }
+
+  /**
+   * Check if the decoded landscape contains all attributes and shared entities.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    final byte[] encoded = this.codec.encode(this.landscape);
+    final Landscape decoded = this.codec.decode(encoded);
+
+    assertEquals(this.landscape.getId(), decoded.getId());
+    assertEquals(this.landscape.getTimestamp().getTimestamp(),
+        decoded.getTimestamp().getTimestamp());
+    assertEquals("New application", decoded.getEvents().get(0).getEventMessage());
+    assertEquals(42L, decoded.getExtensionAttributes().get("long"));
+
+    final Application application = application(decoded, 1);
+    final Clazz clazz = LandscapeFixture.firstClazz(application);
+    final ClazzCommunication commu = clazz.getClazzCommunications().get(0);
+    assertSame(clazz, commu.getSourceClazz());
+    assertSame(commu, commu.getTraceSteps().get(0).getClazzCommunication());
+    assertSame(application, clazz.getParent().getBelongingApplication());
+    assertSame(clazz, decoded.getTotalApplicationCommunications().get(0).getTargetClazz());
+    final ClazzCommunication original = LandscapeFixture
+        .firstClazz(application(this.landscape, 1)).getClazzCommunications().get(0);
+    assertEquals(original.getAverageResponseTime(), commu.getAverageResponseTime());
+    assertEquals(original.getResponseTimeP99(), commu.getResponseTimeP99());
+
+    // the encoding is deterministic, hence the decoded landscape must be encoded identically
+    assertArrayEquals(encoded, this.codec.encode(decoded));
+  }
+
+  /**
+   * Check if truncated or foreign input is rejected.
+   */
+  @Test
+  public void testInvalidInput() throws IOException {
+    final byte[] encoded = this.codec.encode(this.landscape);
+
+    assertThrows(IOException.class,
+        () -> this.codec.decode(Arrays.copyOf(encoded, encoded.length / 2)));
+    assertThrows(IOException.class, () -> this.codec.decode("{\"data\":{}}".getBytes()));
+  }
+
+}
@@ -0,0 +1,59 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.ClazzCommunication;
+import org.junit.jupiter.api.Test;
+
+public class CommunicationKeyTest {
+
+  /**
+   * Check if operation names are compared case-insensitively and clazzes by direction.
+   */
+  @Test
+  public void testOperationNamesIgnoreCase() {
+    final Clazz caller = new Clazz("caller");
+    final Clazz callee = new Clazz("callee");
+    final Map<CommunicationKey, String> index = new HashMap<>();
+    index.put(new CommunicationKey(caller, callee, "run"), "run");
+
+    assertEquals("run", index.get(new CommunicationKey(caller, callee, "Run")));
+    assertEquals("run", index.get(new CommunicationKey(caller, callee, "RUN")));
+    assertNull(index.get(new CommunicationKey(caller, callee, "runs")));
+    assertNull(index.get(new CommunicationKey(callee, caller, "run")));
+    assertNull(index.get(new CommunicationKey(caller, callee, null)));
+    assertEquals(new CommunicationKey(caller, callee, null),
+        new CommunicationKey(caller, callee, null));
+    assertNotEquals(new CommunicationKey(caller, callee, null),
+        new CommunicationKey(caller, callee, "run"));
+  }
+
+  /**
+   * Check if calls of operations, which only differ in case, share one clazz communication.
+   */
+  @Test
+  public void testSameOperationInDifferentCase() {
+    final Application application = new Application("application");
+    final Clazz caller = new Clazz("caller");
+    final Clazz callee = new Clazz("callee");
+    final int[] ids = new int[1];
+
+    ModelHelper.addClazzCommunication(() -> "id" + ids[0]++, caller, callee, application, 2, 10,
+        20, 1, 0, "run");
+    ModelHelper.addClazzCommunication(() -> "id" + ids[0]++, caller, callee, application, 3, 10,
+        20, 1, 1, "Run");
+
+    assertEquals(1, caller.getClazzCommunications().size());
+    final ClazzCommunication commu = caller.getClazzCommunications().get(0);
+    assertEquals("run", commu.getOperationName());
+    assertEquals(5, commu.getTotalRequests());
+    assertEquals(1, application.getAggregatedClazzCommunications().size());
+  }
+
+}
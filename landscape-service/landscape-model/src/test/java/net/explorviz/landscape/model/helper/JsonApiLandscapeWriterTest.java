@@ -0,0 +1,61 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.SerializationFeature;
+import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.DatabaseQuery;
+import net.explorviz.landscape.model.event.EEventType;
+import net.explorviz.landscape.model.landscape.Landscape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JsonApiLandscapeWriterTest {
+
+  private static final String OBJECT_ID =
+      "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}";
+
+  private ResourceConverter converter;
+  private Landscape landscape;
+
+  @BeforeEach
+  public void setUp() {
+    this.converter = new ResourceConverter(TypeProvider.getExplorVizCoreTypesAsArray());
+    this.converter.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+    this.landscape = LandscapeFixture.createLandscape(600);
+    this.landscape.createNewEvent("event", EEventType.NEWAPPLICATION, "New \"application\"");
+    this.landscape.getExtensionAttributes().put("long", 42L);
+
+    final Application application = this.landscape.getSystems().get(0).getNodeGroups().get(0)
+        .getNodes().get(0).getApplications().get(0);
+    final DatabaseQuery query = new DatabaseQuery("query");
+    query.setSqlStatement("SELECT * FROM clazz WHERE name = 'Clazz0'");
+    query.setParentApplication(application);
+    application.getDatabaseQueries().add(query);
+  }
+
+  /**
+   * Check if the written document equals the converter's, except for the object ids.
+   */
+  @Test
+  public void testEqualsConverter() throws DocumentSerializationException, IOException {
+    final String expected =
+        new String(this.converter.writeDocument(new JSONAPIDocument<>(this.landscape)),
+            StandardCharsets.UTF_8).replaceAll(OBJECT_ID, "");
+
+    final JsonApiLandscapeWriter writer = new JsonApiLandscapeWriter();
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.write(this.landscape, out);
+
+    assertEquals(expected, out.toString(StandardCharsets.UTF_8).replaceAll(OBJECT_ID, ""));
+    assertEquals(expected, writer.writeAsString(this.landscape).replaceAll(OBJECT_ID, ""));
+  }
+
+}
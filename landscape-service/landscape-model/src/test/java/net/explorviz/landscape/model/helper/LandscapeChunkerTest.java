@@ -0,0 +1,65 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LandscapeChunkerTest {
+
+  private byte[] payload;
+  private LandscapeChunkAssembler assembler;
+
+  @BeforeEach
+  public void setUp() {
+    this.payload = new byte[1000];
+    for (int i = 0; i < this.payload.length; i++) {
+      this.payload[i] = (byte) i;
+    }
+    this.assembler = new LandscapeChunkAssembler();
+  }
+
+  /**
+   * Check if small payloads are not split and large payloads are reassembled.
+   */
+  @Test
+  public void testSplitAndAssemble() {
+    assertSame(this.payload, LandscapeChunker.split(this.payload, 1000).get(0));
+    assertSame(this.payload, this.assembler.add(null, this.payload));
+
+    final List<byte[]> chunks = LandscapeChunker.split(this.payload, 300);
+    assertEquals(4, chunks.size());
+    assertEquals(100, chunks.get(3).length);
+
+    for (int i = 0; i < 3; i++) {
+      assertNull(this.assembler.add(LandscapeChunker.header(7, i, 4), chunks.get(i)));
+    }
+    assertArrayEquals(this.payload, this.assembler.add(LandscapeChunker.header(7, 3, 4),
+        chunks.get(3)));
+    assertEquals(0, this.assembler.getDroppedLandscapes());
+  }
+
+  /**
+   * Check if incomplete landscapes are dropped and the next landscape is assembled.
+   */
+  @Test
+  public void testDropIncomplete() {
+    final List<byte[]> chunks = LandscapeChunker.split(this.payload, 500);
+
+    // the consumer started after the first chunk
+    assertNull(this.assembler.add(LandscapeChunker.header(1, 1, 2), chunks.get(1)));
+
+    // the second chunk is missing
+    assertNull(this.assembler.add(LandscapeChunker.header(2, 0, 2), chunks.get(0)));
+
+    assertNull(this.assembler.add(LandscapeChunker.header(3, 0, 2), chunks.get(0)));
+    assertArrayEquals(this.payload, this.assembler.add(LandscapeChunker.header(3, 1, 2),
+        chunks.get(1)));
+    assertEquals(1, this.assembler.getDroppedLandscapes());
+  }
+
+}
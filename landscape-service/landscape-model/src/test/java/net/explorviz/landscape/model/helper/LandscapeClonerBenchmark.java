@@ -0,0 +1,93 @@
+package net.explorviz.landscape.model.helper;
+
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.SerializationFeature;
+import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import java.util.concurrent.TimeUnit;
+import net.explorviz.landscape.model.landscape.Landscape;
+
+/**
+ * Compares the {@link LandscapeCloner} with the JSON:API round trip, which was formerly used to
+ * copy landscapes. Not a unit test, run the main method manually, e.g., with the sizes in entities
+ * as arguments (defaults to 10k, 100k and 1M entities). The round trip is only measured up to the
+ * size given by the system property benchmark.json.maxEntities (defaults to 2k).
+ */
+public final class LandscapeClonerBenchmark {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int[] DEFAULT_SIZES = {10_000, 100_000, 1_000_000};
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 5;
+
+  private LandscapeClonerBenchmark() {
+    // Benchmark
+  }
+
+  public static void main(final String[] args) throws DocumentSerializationException {
+    int[] sizes = DEFAULT_SIZES;
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      }
+    }
+
+    // the round trip takes minutes for large landscapes, hence it is skipped above this size
+    final int maxJsonEntities = Integer.getInteger("benchmark.json.maxEntities", 2_000);
+
+    final ResourceConverter converter =
+        new ResourceConverter(TypeProvider.getExplorVizCoreTypesAsArray());
+    converter.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+    for (final int size : sizes) {
+      final Landscape landscape = LandscapeFixture.createLandscape(size);
+
+      final long clonerNanos =
+          measure(() -> LandscapeCloner.deepCopy(landscape), WARMUP_RUNS, MEASURED_RUNS);
+      java.lang.System.out.println(String.format("%,d entities: cloner %,d ms", // NOPMD
+          size,
+          TimeUnit.NANOSECONDS.toMillis(clonerNanos)));
+
+      if (size <= maxJsonEntities) {
+        final long jsonNanos = measure(() -> jsonRoundTrip(converter, landscape), 1, 1);
+        java.lang.System.out.println(String.format( // NOPMD
+            "%,d entities: JSON:API round trip %,d ms",
+            size,
+            TimeUnit.NANOSECONDS.toMillis(jsonNanos)));
+      }
+    }
+  }
+
+  private static Landscape jsonRoundTrip(final ResourceConverter converter,
+      final Landscape landscape) {
+    try {
+      final byte[] serialized = converter.writeDocument(new JSONAPIDocument<>(landscape));
+      return converter.readDocument(serialized, Landscape.class).get();
+    } catch (final DocumentSerializationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the average duration of a copy in nanoseconds.
+   */
+  private static long measure(final Copier copier, final int warmupRuns, final int measuredRuns) {
+    for (int i = 0; i < warmupRuns; i++) {
+      copier.copy();
+    }
+
+    final long start = java.lang.System.nanoTime();
+    for (int i = 0; i < measuredRuns; i++) {
+      copier.copy();
+    }
+    return (java.lang.System.nanoTime() - start) / measuredRuns;
+  }
+
+  @FunctionalInterface
+  private interface Copier {
+    Landscape copy();
+  }
+
+}
@@ -0,0 +1,82 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.SerializationFeature;
+import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.ClazzCommunication;
+import net.explorviz.landscape.model.landscape.Landscape;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LandscapeClonerTest {
+
+  private Landscape original;
+  private Landscape copy;
+
+  @BeforeEach
+  public void setUp() {
+    this.original = LandscapeFixture.createLandscape(600);
+    this.copy = LandscapeCloner.deepCopy(this.original);
+  }
+
+  // the object ids of Jackson's identity info are generated anew for each serialization
+  private static String serialize(final ResourceConverter converter, final Landscape landscape)
+      throws DocumentSerializationException {
+    return new String(converter.writeDocument(new JSONAPIDocument<>(landscape)))
+        .replaceAll("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}", "");
+  }
+
+  private static Application firstApplication(final Landscape landscape) {
+    return landscape.getSystems().get(0).getNodeGroups().get(0).getNodes().get(0)
+        .getApplications().get(0);
+  }
+
+  /**
+   * Check if the copy serializes exactly like the original.
+   */
+  @Test
+  public void testSerializedCopyEqualsOriginal() throws DocumentSerializationException {
+    final ResourceConverter converter =
+        new ResourceConverter(TypeProvider.getExplorVizCoreTypesAsArray());
+    converter.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+    assertEquals(serialize(converter, this.original), serialize(converter, this.copy));
+  }
+
+  /**
+   * Check if back-references and shared entities point into the copy.
+   */
+  @Test
+  public void testReferencesPointIntoCopy() {
+    final Application originalApplication = firstApplication(this.original);
+    final Application copiedApplication = firstApplication(this.copy);
+    assertNotSame(originalApplication, copiedApplication);
+
+    assertSame(copiedApplication.getParent().getParent().getParent().getParent(), this.copy);
+    assertSame(copiedApplication, copiedApplication.getComponents().get(0)
+        .getBelongingApplication());
+
+    final Clazz copiedClazz = LandscapeFixture.firstClazz(copiedApplication);
+    final ClazzCommunication copiedCommu = copiedClazz.getClazzCommunications().get(0);
+    assertSame(copiedClazz, copiedCommu.getSourceClazz());
+    assertSame(copiedCommu, copiedCommu.getTraceSteps().get(0).getClazzCommunication());
+    assertSame(copiedCommu,
+        copiedApplication.getAggregatedClazzCommunications().get(0).getClazzCommunications()
+            .get(0));
+
+    final ApplicationCommunication copiedAppCommu =
+        this.copy.getTotalApplicationCommunications().get(0);
+    assertSame(copiedApplication, copiedAppCommu.getSourceApplication());
+    assertSame(copiedAppCommu, copiedApplication.getApplicationCommunications().get(0));
+    assertSame(copiedClazz, copiedAppCommu.getSourceClazz());
+  }
+
+}
@@ -0,0 +1,93 @@
+package net.explorviz.landscape.model.helper;
+
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.SerializationFeature;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import net.explorviz.landscape.model.landscape.Landscape;
+
+/**
+ * Compares the encoding and decoding speed and the encoded size of the {@link LandscapeCodec}s.
+ * Not a unit test, run the main method manually, e.g., with the sizes in entities as arguments
+ * (defaults to 10k and 100k entities). The json api codec is only measured up to the size given by
+ * the system property benchmark.json.maxEntities (defaults to 100k).
+ */
+public final class LandscapeCodecBenchmark {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int[] DEFAULT_SIZES = {10_000, 100_000};
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 5;
+
+  private LandscapeCodecBenchmark() {
+    // Benchmark
+  }
+
+  public static void main(final String[] args) throws IOException {
+    int[] sizes = DEFAULT_SIZES;
+    if (args.length > 0) {
+      sizes = new int[args.length];
+      for (int i = 0; i < args.length; i++) {
+        sizes[i] = Integer.parseInt(args[i]);
+      }
+    }
+
+    // decoding json api takes seconds for large landscapes, hence it is skipped above this size
+    final int maxJsonEntities = Integer.getInteger("benchmark.json.maxEntities", 100_000);
+
+    final ResourceConverter converter =
+        new ResourceConverter(TypeProvider.getExplorVizCoreTypesAsArray());
+    converter.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+    final LandscapeCodec[] codecs =
+        {new BinaryLandscapeCodec(), new JsonApiLandscapeCodec(converter)};
+
+    for (final int size : sizes) {
+      final Landscape landscape = LandscapeFixture.createLandscape(size);
+
+      for (final LandscapeCodec codec : codecs) {
+        final boolean json = JsonApiLandscapeCodec.NAME.equals(codec.getName());
+        if (json && size > maxJsonEntities) {
+          continue;
+        }
+        final int warmupRuns = json ? 1 : WARMUP_RUNS;
+        final int measuredRuns = json ? 1 : MEASURED_RUNS;
+
+        final byte[] encoded = codec.encode(landscape);
+        final long encodeNanos = measure(() -> codec.encode(landscape), warmupRuns, measuredRuns);
+        final long decodeNanos = measure(() -> codec.decode(encoded), warmupRuns, measuredRuns);
+
+        java.lang.System.out.println(String.format( // NOPMD
+            "%,d entities: %s encode %,d ms, decode %,d ms, %,d bytes",
+            size,
+            codec.getName(),
+            TimeUnit.NANOSECONDS.toMillis(encodeNanos),
+            TimeUnit.NANOSECONDS.toMillis(decodeNanos),
+            encoded.length));
+      }
+    }
+  }
+
+  /**
+   * Returns the average duration of a run in nanoseconds.
+   */
+  private static long measure(final Run run, final int warmupRuns, final int measuredRuns)
+      throws IOException {
+    for (int i = 0; i < warmupRuns; i++) {
+      run.run();
+    }
+
+    final long start = java.lang.System.nanoTime();
+    for (int i = 0; i < measuredRuns; i++) {
+      run.run();
+    }
+    return (java.lang.System.nanoTime() - start) / measuredRuns;
+  }
+
+  @FunctionalInterface
+  private interface Run {
+    Object run() throws IOException;
+  }
+
+}
@@ -0,0 +1,108 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LandscapeDeltaTest {
+
+  private static final int CLAZZES = 20;
+
+  private LandscapeDeltaEncoder encoder;
+  private LandscapeDeltaDecoder decoder;
+
+  @BeforeEach
+  public void setUp() {
+    this.encoder = new LandscapeDeltaEncoder(3);
+    this.decoder = new LandscapeDeltaDecoder();
+  }
+
+  /**
+   * Creates a json api document similar to a serialized landscape. The object ids are prefixed by
+   * the passed string in order to simulate their random generation.
+   */
+  private static byte[] document(final String landscapeId, final String objectIds,
+      final double cpuUtilization, final String traceId) {
+    final StringBuilder included = new StringBuilder(256);
+    included.append(String.format(
+        "{'type':'node','id':'n1','attributes':{'super.id':'%1$sn','cpuUtilization':%2$s}},"
+            + "{'type':'application','id':'a1','attributes':{'super.id':'%1$sa'}},"
+            + "{'type':'component','id':'c1','attributes':{'super.id':'%1$sc',"
+            + "'belongingApplication':'%1$sa'}},"
+            + "{'type':'trace','id':'%3$s','attributes':{'super.id':'%1$st'}}",
+        objectIds, cpuUtilization, traceId));
+    for (int i = 0; i < CLAZZES; i++) {
+      included.append(String.format(
+          ",{'type':'clazz','id':'z%2$d','attributes':{'super.id':'%1$sz%2$d','name':'Clazz%2$d'},"
+              + "'relationships':{'parent':{'data':{'type':'component','id':'c1'}}}}",
+          objectIds, i));
+    }
+
+    return String.format("{'data':{'type':'landscape','id':'%s','attributes':{}},'included':[%s]}",
+        landscapeId, included).replace('\'', '"').getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static JsonNode resource(final byte[] document, final String id) throws IOException {
+    for (final JsonNode resource : JsonApiResources.MAPPER.readTree(document).path("included")) {
+      if (id.equals(resource.path("id").asText())) {
+        return resource;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Check if a delta contains only changes and is reconstructed to the complete landscape.
+   */
+  @Test
+  public void testReconstruction() throws IOException {
+    final byte[] first = document("l1", "x", 0.1, "t1");
+    final LandscapeDeltaEncoder.Frame keyframe = this.encoder.encode(first);
+    assertTrue(keyframe.isKeyframe());
+    assertArrayEquals(first, this.decoder.decode(keyframe.getPayload(), keyframe.getType()));
+
+    final LandscapeDeltaEncoder.Frame delta =
+        this.encoder.encode(document("l2", "y", 0.5, "t2"));
+    assertFalse(delta.isKeyframe());
+    // node changed, trace added and removed
+    assertEquals(2, JsonApiResources.MAPPER.readTree(delta.getPayload()).path("included").size());
+
+    final byte[] second = this.decoder.decode(delta.getPayload(), delta.getType());
+    assertEquals("l2", JsonApiResources.MAPPER.readTree(second).path("data").path("id").asText());
+    assertEquals(0.5, resource(second, "n1").path("attributes").path("cpuUtilization").asDouble());
+    assertEquals("xn", resource(second, "n1").path("attributes").path("super.id").asText());
+    assertEquals("xa",
+        resource(second, "c1").path("attributes").path("belongingApplication").asText());
+    assertEquals("yt", resource(second, "t2").path("attributes").path("super.id").asText());
+    assertNull(resource(second, "t1"));
+    assertEquals(CLAZZES + 4,
+        JsonApiResources.MAPPER.readTree(second).path("included").size());
+  }
+
+  /**
+   * Check if keyframes are emitted periodically and deltas are skipped until the first keyframe.
+   */
+  @Test
+  public void testKeyframeInterval() throws IOException {
+    this.encoder.encode(document("l1", "x", 0.1, "t1"));
+    final LandscapeDeltaEncoder.Frame delta = this.encoder.encode(document("l2", "y", 0.2, "t1"));
+    assertFalse(delta.isKeyframe());
+    assertNull(this.decoder.decode(delta.getPayload(), delta.getType()));
+
+    assertFalse(this.encoder.encode(document("l3", "z", 0.3, "t1")).isKeyframe());
+    final LandscapeDeltaEncoder.Frame keyframe =
+        this.encoder.encode(document("l4", "w", 0.4, "t1"));
+    assertTrue(keyframe.isKeyframe());
+    assertArrayEquals(keyframe.getPayload(),
+        this.decoder.decode(keyframe.getPayload(), keyframe.getType()));
+  }
+
+}
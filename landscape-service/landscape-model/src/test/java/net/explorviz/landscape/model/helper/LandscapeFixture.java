@@ -0,0 +1,155 @@
+package net.explorviz.landscape.model.helper;
+
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.Component;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import net.explorviz.landscape.model.store.Timestamp;
+
+/**
+ * Creates synthetic landscapes for the tests and benchmarks of the cloner and the codecs.
+ */
+public final class LandscapeFixture {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int CLAZZES_PER_APPLICATION = 100;
+  private static final int CLAZZES_PER_COMPONENT = 10;
+  private static final int CALLS_PER_APPLICATION = 100;
+  private static final int NODES_PER_NODEGROUP = 10;
+  private static final int NODEGROUPS_PER_SYSTEM = 10;
+
+  private static int nextId;
+
+  private LandscapeFixture() {
+    // Utility Class
+  }
+
+  private static String id() {
+    return String.valueOf(nextId++);
+  }
+
+  /**
+   * Creates a synthetic landscape with roughly the passed number of entities. Every application
+   * contains components, clazzes, clazz communication and traces, consecutive applications
+   * communicate with each other.
+   *
+   * @param entities - the number of entities to create
+   * @return the synthetic landscape
+   */
+  static Landscape createLandscape(final int entities) {
+    final int startId = nextId;
+
+    final Landscape landscape =
+        new Landscape(id(), new Timestamp(id(), java.lang.System.currentTimeMillis(), 0));
+
+    System system = null;
+    NodeGroup nodeGroup = null;
+    Application previousApplication = null;
+
+    for (int appIndex = 0; nextId - startId < entities; appIndex++) {
+      if (appIndex % (NODES_PER_NODEGROUP * NODEGROUPS_PER_SYSTEM) == 0) {
+        system = new System(id());
+        system.setName("system" + appIndex);
+        system.setParent(landscape);
+        landscape.getSystems().add(system);
+      }
+
+      if (appIndex % NODES_PER_NODEGROUP == 0) {
+        nodeGroup = new NodeGroup(id());
+        nodeGroup.setName("nodegroup" + appIndex);
+        nodeGroup.setParent(system);
+        system.getNodeGroups().add(nodeGroup);
+      }
+
+      final Node node = new Node(id());
+      node.setName("node" + appIndex);
+      node.setIpAddress("10.0.0." + appIndex);
+      node.setParent(nodeGroup);
+      nodeGroup.getNodes().add(node);
+
+      final Application application = createApplication("application" + appIndex);
+      application.setParent(node);
+      node.getApplications().add(application);
+
+      if (previousApplication != null) {
+        final ApplicationCommunication commu = new ApplicationCommunication(id());
+        commu.setSourceApplication(previousApplication);
+        commu.setTargetApplication(application);
+        commu.setSourceClazz(firstClazz(previousApplication));
+        commu.setTargetClazz(firstClazz(application));
+        commu.setRequests(appIndex);
+        commu.setTechnology("http");
+        previousApplication.getApplicationCommunications().add(commu);
+        landscape.getTotalApplicationCommunications().add(commu);
+      }
+      previousApplication = application;
+    }
+
+    return landscape;
+  }
+
+  /**
+   * Returns the first clazz of the first package of an application created by this fixture.
+   *
+   * @param application - the application
+   * @return the clazz
+   */
+  static Clazz firstClazz(final Application application) {
+    return application.getComponents().get(0).getChildren().get(0).getClazzes().get(0);
+  }
+
+  private static Application createApplication(final String name) {
+    final Application application = new Application(id());
+    application.setName(name);
+    application.setProgrammingLanguage(EProgrammingLanguage.JAVA);
+
+    final Component rootComponent = new Component(id());
+    rootComponent.setName(name);
+    rootComponent.setFullQualifiedName("net." + name);
+    rootComponent.setBelongingApplication(application);
+    application.getComponents().add(rootComponent);
+
+    final Clazz[] clazzes = new Clazz[CLAZZES_PER_APPLICATION];
+    Component component = null;
+
+    for (int i = 0; i < CLAZZES_PER_APPLICATION; i++) {
+      if (i % CLAZZES_PER_COMPONENT == 0) {
+        component = new Component(id());
+        component.setName("package" + i);
+        component.setFullQualifiedName(rootComponent.getFullQualifiedName() + ".package" + i);
+        component.setBelongingApplication(application);
+        component.setParentComponent(rootComponent);
+        rootComponent.getChildren().add(component);
+      }
+
+      final Clazz clazz = new Clazz(id());
+      clazz.setName("Clazz" + i);
+      clazz.setFullQualifiedName(component.getFullQualifiedName() + ".Clazz" + i);
+      clazz.setInstanceCount(i);
+      clazz.setParent(component);
+      component.getClazzes().add(clazz);
+      clazzes[i] = clazz;
+    }
+
+    for (int i = 0; i < CALLS_PER_APPLICATION; i++) {
+      ModelHelper.addClazzCommunication(LandscapeFixture::id,
+          clazzes[i],
+          clazzes[(i * 7 + 1) % CLAZZES_PER_APPLICATION],
+          application,
+          i + 1,
+          i * 10d,
+          1000d,
+          i / 10,
+          i % 10 + 1,
+          "operation" + i % 5);
+    }
+
+    return application;
+  }
+
+}
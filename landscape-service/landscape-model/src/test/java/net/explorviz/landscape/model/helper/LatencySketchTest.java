@@ -0,0 +1,102 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class LatencySketchTest {
+
+  // maximum relative error of the estimated quantiles
+  private static final double RELATIVE_ERROR = 1d / 16;
+
+  /**
+   * Check if the quantiles are estimated within the relative error and the mean is exact.
+   */
+  @Test
+  public void testQuantiles() {
+    final LatencySketch sketch = new LatencySketch();
+    for (int i = 1; i <= 1000; i++) {
+      sketch.record(i * 1000d, 1);
+    }
+
+    assertEquals(1000, sketch.getCount());
+    assertEquals(500_500d, sketch.getMean(), 1e-6);
+    assertEquals(500_000d, sketch.getQuantile(0.5), 500_000d * RELATIVE_ERROR);
+    assertEquals(950_000d, sketch.getQuantile(0.95), 950_000d * RELATIVE_ERROR);
+    assertEquals(990_000d, sketch.getQuantile(0.99), 990_000d * RELATIVE_ERROR);
+  }
+
+  /**
+   * Check if a merged sketch equals a sketch, which recorded all response times.
+   */
+  @Test
+  public void testMerge() {
+    final LatencySketch all = new LatencySketch();
+    final LatencySketch first = new LatencySketch();
+    final LatencySketch second = new LatencySketch();
+
+    first.record(100, 90);
+    second.record(1_000_000, 10);
+    all.record(100, 90);
+    all.record(1_000_000, 10);
+    first.merge(second);
+
+    assertEquals(all.getCount(), first.getCount());
+    assertEquals(all.getMean(), first.getMean(), 1e-6);
+    assertEquals(all.getQuantile(0.5), first.getQuantile(0.5));
+    assertEquals(all.getQuantile(0.95), first.getQuantile(0.95));
+    assertEquals(1_000_000d, first.getQuantile(0.95), 1_000_000d * RELATIVE_ERROR);
+  }
+
+  /**
+   * Check if calls recorded concurrently into rows, which are not allocated yet, are not lost.
+   */
+  @Test
+  public void testConcurrentRecording() throws InterruptedException {
+    final LatencySketch sketch = new LatencySketch();
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10_000; i++) {
+          sketch.record(1L << (6 + i % 34), 1);
+        }
+      }));
+    }
+    for (final Thread thread : threads) {
+      thread.start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(40_000, sketch.getCount());
+    assertEquals(Math.pow(2, 39), sketch.getQuantile(1), Math.pow(2, 39) * RELATIVE_ERROR);
+
+    sketch.reset();
+    assertEquals(0d, sketch.getQuantile(1));
+  }
+
+  /**
+   * Check if out of range response times are clamped and an empty sketch yields zeros.
+   */
+  @Test
+  public void testBounds() {
+    final LatencySketch sketch = new LatencySketch();
+    assertEquals(0d, sketch.getQuantile(0.5));
+    assertEquals(0d, sketch.getMean());
+
+    sketch.record(-5, 1);
+    sketch.record(1e15, 1);
+    sketch.record(42, 0);
+
+    assertEquals(2, sketch.getCount());
+    assertEquals(32d, sketch.getQuantile(0.5));
+    assertEquals(Math.pow(2, 40), sketch.getQuantile(1), Math.pow(2, 40) * RELATIVE_ERROR);
+
+    sketch.reset();
+    assertEquals(0, sketch.getCount());
+  }
+
+}
@@ -0,0 +1,51 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ListIndexTest {
+
+  private ListIndex<Integer, String> index;
+  private List<String> list;
+
+  @BeforeEach
+  public void setUp() {
+    this.index = new ListIndex<>(String::length);
+    this.list = new ArrayList<>();
+  }
+
+  /**
+   * Check if elements appended to the list directly are found and the first match wins.
+   */
+  @Test
+  public void testIndexesAppendedElements() {
+    this.index.add(this.list, "a");
+    this.list.add("bb");
+    this.list.add("cc");
+
+    assertEquals("a", this.index.get(this.list, 1));
+    assertEquals("bb", this.index.get(this.list, 2));
+    assertEquals(3, this.list.size());
+  }
+
+  /**
+   * Check if a cleared or replaced list is indexed anew.
+   */
+  @Test
+  public void testReindexesClearedAndReplacedLists() {
+    this.index.add(this.list, "a");
+    this.list.clear();
+    assertNull(this.index.get(this.list, 1));
+
+    final List<String> replacement = new ArrayList<>();
+    replacement.add("ccc");
+    assertNull(this.index.get(replacement, 1));
+    assertEquals("ccc", this.index.get(replacement, 3));
+  }
+
+}
@@ -0,0 +1,44 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class LongIndexTest {
+
+  /**
+   * Check if all entries are retained while the table grows and negative keys are supported.
+   */
+  @Test
+  public void testGrowsAndRetainsEntries() {
+    final LongIndex<String> index = new LongIndex<>();
+
+    for (long key = -1000; key < 1000; key++) {
+      assertNull(index.putIfAbsent(key, Long.toString(key)));
+    }
+
+    assertEquals(2000, index.size());
+    for (long key = -1000; key < 1000; key++) {
+      assertEquals(Long.toString(key), index.get(key));
+    }
+    assertNull(index.get(Long.MAX_VALUE));
+  }
+
+  /**
+   * Check if existing entries are not replaced and clearing removes all entries.
+   */
+  @Test
+  public void testPutIfAbsentAndClear() {
+    final LongIndex<String> index = new LongIndex<>();
+
+    index.putIfAbsent(42L, "first");
+    assertEquals("first", index.putIfAbsent(42L, "second"));
+    assertEquals("first", index.get(42L));
+
+    index.clear();
+    assertEquals(0, index.size());
+    assertNull(index.get(42L));
+  }
+
+}
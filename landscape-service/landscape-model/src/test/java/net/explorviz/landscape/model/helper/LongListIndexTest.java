@@ -0,0 +1,35 @@
+package net.explorviz.landscape.model.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class LongListIndexTest {
+
+  /**
+   * Check if elements added with their key and appended to the list directly are found, while
+   * unselected elements are never indexed.
+   */
+  @Test
+  public void testIndexesSelectedElements() {
+    final LongListIndex<String> index =
+        new LongListIndex<>(s -> !s.isEmpty(), s -> (long) s.length());
+    final List<String> list = new ArrayList<>();
+
+    index.add(list, 42L, "a");
+    list.add("");
+    list.add("bb");
+
+    assertEquals("a", index.get(list, 42L));
+    assertNull(index.get(list, 0L));
+    assertEquals("bb", index.get(list, 2L));
+    assertEquals(3, list.size());
+
+    list.clear();
+    assertNull(index.get(list, 42L));
+  }
+
+}
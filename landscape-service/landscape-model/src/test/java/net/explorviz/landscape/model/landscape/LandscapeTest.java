@@ -3,6 +3,7 @@ package net.explorviz.landscape.model.landscape;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import net.explorviz.landscape.model.event.EEventType;
 import net.explorviz.landscape.model.event.Event;
@@ -66,4 +67,29 @@ public class LandscapeTest {
     assertEquals(expectedEvent.getEventMessage(), actualEvent.getEventMessage());
   }
 
+  /**
+   * Tests if a burst of events gets unique timestamps and is bounded per period.
+   */
+  @Test
+  public void testEventBurst() {
+    this.l.setMaxEventsPerPeriod(100);
+
+    for (int i = 0; i < 150; i++) {
+      this.l.createNewException(String.valueOf(i), "cause");
+    }
+    this.l.createNewEvent("150", EEventType.NEWAPPLICATION, "message");
+
+    assertEquals(101, this.l.getEvents().size());
+    assertEquals(50, this.l.getDroppedEvents());
+    for (int i = 1; i < 100; i++) {
+      assertTrue(this.l.getEvents().get(i).getTimestamp()
+          > this.l.getEvents().get(i - 1).getTimestamp());
+    }
+
+    this.l.resetPeriod();
+    this.l.createNewException("151", "cause");
+    assertEquals(1, this.l.getEvents().size());
+    assertEquals(0, this.l.getDroppedEvents());
+  }
+
 }
@@ -0,0 +1,59 @@
+package net.explorviz.landscape.model.landscape;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class NodeTest {
+
+  /**
+   * Tests if utilization samples are folded into the statistics of a period.
+   */
+  @Test
+  public void testUtilizationStatistics() {
+    final Node node = new Node("1");
+
+    node.addUtilizationSample(0.2, 300, 700);
+    node.addUtilizationSample(0.6, 100, 900);
+    node.addUtilizationSample(0.4, 200, 800);
+
+    assertEquals(3, node.getUtilizationSamples());
+    assertEquals(0.2, node.getMinCpuUtilization(), 1e-9);
+    assertEquals(0.6, node.getMaxCpuUtilization(), 1e-9);
+    assertEquals(0.4, node.getAverageCpuUtilization(), 1e-9);
+    assertEquals(100, node.getMinUsedRAM());
+    assertEquals(300, node.getMaxUsedRAM());
+    assertEquals(200, node.getAverageUsedRAM());
+    assertEquals(0.4, node.getCpuUtilization(), 1e-9);
+    assertEquals(800, node.getFreeRAM());
+
+    node.resetUtilizationPeriod();
+    node.addUtilizationSample(0.9, 500, 500);
+
+    assertEquals(1, node.getUtilizationSamples());
+    assertEquals(0.9, node.getMinCpuUtilization(), 1e-9);
+    assertEquals(500, node.getMinUsedRAM());
+  }
+
+  /**
+   * Tests if the average used RAM is rounded instead of truncated with every sample.
+   */
+  @Test
+  public void testAverageUsedRAMDoesNotDrift() {
+    final Node node = new Node("1");
+
+    node.addUtilizationSample(0, 1, 0);
+    node.addUtilizationSample(0, 2, 0);
+    node.addUtilizationSample(0, 2, 0);
+    assertEquals(2, node.getAverageUsedRAM());
+
+    node.resetUtilizationPeriod();
+    node.addUtilizationSample(0, 0, 0);
+    for (int i = 0; i < 99; i++) {
+      node.addUtilizationSample(0, 10, 0);
+    }
+    // the exact mean is 9.9
+    assertEquals(10, node.getAverageUsedRAM());
+  }
+
+}
@@ -5,13 +5,16 @@ import net.explorviz.shared.config.annotations.Config;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.glassfish.hk2.api.Factory;
 
-public class KafkaProducerFactory implements Factory<KafkaProducer<String, String>> {
+public class KafkaProducerFactory implements Factory<KafkaProducer<String, byte[]>> {
 
   @Config("exchange.kafka.bootstrap.servers")
   private String kafkaBootstrapServers;
 
+  @Config("exchange.kafka.compression.type")
+  private String compressionType;
+
   @Override
-  public KafkaProducer<String, String> provide() {
+  public KafkaProducer<String, byte[]> provide() {
 
     final Properties properties = new Properties();
     properties.put("bootstrap.servers", this.kafkaBootstrapServers);
@@ -20,15 +23,17 @@ public class KafkaProducerFactory implements Factory<KafkaProducer<String, Strin
     properties.put("batch.size", "16384");
     properties.put("linger.ms", "1");
     properties.put("max.request.size", "2097152");
+    // larger landscapes are split into chunks, see exchange.kafka.chunkSize
+    properties.put("compression.type", this.compressionType);
     properties.put("buffer.memory", 33_554_432); // NOCS
     properties.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer"); // NOCS
-    properties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+    properties.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
 
     return new KafkaProducer<>(properties);
   }
 
   @Override
-  public void dispose(final KafkaProducer<String, String> instance) {
+  public void dispose(final KafkaProducer<String, byte[]> instance) {
     // Nothing to do
   }
 
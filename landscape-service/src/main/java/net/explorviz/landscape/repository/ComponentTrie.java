@@ -0,0 +1,225 @@
+package net.explorviz.landscape.repository;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.Component;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
+
+/**
+ * Index of the component hierarchy of a single application. Every trie node mirrors a
+ * {@link Component} and hashes its child components and clazzes by their (case-insensitive) name,
+ * hence resolving a clazz takes a single pass over its full-qualified name. New components and
+ * clazzes are added to both, the trie and the component tree of the application.
+ */
+final class ComponentTrie {
+
+  private static final String DEFAULT_COMPONENT_NAME = "(default)";
+
+  private final Application application;
+  private final EntityIdAllocator idGen;
+
+  private final TrieNode root = new TrieNode(null);
+  private TrieNode defaultNode;
+
+  // exact full-qualified names, resolved without walking the trie
+  private final Map<String, Clazz> clazzCache = new HashMap<>();
+
+  /**
+   * Creates the index for the passed application from its existing components.
+   *
+   * @param application - the indexed application
+   * @param idGen - id generator for new components and clazzes
+   */
+  ComponentTrie(final Application application, final EntityIdAllocator idGen) {
+    this.application = application;
+    this.idGen = idGen;
+
+    for (final Component component : application.getComponents()) {
+      if (DEFAULT_COMPONENT_NAME.equals(component.getFullQualifiedName())) {
+        this.defaultNode = index(component);
+      } else {
+        this.root.children.put(key(component.getName()), index(component));
+      }
+    }
+  }
+
+  private static String key(final String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+
+  private static TrieNode index(final Component component) {
+    final TrieNode node = new TrieNode(component);
+
+    for (final Component child : component.getChildren()) {
+      node.children.put(key(child.getName()), index(child));
+    }
+    for (final Clazz clazz : component.getClazzes()) {
+      node.clazzes.put(key(clazz.getName()), clazz);
+    }
+
+    return node;
+  }
+
+  /**
+   * Seeks or creates the clazz with the passed name and all its components.
+   *
+   * @param fullQName - full-qualified name of the clazz, packages are separated by dots
+   * @return the retrieved or created clazz
+   */
+  Clazz seekOrCreateClazz(final String fullQName) {
+    Clazz clazz = this.clazzCache.get(fullQName);
+
+    if (clazz == null) {
+      TrieNode node = this.root;
+      int start = 0;
+      int end = fullQName.indexOf('.');
+
+      while (end != -1) {
+        node = this.seekOrCreateComponent(node, fullQName, start, end);
+        start = end + 1;
+        end = fullQName.indexOf('.', start);
+      }
+
+      if (node == this.root) {
+        node = this.seekOrCreateDefaultComponent();
+      }
+
+      clazz = this.seekOrCreateClazz(node, fullQName, fullQName.substring(start));
+      this.clazzCache.put(fullQName, clazz);
+    }
+
+    return clazz;
+  }
+
+  /**
+   * Removes all clazzes, which were not used since the time of the passed eviction pass, from the
+   * trie and the component tree of the application. Components left without clazzes and child
+   * components are removed as well.
+   *
+   * @param eviction - the current eviction pass, collects the removed clazzes
+   */
+  void evictIdleClazzes(final IdleEviction eviction) {
+    final int evictedBefore = eviction.getClazzes().size();
+
+    this.evictIdleClazzes(this.root, eviction);
+    if (this.defaultNode != null && this.evictIdleClazzes(this.defaultNode, eviction)) {
+      this.application.getComponents().remove(this.defaultNode.component);
+      this.defaultNode = null;
+    }
+
+    if (eviction.getClazzes().size() > evictedBefore) {
+      // several (case-variant) names may denote the same clazz
+      this.clazzCache.values().removeIf(eviction.getClazzes()::contains);
+    }
+  }
+
+  // returns true, if the trie node is empty afterwards
+  private boolean evictIdleClazzes(final TrieNode node, final IdleEviction eviction) {
+    final Iterator<Clazz> clazzes = node.clazzes.values().iterator();
+    while (clazzes.hasNext()) {
+      final Clazz clazz = clazzes.next();
+
+      if (clazz.getLastUsage() < eviction.getIdleSince()) {
+        clazzes.remove();
+        node.component.getClazzes().remove(clazz);
+        eviction.getClazzes().add(clazz);
+      }
+    }
+
+    final Iterator<TrieNode> children = node.children.values().iterator();
+    while (children.hasNext()) {
+      final TrieNode child = children.next();
+
+      if (this.evictIdleClazzes(child, eviction)) {
+        children.remove();
+        if (node.component == null) {
+          this.application.getComponents().remove(child.component);
+        } else {
+          node.component.getChildren().remove(child.component);
+        }
+      }
+    }
+
+    return node.clazzes.isEmpty() && node.children.isEmpty();
+  }
+
+  private TrieNode seekOrCreateComponent(final TrieNode parent, final String fullQName,
+      final int start, final int end) {
+    final String name = fullQName.substring(start, end);
+    final String key = key(name);
+
+    TrieNode node = parent.children.get(key);
+
+    if (node == null) {
+      final Component component = new Component(this.idGen.generateId());
+      component.setFullQualifiedName(fullQName.substring(0, end));
+      component.setName(name);
+      component.setParentComponent(parent.component);
+      component.setBelongingApplication(this.application);
+
+      if (parent.component == null) {
+        this.application.getComponents().add(component);
+      } else {
+        parent.component.getChildren().add(component);
+      }
+
+      node = new TrieNode(component);
+      parent.children.put(key, node);
+    }
+
+    return node;
+  }
+
+  private TrieNode seekOrCreateDefaultComponent() {
+    if (this.defaultNode == null) {
+      final Component component = new Component(this.idGen.generateId());
+      component.setFullQualifiedName(DEFAULT_COMPONENT_NAME);
+      component.setName(DEFAULT_COMPONENT_NAME);
+      component.setParentComponent(null);
+      component.setBelongingApplication(this.application);
+      this.application.getComponents().add(component);
+
+      this.defaultNode = new TrieNode(component);
+    }
+
+    return this.defaultNode;
+  }
+
+  private Clazz seekOrCreateClazz(final TrieNode parent, final String fullQName,
+      final String name) {
+    final String key = key(name);
+
+    Clazz clazz = parent.clazzes.get(key);
+
+    if (clazz == null) {
+      clazz = new Clazz(this.idGen.generateId());
+      clazz.setName(name);
+      clazz.setFullQualifiedName(fullQName);
+      clazz.setParent(parent.component);
+      parent.component.getClazzes().add(clazz);
+
+      parent.clazzes.put(key, clazz);
+    }
+
+    return clazz;
+  }
+
+  /**
+   * A component and its hashed children.
+   */
+  private static final class TrieNode {
+    private final Component component;
+    private final Map<String, TrieNode> children = new HashMap<>();
+    private final Map<String, Clazz> clazzes = new HashMap<>();
+
+    TrieNode(final Component component) {
+      this.component = component;
+    }
+  }
+
+}
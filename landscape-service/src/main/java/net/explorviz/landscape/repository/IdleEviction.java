@@ -0,0 +1,72 @@
+package net.explorviz.landscape.repository;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.landscape.Node;
+
+/**
+ * A single pass of the idle eviction at the end of a period. Applications and clazzes, which were
+ * not used since {@link #getIdleSince()}, are removed from the landscape, along with the nodes,
+ * node groups and systems left empty by them. The pass collects the removed entities, such that
+ * every repository part can forget them in its caches.
+ */
+final class IdleEviction {
+
+  private final long idleSince;
+
+  private final Set<Application> applications = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Set<Clazz> clazzes = Collections.newSetFromMap(new IdentityHashMap<>());
+  private int nodeGroups;
+  private int systems;
+
+  /**
+   * Starts an eviction pass.
+   *
+   * @param idleSince - entities last used before this time (in milliseconds) are evicted
+   */
+  IdleEviction(final long idleSince) {
+    this.idleSince = idleSince;
+  }
+
+  long getIdleSince() {
+    return this.idleSince;
+  }
+
+  Set<Application> getApplications() {
+    return this.applications;
+  }
+
+  Set<Node> getNodes() {
+    return this.nodes;
+  }
+
+  Set<Clazz> getClazzes() {
+    return this.clazzes;
+  }
+
+  int getNodeGroups() {
+    return this.nodeGroups;
+  }
+
+  void countNodeGroup() {
+    this.nodeGroups++;
+  }
+
+  int getSystems() {
+    return this.systems;
+  }
+
+  void countSystem() {
+    this.systems++;
+  }
+
+  boolean isEmpty() {
+    return this.applications.isEmpty() && this.clazzes.isEmpty() && this.nodeGroups == 0
+        && this.systems == 0;
+  }
+
+}
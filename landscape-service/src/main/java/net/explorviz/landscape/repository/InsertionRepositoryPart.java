@@ -5,50 +5,72 @@ import explorviz.live_trace_processing.record.event.AbstractAfterEventRecord;
 import explorviz.live_trace_processing.record.event.AbstractAfterFailedEventRecord;
 import explorviz.live_trace_processing.record.event.AbstractBeforeOperationEventRecord;
 import explorviz.live_trace_processing.record.event.AbstractEventRecord;
-import explorviz.live_trace_processing.record.event.constructor.BeforeConstructorEventRecord;
 import explorviz.live_trace_processing.record.event.jdbc.AfterJDBCOperationEventRecord;
 import explorviz.live_trace_processing.record.event.jdbc.BeforeJDBCOperationEventRecord;
 import explorviz.live_trace_processing.record.event.remote.BeforeReceivedRemoteCallRecord;
 import explorviz.live_trace_processing.record.event.remote.BeforeSentRemoteCallRecord;
 import explorviz.live_trace_processing.record.misc.SystemMonitoringRecord;
 import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.RuntimeStatisticInformation;
 import explorviz.live_trace_processing.record.trace.Trace;
 import gnu.trove.set.hash.TIntHashSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 import net.explorviz.landscape.model.application.Application;
 import net.explorviz.landscape.model.application.Clazz;
-import net.explorviz.landscape.model.application.Component;
 import net.explorviz.landscape.model.application.DatabaseQuery;
-import net.explorviz.landscape.model.event.EEventType;
-import net.explorviz.landscape.model.helper.EProgrammingLanguage;
+import net.explorviz.landscape.model.event.Event;
+import net.explorviz.landscape.model.helper.LatencySketch;
 import net.explorviz.landscape.model.helper.ModelHelper;
 import net.explorviz.landscape.model.landscape.Landscape;
 import net.explorviz.landscape.model.landscape.Node;
-import net.explorviz.landscape.model.landscape.NodeGroup;
-import net.explorviz.landscape.model.landscape.System;
-import net.explorviz.landscape.repository.helper.Signature;
-import net.explorviz.landscape.repository.helper.SignatureParser;
-import net.explorviz.shared.common.idgen.IdGenerator;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
+import net.explorviz.landscape.repository.helper.ExceptionCause;
+import net.explorviz.landscape.repository.helper.SignatureCache;
+import net.explorviz.landscape.repository.helper.SqlStatement;
 
 /**
- * InsertionRepositoryPart TODODescr.
+ * Inserts traces into the application subtrees of a landscape. In sharded insertion mode, every
+ * shard owns a separate instance, hence the caches of this class are shard-local. Topology changes
+ * are delegated to the shared {@link TopologyRepositoryPart} while holding the landscape monitor.
  */
 public class InsertionRepositoryPart {
 
-  private static final String DEFAULT_COMPONENT_NAME = "(default)";
-
   private final Map<String, Node> nodeCache = new HashMap<>();
   private final Map<String, Application> applicationCache = new HashMap<>();
-  private final Map<Application, Map<String, Clazz>> clazzCache = new HashMap<>();
+  // identity, since the hash code of entities is computed from their id on every call
+  private final Map<Application, ComponentTrie> componentTries = new IdentityHashMap<>();
+
+  private final EntityIdAllocator idGen;
+  private final TopologyRepositoryPart topologyRepositoryPart;
+  private final int maxDatabaseQueries;
 
-  private final IdGenerator idGen;
+  private MetricsEpoch epoch = new MetricsEpoch();
+  // merges the response times of the aggregated clazzCommunications at the end of a period
+  private final LatencySketch aggregationSketch = new LatencySketch();
+  private final TraceWalkContext traceWalk;
 
+  // statements, which were not captured, since their application reached the maximum of queries
+  private long droppedDatabaseQueries;
 
-  public InsertionRepositoryPart(final IdGenerator idGen) {
+  /**
+   * Creates a new insertion part.
+   *
+   * @param idGen - id allocator for new entities
+   * @param topologyRepositoryPart - the global topology
+   * @param maxDatabaseQueries - maximum number of distinct database queries per application and
+   *        period
+   * @param signatureCache - the parsed operation signatures, may be shared by several parts
+   */
+  public InsertionRepositoryPart(final EntityIdAllocator idGen,
+      final TopologyRepositoryPart topologyRepositoryPart, final int maxDatabaseQueries,
+      final SignatureCache signatureCache) {
     this.idGen = idGen;
+    this.topologyRepositoryPart = topologyRepositoryPart;
+    this.maxDatabaseQueries = maxDatabaseQueries;
+    this.traceWalk = new TraceWalkContext(signatureCache);
   }
 
   /**
@@ -69,202 +91,176 @@ public class InsertionRepositoryPart {
 
       synchronized (landscape) {
         for (int i = 0; i < hostApplicationMetadataList.size(); i++) {
-          final HostApplicationMetaDataRecord hostApplicationRecord =
-              hostApplicationMetadataList.get(i);
-          final System system =
-              this.seekOrCreateSystem(landscape, hostApplicationRecord.getSystemname());
-
-          final boolean isNewNode = this.nodeCache.get(hostApplicationRecord.getHostname() + "_"
-              + hostApplicationRecord.getIpaddress()) == null;
-          final Node node = this.seekOrCreateNode(hostApplicationRecord, landscape);
-
-          final boolean isNewApplication = this.applicationCache
-              .get(node.getName() + "_" + hostApplicationRecord.getApplication()) == null;
-          final Application application =
-              this.seekOrCreateApplication(node, hostApplicationRecord, landscape);
-
-          // TODO send to Discovery Kafka Topic the name of the found application
-
-          if (isNewNode) {
-            final NodeGroup nodeGroup = this.seekOrCreateNodeGroup(system, node);
-            nodeGroup.getNodes().add(node);
-            node.setParent(nodeGroup);
-
-            nodeGroup.updateName();
-          } else {
-            if (isNewApplication) {
-              // if new app, node might be placed in a different
-              // nodeGroup
-
-              final NodeGroup oldNodeGroup = node.getParent();
-              oldNodeGroup.getNodes().remove(node);
-
-              final NodeGroup nodeGroup = this.seekOrCreateNodeGroup(system, node);
-
-              if (!oldNodeGroup.equals(nodeGroup)) {
-                if (oldNodeGroup.getNodes().isEmpty()) {
-                  oldNodeGroup.getParent().getNodeGroups().remove(oldNodeGroup);
-                } else {
-                  oldNodeGroup.updateName();
-                }
-              }
-
-              nodeGroup.getNodes().add(node);
-              node.setParent(nodeGroup);
-
-              nodeGroup.updateName();
-            }
-          }
-
-          this.createCommuInApp(trace,
-              hostApplicationRecord.getHostname(),
-              application,
-              landscape,
-              remoteCallRepositoryPart,
-              i);
-
-          // landscape.updateLandscapeAccess(java.lang.System.currentTimeMillis());
+          this.insertTrace(trace, i, landscape, remoteCallRepositoryPart);
         }
       }
     } else if (inputIRecord instanceof SystemMonitoringRecord) {
-      final SystemMonitoringRecord systemMonitoringRecord = (SystemMonitoringRecord) inputIRecord;
-
-      for (final Node node : this.nodeCache.values()) {
-        if (node.getName()
-            .equalsIgnoreCase(systemMonitoringRecord.getHostApplicationMetadata().getHostname())
-            && node.getIpAddress()
-                .equalsIgnoreCase(
-                    systemMonitoringRecord.getHostApplicationMetadata().getIpaddress())) {
-
-          node.setCpuUtilization(systemMonitoringRecord.getCpuUtilization());
-          node.setFreeRAM(
-              systemMonitoringRecord.getAbsoluteRAM() - systemMonitoringRecord.getUsedRAM());
-          node.setUsedRAM(systemMonitoringRecord.getUsedRAM());
-        }
+      synchronized (landscape) {
+        this.topologyRepositoryPart.updateNodeUtilization((SystemMonitoringRecord) inputIRecord);
       }
     }
 
   }
 
   /**
-   * Seeks or creates a new system.
+   * Inserts a batch of records into the data model (landscape) while holding the monitor of the
+   * landscape once for the whole batch.
    *
-   * @param landscape - passed landscape
-   * @param systemname - name of the system
-   * @return the retrieved or created system
+   * @param records - Records that will be inserted into the passed landscape
+   * @param landscape - Target for the insertion of records
+   * @param remoteCallRepositoryPart - the RemoteCallRepositoryPart
    */
-  private System seekOrCreateSystem(final Landscape landscape, final String systemname) {
-    for (final System system : landscape.getSystems()) {
-      if (system.getName().equalsIgnoreCase(systemname)) {
-        // familiar system, return old instance
-        // of internalLandscape
-        return system;
+  public void insertIntoModel(final List<IRecord> records, final Landscape landscape,
+      final RemoteCallRepositoryPart remoteCallRepositoryPart) {
+    synchronized (landscape) {
+      for (final IRecord record : records) {
+        this.insertIntoModel(record, landscape, remoteCallRepositoryPart);
       }
     }
-
-    // New system, add to internalLandscape
-    final System system = new System(this.idGen.generateId());
-    system.setName(systemname);
-    system.setParent(landscape);
-    landscape.getSystems().add(system);
-
-    // create a new system event
-    landscape.createNewEvent(this.idGen.generateId(),
-        EEventType.NEWSYSTEM,
-        "New system '" + systemname + "' detected");
-
-    return system;
   }
 
   /**
-   * Seeks or creates a new node.
+   * Inserts the runtime information of a single host application of a trace into the data model.
+   * The caller must ensure that no other thread modifies the related application concurrently.
    *
-   * @param hostApplicationRecord - monitoring information about the host
-   * @param landscape - the passed landscape
-   * @return the retrieved or created node
+   * @param trace - the related trace
+   * @param runtimeIndex - the position of the host application within the trace
+   * @param landscape - Target for the insertion of records
+   * @param remoteCallRepositoryPart - the RemoteCallRepositoryPart
    */
-  protected Node seekOrCreateNode(final HostApplicationMetaDataRecord hostApplicationRecord,
-      final Landscape landscape) {
-    final String nodeName =
-        hostApplicationRecord.getHostname() + "_" + hostApplicationRecord.getIpaddress();
-    Node node = this.nodeCache.get(nodeName);
+  void insertTrace(final Trace trace, final int runtimeIndex, final Landscape landscape,
+      final RemoteCallRepositoryPart remoteCallRepositoryPart) {
+    final HostApplicationMetaDataRecord hostApplicationRecord =
+        trace.getTraceEvents().get(0).getHostApplicationMetadataList().get(runtimeIndex);
 
-    if (node == null) {
-      // new node, add to nodeCache for the moment
-      // eventual, put in NodeGroup
-      node = new Node(this.idGen.generateId());
+    final Application application = this.seekOrCreateHostApplication(hostApplicationRecord,
+        landscape);
+    this.epoch.touch(application);
 
+    this.createCommuInApp(trace,
+        hostApplicationRecord.getHostname(),
+        application,
+        landscape,
+        remoteCallRepositoryPart,
+        runtimeIndex);
 
-      node.setIpAddress(hostApplicationRecord.getIpaddress());
-      node.setName(hostApplicationRecord.getHostname());
-      this.nodeCache.put(nodeName, node);
+    // landscape.updateLandscapeAccess(java.lang.System.currentTimeMillis());
+  }
 
-      // creates a new node event
-      landscape.createNewEvent(this.idGen.generateId(),
-          EEventType.NEWNODE,
-          "New node '" + hostApplicationRecord.getHostname() + "' in system '"
-              + hostApplicationRecord.getSystemname() + "' detected");
-    }
+  /**
+   * Returns the total number of statements, which were not captured as database query, since
+   * their application reached the maximum of queries.
+   */
+  long getDroppedDatabaseQueries() {
+    return this.droppedDatabaseQueries;
+  }
 
-    return node;
+  /**
+   * Returns the number of applications, whose per-period metrics were touched by this part in the
+   * current metrics epoch.
+   */
+  int getTouchedApplications() {
+    return this.epoch.getTouchedApplications();
   }
 
   /**
-   * Seeks or creates a new nodeGroup.
-   *
-   * @param system - the related system
-   * @param node - the related node
-   * @return the retrieved or created nodeGroup
+   * Returns the number of clazzes, whose per-period metrics were touched by this part in the
+   * current metrics epoch.
    */
-  private NodeGroup seekOrCreateNodeGroup(final System system, final Node node) {
-    for (final NodeGroup existingNodeGroup : system.getNodeGroups()) {
-      if (!existingNodeGroup.getNodes().isEmpty()
-          && this.nodeMatchesNodeType(node, existingNodeGroup.getNodes().get(0))) {
-        // familiar NodeGroup
-        return existingNodeGroup;
-      }
-    }
+  int getTouchedClazzes() {
+    return this.epoch.getTouchedClazzes();
+  }
 
-    // new NodeGroup, add to system, therefore, internalLandscape
-    final NodeGroup nodeGroup = new NodeGroup(this.idGen.generateId());
+  /**
+   * Aggregates the clazzCommunications of the current metrics epoch, see
+   * {@link MetricsEpoch#aggregate(LatencySketch)}. Must not be called concurrently to an insertion
+   * by this part.
+   */
+  void aggregateEpoch() {
+    this.epoch.aggregate(this.aggregationSketch);
+  }
 
+  /**
+   * Closes the current metrics epoch, i.e., resets the per-period metrics of all entities touched
+   * by this part and continues with a fresh epoch. Must not be called concurrently to an insertion
+   * by this part.
+   *
+   * @param milliseconds - the end of the epoch
+   */
+  void closeEpoch(final long milliseconds) {
+    final MetricsEpoch closedEpoch = this.epoch;
+    this.epoch = new MetricsEpoch();
+    closedEpoch.retire(milliseconds);
+  }
 
-    nodeGroup.setName(node.getIpAddress());
-    system.getNodeGroups().add(nodeGroup);
-    nodeGroup.setParent(system);
+  /**
+   * Evicts the idle clazzes of the applications known to this part and forgets the applications
+   * and nodes evicted from the global topology. Must be called after the topology was evicted and
+   * not concurrently to an insertion by this part.
+   *
+   * @param eviction - the current eviction pass
+   */
+  void evictIdle(final IdleEviction eviction) {
+    if (!eviction.getApplications().isEmpty()) {
+      this.applicationCache.values().removeIf(eviction.getApplications()::contains);
+      this.nodeCache.values().removeIf(eviction.getNodes()::contains);
+      this.componentTries.keySet().removeAll(eviction.getApplications());
+    }
 
-    return nodeGroup;
+    for (final ComponentTrie componentTrie : this.componentTries.values()) {
+      componentTrie.evictIdleClazzes(eviction);
+    }
   }
 
   /**
-   * Check whether two nodes are similar or not
+   * Looks up the application of the passed host record in the local caches. Only if the node or
+   * application is unknown to this part, the global topology is consulted (and possibly updated)
+   * in a critical section on the landscape.
    *
-   * @param node - the first node
-   * @param node2 - the second node
-   * @return if the node is similar or not
+   * @param hostApplicationRecord - monitoring information about the host
+   * @param landscape - the related landscape
+   * @return the retrieved or created application
    */
-  private boolean nodeMatchesNodeType(final Node node, final Node node2) {
-    if (node.getApplications().size() != node2.getApplications().size()) {
-      return false;
-    }
+  private Application seekOrCreateHostApplication(
+      final HostApplicationMetaDataRecord hostApplicationRecord, final Landscape landscape) {
+    final String nodeName =
+        hostApplicationRecord.getHostname() + "_" + hostApplicationRecord.getIpaddress();
+    final String applicationName =
+        hostApplicationRecord.getHostname() + "_" + hostApplicationRecord.getApplication();
 
-    for (final Application app1 : node.getApplications()) {
-      boolean found = false;
-      for (final Application app2 : node2.getApplications()) {
-        if (app1.getName().equalsIgnoreCase(app2.getName())) {
-          found = true;
-        }
-      }
-      if (!found) {
-        return false;
+    final Node node = this.nodeCache.get(nodeName);
+    Application application = this.applicationCache.get(applicationName);
+
+    if (node == null || application == null) {
+      synchronized (landscape) {
+        application =
+            this.topologyRepositoryPart.seekOrCreateHostApplication(hostApplicationRecord,
+                landscape);
       }
+      this.nodeCache.put(nodeName, application.getParent());
+      this.applicationCache.put(applicationName, application);
     }
 
-    return true;
+    application.setLastUsage(this.topologyRepositoryPart.getClock().millis());
+    return application;
   }
 
   /**
-   * Seeks or creates an application.
+   * Seeks or creates a new node in the global topology. Must be called while holding the landscape
+   * monitor.
+   *
+   * @param hostApplicationRecord - monitoring information about the host
+   * @param landscape - the passed landscape
+   * @return the retrieved or created node
+   */
+  protected Node seekOrCreateNode(final HostApplicationMetaDataRecord hostApplicationRecord,
+      final Landscape landscape) {
+    return this.topologyRepositoryPart.seekOrCreateNode(hostApplicationRecord, landscape);
+  }
+
+  /**
+   * Seeks or creates an application in the global topology. Must be called while holding the
+   * landscape monitor.
    *
    * @param node - the related node
    * @param hostMetaDataRecord - monitoring information about the host
@@ -273,54 +269,8 @@ public class InsertionRepositoryPart {
    */
   Application seekOrCreateApplication(final Node node,
       final HostApplicationMetaDataRecord hostMetaDataRecord, final Landscape landscape) {
-    final String applicationName = hostMetaDataRecord.getApplication();
-    Application application = this.applicationCache.get(node.getName() + "_" + applicationName);
-
-    if (application == null) {
-      // new application, put in applicationCache for the moment
-      // eventually, parent Node must not be in the old NodeGroup
-      application = new Application(this.idGen.generateId());
-      // application.setId((node.getName() + "_" + applicationName).hashCode());
-      application.setLastUsage(java.lang.System.currentTimeMillis());
-      application.setName(applicationName);
-
-      final String language = hostMetaDataRecord.getProgrammingLanguage();
-
-      if ("JAVA".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.JAVA);
-      } else if ("C".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.C);
-      } else if ("CPP".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.CPP);
-      } else if ("CSHARP".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.CSHARP);
-      } else if ("PERL".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.PERL);
-      } else if ("JAVASCRIPT".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.JAVASCRIPT);
-      } else if ("PYTHON".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.PYTHON);
-      } else if ("RUBY".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.RUBY);
-      } else if ("PHP".equalsIgnoreCase(language)) {
-        application.setProgrammingLanguage(EProgrammingLanguage.PHP);
-      } else {
-        application.setProgrammingLanguage(EProgrammingLanguage.UNKNOWN);
-      }
-
-      application.setParent(node);
-
-      node.getApplications().add(application);
-      this.applicationCache.put(node.getName() + "_" + applicationName, application);
-
-      // creates a new application event
-      landscape.createNewEvent(this.idGen.generateId(),
-          EEventType.NEWAPPLICATION,
-          "New application '" + applicationName + "' on node '" + node.getName() + "' detected");
-    }
-
-    application.setLastUsage(java.lang.System.currentTimeMillis());
-    return application;
+    return this.topologyRepositoryPart.seekOrCreateApplication(node, hostMetaDataRecord,
+        landscape);
   }
 
   /**
@@ -336,140 +286,92 @@ public class InsertionRepositoryPart {
   private void createCommuInApp(final Trace trace, final String currentHostname,
       final Application currentApplication, final Landscape landscape,
       final RemoteCallRepositoryPart remoteCallRepositoryPart, final int runtimeIndex) {
+    final TraceWalkContext walk = this.traceWalk;
+    walk.begin(trace);
+
     Clazz callerClazz = null;
-    final Stack<Clazz> callerClazzesHistory = new Stack<>();
+    // the query of the last JDBC operation, completed by its after record
+    DatabaseQuery openDatabaseQuery = null;
 
     int orderIndex = 1;
     double overallTraceDuration = -1d;
 
-    final int eventsLength = trace.getTraceEvents().size();
+    final List<AbstractEventRecord> events = trace.getTraceEvents();
+    final int eventsLength = events.size();
 
     for (int i = 0; i < eventsLength; i++) {
-      final AbstractEventRecord event = trace.getTraceEvents().get(i);
+      final AbstractEventRecord event = events.get(i);
 
       if (event instanceof AbstractBeforeOperationEventRecord) {
         final AbstractBeforeOperationEventRecord abstractBeforeEventRecord =
             (AbstractBeforeOperationEventRecord) event;
+        final RuntimeStatisticInformation statistics =
+            abstractBeforeEventRecord.getRuntimeStatisticInformationList().get(runtimeIndex);
 
         if (overallTraceDuration < 0d) { // NOPMD
-          overallTraceDuration = abstractBeforeEventRecord.getRuntimeStatisticInformationList()
-              .get(runtimeIndex)
-              .getAverage();
+          overallTraceDuration = statistics.getAverage();
         }
 
-        final String clazzName = getClazzName(abstractBeforeEventRecord);
-
-        final Clazz currentClazz = this.seekOrCreateClazz(clazzName,
+        final Clazz currentClazz = this.seekOrCreateClazz(walk.getClazzName(i),
             currentApplication,
-            abstractBeforeEventRecord.getRuntimeStatisticInformationList()
-                .get(runtimeIndex)
-                .getObjectIds());
+            statistics.getObjectIds());
 
         if (callerClazz != null) {
-          final boolean isConstructor =
-              abstractBeforeEventRecord instanceof BeforeConstructorEventRecord;
-          final String methodName =
-              getMethodName(abstractBeforeEventRecord.getOperationSignature(), isConstructor);
-
-          boolean isAbstractConstructor = false;
-
-          if (isConstructor) {
-            final BeforeConstructorEventRecord constructor =
-                (BeforeConstructorEventRecord) abstractBeforeEventRecord;
-            final String constructorClass =
-                constructor.getClazz().substring(constructor.getClazz().lastIndexOf('.') + 1);
-            final String constructorClassFromOperation = methodName.substring(4);
-
-            isAbstractConstructor =
-                !constructorClass.equalsIgnoreCase(constructorClassFromOperation);
-          }
-
-          if (!isAbstractConstructor) {
-
-            final String traceId = Long.toString(abstractBeforeEventRecord.getTraceId());
-
-            final int numOfRequests = abstractBeforeEventRecord.getRuntimeStatisticInformationList()
-                .get(runtimeIndex)
-                .getCount();
-
-            final double avgResponseTime =
-                abstractBeforeEventRecord.getRuntimeStatisticInformationList()
-                    .get(runtimeIndex)
-                    .getAverage();
-
-            this.createOrUpdateCall(callerClazz,
+          if (!walk.isAbstractConstructor(i)) {
+            this.createOrUpdateCall(landscape,
+                callerClazz,
                 currentClazz,
                 currentApplication,
-                numOfRequests,
-                avgResponseTime,
+                statistics.getCount(),
+                statistics.getAverage(),
                 overallTraceDuration,
-                traceId,
+                abstractBeforeEventRecord.getTraceId(),
                 orderIndex,
-                methodName,
-                landscape);
+                walk.getOperationName(i));
             orderIndex++;
           }
 
           if (abstractBeforeEventRecord instanceof BeforeJDBCOperationEventRecord) {
-            final BeforeJDBCOperationEventRecord jdbcOperationEventRecord =
-                (BeforeJDBCOperationEventRecord) abstractBeforeEventRecord;
-            final DatabaseQuery databaseQuery = new DatabaseQuery(this.idGen.generateId()); // NOPMD
-
-            // parse type of Statement, e.g. Statement or PreparedStatement
-            final String operationSignature = jdbcOperationEventRecord.getOperationSignature();
-            final String parsedStatementType =
-                operationSignature.contains(" ") ? operationSignature.split(" ")[0]
-                    : operationSignature;
-            databaseQuery.setStatementType(parsedStatementType);
-            databaseQuery.setTimestamp(java.lang.System.currentTimeMillis());
-            databaseQuery.setSqlStatement(jdbcOperationEventRecord.getSqlStatement());
-            databaseQuery.setParentApplication(currentApplication);
-            currentApplication.getDatabaseQueries().add(databaseQuery);
+            openDatabaseQuery = this.seekOrCreateDatabaseQuery(
+                (BeforeJDBCOperationEventRecord) abstractBeforeEventRecord, currentApplication);
           }
         }
 
         callerClazz = currentClazz;
-        callerClazzesHistory.push(currentClazz);
+        walk.pushCaller(currentClazz);
 
       } else if (event instanceof AbstractAfterEventRecord
           || event instanceof AbstractAfterFailedEventRecord) {
         if (event instanceof AbstractAfterFailedEventRecord && callerClazz != null) {
-          String cause = ((AbstractAfterFailedEventRecord) event).getCause();
-          final String[] splitCause = cause.split("\n");
-          if (splitCause.length > 6) { // NOPMD
-            cause = splitCause[0] + "\n" + splitCause[1] + "\n" + splitCause[2] + "\n"
-                + splitCause[3] + "\n" + splitCause[4] + "\n" + splitCause[5] + "\n" + "\t ...";
-          }
-
-          // creates an exception event
-          landscape.createNewException(this.idGen.generateId(),
-              "Exception thrown in application '" + currentApplication.getName() + "' by class '"
-                  + callerClazz.getFullQualifiedName() + "':\n " + cause);
+          this.addException(landscape, currentApplication, callerClazz,
+              ((AbstractAfterFailedEventRecord) event).getCause());
         }
 
-        final List<DatabaseQuery> databaseQueries = currentApplication.getDatabaseQueries();
-
-        if (event instanceof AfterJDBCOperationEventRecord && !databaseQueries.isEmpty()) {
+        if (event instanceof AfterJDBCOperationEventRecord && openDatabaseQuery != null) {
           final AfterJDBCOperationEventRecord jdbcOperationEventRecord =
               (AfterJDBCOperationEventRecord) event;
 
-          final DatabaseQuery databaseQuery = databaseQueries.get(databaseQueries.size() - 1);
-          databaseQuery.setReturnValue(jdbcOperationEventRecord.getFormattedReturnValue());
-          databaseQuery.setResponseTime(jdbcOperationEventRecord.getMethodDuration());
-          databaseQuery.setParentApplication(currentApplication);
+          openDatabaseQuery.addExecution(jdbcOperationEventRecord.getMethodDuration(),
+              jdbcOperationEventRecord.getFormattedReturnValue());
+          openDatabaseQuery = null;
         }
 
-        if (!callerClazzesHistory.isEmpty()) {
-          callerClazzesHistory.pop();
-        }
-        if (!callerClazzesHistory.isEmpty()) {
-          callerClazz = callerClazzesHistory.peek();
+        final Clazz previousCaller = walk.popCaller();
+        if (previousCaller != null) {
+          callerClazz = previousCaller;
         }
       } else if (event instanceof BeforeSentRemoteCallRecord) {
         final BeforeSentRemoteCallRecord sentRemoteCallRecord = (BeforeSentRemoteCallRecord) event;
 
-        remoteCallRepositoryPart.insertSentRecord(this.idGen
-            .generateId(), callerClazz, sentRemoteCallRecord, landscape, this, runtimeIndex);
+        // remote calls connect applications of different shards
+        synchronized (landscape) {
+          remoteCallRepositoryPart.insertSentRecord(this.idGen,
+              callerClazz,
+              sentRemoteCallRecord,
+              landscape,
+              this,
+              runtimeIndex);
+        }
       } else if (event instanceof BeforeReceivedRemoteCallRecord) {
         final BeforeReceivedRemoteCallRecord receivedRemoteCallRecord =
             (BeforeReceivedRemoteCallRecord) event;
@@ -477,25 +379,25 @@ public class InsertionRepositoryPart {
         Clazz firstReceiverClazz = null;
 
         if (i + 1 < eventsLength
-            && trace.getTraceEvents().get(i + 1) instanceof AbstractBeforeOperationEventRecord) {
+            && events.get(i + 1) instanceof AbstractBeforeOperationEventRecord) {
           final AbstractBeforeOperationEventRecord abstractBeforeEventRecord =
-              (AbstractBeforeOperationEventRecord) trace.getTraceEvents().get(i + 1);
-
-          final String clazzName = getClazzName(abstractBeforeEventRecord);
+              (AbstractBeforeOperationEventRecord) events.get(i + 1);
 
-          firstReceiverClazz = this.seekOrCreateClazz(clazzName,
+          firstReceiverClazz = this.seekOrCreateClazz(walk.getClazzName(i + 1),
               currentApplication,
               abstractBeforeEventRecord.getRuntimeStatisticInformationList()
                   .get(runtimeIndex)
                   .getObjectIds());
         }
 
-        remoteCallRepositoryPart.insertReceivedRecord(this.idGen.generateId(),
-            receivedRemoteCallRecord,
-            firstReceiverClazz,
-            landscape,
-            this,
-            runtimeIndex);
+        synchronized (landscape) {
+          remoteCallRepositoryPart.insertReceivedRecord(this.idGen,
+              receivedRemoteCallRecord,
+              firstReceiverClazz,
+              landscape,
+              this,
+              runtimeIndex);
+        }
       }
       // else if (event instanceof BeforeUnknownReceivedRemoteCallRecord) {
       // }
@@ -537,20 +439,67 @@ public class InsertionRepositoryPart {
     return clazzName;
   }
 
-  private void createOrUpdateCall(final Clazz caller, final Clazz callee,
-      final Application application, final int requests, final double average,
-      final double overallTraceDuration, final String traceId, final int orderIndex,
-      final String operationName, final Landscape landscape) {
+  // aggregates the exception with earlier ones of the same origin and cause in this period
+  private void addException(final Landscape landscape, final Application application,
+      final Clazz clazz, final String cause) {
+    final int retainedLength = ExceptionCause.retainedLength(cause);
+    final long fingerprint = ExceptionCause.fingerprint(cause, retainedLength);
+
+    synchronized (landscape) {
+      final Event aggregated = landscape.seekException(application, clazz, fingerprint);
+
+      if (aggregated == null) {
+        landscape.createNewException(this.idGen.generateId(),
+            application,
+            clazz,
+            fingerprint,
+            "Exception thrown in application '" + application.getName() + "' by class '"
+                + clazz.getFullQualifiedName() + "':\n "
+                + ExceptionCause.truncate(cause, retainedLength));
+      } else {
+        aggregated.addOccurrence(java.lang.System.currentTimeMillis());
+      }
+    }
+  }
+
+  /**
+   * Returns the query, which aggregates the statements with the same normalized SQL as the passed
+   * record, or creates it.
+   *
+   * @return the query or null, if the application reached the maximum of queries
+   */
+  private DatabaseQuery seekOrCreateDatabaseQuery(
+      final BeforeJDBCOperationEventRecord jdbcOperationEventRecord,
+      final Application application) {
+    final String normalizedSql =
+        SqlStatement.normalize(jdbcOperationEventRecord.getSqlStatement());
+
+    final DatabaseQuery databaseQuery = application.seekOrCreateDatabaseQuery(this.idGen,
+        SqlStatement.fingerprint(normalizedSql), this.maxDatabaseQueries);
+
+    if (databaseQuery == null) {
+      this.droppedDatabaseQueries++;
+    } else if (databaseQuery.getSqlStatement() == null) {
+      // created, e.g. Statement or PreparedStatement
+      databaseQuery.setStatementType(
+          SqlStatement.statementType(jdbcOperationEventRecord.getOperationSignature()));
+      databaseQuery.setTimestamp(java.lang.System.currentTimeMillis());
+      databaseQuery.setSqlStatement(normalizedSql);
+    }
+    return databaseQuery;
+  }
+
+  private void createOrUpdateCall(final Landscape landscape, final Clazz caller,
+      final Clazz callee, final Application application, final int requests,
+      final double average, final double overallTraceDuration, final long traceId,
+      final int orderIndex, final String operationName) {
 
-    landscape.getTimestamp()
-        .setTotalRequests(landscape.getTimestamp().getTotalRequests() + requests);
+    // lock-free, hence shared by all shards
+    TopologyRepositoryPart.countRequests(landscape, application, requests);
 
     // add clazzCommunication to clazz and aggregatedClazzCommunication to
-    // application
-    ModelHelper.addClazzCommunication(this.idGen.generateId(),
-        this.idGen.generateId(),
-        this.idGen.generateId(),
-        this.idGen.generateId(),
+    // application, ids are only allocated for entities, which do not exist yet
+    ModelHelper.addClazzCommunication(this.idGen,
         caller,
         callee,
         application,
@@ -564,105 +513,19 @@ public class InsertionRepositoryPart {
 
   private Clazz seekOrCreateClazz(final String fullQName, final Application application,
       final TIntHashSet objectIds) {
-    final String[] splittedName = fullQName.split("\\.");
-
-    Map<String, Clazz> appCached = this.clazzCache.get(application);
-    if (appCached == null) {
-      appCached = new HashMap<>();
-      this.clazzCache.put(application, appCached);
+    ComponentTrie componentTrie = this.componentTries.get(application);
+    if (componentTrie == null) {
+      componentTrie = new ComponentTrie(application, this.idGen);
+      this.componentTries.put(application, componentTrie);
     }
-    Clazz clazz = appCached.get(fullQName);
 
-    if (clazz == null) {
-      // new clazz
-      clazz = this.seekrOrCreateClazzHelper(fullQName, splittedName, application, null, 0);
-      appCached.put(fullQName, clazz);
-    }
+    final Clazz clazz = componentTrie.seekOrCreateClazz(fullQName);
 
     // set instanceCount
+    this.epoch.touch(clazz);
     clazz.setInstanceCount(clazz.getInstanceCount() + 1);
 
     return clazz;
   }
 
-  private Clazz seekrOrCreateClazzHelper(final String fullQName, final String[] splittedName,
-      final Application application, final Component parent, final int index) {
-    final String currentPart = splittedName[index];
-
-    Component potentialParent = parent;
-
-    if (index < splittedName.length - 1) {
-      List<Component> list = null;
-
-      if (potentialParent == null) {
-        list = application.getComponents();
-      } else {
-        list = potentialParent.getChildren();
-      }
-
-      for (final Component component : list) {
-        if (component.getName().equalsIgnoreCase(currentPart)) {
-          return this
-              .seekrOrCreateClazzHelper(fullQName, splittedName, application, component, index + 1);
-        }
-      }
-      final Component component = new Component(this.idGen.generateId());
-
-      String fullQNameComponent = "";
-      for (int i = 0; i <= index; i++) {
-        fullQNameComponent += splittedName[i] + ".";
-      }
-      fullQNameComponent = fullQNameComponent.substring(0, fullQNameComponent.length() - 1);
-      component.setFullQualifiedName(fullQNameComponent);
-      component.setName(currentPart);
-      component.setParentComponent(potentialParent);
-      component.setBelongingApplication(application);
-      list.add(component);
-      return this
-          .seekrOrCreateClazzHelper(fullQName, splittedName, application, component, index + 1);
-    } else {
-      if (potentialParent == null) {
-        for (final Component component : application.getComponents()) {
-          if (component.getFullQualifiedName().equals(DEFAULT_COMPONENT_NAME)) {
-            potentialParent = component;
-            break;
-          }
-        }
-
-        if (potentialParent == null) {
-          final Component component = new Component(this.idGen.generateId());
-
-          component.setFullQualifiedName(DEFAULT_COMPONENT_NAME);
-          component.setName(DEFAULT_COMPONENT_NAME);
-          component.setParentComponent(null);
-          component.setBelongingApplication(application);
-          application.getComponents().add(component);
-          potentialParent = component;
-        }
-      }
-
-      for (final Clazz clazz : potentialParent.getClazzes()) {
-        if (clazz.getName().equalsIgnoreCase(currentPart)) {
-          // familiar clazz
-          return clazz;
-        }
-      }
-
-      // new clazz
-      final Clazz clazz = new Clazz(this.idGen.generateId());
-
-      clazz.setName(currentPart);
-      clazz.setFullQualifiedName(fullQName);
-      clazz.setParent(potentialParent);
-      potentialParent.getClazzes().add(clazz);
-      return clazz;
-    }
-  }
-
-  public static String getMethodName(final String operationSignatureStr,
-      final boolean constructor) {
-    final Signature signature = SignatureParser.parse(operationSignatureStr, constructor);
-    return signature.getOperationName();
-  }
-
 }
@@ -0,0 +1,295 @@
+package net.explorviz.landscape.repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import net.explorviz.landscape.model.helper.JsonApiLandscapeCodec;
+import net.explorviz.landscape.model.helper.LandscapeChunker;
+import net.explorviz.landscape.model.helper.LandscapeCodec;
+import net.explorviz.landscape.model.helper.LandscapeDeltaEncoder;
+import net.explorviz.landscape.model.landscape.Landscape;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Encodes the landscapes of closed periods and sends them to Kafka, decoupled from the time signal
+ * by a bounded hand-off queue. If Kafka is slow, i.e., {@link KafkaProducer#send} blocks, only this
+ * thread waits and pending landscapes are discarded according to the {@link OverflowPolicy}.
+ * Delivery outcomes and latencies are collected by the send callbacks and logged at debug level
+ * once per report interval.
+ */
+public final class LandscapePublisher extends Thread {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LandscapePublisher.class);
+
+  private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  /**
+   * Handling of a new landscape, while previous landscapes still wait for their publication.
+   */
+  public enum OverflowPolicy {
+    /** Keeps up to the queue capacity of landscapes and discards the oldest one if it is full. */
+    DROP_OLDEST,
+    /** Keeps only the latest landscape, i.e., discards every pending landscape. */
+    COALESCE;
+
+    /**
+     * Parses a policy name like <code>drop-oldest</code> or <code>coalesce</code>.
+     *
+     * @param name - the name of the policy, case insensitive
+     * @return the policy
+     * @throws IllegalArgumentException if the name denotes no policy
+     */
+    public static OverflowPolicy parse(final String name) {
+      return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ENGLISH));
+    }
+  }
+
+  private final BlockingDeque<Landscape> queue;
+  private final OverflowPolicy policy;
+
+  private final KafkaProducer<String, byte[]> kafkaProducer;
+  private final String kafkaTopicName;
+  private final LandscapeCodec exchangeCodec;
+
+  // null if complete landscapes are published
+  private final LandscapeDeltaEncoder deltaEncoder;
+
+  private final int chunkSize;
+  private long nextChunkedMessageId = java.lang.System.currentTimeMillis();
+
+  private volatile boolean terminated;
+
+  // written by the time signal thread
+  private final LongAdder droppedLandscapes = new LongAdder();
+
+  // written by the callbacks of the Kafka I/O thread
+  private final LongAdder deliveredRecords = new LongAdder();
+  private final LongAdder failedRecords = new LongAdder();
+  private final LongAdder latencyNanos = new LongAdder();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+  // statistics of the current report interval, only written by the publisher thread
+  private long publishedLandscapes;
+  private long sentRecords;
+  private long sendNanos;
+  private long reportStart = java.lang.System.nanoTime();
+
+  /**
+   * Creates a new publisher.
+   *
+   * @param kafkaProducer - the producer of the landscape records
+   * @param kafkaTopicName - the topic of the landscape records
+   * @param exchangeCodec - the codec of the published landscapes
+   * @param keyframeInterval - publish a complete landscape every n-th period and deltas in
+   *        between, values <= 1 disable deltas
+   * @param chunkSize - landscapes larger than this (in bytes) are split into multiple records,
+   *        values <= 0 disable it
+   * @param queueCapacity - maximum number of landscapes, which wait for their publication
+   * @param policy - the handling of landscapes, which exceed the queue capacity
+   */
+  public LandscapePublisher(final KafkaProducer<String, byte[]> kafkaProducer,
+      final String kafkaTopicName, final LandscapeCodec exchangeCodec, final int keyframeInterval,
+      final int chunkSize, final int queueCapacity, final OverflowPolicy policy) {
+    super("landscape-publisher");
+    this.setDaemon(true);
+
+    this.kafkaProducer = kafkaProducer;
+    this.kafkaTopicName = kafkaTopicName;
+    this.exchangeCodec = exchangeCodec;
+    this.chunkSize = chunkSize;
+    this.queue = new LinkedBlockingDeque<>(Math.max(1, queueCapacity));
+    this.policy = policy;
+
+    // deltas are computed on json api documents
+    if (keyframeInterval > 1 && JsonApiLandscapeCodec.NAME.equals(exchangeCodec.getName())) {
+      this.deltaEncoder = new LandscapeDeltaEncoder(keyframeInterval);
+    } else {
+      if (keyframeInterval > 1) {
+        LOGGER.warn(
+            "Landscape deltas are not supported by the {} codec, publishing keyframes only",
+            exchangeCodec.getName());
+      }
+      this.deltaEncoder = null;
+    }
+  }
+
+  /**
+   * Hands the landscape of a closed period over to the publisher. Never blocks; if the queue is
+   * full or coalescing is enabled, pending landscapes are discarded.
+   *
+   * @param l - the landscape of the closed period, which is not modified by the insertion
+   */
+  public void publish(final Landscape l) {
+    if (this.policy == OverflowPolicy.COALESCE) {
+      while (this.queue.pollFirst() != null) {
+        this.droppedLandscapes.increment();
+      }
+    }
+
+    // only the time signal thread adds landscapes, hence the second offer succeeds
+    while (!this.queue.offerLast(l)) {
+      if (this.queue.pollFirst() != null) {
+        this.droppedLandscapes.increment();
+      }
+    }
+  }
+
+  public void terminate() {
+    this.terminated = true;
+    this.interrupt();
+  }
+
+  @Override
+  public void run() {
+    while (!this.terminated) {
+      final Landscape l;
+      try {
+        l = this.queue.pollFirst(REPORT_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        this.terminated = true;
+        break;
+      }
+
+      if (l != null) {
+        this.publishLandscape(l);
+      }
+
+      final long now = java.lang.System.nanoTime();
+      if (now - this.reportStart >= REPORT_INTERVAL_NANOS) {
+        this.report(now - this.reportStart);
+        this.reportStart = now;
+      }
+    }
+  }
+
+  /**
+   * Encodes the landscape once and sends it, as keyframe or delta, in one or more records.
+   */
+  private void publishLandscape(final Landscape l) {
+    try {
+      final byte[] payload = this.exchangeCodec.encode(l);
+      this.sendLandscapeToKafka(l, payload);
+    } catch (final IOException e) {
+      LOGGER.error("Could not encode landscape for Kafka Production.", e);
+    } catch (final RuntimeException e) { // NOPMD
+      LOGGER.error("Could not send landscape to Kafka.", e);
+    }
+
+    this.publishedLandscapes++;
+  }
+
+  /**
+   * Sends an encoded landscape to the Kafka topic. The codec is denoted by the
+   * {@link LandscapeCodec#CODEC_HEADER}. In delta mode, the record contains a keyframe or a delta,
+   * which is denoted by the {@link LandscapeDeltaEncoder#FRAME_HEADER}. Landscapes larger than the
+   * chunk size are sent as multiple records, denoted by the {@link LandscapeChunker#CHUNK_HEADER}.
+   *
+   * @param l that should be send to the Kafka topic
+   * @param payload the encoded landscape
+   * @throws IOException if the delta could not be encoded
+   */
+  private void sendLandscapeToKafka(final Landscape l, final byte[] payload) throws IOException {
+    byte[] value = payload;
+    String frameType = null;
+
+    if (this.deltaEncoder != null) {
+      final LandscapeDeltaEncoder.Frame frame = this.deltaEncoder.encode(payload);
+      value = frame.getPayload();
+      frameType = frame.getType();
+    }
+
+    final List<byte[]> chunks = LandscapeChunker.split(value, this.chunkSize);
+    final long messageId = chunks.size() > 1 ? this.nextChunkedMessageId++ : 0;
+
+    // the chunks share the key and hence the partition, which preserves their order
+    for (int i = 0; i < chunks.size(); i++) {
+      final ProducerRecord<String, byte[]> record =
+          new ProducerRecord<>(this.kafkaTopicName, "1", chunks.get(i));
+
+      record.headers().add(LandscapeCodec.CODEC_HEADER,
+          this.exchangeCodec.getName().getBytes(StandardCharsets.UTF_8));
+      if (frameType != null) {
+        record.headers().add(LandscapeDeltaEncoder.FRAME_HEADER,
+            frameType.getBytes(StandardCharsets.UTF_8));
+      }
+      if (chunks.size() > 1) {
+        record.headers().add(LandscapeChunker.CHUNK_HEADER,
+            LandscapeChunker.header(messageId, i, chunks.size())
+                .getBytes(StandardCharsets.UTF_8));
+      }
+
+      // send blocks while the buffer of the producer is full
+      final long start = java.lang.System.nanoTime();
+      this.kafkaProducer.send(record, (metadata, exception) -> this.onCompletion(start, exception));
+      this.sendNanos += java.lang.System.nanoTime() - start;
+      this.sentRecords++;
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Sending Kafka record with landscape id {}, timestamp {}, and {} bytes in {} chunks to "
+              + "topic {}",
+          l.getId(),
+          l.getTimestamp().getTimestamp(),
+          value.length,
+          chunks.size(),
+          this.kafkaTopicName);
+    }
+  }
+
+  private void onCompletion(final long start, final Exception exception) {
+    if (exception == null) {
+      final long latency = java.lang.System.nanoTime() - start;
+      this.deliveredRecords.increment();
+      this.latencyNanos.add(latency);
+      this.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    } else {
+      this.failedRecords.increment();
+      LOGGER.error("Could not deliver landscape record to topic {}.", this.kafkaTopicName,
+          exception);
+    }
+  }
+
+  private void report(final long intervalNanos) {
+    final long dropped = this.droppedLandscapes.sumThenReset();
+    final long delivered = this.deliveredRecords.sumThenReset();
+    final long failed = this.failedRecords.sumThenReset();
+    final long latency = this.latencyNanos.sumThenReset();
+    final long maxLatency = this.maxLatencyNanos.getAndSet(0);
+
+    if (dropped > 0) {
+      LOGGER.warn("Publisher: {} landscapes dropped ({}), Kafka is slower than the time signal",
+          dropped, this.policy);
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Publisher: {} landscapes in {} records published, blocked {} of {} ms in send, "
+              + "{} records delivered (latency avg {} ms, max {} ms), {} failed, {} queued",
+          this.publishedLandscapes,
+          this.sentRecords,
+          TimeUnit.NANOSECONDS.toMillis(this.sendNanos),
+          TimeUnit.NANOSECONDS.toMillis(intervalNanos),
+          delivered,
+          delivered == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latency / delivered),
+          TimeUnit.NANOSECONDS.toMillis(maxLatency),
+          failed,
+          this.queue.size());
+    }
+
+    this.publishedLandscapes = 0;
+    this.sentRecords = 0;
+    this.sendNanos = 0;
+  }
+
+}
@@ -1,26 +1,23 @@
 package net.explorviz.landscape.repository;
 
-import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
 import explorviz.live_trace_processing.reader.IPeriodicTimeSignalReceiver;
 import explorviz.live_trace_processing.reader.TimeSignalReader;
 import explorviz.live_trace_processing.record.IRecord;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.time.Clock;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
-import net.explorviz.landscape.model.application.Application;
-import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.helper.LandscapeCloner;
 import net.explorviz.landscape.model.landscape.Landscape;
-import net.explorviz.landscape.model.landscape.Node;
-import net.explorviz.landscape.model.landscape.NodeGroup;
-import net.explorviz.landscape.model.landscape.System;
 import net.explorviz.landscape.model.store.Timestamp;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
 import net.explorviz.landscape.repository.helper.LandscapeSerializationHelper;
+import net.explorviz.landscape.repository.helper.SignatureCache;
 import net.explorviz.shared.common.idgen.IdGenerator;
-import net.explorviz.shared.config.annotations.Config;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.jvnet.hk2.annotations.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,57 +28,107 @@ public final class LandscapeRepositoryModel implements IPeriodicTimeSignalReceiv
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LandscapeRepositoryModel.class);
 
-  private volatile Landscape lastPeriodLandscape;
   private Landscape internalLandscape;
+  private final TopologyRepositoryPart topologyRepositoryPart;
   private final InsertionRepositoryPart insertionRepositoryPart;
   private final RemoteCallRepositoryPart remoteCallRepositoryPart;
+  private ShardedInsertionEngine insertionEngine;
   private final int outputIntervalSeconds;
+  private final int insertionShards;
+  private final int insertionQueueCapacity;
+  private final int maxEventsPerPeriod;
+  private final int maxDatabaseQueries;
+  // applications and clazzes idle for this time are evicted, disabled if not positive
+  private final long evictionIdleMillis;
 
-  private final LandscapeSerializationHelper serializationHelper;
+  // encodes and sends the closed periods, the time signal only hands them over
+  private final LandscapePublisher publisher;
 
+  // allocates the entity ids, prefixed by one id of the injected generator
+  private final EntityIdAllocator idGen;
 
-  private final KafkaProducer<String, String> kafkaProducer;
+  // shared by all insertion parts, since it is thread-safe
+  private final SignatureCache signatureCache;
 
-  private final String kafkaTopicName;
+  // the time of the periods and of the last usage of applications and clazzes
+  private final Clock clock;
 
-  private final IdGenerator idGen;
+  // published via JMX, sampled at the end of every period
+  private final RepositoryStatistics statistics = new RepositoryStatistics();
 
   @Inject
-  public LandscapeRepositoryModel(final LandscapeSerializationHelper serializationHelper,
-      final KafkaProducer<String, String> kafkaProducer, final IdGenerator idGen,
-      @Config("repository.outputIntervalSeconds") final int outputIntervalSeconds,
-      @Config("exchange.kafka.topic.name") final String kafkaTopicName) {
-
-    this.serializationHelper = serializationHelper;
-    this.kafkaProducer = kafkaProducer;
-    this.idGen = idGen;
+  public LandscapeRepositoryModel(final RepositoryConfig config,
+      final LandscapeSerializationHelper serializationHelper,
+      final KafkaProducer<String, byte[]> kafkaProducer, final IdGenerator idGen) {
+    this(config, serializationHelper, kafkaProducer, idGen, Clock.systemUTC());
+  }
 
-    this.insertionRepositoryPart = new InsertionRepositoryPart(idGen);
+  /**
+   * Creates the repository with the passed clock, e.g., for tests of the idle eviction.
+   *
+   * @param config - the configuration of the repository and its publisher
+   * @param serializationHelper - provides the configured codec
+   * @param kafkaProducer - sends the closed periods
+   * @param idGen - generates the prefix of the entity ids
+   * @param clock - the time of the periods and of the last usage of entities
+   */
+  LandscapeRepositoryModel(final RepositoryConfig config,
+      final LandscapeSerializationHelper serializationHelper,
+      final KafkaProducer<String, byte[]> kafkaProducer, final IdGenerator idGen,
+      final Clock clock) {
+
+    this.idGen = new EntityIdAllocator(idGen.generateId());
+    this.clock = clock;
+
+    this.signatureCache = new SignatureCache(config.getSignatureCacheCapacity());
+    this.topologyRepositoryPart = new TopologyRepositoryPart(this.idGen, clock);
+    this.insertionRepositoryPart = new InsertionRepositoryPart(this.idGen,
+        this.topologyRepositoryPart, config.getMaxDatabaseQueries(), this.signatureCache);
     this.remoteCallRepositoryPart = new RemoteCallRepositoryPart();
-    this.outputIntervalSeconds = outputIntervalSeconds;
-    this.kafkaTopicName = kafkaTopicName;
+    this.outputIntervalSeconds = config.getOutputIntervalSeconds();
+    this.insertionShards = config.getInsertionShards();
+    this.insertionQueueCapacity = config.getInsertionQueueCapacity();
+    this.maxEventsPerPeriod = config.getMaxEventsPerPeriod();
+    this.maxDatabaseQueries = config.getMaxDatabaseQueries();
+    this.evictionIdleMillis = TimeUnit.SECONDS.toMillis(config.getEvictionIdleSeconds());
+
+    this.publisher = new LandscapePublisher(kafkaProducer,
+        config.getKafkaTopicName(),
+        serializationHelper.getCodec(config.getCodecName()),
+        config.getKeyframeInterval(),
+        config.getChunkSize(),
+        config.getPublisherQueueCapacity(),
+        LandscapePublisher.OverflowPolicy.parse(config.getOverflowPolicy()));
   }
 
   @PostConstruct
   public void init() {
+    this.createLandscape();
 
-    this.internalLandscape = new Landscape(this.idGen.generateId(),
-        new Timestamp(this.idGen.generateId(), java.lang.System.currentTimeMillis(), 0));
-
-    try {
-      final Landscape l = this.deepCopy(this.internalLandscape);
-      l.createOutgoingApplicationCommunication();
-      this.lastPeriodLandscape = l;
-    } catch (final DocumentSerializationException e) {
-      LOGGER.error("Error when deep-copying landscape.", e);
-    }
-
+    this.statistics.register();
+    this.publisher.start();
     new TimeSignalReader(TimeUnit.SECONDS.toMillis(this.outputIntervalSeconds), this).start();
   }
 
-  private Landscape deepCopy(final Landscape original) throws DocumentSerializationException {
-    final String serialized = this.serializationHelper.serialize(original);
-    return this.serializationHelper.deserialize(serialized);
+  /**
+   * Creates the empty landscape and starts the insertion shards, if configured.
+   */
+  void createLandscape() {
+    this.internalLandscape = new Landscape(this.idGen.generateId(),
+        new Timestamp(this.idGen.generateId(), this.clock.millis(), 0));
+    this.internalLandscape.setMaxEventsPerPeriod(this.maxEventsPerPeriod);
+
+    if (this.insertionShards > 1) {
+      this.insertionEngine = new ShardedInsertionEngine(this.insertionShards,
+          this.idGen,
+          this.topologyRepositoryPart,
+          this.internalLandscape,
+          this.remoteCallRepositoryPart,
+          this.maxDatabaseQueries,
+          this.insertionQueueCapacity,
+          this.signatureCache);
+      LOGGER.info("Inserting traces with {} shards.", this.insertionShards);
+    }
   }
 
   /**
@@ -94,96 +141,208 @@ public final class LandscapeRepositoryModel implements IPeriodicTimeSignalReceiv
    */
   @Override
   public void periodicTimeSignal(final long timestamp) {
-    synchronized (this.internalLandscape) {
-      synchronized (this.lastPeriodLandscape) {
+    final Landscape closedPeriodLandscape = this.closePeriod();
+
+    // the insertion already continues with the next epoch while the closed period is published,
+    // a slow Kafka neither blocks the time signal nor the insertion
+    this.publisher.publish(closedPeriodLandscape);
+  }
+
+  /**
+   * Merges the shards, takes a snapshot of the current period and swaps the metrics epoch. The
+   * statistics of the period are logged after the shards were unlocked.
+   *
+   * @return a copy of the landscape of the closed period
+   */
+  Landscape closePeriod() {
+    // merges the shards, i.e., waits until all of them have finished their current trace
+    if (this.insertionEngine != null) {
+      this.insertionEngine.lockShards();
+    }
+
+    final Landscape closedPeriodLandscape;
+    try {
+      closedPeriodLandscape = this.snapshotPeriod();
+    } finally {
+      if (this.insertionEngine != null) {
+        this.insertionEngine.unlockShards();
+      }
+    }
 
-        final long milliseconds = java.lang.System.currentTimeMillis();
+    this.logStatistics();
+    return closedPeriodLandscape;
+  }
 
-        // calculates the total requests for the internal landscape and stores them in its timestamp
-        int calculatedTotalRequests = 0;
+  /**
+   * Waits until the shards inserted all queued traces, e.g., before a period is closed in tests.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void awaitInsertion() throws InterruptedException {
+    if (this.insertionEngine != null) {
+      this.insertionEngine.awaitQueuedTraces();
+    }
+  }
 
-        calculatedTotalRequests = calculateTotalRequests(this.internalLandscape);
-        this.internalLandscape.getTimestamp().setTotalRequests(calculatedTotalRequests);
-        this.internalLandscape.setTimestamp(
-            new Timestamp(this.idGen.generateId(), milliseconds, calculatedTotalRequests));
+  /**
+   * Closes the period while the shards are locked. The copy is taken before the metrics of the
+   * period are reset in place, hence it can not be deferred until the shards are unlocked. Apart
+   * from it, only the counters of the statistics are sampled here.
+   */
+  private Landscape snapshotPeriod() {
+    synchronized (this.internalLandscape) {
+      final long milliseconds = this.clock.millis();
 
-        this.internalLandscape.setId(this.idGen.generateId());
+      // the requests are counted during the insertion, the shards are locked at this point
+      final int totalRequests = (int) Math.min(Integer.MAX_VALUE,
+          this.topologyRepositoryPart.closeRequestPeriod(this.internalLandscape));
 
-        this.sendLandscapeToKafka(this.internalLandscape, this.kafkaTopicName);
+      this.internalLandscape.getTimestamp().setTotalRequests(totalRequests);
+      this.internalLandscape
+          .setTimestamp(new Timestamp(this.idGen.generateId(), milliseconds, totalRequests));
 
-        try {
-          final Landscape l = this.deepCopy(this.internalLandscape);
-          l.createOutgoingApplicationCommunication();
-          this.lastPeriodLandscape = l;
-        } catch (final DocumentSerializationException e) {
-          LOGGER.error("Error while deep-copying landscape.", e);
-        }
+      this.internalLandscape.setId(this.idGen.generateId());
+      this.topologyRepositoryPart.updateNodeGroupNames();
 
-        this.remoteCallRepositoryPart.checkForTimedoutRemoteCalls();
-        this.resetCommunication();
+      this.insertionRepositoryPart.aggregateEpoch();
+      if (this.insertionEngine != null) {
+        this.insertionEngine.aggregateEpochs();
       }
+
+      final Landscape closedPeriodLandscape = LandscapeCloner.deepCopy(this.internalLandscape);
+
+      this.remoteCallRepositoryPart.checkForTimedoutRemoteCalls();
+      this.statistics.sample(this.remoteCallRepositoryPart, this.signatureCache);
+      this.statistics.samplePeriod(this.internalLandscape.getEvents().size(),
+          this.internalLandscape.getDroppedEvents(),
+          this.getDroppedDatabaseQueries(),
+          this.getTouchedApplications(),
+          this.getTouchedClazzes());
+      this.resetCommunication(milliseconds);
+      this.evictIdleEntities(milliseconds);
+
+      return closedPeriodLandscape;
+    }
+  }
+
+  private void logStatistics() {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Remote calls: {} sent and {} received records buffered, {} matched, {} expired",
+          this.statistics.getSentRemoteCallBufferSize(),
+          this.statistics.getReceivedRemoteCallBufferSize(),
+          this.statistics.getMatchedRemoteCalls(),
+          this.statistics.getExpiredRemoteCalls());
+      LOGGER.debug("Signature cache: {} signatures, {} hits, {} misses, {} evictions",
+          this.statistics.getSignatureCacheSize(),
+          this.statistics.getSignatureCacheHits(),
+          this.statistics.getSignatureCacheMisses(),
+          this.statistics.getSignatureCacheEvictions());
+      LOGGER.debug("Events: {} retained, {} dropped",
+          this.statistics.getRetainedEvents(),
+          this.statistics.getDroppedEvents());
+      LOGGER.debug("Database queries: {} statements dropped",
+          this.statistics.getDroppedDatabaseQueries());
+      LOGGER.debug("Metrics epoch: {} applications and {} clazzes touched",
+          this.statistics.getTouchedApplications(),
+          this.statistics.getTouchedClazzes());
     }
   }
 
   /**
-   * Sends a landscape object with all its relationships to a Kafka topic.
+   * Evicts the applications and clazzes, which were idle for the configured time, along with the
+   * nodes, node groups and systems left empty. Must be called after the metrics epochs were closed,
+   * i.e., when the last usage of the clazzes of the closed period is known, while holding the
+   * landscape monitor and the shard locks.
    *
-   * @param l that should be send to the Kafka topic
+   * @param milliseconds - the current time
    */
-  private void sendLandscapeToKafka(final Landscape l, final String kafkaTopicName) {
-    try {
-      final String serialized = this.serializationHelper.serialize(l);
-      this.kafkaProducer.send(new ProducerRecord<>(kafkaTopicName, "1", serialized));
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(
-            "Sending Kafka record with landscape id {}, timestamp {}, and payload to topic {}",
-            l.getId(),
-            l.getTimestamp().getTimestamp(),
-            kafkaTopicName);
-      }
-    } catch (final DocumentSerializationException e) {
-      LOGGER.error("Could not serialize landscape to string for Kafka Production.", e);
+  private void evictIdleEntities(final long milliseconds) {
+    if (this.evictionIdleMillis <= 0) {
+      return;
+    }
+
+    final IdleEviction eviction = new IdleEviction(milliseconds - this.evictionIdleMillis);
+
+    // the topology first, the insertion parts forget the evicted applications and nodes
+    this.topologyRepositoryPart.evictIdleApplications(this.internalLandscape, eviction);
+    this.insertionRepositoryPart.evictIdle(eviction);
+    if (this.insertionEngine != null) {
+      this.insertionEngine.evictIdle(eviction);
+    }
+
+    if (!eviction.isEmpty()) {
+      this.remoteCallRepositoryPart.evictApplicationCommunications(this.internalLandscape,
+          eviction);
+      LOGGER.info("Evicted idle {} applications, {} nodes, {} node groups, {} systems, {} clazzes",
+          eviction.getApplications().size(),
+          eviction.getNodes().size(),
+          eviction.getNodeGroups(),
+          eviction.getSystems(),
+          eviction.getClazzes().size());
+    }
+  }
+
+  // the shards are locked at this point
+  private long getDroppedDatabaseQueries() {
+    long dropped = this.insertionRepositoryPart.getDroppedDatabaseQueries();
+    if (this.insertionEngine != null) {
+      dropped += this.insertionEngine.getDroppedDatabaseQueries();
+    }
+    return dropped;
+  }
+
+  // the shards are locked at this point
+  private int getTouchedApplications() {
+    int touched = this.insertionRepositoryPart.getTouchedApplications();
+    if (this.insertionEngine != null) {
+      touched += this.insertionEngine.getTouchedApplications();
+    }
+    return touched;
+  }
+
+  // the shards are locked at this point
+  private int getTouchedClazzes() {
+    int touched = this.insertionRepositoryPart.getTouchedClazzes();
+    if (this.insertionEngine != null) {
+      touched += this.insertionEngine.getTouchedClazzes();
+    }
+    return touched;
+  }
+
+  private void resetCommunication(final long milliseconds) {
+    this.internalLandscape.resetPeriod();
+    this.topologyRepositoryPart.closeUtilizationPeriod();
+
+    this.insertionRepositoryPart.closeEpoch(milliseconds);
+    if (this.insertionEngine != null) {
+      this.insertionEngine.closeEpochs(milliseconds);
     }
   }
 
   /**
-   * Calculates all requests contained in a Landscape.
+   * Inserts a batch of records. Without sharding, the whole batch is inserted under a single
+   * acquisition of the landscape monitor; with sharding, traces are routed to their shards.
    *
-   * @param landscape the landscape
+   * @param records - the records in the order of their arrival
    */
-  private static int calculateTotalRequests(final Landscape landscape) {
-
-    int totalRequests = 0;
-
-    for (final System system : landscape.getSystems()) {
-      for (final NodeGroup nodegroup : system.getNodeGroups()) {
-        for (final Node node : nodegroup.getNodes()) {
-          for (final Application application : node.getApplications()) {
-            // aggClazzCommunication
-            for (final AggregatedClazzCommunication clazzCommu : application
-                .getAggregatedClazzCommunications()) {
-              totalRequests += clazzCommu.getTotalRequests();
-
-            }
-            // applicationCommunication
-            for (final ApplicationCommunication appCommu : application
-                .getApplicationCommunications()) {
-              totalRequests += appCommu.getRequests();
-            }
-          }
-        }
+  public void insertIntoModel(final List<IRecord> records) {
+    if (this.insertionEngine == null) {
+      this.insertionRepositoryPart
+          .insertIntoModel(records, this.internalLandscape, this.remoteCallRepositoryPart);
+    } else {
+      for (final IRecord record : records) {
+        this.insertIntoModel(record);
       }
     }
-    return totalRequests;
-  }
-
-  private void resetCommunication() {
-    this.internalLandscape.reset();
   }
 
   public void insertIntoModel(final IRecord inputIRecord) {
     // called every second
-    this.insertionRepositoryPart
-        .insertIntoModel(inputIRecord, this.internalLandscape, this.remoteCallRepositoryPart);
+    if (this.insertionEngine != null && inputIRecord instanceof Trace) {
+      this.insertionEngine.insert((Trace) inputIRecord);
+    } else {
+      this.insertionRepositoryPart
+          .insertIntoModel(inputIRecord, this.internalLandscape, this.remoteCallRepositoryPart);
+    }
   }
 }
@@ -1,28 +1,176 @@
 package net.explorviz.landscape.repository;
 
-import explorviz.live_trace_processing.filter.AbstractSink;
-import explorviz.live_trace_processing.filter.ITraceSink;
-import explorviz.live_trace_processing.filter.SinglePipeConnector;
 import explorviz.live_trace_processing.record.IRecord;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import net.explorviz.landscape.repository.helper.RecordQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public final class LandscapeRepositorySink extends AbstractSink implements ITraceSink {
-  private final LandscapeRepositoryModel model;
-  private final SinglePipeConnector<IRecord> modelConnector;
+/**
+ * Drains the records of the trace processing filters in batches and inserts every batch into the
+ * model at once, i.e., under a single acquisition of the landscape monitor. Queue depth, batch
+ * sizes, the time spent waiting for records, and the throttling of the filters are logged at debug
+ * level once per report interval.
+ *
+ * <p>
+ * If the queue is empty, the sink spins briefly and then parks for a growing time, so that bursts
+ * are picked up immediately, while an idle sink hardly consumes any CPU.
+ * </p>
+ */
+public final class LandscapeRepositorySink extends Thread {
 
-  public LandscapeRepositorySink(final SinglePipeConnector<IRecord> modelConnector,
-      final LandscapeRepositoryModel model) {
-    super();
-    this.modelConnector = modelConnector;
-    this.model = model;
+  private static final Logger LOGGER = LoggerFactory.getLogger(LandscapeRepositorySink.class);
+
+  private static final int SPIN_ROUNDS = 100;
+  private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  // MIN_PARK_NANOS doubled this often exceeds MAX_PARK_NANOS
+  private static final int MAX_DOUBLINGS = 7;
+  private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  // inserts a batch into the model, the batch is reused afterwards
+  private final Consumer<List<IRecord>> inserter;
+  private final RecordQueue queue;
+  private final int batchSize;
+
+  private volatile boolean terminated;
+
+  // consecutive polls of an empty queue, only written by the sink thread
+  private int idleRounds;
+
+  // statistics of the current report interval, only written by the sink thread
+  private long batches;
+  private long records;
+  private int maxBatchSize;
+  private int maxQueueDepth;
+  private long waitNanos;
+
+  /**
+   * Creates a new sink.
+   *
+   * @param model - the model, which receives the records
+   * @param queueCapacity - maximum number of records, which wait for the insertion
+   * @param batchSize - maximum number of records, which are inserted at once
+   */
+  public LandscapeRepositorySink(final LandscapeRepositoryModel model, final int queueCapacity,
+      final int batchSize) {
+    this(model::insertIntoModel, queueCapacity, batchSize);
+  }
+
+  /**
+   * Creates a sink, which passes its batches to the inserter, e.g., for tests of the batching.
+   *
+   * @param inserter - receives the batches, must not keep them
+   * @param queueCapacity - maximum number of records, which wait for the insertion
+   * @param batchSize - maximum number of records, which are inserted at once
+   */
+  LandscapeRepositorySink(final Consumer<List<IRecord>> inserter, final int queueCapacity,
+      final int batchSize) {
+    super("landscape-repository-sink");
+    this.inserter = inserter;
+    this.queue = new RecordQueue(queueCapacity);
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * Returns the queue, which the filters fill with records.
+   *
+   * @return the queue
+   */
+  public Queue<IRecord> registerProducer() {
+    return this.queue;
+  }
+
+  public void terminate() {
+    this.terminated = true;
+    LockSupport.unpark(this);
   }
 
   @Override
   public void run() {
-    this.modelConnector.process(this);
+    final List<IRecord> batch = new ArrayList<>(this.batchSize);
+    long reportStart = java.lang.System.nanoTime();
+
+    while (!this.terminated) {
+      final int queueDepth = this.queue.size();
+      final int drained = this.queue.drainTo(batch, this.batchSize);
+
+      if (drained == 0) {
+        this.waitForRecords();
+      } else {
+        this.idleRounds = 0;
+        this.insertBatch(batch);
+        this.batches++;
+        this.records += drained;
+        this.maxBatchSize = Math.max(this.maxBatchSize, drained);
+        this.maxQueueDepth = Math.max(this.maxQueueDepth, queueDepth);
+        batch.clear();
+      }
+
+      final long now = java.lang.System.nanoTime();
+      if (now - reportStart >= REPORT_INTERVAL_NANOS) {
+        this.report(now - reportStart);
+        reportStart = now;
+      }
+    }
   }
 
-  @Override
-  public void processRecord(final IRecord record) {
-    this.model.insertIntoModel(record);
+  private void insertBatch(final List<IRecord> batch) {
+    try {
+      this.inserter.accept(batch);
+    } catch (final RuntimeException e) { // NOPMD
+      LOGGER.error("Could not insert a batch of {} records into the model.", batch.size(), e);
+    }
   }
+
+  /**
+   * Spins for the first idle rounds and parks afterwards, doubling the park time up to
+   * {@link #MAX_PARK_NANOS}.
+   */
+  private void waitForRecords() {
+    final long start = java.lang.System.nanoTime();
+    if (this.idleRounds < SPIN_ROUNDS) {
+      Thread.onSpinWait();
+    } else {
+      LockSupport.parkNanos(this,
+          Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << (this.idleRounds - SPIN_ROUNDS)));
+      if (Thread.interrupted()) {
+        this.terminated = true;
+      }
+    }
+    if (this.idleRounds < SPIN_ROUNDS + MAX_DOUBLINGS) {
+      this.idleRounds++;
+    }
+    this.waitNanos += java.lang.System.nanoTime() - start;
+  }
+
+  private void report(final long intervalNanos) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(
+          "Sink: {} of {} records queued (max {}), {} records in {} batches (avg {}, max {}), "
+              + "waited {} of {} ms, {} rejected offers",
+          this.queue.size(),
+          this.queue.getCapacity(),
+          this.maxQueueDepth,
+          this.records,
+          this.batches,
+          this.batches == 0 ? 0 : this.records / this.batches,
+          this.maxBatchSize,
+          TimeUnit.NANOSECONDS.toMillis(this.waitNanos),
+          TimeUnit.NANOSECONDS.toMillis(intervalNanos),
+          this.queue.getRejectedOffers());
+    }
+
+    this.batches = 0;
+    this.records = 0;
+    this.maxBatchSize = 0;
+    this.maxQueueDepth = 0;
+    this.waitNanos = 0;
+  }
+
 }
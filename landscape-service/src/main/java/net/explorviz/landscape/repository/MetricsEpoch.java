@@ -0,0 +1,92 @@
+package net.explorviz.landscape.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.helper.LatencySketch;
+
+/**
+ * Per-period metrics of the applications owned by a single {@link InsertionRepositoryPart}. The
+ * topology (components and clazzes) outlives a period, whereas instance counts, clazz
+ * communications, traces and database queries only belong to the period in which they were
+ * recorded. An epoch remembers which entities received such metrics, so that closing a period
+ * swaps the epoch and only resets the touched entities instead of traversing the whole landscape.
+ */
+final class MetricsEpoch {
+
+  private final Set<Application> applications =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  private final List<Clazz> clazzes = new ArrayList<>();
+
+  /**
+   * Registers an application, which receives traces, clazz communications or database queries in
+   * this epoch.
+   *
+   * @param application - the touched application
+   */
+  void touch(final Application application) {
+    this.applications.add(application);
+  }
+
+  /**
+   * Registers a clazz, which is instantiated or calls other clazzes in this epoch. Must be called
+   * before the instance count of the clazz is incremented for the first time in this epoch.
+   *
+   * @param clazz - the touched clazz
+   */
+  void touch(final Clazz clazz) {
+    if (clazz.getInstanceCount() == 0) {
+      this.clazzes.add(clazz);
+    }
+  }
+
+  /**
+   * Folds the final state of the clazzCommunications of this epoch into the aggregated
+   * clazzCommunications of the touched applications, i.e., their request totals, average response
+   * times and percentiles.
+   *
+   * @param sketch - reusable sketch for merging the response times
+   */
+  void aggregate(final LatencySketch sketch) {
+    for (final Application application : this.applications) {
+      for (final AggregatedClazzCommunication commu : application
+          .getAggregatedClazzCommunications()) {
+        commu.aggregate(sketch);
+      }
+    }
+  }
+
+  /**
+   * Resets the metrics of all entities touched in this epoch. The per-period lists of the
+   * applications are replaced instead of cleared, since the old ones are garbage anyway. The
+   * touched clazzes are marked as used at the end of the epoch, see {@link Clazz#getLastUsage()}.
+   *
+   * @param milliseconds - the end of the epoch
+   */
+  void retire(final long milliseconds) {
+    for (final Clazz clazz : this.clazzes) {
+      clazz.reset();
+      clazz.setLastUsage(milliseconds);
+    }
+
+    for (final Application application : this.applications) {
+      application.setAggregatedClazzCommunications(new ArrayList<>()); // NOPMD
+      application.setTraces(new ArrayList<>()); // NOPMD
+      application.setDatabaseQueries(new ArrayList<>()); // NOPMD
+    }
+  }
+
+  int getTouchedApplications() {
+    return this.applications.size();
+  }
+
+  int getTouchedClazzes() {
+    return this.clazzes.size();
+  }
+
+}
@@ -4,17 +4,16 @@ import explorviz.live_trace_processing.record.event.AbstractEventRecord;
 import explorviz.live_trace_processing.record.event.remote.BeforeReceivedRemoteCallRecord;
 import explorviz.live_trace_processing.record.event.remote.BeforeSentRemoteCallRecord;
 import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import net.explorviz.landscape.model.application.Application;
 import net.explorviz.landscape.model.application.ApplicationCommunication;
 import net.explorviz.landscape.model.application.Clazz;
 import net.explorviz.landscape.model.landscape.Landscape;
 import net.explorviz.landscape.model.landscape.Node;
 import net.explorviz.landscape.repository.helper.RemoteRecordBuffer;
+import net.explorviz.landscape.repository.helper.RemoteRecordIndex;
 
 
 
@@ -22,117 +21,124 @@ public class RemoteCallRepositoryPart {
 
   private static final int THIRTY_SECONDS = 30;
 
-  private final Map<BeforeSentRemoteCallRecord, RemoteRecordBuffer> sentRemoteCallRecordCache =
-      new HashMap<>();
-  private final Map<BeforeReceivedRemoteCallRecord, RemoteRecordBuffer> receivedRemoteCallRecordCache =
-      new HashMap<>();
+  private final RemoteRecordIndex<BeforeSentRemoteCallRecord> sentRemoteCallRecordCache =
+      new RemoteRecordIndex<>(TimeUnit.SECONDS.toNanos(THIRTY_SECONDS));
+  private final RemoteRecordIndex<BeforeReceivedRemoteCallRecord> receivedRemoteCallRecordCache =
+      new RemoteRecordIndex<>(TimeUnit.SECONDS.toNanos(THIRTY_SECONDS));
 
-  protected void checkForTimedoutRemoteCalls() {
-    final long currentTime = java.lang.System.nanoTime(); // NOPMD
-
-    final Iterator<Entry<BeforeReceivedRemoteCallRecord, RemoteRecordBuffer>> receivedIterator =
-        this.receivedRemoteCallRecordCache.entrySet().iterator();
-    while (receivedIterator.hasNext()) {
-      final Entry<BeforeReceivedRemoteCallRecord, RemoteRecordBuffer> entry =
-          receivedIterator.next();
-
-      if (currentTime - TimeUnit.SECONDS.toNanos(THIRTY_SECONDS) > entry.getValue()
-          .getTimestampPutIntoBuffer()) {
-        receivedIterator.remove();
-      }
-    }
+  private long matchedRemoteCalls;
+  private long expiredRemoteCalls;
 
-    final Iterator<Entry<BeforeSentRemoteCallRecord, RemoteRecordBuffer>> sentIterator =
-        this.sentRemoteCallRecordCache.entrySet().iterator();
-
-    while (sentIterator.hasNext()) {
-      final Entry<BeforeSentRemoteCallRecord, RemoteRecordBuffer> entry = sentIterator.next();
-
-      if (currentTime - TimeUnit.SECONDS.toNanos(THIRTY_SECONDS) > entry.getValue()
-          .getTimestampPutIntoBuffer()) {
-        sentIterator.remove();
-      }
-    }
+  protected void checkForTimedoutRemoteCalls() {
+    this.expiredRemoteCalls += this.receivedRemoteCallRecordCache.expire();
+    this.expiredRemoteCalls += this.sentRemoteCallRecordCache.expire();
   }
 
-  public void insertSentRecord(final String potentialNewAppCommuId, final Clazz callerClazz,
-      final BeforeSentRemoteCallRecord sentRemoteCallRecord, final Landscape landscape,
-      final InsertionRepositoryPart inserter, final int runtimeIndex) {
-    final BeforeReceivedRemoteCallRecord receivedRecord =
-        this.seekMatchingReceivedRemoteRecord(sentRemoteCallRecord);
-
-    if (receivedRecord == null) {
-      final RemoteRecordBuffer remoteRecordBuffer = new RemoteRecordBuffer();
-      remoteRecordBuffer.setBelongingClazz(callerClazz);
+  public void insertSentRecord(final Supplier<String> potentialNewAppCommuId,
+      final Clazz callerClazz, final BeforeSentRemoteCallRecord sentRemoteCallRecord,
+      final Landscape landscape, final InsertionRepositoryPart inserter, final int runtimeIndex) {
+    final RemoteRecordBuffer<BeforeReceivedRemoteCallRecord> receivedBuffer =
+        this.receivedRemoteCallRecordCache.remove(sentRemoteCallRecord.getTraceId(),
+            sentRemoteCallRecord.getOrderIndex());
 
-      this.sentRemoteCallRecordCache.put(sentRemoteCallRecord, remoteRecordBuffer);
+    if (receivedBuffer == null) {
+      this.sentRemoteCallRecordCache.put(sentRemoteCallRecord.getTraceId(),
+          sentRemoteCallRecord.getOrderIndex(),
+          sentRemoteCallRecord,
+          callerClazz);
     } else {
+      this.matchedRemoteCalls++;
       this.seekOrCreateAppCommunication(potentialNewAppCommuId,
           sentRemoteCallRecord,
-          receivedRecord,
+          receivedBuffer.getRecord(),
           callerClazz,
-          this.receivedRemoteCallRecordCache.get(receivedRecord).getBelongingClazz(),
+          receivedBuffer.getBelongingClazz(),
           landscape,
           inserter,
           runtimeIndex);
-
-      this.receivedRemoteCallRecordCache.remove(receivedRecord);
     }
   }
 
-  public void insertReceivedRecord(final String potentialNewAppCommuId,
+  public void insertReceivedRecord(final Supplier<String> potentialNewAppCommuId,
       final BeforeReceivedRemoteCallRecord receivedRemoteCallRecord, final Clazz firstReceiverClazz,
       final Landscape landscape, final InsertionRepositoryPart inserter, final int runtimeIndex) {
-    final BeforeSentRemoteCallRecord sentRecord =
-        this.seekSentRemoteTraceIdandOrderId(receivedRemoteCallRecord);
+    final RemoteRecordBuffer<BeforeSentRemoteCallRecord> sentBuffer =
+        this.sentRemoteCallRecordCache.remove(receivedRemoteCallRecord.getCallerTraceId(),
+            receivedRemoteCallRecord.getCallerOrderIndex());
 
-    if (sentRecord == null) {
-      final RemoteRecordBuffer remoteRecordBuffer = new RemoteRecordBuffer();
-      remoteRecordBuffer.setBelongingClazz(firstReceiverClazz);
-
-      this.receivedRemoteCallRecordCache.put(receivedRemoteCallRecord, remoteRecordBuffer);
+    if (sentBuffer == null) {
+      this.receivedRemoteCallRecordCache.put(receivedRemoteCallRecord.getCallerTraceId(),
+          receivedRemoteCallRecord.getCallerOrderIndex(),
+          receivedRemoteCallRecord,
+          firstReceiverClazz);
     } else {
+      this.matchedRemoteCalls++;
       this.seekOrCreateAppCommunication(potentialNewAppCommuId,
-          sentRecord,
+          sentBuffer.getRecord(),
           receivedRemoteCallRecord,
-          this.sentRemoteCallRecordCache.get(sentRecord).getBelongingClazz(),
+          sentBuffer.getBelongingClazz(),
           firstReceiverClazz,
           landscape,
           inserter,
           runtimeIndex);
-
-      this.sentRemoteCallRecordCache.remove(sentRecord);
     }
   }
 
-  private BeforeReceivedRemoteCallRecord seekMatchingReceivedRemoteRecord(
-      final BeforeSentRemoteCallRecord sentRecord) {
-    for (final BeforeReceivedRemoteCallRecord receivedRemoteRecord : this.receivedRemoteCallRecordCache
-        .keySet()) {
-      if (receivedRemoteRecord.getCallerTraceId() == sentRecord.getTraceId()
-          && receivedRemoteRecord.getCallerOrderIndex() == sentRecord.getOrderIndex()) {
-        return receivedRemoteRecord;
-      }
-    }
+  /**
+   * Returns the number of sent remote call records, which wait for their received counterpart.
+   */
+  public int getSentBufferSize() {
+    return this.sentRemoteCallRecordCache.size();
+  }
 
-    return null;
+  /**
+   * Returns the number of received remote call records, which wait for their sent counterpart.
+   */
+  public int getReceivedBufferSize() {
+    return this.receivedRemoteCallRecordCache.size();
   }
 
-  private BeforeSentRemoteCallRecord seekSentRemoteTraceIdandOrderId(
-      final BeforeReceivedRemoteCallRecord remoteRecord) {
-    for (final BeforeSentRemoteCallRecord sentRemoteRecord : this.sentRemoteCallRecordCache
-        .keySet()) {
-      if (sentRemoteRecord.getTraceId() == remoteRecord.getCallerTraceId()
-          && sentRemoteRecord.getOrderIndex() == remoteRecord.getCallerOrderIndex()) {
-        return sentRemoteRecord;
+  /**
+   * Returns the total number of matched remote calls.
+   */
+  public long getMatchedRemoteCalls() {
+    return this.matchedRemoteCalls;
+  }
+
+  /**
+   * Returns the total number of remote call records, which expired without a counterpart.
+   */
+  public long getExpiredRemoteCalls() {
+    return this.expiredRemoteCalls;
+  }
+
+  /**
+   * Removes the communication between applications, which refers to an application or clazz
+   * removed by the passed eviction pass. Communication, which is still in use, is recreated by its
+   * next remote call. Must be called while holding the monitor of the passed landscape.
+   *
+   * @param landscape - the related landscape
+   * @param eviction - the current eviction pass
+   */
+  void evictApplicationCommunications(final Landscape landscape, final IdleEviction eviction) {
+    final Iterator<ApplicationCommunication> communications =
+        landscape.getTotalApplicationCommunications().iterator();
+
+    while (communications.hasNext()) {
+      final ApplicationCommunication commu = communications.next();
+
+      if (eviction.getApplications().contains(commu.getSourceApplication())
+          || eviction.getApplications().contains(commu.getTargetApplication())
+          || eviction.getClazzes().contains(commu.getSourceClazz())
+          || eviction.getClazzes().contains(commu.getTargetClazz())) {
+        communications.remove();
+        commu.getSourceApplication().getApplicationCommunications().remove(commu);
       }
     }
-
-    return null;
   }
 
   // Communication between applications (landscape-perspective)
-  private void seekOrCreateAppCommunication(final String potentialNewAppCommuId,
+  private void seekOrCreateAppCommunication(final Supplier<String> potentialNewAppCommuId,
       final BeforeSentRemoteCallRecord sentRemoteCallRecord,
       final BeforeReceivedRemoteCallRecord receivedRemoteCallRecord, final Clazz sentRemoteClazz,
       final Clazz receivedRemoteClazz, final Landscape landscape,
@@ -152,24 +158,22 @@ public class RemoteCallRepositoryPart {
             commu.getRequests() + sentRemoteCallRecord.getRuntimeStatisticInformationList()
                 .get(runtimeIndex)
                 .getCount());
-
-        final float oldAverage = commu.getAverageResponseTime();
-
-        commu.setAverageResponseTime(
-            (float) (oldAverage + sentRemoteCallRecord.getRuntimeStatisticInformationList()
+        commu.recordResponseTime(
+            sentRemoteCallRecord.getRuntimeStatisticInformationList().get(runtimeIndex).getCount(),
+            sentRemoteCallRecord.getRuntimeStatisticInformationList()
                 .get(runtimeIndex)
-                .getAverage()) / 2f);
+                .getAverage());
 
-        landscape.getTimestamp()
-            .setTotalRequests(landscape.getTimestamp().getTotalRequests()
-                + sentRemoteCallRecord.getRuntimeStatisticInformationList()
-                    .get(runtimeIndex)
-                    .getCount());
+        TopologyRepositoryPart.countRequests(landscape,
+            currentApplication,
+            sentRemoteCallRecord.getRuntimeStatisticInformationList()
+                .get(runtimeIndex)
+                .getCount());
         return;
       }
     }
     final ApplicationCommunication communication =
-        new ApplicationCommunication(potentialNewAppCommuId);
+        new ApplicationCommunication(potentialNewAppCommuId.get());
     communication.setSourceApplication(callerApplication);
     communication.setSourceClazz(sentRemoteClazz);
 
@@ -178,10 +182,9 @@ public class RemoteCallRepositoryPart {
 
     communication.setRequests(
         sentRemoteCallRecord.getRuntimeStatisticInformationList().get(runtimeIndex).getCount());
-    communication
-        .setAverageResponseTime((float) sentRemoteCallRecord.getRuntimeStatisticInformationList()
-            .get(runtimeIndex)
-            .getAverage());
+    communication.recordResponseTime(
+        sentRemoteCallRecord.getRuntimeStatisticInformationList().get(runtimeIndex).getCount(),
+        sentRemoteCallRecord.getRuntimeStatisticInformationList().get(runtimeIndex).getAverage());
     communication.setTechnology(sentRemoteCallRecord.getTechnology());
 
     // add applicationCommunication to caller application
@@ -190,11 +193,11 @@ public class RemoteCallRepositoryPart {
     // add applicationCommunication to landscape
     landscape.getTotalApplicationCommunications().add(communication);
 
-    landscape.getTimestamp()
-        .setTotalRequests(landscape.getTimestamp().getTotalRequests()
-            + sentRemoteCallRecord.getRuntimeStatisticInformationList()
-                .get(runtimeIndex)
-                .getCount());
+    TopologyRepositoryPart.countRequests(landscape,
+        currentApplication,
+        sentRemoteCallRecord.getRuntimeStatisticInformationList()
+            .get(runtimeIndex)
+            .getCount());
   }
 
   public Application getHostApplication(final AbstractEventRecord record,
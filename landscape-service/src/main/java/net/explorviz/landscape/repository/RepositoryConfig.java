@@ -0,0 +1,154 @@
+package net.explorviz.landscape.repository;
+
+import net.explorviz.shared.config.annotations.Config;
+
+/**
+ * Configuration of the {@link LandscapeRepositoryModel} and its publisher, injected from the
+ * properties file. Tests create instances directly and set the values they need.
+ */
+public class RepositoryConfig {
+
+  @Config("repository.outputIntervalSeconds")
+  private int outputIntervalSeconds;
+
+  @Config("repository.insertion.shards")
+  private int insertionShards;
+
+  @Config("repository.insertion.queueCapacity")
+  private int insertionQueueCapacity;
+
+  @Config("repository.maxEventsPerPeriod")
+  private int maxEventsPerPeriod;
+
+  @Config("repository.maxDatabaseQueriesPerApplication")
+  private int maxDatabaseQueries;
+
+  @Config("repository.eviction.idleSeconds")
+  private int evictionIdleSeconds;
+
+  @Config("repository.signatureCache.capacity")
+  private int signatureCacheCapacity;
+
+  @Config("exchange.kafka.topic.name")
+  private String kafkaTopicName;
+
+  @Config("exchange.kafka.codec")
+  private String codecName;
+
+  @Config("exchange.kafka.delta.keyframeInterval")
+  private int keyframeInterval;
+
+  @Config("exchange.kafka.chunkSize")
+  private int chunkSize;
+
+  @Config("exchange.kafka.publisher.queueCapacity")
+  private int publisherQueueCapacity;
+
+  @Config("exchange.kafka.publisher.overflowPolicy")
+  private String overflowPolicy;
+
+  public int getOutputIntervalSeconds() {
+    return this.outputIntervalSeconds;
+  }
+
+  public void setOutputIntervalSeconds(final int outputIntervalSeconds) {
+    this.outputIntervalSeconds = outputIntervalSeconds;
+  }
+
+  public int getInsertionShards() {
+    return this.insertionShards;
+  }
+
+  public void setInsertionShards(final int insertionShards) {
+    this.insertionShards = insertionShards;
+  }
+
+  public int getInsertionQueueCapacity() {
+    return this.insertionQueueCapacity;
+  }
+
+  public void setInsertionQueueCapacity(final int insertionQueueCapacity) {
+    this.insertionQueueCapacity = insertionQueueCapacity;
+  }
+
+  public int getMaxEventsPerPeriod() {
+    return this.maxEventsPerPeriod;
+  }
+
+  public void setMaxEventsPerPeriod(final int maxEventsPerPeriod) {
+    this.maxEventsPerPeriod = maxEventsPerPeriod;
+  }
+
+  public int getMaxDatabaseQueries() {
+    return this.maxDatabaseQueries;
+  }
+
+  public void setMaxDatabaseQueries(final int maxDatabaseQueries) {
+    this.maxDatabaseQueries = maxDatabaseQueries;
+  }
+
+  public int getEvictionIdleSeconds() {
+    return this.evictionIdleSeconds;
+  }
+
+  public void setEvictionIdleSeconds(final int evictionIdleSeconds) {
+    this.evictionIdleSeconds = evictionIdleSeconds;
+  }
+
+  public int getSignatureCacheCapacity() {
+    return this.signatureCacheCapacity;
+  }
+
+  public void setSignatureCacheCapacity(final int signatureCacheCapacity) {
+    this.signatureCacheCapacity = signatureCacheCapacity;
+  }
+
+  public String getKafkaTopicName() {
+    return this.kafkaTopicName;
+  }
+
+  public void setKafkaTopicName(final String kafkaTopicName) {
+    this.kafkaTopicName = kafkaTopicName;
+  }
+
+  public String getCodecName() {
+    return this.codecName;
+  }
+
+  public void setCodecName(final String codecName) {
+    this.codecName = codecName;
+  }
+
+  public int getKeyframeInterval() {
+    return this.keyframeInterval;
+  }
+
+  public void setKeyframeInterval(final int keyframeInterval) {
+    this.keyframeInterval = keyframeInterval;
+  }
+
+  public int getChunkSize() {
+    return this.chunkSize;
+  }
+
+  public void setChunkSize(final int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  public int getPublisherQueueCapacity() {
+    return this.publisherQueueCapacity;
+  }
+
+  public void setPublisherQueueCapacity(final int publisherQueueCapacity) {
+    this.publisherQueueCapacity = publisherQueueCapacity;
+  }
+
+  public String getOverflowPolicy() {
+    return this.overflowPolicy;
+  }
+
+  public void setOverflowPolicy(final String overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+}
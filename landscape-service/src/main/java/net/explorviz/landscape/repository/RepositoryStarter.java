@@ -2,18 +2,32 @@ package net.explorviz.landscape.repository;
 
 import explorviz.live_trace_processing.configuration.Configuration;
 import explorviz.live_trace_processing.configuration.ConfigurationFactory;
-import explorviz.live_trace_processing.filter.SinglePipeConnector;
 import explorviz.live_trace_processing.main.FilterConfiguration;
 import explorviz.live_trace_processing.record.IRecord;
 import java.util.Queue;
 
 public class RepositoryStarter {
-  public void start(final LandscapeRepositoryModel model) {
-    final SinglePipeConnector<IRecord> modelConnector = new SinglePipeConnector<>(64);
 
-    new LandscapeRepositorySink(modelConnector, model).start();
+  private final int queueCapacity;
+  private final int batchSize;
+
+  /**
+   * Creates a starter for the record processing.
+   *
+   * @param queueCapacity - maximum number of records, which wait for the insertion into the model
+   * @param batchSize - maximum number of records, which are inserted into the model at once
+   */
+  public RepositoryStarter(final int queueCapacity, final int batchSize) {
+    this.queueCapacity = queueCapacity;
+    this.batchSize = batchSize;
+  }
+
+  public void start(final LandscapeRepositoryModel model) {
+    final LandscapeRepositorySink repositorySink =
+        new LandscapeRepositorySink(model, this.queueCapacity, this.batchSize);
+    repositorySink.start();
 
-    final Queue<IRecord> sink = modelConnector.registerProducer();
+    final Queue<IRecord> sink = repositorySink.registerProducer();
 
     final Configuration configuration = ConfigurationFactory.createSingletonConfiguration();
 
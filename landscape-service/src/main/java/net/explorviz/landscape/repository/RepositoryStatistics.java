@@ -0,0 +1,153 @@
+package net.explorviz.landscape.repository;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import net.explorviz.landscape.repository.helper.SignatureCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Period statistics of the repository parts, sampled while the landscape is locked at the end of a
+ * period and read concurrently by JMX clients.
+ */
+public final class RepositoryStatistics implements RepositoryStatisticsMXBean {
+
+  public static final String OBJECT_NAME = "net.explorviz.landscape:type=RepositoryStatistics";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryStatistics.class);
+
+  private volatile int sentRemoteCallBufferSize;
+  private volatile int receivedRemoteCallBufferSize;
+  private volatile long matchedRemoteCalls;
+  private volatile long expiredRemoteCalls;
+  private volatile int signatureCacheSize;
+  private volatile long signatureCacheHits;
+  private volatile long signatureCacheMisses;
+  private volatile long signatureCacheEvictions;
+  private volatile int retainedEvents;
+  private volatile int droppedEvents;
+  private volatile long droppedDatabaseQueries;
+  private volatile int touchedApplications;
+  private volatile int touchedClazzes;
+
+  /**
+   * Registers the statistics at the platform MBean server, replacing a previously registered
+   * instance. A failed registration is logged, since the statistics are optional.
+   */
+  void register() {
+    try {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+    } catch (final JMException e) {
+      LOGGER.warn("Repository statistics could not be registered: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Samples the statistics of the remote calls and of the signature cache.
+   *
+   * @param remoteCallRepositoryPart - the sampled repository part
+   * @param signatureCache - the sampled signature cache
+   */
+  void sample(final RemoteCallRepositoryPart remoteCallRepositoryPart,
+      final SignatureCache signatureCache) {
+    this.sentRemoteCallBufferSize = remoteCallRepositoryPart.getSentBufferSize();
+    this.receivedRemoteCallBufferSize = remoteCallRepositoryPart.getReceivedBufferSize();
+    this.matchedRemoteCalls = remoteCallRepositoryPart.getMatchedRemoteCalls();
+    this.expiredRemoteCalls = remoteCallRepositoryPart.getExpiredRemoteCalls();
+    this.signatureCacheSize = signatureCache.size();
+    this.signatureCacheHits = signatureCache.getHits();
+    this.signatureCacheMisses = signatureCache.getMisses();
+    this.signatureCacheEvictions = signatureCache.getEvictions();
+  }
+
+  /**
+   * Samples the statistics of the closed period.
+   *
+   * @param retainedEvents - events of the landscape
+   * @param droppedEvents - events, which exceeded the maximum of events
+   * @param droppedDatabaseQueries - statements, which exceeded the maximum of queries
+   * @param touchedApplications - applications touched in the metrics epoch
+   * @param touchedClazzes - clazzes touched in the metrics epoch
+   */
+  void samplePeriod(final int retainedEvents, final int droppedEvents,
+      final long droppedDatabaseQueries, final int touchedApplications, final int touchedClazzes) {
+    this.retainedEvents = retainedEvents;
+    this.droppedEvents = droppedEvents;
+    this.droppedDatabaseQueries = droppedDatabaseQueries;
+    this.touchedApplications = touchedApplications;
+    this.touchedClazzes = touchedClazzes;
+  }
+
+  @Override
+  public int getSentRemoteCallBufferSize() {
+    return this.sentRemoteCallBufferSize;
+  }
+
+  @Override
+  public int getReceivedRemoteCallBufferSize() {
+    return this.receivedRemoteCallBufferSize;
+  }
+
+  @Override
+  public long getMatchedRemoteCalls() {
+    return this.matchedRemoteCalls;
+  }
+
+  @Override
+  public long getExpiredRemoteCalls() {
+    return this.expiredRemoteCalls;
+  }
+
+  @Override
+  public int getSignatureCacheSize() {
+    return this.signatureCacheSize;
+  }
+
+  @Override
+  public long getSignatureCacheHits() {
+    return this.signatureCacheHits;
+  }
+
+  @Override
+  public long getSignatureCacheMisses() {
+    return this.signatureCacheMisses;
+  }
+
+  @Override
+  public long getSignatureCacheEvictions() {
+    return this.signatureCacheEvictions;
+  }
+
+  @Override
+  public int getRetainedEvents() {
+    return this.retainedEvents;
+  }
+
+  @Override
+  public int getDroppedEvents() {
+    return this.droppedEvents;
+  }
+
+  @Override
+  public long getDroppedDatabaseQueries() {
+    return this.droppedDatabaseQueries;
+  }
+
+  @Override
+  public int getTouchedApplications() {
+    return this.touchedApplications;
+  }
+
+  @Override
+  public int getTouchedClazzes() {
+    return this.touchedClazzes;
+  }
+
+}
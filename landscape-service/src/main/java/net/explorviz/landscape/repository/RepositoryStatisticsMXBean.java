@@ -0,0 +1,100 @@
+package net.explorviz.landscape.repository;
+
+/**
+ * Runtime statistics of the {@link LandscapeRepositoryModel}, published as platform MXBean under
+ * {@link RepositoryStatistics#OBJECT_NAME}. The values are sampled at the end of every period.
+ */
+public interface RepositoryStatisticsMXBean {
+
+  /**
+   * Sent remote call records waiting for their received counterpart.
+   *
+   * @return the number of buffered records
+   */
+  int getSentRemoteCallBufferSize();
+
+  /**
+   * Received remote call records waiting for their sent counterpart.
+   *
+   * @return the number of buffered records
+   */
+  int getReceivedRemoteCallBufferSize();
+
+  /**
+   * Remote calls, whose sent and received records were matched.
+   *
+   * @return the total since the start
+   */
+  long getMatchedRemoteCalls();
+
+  /**
+   * Remote call records, which expired without a counterpart.
+   *
+   * @return the total since the start
+   */
+  long getExpiredRemoteCalls();
+
+  /**
+   * Parsed operation signatures in the signature cache.
+   *
+   * @return the number of cached signatures
+   */
+  int getSignatureCacheSize();
+
+  /**
+   * Lookups of operation signatures, which were answered by the signature cache.
+   *
+   * @return the total since the start
+   */
+  long getSignatureCacheHits();
+
+  /**
+   * Lookups of operation signatures, which had to be parsed.
+   *
+   * @return the total since the start
+   */
+  long getSignatureCacheMisses();
+
+  /**
+   * Signatures evicted from the full signature cache.
+   *
+   * @return the total since the start
+   */
+  long getSignatureCacheEvictions();
+
+  /**
+   * Events of the landscape of the last period.
+   *
+   * @return the number of retained events
+   */
+  int getRetainedEvents();
+
+  /**
+   * Events of the last period, which exceeded the maximum of events.
+   *
+   * @return the number of dropped events
+   */
+  int getDroppedEvents();
+
+  /**
+   * Database statements, which exceeded the maximum of queries of their application.
+   *
+   * @return the total since the start
+   */
+  long getDroppedDatabaseQueries();
+
+  /**
+   * Applications touched in the metrics epoch of the last period.
+   *
+   * @return the number of touched applications
+   */
+  int getTouchedApplications();
+
+  /**
+   * Clazzes touched in the metrics epoch of the last period.
+   *
+   * @return the number of touched clazzes
+   */
+  int getTouchedClazzes();
+
+}
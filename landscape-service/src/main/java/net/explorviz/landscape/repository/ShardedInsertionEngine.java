@@ -0,0 +1,286 @@
+package net.explorviz.landscape.repository;
+
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
+import net.explorviz.landscape.repository.helper.SignatureCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Multi-threaded insertion of traces into a landscape. Every host application of a trace is routed
+ * to a worker shard keyed by hostname and application name. Hence, each shard exclusively owns the
+ * application subtrees (components, clazzes, communication, traces) of its applications and
+ * inserts into them without holding the landscape monitor. Only topology changes, events and
+ * remote calls require a short critical section on the landscape.
+ *
+ * <p>
+ * At the end of a period, {@link #lockShards()} pauses all shards so that the landscape can be
+ * read as a consistent merge of all shards.
+ * </p>
+ */
+public class ShardedInsertionEngine {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ShardedInsertionEngine.class);
+
+  private final InsertionShard[] shards;
+
+  /**
+   * Creates and starts the worker shards.
+   *
+   * @param shardCount - number of worker shards
+   * @param idGen - id generator for new entities
+   * @param topologyRepositoryPart - the global topology shared by all shards
+   * @param landscape - Target for the insertion of records
+   * @param remoteCallRepositoryPart - the global RemoteCallRepositoryPart
+   * @param maxDatabaseQueries - maximum number of database queries per application and period
+   * @param queueCapacity - number of host applications of traces queued per shard
+   * @param signatureCache - the parsed operation signatures, shared by all shards
+   */
+  public ShardedInsertionEngine(final int shardCount, final EntityIdAllocator idGen,
+      final TopologyRepositoryPart topologyRepositoryPart, final Landscape landscape,
+      final RemoteCallRepositoryPart remoteCallRepositoryPart, final int maxDatabaseQueries,
+      final int queueCapacity, final SignatureCache signatureCache) {
+    this.shards = new InsertionShard[shardCount];
+
+    for (int i = 0; i < shardCount; i++) {
+      this.shards[i] = new InsertionShard(i,
+          new InsertionRepositoryPart(idGen, topologyRepositoryPart, maxDatabaseQueries,
+              signatureCache),
+          landscape,
+          remoteCallRepositoryPart,
+          queueCapacity);
+      this.shards[i].start();
+    }
+  }
+
+  /**
+   * Routes every host application of the passed trace to its owning shard. Blocks, if the queue of
+   * a shard is full.
+   *
+   * @param trace - the trace to insert
+   */
+  public void insert(final Trace trace) {
+    final List<HostApplicationMetaDataRecord> hostApplicationMetadataList =
+        trace.getTraceEvents().get(0).getHostApplicationMetadataList();
+
+    for (int i = 0; i < hostApplicationMetadataList.size(); i++) {
+      final HostApplicationMetaDataRecord hostApplicationRecord =
+          hostApplicationMetadataList.get(i);
+      final String shardKey =
+          hostApplicationRecord.getHostname() + "_" + hostApplicationRecord.getApplication();
+
+      this.shards[Math.floorMod(shardKey.hashCode(), this.shards.length)]
+          .enqueue(new ShardTask(trace, i)); // NOPMD
+    }
+  }
+
+  /**
+   * Waits until all shards inserted their queued traces. Traces enqueued concurrently may or may
+   * not be awaited. Must not be called while holding the shard locks.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void awaitQueuedTraces() throws InterruptedException {
+    for (final InsertionShard shard : this.shards) {
+      shard.awaitDrained();
+    }
+  }
+
+  /**
+   * Waits until all shards finished their current trace and prevents them from inserting further
+   * traces until {@link #unlockShards()} is called. Must be acquired before the landscape monitor.
+   */
+  public void lockShards() {
+    for (final InsertionShard shard : this.shards) {
+      shard.lock.lock();
+    }
+  }
+
+  /**
+   * Resumes the insertion of all shards.
+   */
+  public void unlockShards() {
+    for (int i = this.shards.length - 1; i >= 0; i--) {
+      this.shards[i].lock.unlock();
+    }
+  }
+
+  /**
+   * Aggregates the clazzCommunications of the metrics epoch of every shard. Must be called while
+   * holding the shard locks.
+   */
+  public void aggregateEpochs() {
+    for (final InsertionShard shard : this.shards) {
+      shard.insertionRepositoryPart.aggregateEpoch();
+    }
+  }
+
+  /**
+   * Closes the metrics epoch of every shard. Must be called while holding the shard locks.
+   *
+   * @param milliseconds - the end of the epochs
+   */
+  public void closeEpochs(final long milliseconds) {
+    for (final InsertionShard shard : this.shards) {
+      shard.insertionRepositoryPart.closeEpoch(milliseconds);
+    }
+  }
+
+  /**
+   * Evicts the idle clazzes of every shard and forgets the evicted topology in their caches. Must
+   * be called while holding the shard locks.
+   *
+   * @param eviction - the current eviction pass
+   */
+  void evictIdle(final IdleEviction eviction) {
+    for (final InsertionShard shard : this.shards) {
+      shard.insertionRepositoryPart.evictIdle(eviction);
+    }
+  }
+
+  /**
+   * Returns the total number of statements, which were not captured by any shard, since their
+   * application reached the maximum of queries. Must be called while holding the shard locks.
+   */
+  public long getDroppedDatabaseQueries() {
+    long dropped = 0;
+    for (final InsertionShard shard : this.shards) {
+      dropped += shard.insertionRepositoryPart.getDroppedDatabaseQueries();
+    }
+    return dropped;
+  }
+
+  /**
+   * Returns the number of applications touched by all shards in their current metrics epoch. Must
+   * be called while holding the shard locks.
+   */
+  int getTouchedApplications() {
+    int touched = 0;
+    for (final InsertionShard shard : this.shards) {
+      touched += shard.insertionRepositoryPart.getTouchedApplications();
+    }
+    return touched;
+  }
+
+  /**
+   * Returns the number of clazzes touched by all shards in their current metrics epoch. Must be
+   * called while holding the shard locks.
+   */
+  int getTouchedClazzes() {
+    int touched = 0;
+    for (final InsertionShard shard : this.shards) {
+      touched += shard.insertionRepositoryPart.getTouchedClazzes();
+    }
+    return touched;
+  }
+
+  /**
+   * A single host application of a trace.
+   */
+  private static final class ShardTask {
+    private final Trace trace;
+    private final int runtimeIndex;
+
+    ShardTask(final Trace trace, final int runtimeIndex) {
+      this.trace = trace;
+      this.runtimeIndex = runtimeIndex;
+    }
+  }
+
+  /**
+   * Worker thread with its own {@link InsertionRepositoryPart}, i.e., shard-local caches.
+   */
+  private static final class InsertionShard extends Thread {
+
+    // fair, so that the period end is not starved by the worker
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final BlockingQueue<ShardTask> queue;
+    // queued or currently inserted tasks
+    private final AtomicInteger pending = new AtomicInteger();
+    // signalled when the pending tasks drop to zero, only taken by waiters and on that transition
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition drained = this.drainLock.newCondition();
+
+    private final InsertionRepositoryPart insertionRepositoryPart;
+    private final Landscape landscape;
+    private final RemoteCallRepositoryPart remoteCallRepositoryPart;
+
+    InsertionShard(final int index, final InsertionRepositoryPart insertionRepositoryPart,
+        final Landscape landscape, final RemoteCallRepositoryPart remoteCallRepositoryPart,
+        final int queueCapacity) {
+      super("insertion-shard-" + index);
+      this.setDaemon(true);
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      this.insertionRepositoryPart = insertionRepositoryPart;
+      this.landscape = landscape;
+      this.remoteCallRepositoryPart = remoteCallRepositoryPart;
+    }
+
+    void enqueue(final ShardTask task) {
+      this.pending.incrementAndGet();
+      try {
+        this.queue.put(task);
+      } catch (final InterruptedException e) {
+        this.completeTask();
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void completeTask() {
+      if (this.pending.decrementAndGet() == 0) {
+        this.drainLock.lock();
+        try {
+          this.drained.signalAll();
+        } finally {
+          this.drainLock.unlock();
+        }
+      }
+    }
+
+    void awaitDrained() throws InterruptedException {
+      this.drainLock.lock();
+      try {
+        // the count is checked while holding the lock, hence the signal cannot be missed
+        while (this.pending.get() > 0) {
+          this.drained.await();
+        }
+      } finally {
+        this.drainLock.unlock();
+      }
+    }
+
+    @Override
+    public void run() {
+      while (!this.isInterrupted()) {
+        final ShardTask task;
+        try {
+          task = this.queue.take();
+        } catch (final InterruptedException e) {
+          return;
+        }
+
+        this.lock.lock();
+        try {
+          this.insertionRepositoryPart.insertTrace(task.trace,
+              task.runtimeIndex,
+              this.landscape,
+              this.remoteCallRepositoryPart);
+        } catch (final RuntimeException e) { // NOPMD
+          LOGGER.error("Could not insert trace in {}.", this.getName(), e);
+        } finally {
+          this.lock.unlock();
+          this.completeTask();
+        }
+      }
+    }
+  }
+
+}
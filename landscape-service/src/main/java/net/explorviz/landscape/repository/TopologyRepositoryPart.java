@@ -0,0 +1,502 @@
+package net.explorviz.landscape.repository;
+
+import explorviz.live_trace_processing.record.misc.SystemMonitoringRecord;
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.event.EEventType;
+import net.explorviz.landscape.model.helper.EProgrammingLanguage;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
+
+/**
+ * Global registry for the topology of a landscape, i.e., systems, node groups, nodes and
+ * applications. Shared by all {@link InsertionRepositoryPart} instances. All methods must be called
+ * while holding the monitor of the passed landscape.
+ */
+public class TopologyRepositoryPart {
+
+  private final Map<String, Node> nodeCache = new HashMap<>();
+  private final Map<String, Application> applicationCache = new HashMap<>();
+
+  // nodes by their case-insensitive (hostname, ip address), for the utilization updates
+  private final Map<String, List<Node>> nodesByHost = new HashMap<>();
+  // nodes with utilization samples in the current period
+  private final Set<Node> sampledNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // node groups of each system by the fingerprint of the applications of their nodes
+  private final Map<System, Map<String, NodeGroup>> nodeGroupsByFingerprint =
+      new IdentityHashMap<>();
+  private final Map<NodeGroup, String> nodeGroupFingerprints = new IdentityHashMap<>();
+  // node groups with changed nodes, which are renamed at the end of the period
+  private final Set<NodeGroup> changedNodeGroups =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private final EntityIdAllocator idGen;
+  // the time of the last usage of applications
+  private final Clock clock;
+
+  public TopologyRepositoryPart(final EntityIdAllocator idGen, final Clock clock) {
+    this.idGen = idGen;
+    this.clock = clock;
+  }
+
+  Clock getClock() {
+    return this.clock;
+  }
+
+  /**
+   * Seeks or creates the application (and its system, node, and nodeGroup) described by the passed
+   * host record. Nodes are moved into a matching nodeGroup, if they are new or received a new
+   * application.
+   *
+   * @param hostApplicationRecord - monitoring information about the host
+   * @param landscape - the related landscape
+   * @return the retrieved or created application
+   */
+  public Application seekOrCreateHostApplication(
+      final HostApplicationMetaDataRecord hostApplicationRecord, final Landscape landscape) {
+    final System system = this.seekOrCreateSystem(landscape, hostApplicationRecord.getSystemname());
+
+    final boolean isNewNode = this.nodeCache.get(
+        hostApplicationRecord.getHostname() + "_" + hostApplicationRecord.getIpaddress()) == null;
+    final Node node = this.seekOrCreateNode(hostApplicationRecord, landscape);
+
+    final boolean isNewApplication = this.applicationCache
+        .get(node.getName() + "_" + hostApplicationRecord.getApplication()) == null;
+    final Application application =
+        this.seekOrCreateApplication(node, hostApplicationRecord, landscape);
+
+    // TODO send to Discovery Kafka Topic the name of the found application
+
+    if (isNewNode) {
+      final NodeGroup nodeGroup = this.seekOrCreateNodeGroup(system, node);
+      nodeGroup.getNodes().add(node);
+      node.setParent(nodeGroup);
+
+      this.changedNodeGroups.add(nodeGroup);
+    } else {
+      if (isNewApplication) {
+        // if new app, node might be placed in a different
+        // nodeGroup
+        this.relocateNode(system, node);
+      }
+    }
+
+    return application;
+  }
+
+  /**
+   * Moves a node, whose applications changed, into the matching nodeGroup of its system.
+   *
+   * @param system - the system of the node
+   * @param node - the node
+   * @return true, if the previous nodeGroup of the node was removed, since it became empty
+   */
+  private boolean relocateNode(final System system, final Node node) {
+    final NodeGroup oldNodeGroup = node.getParent();
+    oldNodeGroup.getNodes().remove(node);
+
+    final NodeGroup nodeGroup = this.seekOrCreateNodeGroup(system, node);
+
+    boolean isOldNodeGroupRemoved = false;
+    if (oldNodeGroup != nodeGroup) {
+      if (oldNodeGroup.getNodes().isEmpty()) {
+        this.removeNodeGroup(oldNodeGroup);
+        isOldNodeGroupRemoved = true;
+      } else {
+        this.changedNodeGroups.add(oldNodeGroup);
+      }
+    }
+
+    nodeGroup.getNodes().add(node);
+    node.setParent(nodeGroup);
+
+    this.changedNodeGroups.add(nodeGroup);
+    return isOldNodeGroupRemoved;
+  }
+
+  /**
+   * Evicts all applications, which were not used since the time of the passed eviction pass. Nodes
+   * without remaining applications are evicted as well, the other ones are moved into the matching
+   * nodeGroup. Afterwards, empty nodeGroups and systems are removed. Creates an event for every
+   * removed application, node and system.
+   *
+   * @param landscape - the related landscape
+   * @param eviction - the current eviction pass, collects the removed entities
+   */
+  void evictIdleApplications(final Landscape landscape, final IdleEviction eviction) {
+    final Set<Node> changedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    final Iterator<Application> applications = this.applicationCache.values().iterator();
+    while (applications.hasNext()) {
+      final Application application = applications.next();
+
+      if (application.getLastUsage() < eviction.getIdleSince()) {
+        final Node node = application.getParent();
+        applications.remove();
+        node.getApplications().remove(application);
+        changedNodes.add(node);
+        eviction.getApplications().add(application);
+
+        landscape.createNewEvent(this.idGen.generateId(),
+            EEventType.REMOVEDAPPLICATION,
+            "Idle application '" + application.getName() + "' on node '" + node.getName()
+                + "' removed");
+      }
+    }
+
+    for (final Node node : changedNodes) {
+      final NodeGroup nodeGroup = node.getParent();
+      final System system = nodeGroup.getParent();
+
+      if (node.getApplications().isEmpty()) {
+        this.evictNode(landscape, node, eviction);
+      } else if (this.relocateNode(system, node)) {
+        eviction.countNodeGroup();
+      }
+    }
+
+    if (!changedNodes.isEmpty()) {
+      final Iterator<System> systems = landscape.getSystems().iterator();
+      while (systems.hasNext()) {
+        final System system = systems.next();
+
+        if (system.getNodeGroups().isEmpty()) {
+          systems.remove();
+          this.nodeGroupsByFingerprint.remove(system);
+          eviction.countSystem();
+
+          landscape.createNewEvent(this.idGen.generateId(),
+              EEventType.REMOVEDSYSTEM,
+              "Idle system '" + system.getName() + "' removed");
+        }
+      }
+    }
+  }
+
+  private void evictNode(final Landscape landscape, final Node node, final IdleEviction eviction) {
+    this.nodeCache.remove(node.getName() + "_" + node.getIpAddress(), node);
+    this.sampledNodes.remove(node);
+
+    final String hostKey = hostKey(node.getName(), node.getIpAddress());
+    final List<Node> hostNodes = this.nodesByHost.get(hostKey);
+    if (hostNodes != null) {
+      hostNodes.remove(node);
+      if (hostNodes.isEmpty()) {
+        this.nodesByHost.remove(hostKey);
+      }
+    }
+
+    final NodeGroup nodeGroup = node.getParent();
+    nodeGroup.getNodes().remove(node);
+    if (nodeGroup.getNodes().isEmpty()) {
+      this.removeNodeGroup(nodeGroup);
+      eviction.countNodeGroup();
+    } else {
+      this.changedNodeGroups.add(nodeGroup);
+    }
+    eviction.getNodes().add(node);
+
+    landscape.createNewEvent(this.idGen.generateId(),
+        EEventType.REMOVEDNODE,
+        "Idle node '" + node.getName() + "' in system '" + nodeGroup.getParent().getName()
+            + "' removed");
+  }
+
+  private static String hostKey(final String hostname, final String ipAddress) {
+    return hostname.toLowerCase(Locale.ROOT) + '_' + ipAddress.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Counts requests of the passed application for the application, its node, its system and the
+   * landscape. Does not require the monitor of the landscape, since the counters are lock-free.
+   *
+   * @param landscape - the related landscape
+   * @param application - the called application
+   * @param requests - number of requests
+   */
+  static void countRequests(final Landscape landscape, final Application application,
+      final long requests) {
+    application.requestCounter().add(requests);
+
+    final Node node = application.getParent();
+    if (node != null) {
+      node.requestCounter().add(requests);
+
+      final NodeGroup nodeGroup = node.getParent();
+      if (nodeGroup != null && nodeGroup.getParent() != null) {
+        nodeGroup.getParent().requestCounter().add(requests);
+      }
+    }
+
+    landscape.requestCounter().add(requests);
+  }
+
+  /**
+   * Closes the request counters of the current period for all applications, nodes and systems and
+   * stores the totals of the closed period in their <code>totalRequests</code>.
+   *
+   * @param landscape - the related landscape
+   * @return the total requests of the landscape in the closed period
+   */
+  public long closeRequestPeriod(final Landscape landscape) {
+    for (final Application application : this.applicationCache.values()) {
+      application.setTotalRequests(application.requestCounter().closePeriod());
+    }
+    for (final Node node : this.nodeCache.values()) {
+      node.setTotalRequests(node.requestCounter().closePeriod());
+    }
+    for (final System system : landscape.getSystems()) {
+      system.setTotalRequests(system.requestCounter().closePeriod());
+    }
+    return landscape.requestCounter().closePeriod();
+  }
+
+  /**
+   * Updates the names of all node groups, whose nodes changed in the current period. The names are
+   * derived from all nodes of a group, hence they are only computed once per period.
+   */
+  public void updateNodeGroupNames() {
+    for (final NodeGroup nodeGroup : this.changedNodeGroups) {
+      if (!nodeGroup.getNodes().isEmpty()) {
+        nodeGroup.updateName();
+      }
+    }
+    this.changedNodeGroups.clear();
+  }
+
+  /**
+   * Folds the utilization of the passed record into the statistics of all nodes matching its host.
+   *
+   * @param systemMonitoringRecord - monitoring information about the host
+   */
+  public void updateNodeUtilization(final SystemMonitoringRecord systemMonitoringRecord) {
+    final List<Node> nodes = this.nodesByHost.get(
+        hostKey(systemMonitoringRecord.getHostApplicationMetadata().getHostname(),
+            systemMonitoringRecord.getHostApplicationMetadata().getIpaddress()));
+
+    if (nodes != null) {
+      for (final Node node : nodes) {
+        node.addUtilizationSample(systemMonitoringRecord.getCpuUtilization(),
+            systemMonitoringRecord.getUsedRAM(),
+            systemMonitoringRecord.getAbsoluteRAM() - systemMonitoringRecord.getUsedRAM());
+        this.sampledNodes.add(node);
+      }
+    }
+  }
+
+  /**
+   * Starts the utilization statistics of a new period for all nodes sampled in the current one.
+   */
+  public void closeUtilizationPeriod() {
+    for (final Node node : this.sampledNodes) {
+      node.resetUtilizationPeriod();
+    }
+    this.sampledNodes.clear();
+  }
+
+  /**
+   * Seeks or creates a new system.
+   *
+   * @param landscape - passed landscape
+   * @param systemname - name of the system
+   * @return the retrieved or created system
+   */
+  private System seekOrCreateSystem(final Landscape landscape, final String systemname) {
+    for (final System system : landscape.getSystems()) {
+      if (system.getName().equalsIgnoreCase(systemname)) {
+        // familiar system, return old instance
+        // of internalLandscape
+        return system;
+      }
+    }
+
+    // New system, add to internalLandscape
+    final System system = new System(this.idGen.generateId());
+    system.setName(systemname);
+    system.setParent(landscape);
+    landscape.getSystems().add(system);
+
+    // create a new system event
+    landscape.createNewEvent(this.idGen.generateId(),
+        EEventType.NEWSYSTEM,
+        "New system '" + systemname + "' detected");
+
+    return system;
+  }
+
+  /**
+   * Seeks or creates a new node.
+   *
+   * @param hostApplicationRecord - monitoring information about the host
+   * @param landscape - the passed landscape
+   * @return the retrieved or created node
+   */
+  public Node seekOrCreateNode(final HostApplicationMetaDataRecord hostApplicationRecord,
+      final Landscape landscape) {
+    final String nodeName =
+        hostApplicationRecord.getHostname() + "_" + hostApplicationRecord.getIpaddress();
+    Node node = this.nodeCache.get(nodeName);
+
+    if (node == null) {
+      // new node, add to nodeCache for the moment
+      // eventual, put in NodeGroup
+      node = new Node(this.idGen.generateId());
+
+
+      node.setIpAddress(hostApplicationRecord.getIpaddress());
+      node.setName(hostApplicationRecord.getHostname());
+      this.nodeCache.put(nodeName, node);
+      this.nodesByHost.computeIfAbsent(
+          hostKey(hostApplicationRecord.getHostname(), hostApplicationRecord.getIpaddress()),
+          key -> new ArrayList<>(1)).add(node);
+
+      // creates a new node event
+      landscape.createNewEvent(this.idGen.generateId(),
+          EEventType.NEWNODE,
+          "New node '" + hostApplicationRecord.getHostname() + "' in system '"
+              + hostApplicationRecord.getSystemname() + "' detected");
+    }
+
+    return node;
+  }
+
+  /**
+   * Seeks or creates a new nodeGroup. Nodes belong to the same nodeGroup, if they run applications
+   * with the same names, hence the nodeGroups of a system are hashed by the canonical fingerprint
+   * of these names.
+   *
+   * @param system - the related system
+   * @param node - the related node
+   * @return the retrieved or created nodeGroup
+   */
+  private NodeGroup seekOrCreateNodeGroup(final System system, final Node node) {
+    final String fingerprint = applicationFingerprint(node);
+    final Map<String, NodeGroup> nodeGroups =
+        this.nodeGroupsByFingerprint.computeIfAbsent(system, key -> new HashMap<>());
+
+    final NodeGroup existingNodeGroup = nodeGroups.get(fingerprint);
+    if (existingNodeGroup != null && !existingNodeGroup.getNodes().isEmpty()
+        && existingNodeGroup.getParent() == system) {
+      // familiar NodeGroup
+      return existingNodeGroup;
+    }
+
+    // new NodeGroup, add to system, therefore, internalLandscape
+    final NodeGroup nodeGroup = new NodeGroup(this.idGen.generateId());
+
+
+    nodeGroup.setName(node.getIpAddress());
+    system.getNodeGroups().add(nodeGroup);
+    nodeGroup.setParent(system);
+
+    nodeGroups.put(fingerprint, nodeGroup);
+    this.nodeGroupFingerprints.put(nodeGroup, fingerprint);
+
+    return nodeGroup;
+  }
+
+  private void removeNodeGroup(final NodeGroup nodeGroup) {
+    nodeGroup.getParent().getNodeGroups().remove(nodeGroup);
+
+    final String fingerprint = this.nodeGroupFingerprints.remove(nodeGroup);
+    final Map<String, NodeGroup> nodeGroups =
+        this.nodeGroupsByFingerprint.get(nodeGroup.getParent());
+    if (fingerprint != null && nodeGroups != null) {
+      nodeGroups.remove(fingerprint, nodeGroup);
+    }
+    this.changedNodeGroups.remove(nodeGroup);
+  }
+
+  /**
+   * Computes the canonical fingerprint of a node, i.e., the sorted, case-insensitive names of its
+   * applications.
+   *
+   * @param node - the node
+   * @return the fingerprint
+   */
+  private static String applicationFingerprint(final Node node) {
+    final List<Application> applications = node.getApplications();
+    final String[] names = new String[applications.size()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = applications.get(i).getName().toLowerCase(Locale.ROOT);
+    }
+    Arrays.sort(names);
+    return String.join("\n", names);
+  }
+
+  /**
+   * Seeks or creates an application.
+   *
+   * @param node - the related node
+   * @param hostMetaDataRecord - monitoring information about the host
+   * @param landscape - the related landscape
+   * @return the retrieved or created application
+   */
+  public Application seekOrCreateApplication(final Node node,
+      final HostApplicationMetaDataRecord hostMetaDataRecord, final Landscape landscape) {
+    final String applicationName = hostMetaDataRecord.getApplication();
+    Application application = this.applicationCache.get(node.getName() + "_" + applicationName);
+
+    if (application == null) {
+      // new application, put in applicationCache for the moment
+      // eventually, parent Node must not be in the old NodeGroup
+      application = new Application(this.idGen.generateId());
+      // application.setId((node.getName() + "_" + applicationName).hashCode());
+      application.setLastUsage(this.clock.millis());
+      application.setName(applicationName);
+
+      final String language = hostMetaDataRecord.getProgrammingLanguage();
+
+      if ("JAVA".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.JAVA);
+      } else if ("C".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.C);
+      } else if ("CPP".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.CPP);
+      } else if ("CSHARP".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.CSHARP);
+      } else if ("PERL".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.PERL);
+      } else if ("JAVASCRIPT".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.JAVASCRIPT);
+      } else if ("PYTHON".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.PYTHON);
+      } else if ("RUBY".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.RUBY);
+      } else if ("PHP".equalsIgnoreCase(language)) {
+        application.setProgrammingLanguage(EProgrammingLanguage.PHP);
+      } else {
+        application.setProgrammingLanguage(EProgrammingLanguage.UNKNOWN);
+      }
+
+      application.setParent(node);
+
+      node.getApplications().add(application);
+      this.applicationCache.put(node.getName() + "_" + applicationName, application);
+
+      // creates a new application event
+      landscape.createNewEvent(this.idGen.generateId(),
+          EEventType.NEWAPPLICATION,
+          "New application '" + applicationName + "' on node '" + node.getName() + "' detected");
+    }
+
+    application.setLastUsage(this.clock.millis());
+    return application;
+  }
+
+}
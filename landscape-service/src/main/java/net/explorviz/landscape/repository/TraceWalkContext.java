@@ -0,0 +1,163 @@
+package net.explorviz.landscape.repository;
+
+import explorviz.live_trace_processing.record.event.AbstractBeforeOperationEventRecord;
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import explorviz.live_trace_processing.record.event.constructor.BeforeConstructorEventRecord;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.util.Arrays;
+import java.util.List;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.repository.helper.SignatureCache;
+
+/**
+ * Reusable scratch state of the walk over the events of a trace, see
+ * {@link InsertionRepositoryPart}. A trace is walked once per host application, hence the clazz
+ * and operation names of its events are resolved once per trace and shared by these walks. The
+ * callers of the current walk are kept on an array-backed stack.
+ *
+ * <p>
+ * Not thread-safe, every {@link InsertionRepositoryPart} owns its context.
+ * </p>
+ */
+final class TraceWalkContext {
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private final SignatureCache signatureCache;
+
+  // handles of the events of the prepared trace, resolved on first access
+  private Trace preparedTrace;
+  private String[] clazzNames = new String[INITIAL_CAPACITY];
+  private String[] operationNames = new String[INITIAL_CAPACITY];
+  private boolean[] abstractConstructors = new boolean[INITIAL_CAPACITY];
+
+  private Clazz[] callers = new Clazz[INITIAL_CAPACITY];
+  private int depth;
+
+  /**
+   * Creates an empty context.
+   *
+   * @param signatureCache - resolves the operation names of the events
+   */
+  TraceWalkContext(final SignatureCache signatureCache) {
+    this.signatureCache = signatureCache;
+  }
+
+  /**
+   * Starts a walk over the passed trace. The handles are kept, if the trace was prepared by the
+   * previous walk.
+   *
+   * @param trace - the walked trace
+   */
+  void begin(final Trace trace) {
+    this.clearCallers();
+
+    if (trace == this.preparedTrace) {
+      return;
+    }
+
+    final int eventCount = trace.getTraceEvents().size();
+    if (eventCount > this.clazzNames.length) {
+      final int capacity = Math.max(eventCount, this.clazzNames.length * 2);
+      this.clazzNames = new String[capacity];
+      this.operationNames = new String[capacity];
+      this.abstractConstructors = new boolean[capacity];
+    } else {
+      Arrays.fill(this.clazzNames, 0, eventCount, null);
+      Arrays.fill(this.operationNames, 0, eventCount, null);
+    }
+    this.preparedTrace = trace;
+  }
+
+  /**
+   * Returns the clazz name of an event of the prepared trace.
+   *
+   * @param index - position of the event within the trace
+   * @return the clazz name, see {@link InsertionRepositoryPart#getClazzName}
+   */
+  String getClazzName(final int index) {
+    String clazzName = this.clazzNames[index];
+    if (clazzName == null) {
+      clazzName = InsertionRepositoryPart.getClazzName(this.operationEvent(index));
+      this.clazzNames[index] = clazzName;
+    }
+    return clazzName;
+  }
+
+  /**
+   * Returns the operation name of an event of the prepared trace.
+   *
+   * @param index - position of the event within the trace
+   * @return the operation name, see {@link SignatureCache#get}
+   */
+  String getOperationName(final int index) {
+    if (this.operationNames[index] == null) {
+      this.resolveOperation(index);
+    }
+    return this.operationNames[index];
+  }
+
+  /**
+   * Returns whether an event of the prepared trace is the call of a constructor of a super class,
+   * i.e., the operation does not belong to the clazz of the event.
+   *
+   * @param index - position of the event within the trace
+   * @return true, if the event denotes an abstract constructor
+   */
+  boolean isAbstractConstructor(final int index) {
+    if (this.operationNames[index] == null) {
+      this.resolveOperation(index);
+    }
+    return this.abstractConstructors[index];
+  }
+
+  private void resolveOperation(final int index) {
+    final AbstractBeforeOperationEventRecord event = this.operationEvent(index);
+    final boolean isConstructor = event instanceof BeforeConstructorEventRecord;
+    final String operationName =
+        this.signatureCache.get(event.getOperationSignature(), isConstructor).getOperationName();
+
+    boolean isAbstractConstructor = false;
+    if (isConstructor) {
+      // compares the simple clazz name to the operation name without "new "
+      final String clazz = ((BeforeConstructorEventRecord) event).getClazz();
+      final int start = clazz.lastIndexOf('.') + 1;
+      final int length = clazz.length() - start;
+      isAbstractConstructor = operationName.length() - 4 != length
+          || !clazz.regionMatches(true, start, operationName, 4, length);
+    }
+
+    this.abstractConstructors[index] = isAbstractConstructor;
+    this.operationNames[index] = operationName;
+  }
+
+  private AbstractBeforeOperationEventRecord operationEvent(final int index) {
+    final List<AbstractEventRecord> events = this.preparedTrace.getTraceEvents();
+    return (AbstractBeforeOperationEventRecord) events.get(index);
+  }
+
+  void pushCaller(final Clazz clazz) {
+    if (this.depth == this.callers.length) {
+      this.callers = Arrays.copyOf(this.callers, this.depth * 2);
+    }
+    this.callers[this.depth++] = clazz;
+  }
+
+  /**
+   * Removes the current caller and returns the previous one.
+   *
+   * @return the previous caller or null, if the stack is empty afterwards
+   */
+  Clazz popCaller() {
+    if (this.depth > 0) {
+      this.callers[--this.depth] = null;
+    }
+    return this.depth > 0 ? this.callers[this.depth - 1] : null;
+  }
+
+  private void clearCallers() {
+    Arrays.fill(this.callers, 0, this.depth, null);
+    this.depth = 0;
+  }
+
+}
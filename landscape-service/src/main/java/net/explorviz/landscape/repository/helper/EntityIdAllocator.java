@@ -0,0 +1,96 @@
+package net.explorviz.landscape.repository.helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Allocates the ids of new landscape entities. Every thread reserves blocks of consecutive numeric
+ * ids from a shared counter and allocates the ids of its block without synchronization. All ids
+ * start with the prefix of the allocator, e.g., an id of the
+ * {@link net.explorviz.shared.common.idgen.IdGenerator}, hence they are as unique as the ids of the
+ * generator.
+ *
+ * <p>
+ * As {@link Supplier}, the allocator is passed to the model where entities are only potentially
+ * created, such that ids are only allocated and formatted for entities, which are actually
+ * created.
+ * </p>
+ */
+public final class EntityIdAllocator implements Supplier<String> {
+
+  public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+  private final String prefix;
+  private final int blockSize;
+
+  private final AtomicLong nextBlockStart = new AtomicLong();
+  private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+  public EntityIdAllocator(final String prefix) {
+    this(prefix, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Creates a new allocator.
+   *
+   * @param prefix - prefix of all ids, which must be unique for this allocator
+   * @param blockSize - number of ids, which a thread reserves at once
+   */
+  public EntityIdAllocator(final String prefix, final int blockSize) {
+    this.prefix = prefix + '-';
+    this.blockSize = Math.max(1, blockSize);
+  }
+
+  /**
+   * Allocates the next numeric id of the current thread.
+   *
+   * @return the numeric id, unique for this allocator
+   */
+  public long nextId() {
+    final Block block = this.blocks.get();
+    if (block.next == block.end) {
+      block.next = this.nextBlockStart.getAndAdd(this.blockSize);
+      block.end = block.next + this.blockSize;
+    }
+    return block.next++;
+  }
+
+  /**
+   * Allocates the id of a new entity.
+   *
+   * @return the id
+   */
+  public String generateId() {
+    return this.format(this.nextId());
+  }
+
+  /**
+   * Formats a numeric id as entity id.
+   *
+   * @param id - an id allocated by {@link #nextId()}
+   * @return the entity id
+   */
+  public String format(final long id) {
+    // a single allocation, i.e., without formatting the number into a temporary string
+    return this.prefix + id;
+  }
+
+  @Override
+  public String get() {
+    return this.generateId();
+  }
+
+  /**
+   * Returns the number of ids, which were reserved by all threads so far.
+   */
+  public long getReservedIds() {
+    return this.nextBlockStart.get();
+  }
+
+  // only accessed by its thread
+  private static final class Block {
+    private long next;
+    private long end;
+  }
+
+}
@@ -0,0 +1,63 @@
+package net.explorviz.landscape.repository.helper;
+
+/**
+ * Truncates and fingerprints the causes of failed operations, i.e., their stack traces. Only the
+ * exception message and the innermost frames are retained, since they identify the failure,
+ * whereas the outer frames differ between the call paths of the same failure and would split its
+ * events.
+ */
+public final class ExceptionCause {
+
+  private static final int RETAINED_LINES = 6;
+
+  private ExceptionCause() {
+    // Utility Class
+  }
+
+  /**
+   * Returns the length of the retained prefix of the cause, i.e., up to and including the newline
+   * of the last retained line.
+   *
+   * @param cause - the cause of a failed operation
+   * @return the length of the retained prefix
+   */
+  public static int retainedLength(final String cause) {
+    final int maxLength = Math.min(cause.length(), Fingerprint.RETAINED_CHARS);
+
+    int end = -1;
+    for (int line = 0; line < RETAINED_LINES; line++) {
+      end = cause.indexOf('\n', end + 1);
+      if (end == -1 || end >= maxLength) {
+        return maxLength;
+      }
+    }
+    return end + 1;
+  }
+
+  /**
+   * Returns the fingerprint of the retained prefix of the cause.
+   *
+   * @param cause - the cause of a failed operation
+   * @param retainedLength - see {@link #retainedLength(String)}
+   * @return the fingerprint
+   */
+  public static long fingerprint(final String cause, final int retainedLength) {
+    return Fingerprint.of(cause, retainedLength);
+  }
+
+  /**
+   * Returns the retained prefix of the cause, followed by a marker, if the cause was truncated.
+   *
+   * @param cause - the cause of a failed operation
+   * @param retainedLength - see {@link #retainedLength(String)}
+   * @return the truncated cause
+   */
+  public static String truncate(final String cause, final int retainedLength) {
+    if (retainedLength >= cause.length()) {
+      return cause;
+    }
+    // the marker is indented like a frame
+    return cause.substring(0, retainedLength) + "\t " + Fingerprint.TRUNCATION_MARKER;
+  }
+
+}
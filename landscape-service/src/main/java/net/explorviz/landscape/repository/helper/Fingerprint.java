@@ -0,0 +1,43 @@
+package net.explorviz.landscape.repository.helper;
+
+/**
+ * 64-bit FNV-1a fingerprints of strings, which arrive with every record and are grouped by their
+ * content, i.e., SQL statements and the causes of failed operations. Both are only read up to
+ * {@link #RETAINED_CHARS} and the truncated rest is denoted by the {@link #TRUNCATION_MARKER}.
+ */
+public final class Fingerprint {
+
+  /**
+   * Maximum number of characters of a string, which are retained and fingerprinted.
+   */
+  public static final int RETAINED_CHARS = 4096;
+
+  /**
+   * Appended to truncated strings, preceded by a separator of the respective format.
+   */
+  public static final String TRUNCATION_MARKER = "...";
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private Fingerprint() {
+    // Utility Class
+  }
+
+  /**
+   * Returns the fingerprint of a prefix of the passed characters.
+   *
+   * @param chars - the fingerprinted characters
+   * @param length - the length of the fingerprinted prefix
+   * @return the fingerprint, never 0, since 0 denotes missing fingerprints
+   */
+  public static long of(final CharSequence chars, final int length) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < length; i++) {
+      hash ^= chars.charAt(i);
+      hash *= FNV_PRIME;
+    }
+    return hash == 0 ? FNV_OFFSET_BASIS : hash;
+  }
+
+}
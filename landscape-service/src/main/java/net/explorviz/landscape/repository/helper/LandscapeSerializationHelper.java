@@ -3,7 +3,13 @@ package net.explorviz.landscape.repository.helper;
 import com.github.jasminb.jsonapi.JSONAPIDocument;
 import com.github.jasminb.jsonapi.ResourceConverter;
 import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import javax.inject.Inject;
+import net.explorviz.landscape.model.helper.JsonApiLandscapeWriter;
+import net.explorviz.landscape.model.helper.LandscapeCodec;
+import net.explorviz.landscape.model.helper.LandscapeCodecs;
 import net.explorviz.landscape.model.landscape.Landscape;
 
 /**
@@ -13,37 +19,65 @@ import net.explorviz.landscape.model.landscape.Landscape;
 public class LandscapeSerializationHelper {
 
   private final ResourceConverter jsonApiConverter;
+  private final LandscapeCodecs codecs;
+  private final JsonApiLandscapeWriter writer = new JsonApiLandscapeWriter();
 
   @Inject
   public LandscapeSerializationHelper(final ResourceConverter jsonApiConverter) {
     this.jsonApiConverter = jsonApiConverter;
+    this.codecs = new LandscapeCodecs(jsonApiConverter);
+  }
+
+  /**
+   * Returns the codec of the landscape exchange with the passed name.
+   *
+   * @param name the name of the codec, e.g., the value of {@link LandscapeCodec#CODEC_HEADER}, or
+   *        null for the json api codec
+   * @return the codec
+   * @throws IllegalArgumentException if there is no codec with this name
+   */
+  public LandscapeCodec getCodec(final String name) {
+    return this.codecs.get(name);
   }
 
 
   /**
-   * Serializes a landscape to a json api string.
+   * Serializes a landscape to json api. The returned bytes are UTF-8 encoded and can be passed
+   * around without converting them to a string.
    *
    * @throws DocumentSerializationException if the landscape could not be parsed.
    */
-  public String serialize(final Landscape l) throws DocumentSerializationException {
-    final JSONAPIDocument<Landscape> landscapeDoc = new JSONAPIDocument<>(l);
-    final byte[] landscapeBytes = this.jsonApiConverter.writeDocument(landscapeDoc);
-    return new String(landscapeBytes);
+  public byte[] serialize(final Landscape l) throws DocumentSerializationException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    this.serialize(l, out);
+    return out.toByteArray();
+  }
 
+  /**
+   * Streams a landscape as UTF-8 encoded json api to the passed stream, e.g., the entity stream of
+   * an HTTP response, without an intermediate byte array. The stream is not closed.
+   *
+   * @throws DocumentSerializationException if the landscape could not be written.
+   */
+  public void serialize(final Landscape l, final OutputStream out)
+      throws DocumentSerializationException {
+    try {
+      this.writer.write(l, out);
+    } catch (final IOException e) {
+      throw new DocumentSerializationException(e);
+    }
   }
 
   /**
-   * Deserializes a json-api string to a {@link Landscape} object.
+   * Deserializes json api bytes to a {@link Landscape} object.
    *
-   * @param jsonApi the json api string representing a landscape
+   * @param jsonApi the UTF-8 encoded json api representing a landscape
    * @return the landscape
-   * @throws DocumentSerializationException if the given string can't be deserialized to a landscape
+   * @throws DocumentSerializationException if the given bytes can't be deserialized to a landscape
    */
-  public Landscape deserialize(final String jsonApi) throws DocumentSerializationException {
-
-    final byte[] b = jsonApi.getBytes();
+  public Landscape deserialize(final byte[] jsonApi) throws DocumentSerializationException {
     final JSONAPIDocument<Landscape> landscapeDoc =
-        this.jsonApiConverter.readDocument(b, Landscape.class);
+        this.jsonApiConverter.readDocument(jsonApi, Landscape.class);
 
     return landscapeDoc.get();
   }
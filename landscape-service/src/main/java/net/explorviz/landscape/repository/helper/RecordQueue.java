@@ -0,0 +1,193 @@
+package net.explorviz.landscape.repository.helper;
+
+import explorviz.live_trace_processing.record.IRecord;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded single-producer single-consumer queue between the trace processing filters and the
+ * repository. The filters retry rejected offers, hence the number of rejected offers tells how
+ * often they were throttled by a full queue.
+ *
+ * <p>
+ * The records are kept in a ring of exactly the passed capacity. Only the filter thread offers and
+ * only the repository sink polls, whereas {@link #size()}, {@link #peek()} and
+ * {@link #iterator()} may be called by any thread.
+ * </p>
+ */
+public class RecordQueue extends AbstractQueue<IRecord> {
+
+  private final AtomicReferenceArray<IRecord> ring;
+  private final int capacity;
+
+  // total number of offered and polled records, the slot of an index is index % capacity
+  private final AtomicLong producerIndex = new AtomicLong();
+  private final AtomicLong consumerIndex = new AtomicLong();
+
+  private final LongAdder rejectedOffers = new LongAdder();
+
+  /**
+   * Creates a new, empty queue.
+   *
+   * @param capacity - maximum number of queued records
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public RecordQueue(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive, but was " + capacity);
+    }
+    this.ring = new AtomicReferenceArray<>(capacity);
+    this.capacity = capacity;
+  }
+
+  @Override
+  public boolean offer(final IRecord record) {
+    if (record == null) {
+      throw new NullPointerException("Records must not be null");
+    }
+
+    final long index = this.producerIndex.get();
+    if (index - this.consumerIndex.get() >= this.capacity) {
+      this.rejectedOffers.increment();
+      return false;
+    }
+
+    // the record is visible to the consumer before the index, which publishes it
+    this.ring.lazySet(this.slot(index), record);
+    this.producerIndex.lazySet(index + 1);
+    return true;
+  }
+
+  @Override
+  public IRecord poll() {
+    final long index = this.consumerIndex.get();
+    if (index >= this.producerIndex.get()) {
+      return null;
+    }
+
+    final int slot = this.slot(index);
+    final IRecord record = this.ring.get(slot);
+    this.ring.lazySet(slot, null);
+    this.consumerIndex.lazySet(index + 1);
+    return record;
+  }
+
+  @Override
+  public IRecord peek() {
+    final long index = this.consumerIndex.get();
+    if (index >= this.producerIndex.get()) {
+      return null;
+    }
+    return this.ring.get(this.slot(index));
+  }
+
+  /**
+   * Moves up to the passed number of records into the passed batch. Must only be called by the
+   * consumer.
+   *
+   * @param batch - receives the records
+   * @param maxRecords - maximum number of moved records
+   * @return the number of moved records
+   */
+  public int drainTo(final List<IRecord> batch, final int maxRecords) {
+    final long first = this.consumerIndex.get();
+    final int drained = (int) Math.min(maxRecords, this.producerIndex.get() - first);
+
+    for (int i = 0; i < drained; i++) {
+      final int slot = this.slot(first + i);
+      batch.add(this.ring.get(slot));
+      this.ring.lazySet(slot, null);
+    }
+
+    // frees all slots of the batch at once
+    if (drained > 0) {
+      this.consumerIndex.lazySet(first + drained);
+    }
+    return drained;
+  }
+
+  @Override
+  public int size() {
+    // the consumer index is read first, hence the difference is never negative
+    final long consumed = this.consumerIndex.get();
+    return (int) Math.min(this.capacity, this.producerIndex.get() - consumed);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.consumerIndex.get() >= this.producerIndex.get();
+  }
+
+  /**
+   * Returns a weakly consistent iterator from the oldest to the newest record, which were queued
+   * when the iterator was created. It stops early at records, which were polled in the meantime.
+   * Records can only be removed by polling.
+   *
+   * @return the iterator
+   */
+  @Override
+  public Iterator<IRecord> iterator() {
+    return new RecordIterator();
+  }
+
+  /**
+   * Returns the maximum number of queued records.
+   *
+   * @return the capacity passed to the constructor
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  public long getRejectedOffers() {
+    return this.rejectedOffers.sum();
+  }
+
+  private int slot(final long index) {
+    return (int) (index % this.capacity);
+  }
+
+  private final class RecordIterator implements Iterator<IRecord> {
+
+    private final long end = RecordQueue.this.producerIndex.get();
+    private long index = RecordQueue.this.consumerIndex.get();
+    private IRecord next = this.advance();
+
+    // returns null, if the end is reached or the next record was polled meanwhile
+    private IRecord advance() {
+      if (this.index >= this.end) {
+        return null;
+      }
+      final IRecord record = RecordQueue.this.ring.get(RecordQueue.this.slot(this.index));
+      // the slot may already hold a newer record, if the consumer passed this index
+      if (record == null || RecordQueue.this.consumerIndex.get() > this.index) {
+        this.index = this.end;
+        return null;
+      }
+      this.index++;
+      return record;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public IRecord next() {
+      if (this.next == null) {
+        throw new NoSuchElementException();
+      }
+      final IRecord record = this.next;
+      this.next = this.advance();
+      return record;
+    }
+
+  }
+
+}
@@ -1,16 +1,49 @@
 package net.explorviz.landscape.repository.helper;
 
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
 import net.explorviz.landscape.model.application.Clazz;
 
 /**
- * Buffer for importing records from analysis.
+ * Buffer for importing records from analysis. Buffers are intrusively linked into the bucket chain
+ * of a {@link RemoteRecordIndex} and into a slot of a {@link RemoteRecordTimerWheel}, hence
+ * matching and expiring a buffer needs no additional allocation.
+ *
+ * @param <T> type of the buffered remote call record
  */
-public class RemoteRecordBuffer {
+public class RemoteRecordBuffer<T extends AbstractEventRecord> {
 
   // needs to be nano since the processing requires it
-  private final long timestampPutIntoBuffer = java.lang.System.nanoTime();
+  private final long timestampPutIntoBuffer;
   private Clazz belongingClazz;
 
+  private final T record;
+  private final long traceId;
+  private final int orderIndex;
+
+  // collision chain of the RemoteRecordIndex
+  RemoteRecordBuffer<T> nextInBucket;
+
+  // doubly-linked slot list of the RemoteRecordTimerWheel
+  RemoteRecordBuffer<T> previousInSlot;
+  RemoteRecordBuffer<T> nextInSlot;
+  boolean scheduled;
+
+  /**
+   * Creates a new buffer for the passed record.
+   *
+   * @param record - the buffered record
+   * @param traceId - trace id used for matching the record
+   * @param orderIndex - order index used for matching the record
+   * @param timestampPutIntoBuffer - current time in nanoseconds
+   */
+  public RemoteRecordBuffer(final T record, final long traceId, final int orderIndex,
+      final long timestampPutIntoBuffer) {
+    this.record = record;
+    this.traceId = traceId;
+    this.orderIndex = orderIndex;
+    this.timestampPutIntoBuffer = timestampPutIntoBuffer;
+  }
+
   public long getTimestampPutIntoBuffer() {
     return this.timestampPutIntoBuffer;
   }
@@ -22,4 +55,20 @@ public class RemoteRecordBuffer {
   public void setBelongingClazz(final Clazz belongingClazz) {
     this.belongingClazz = belongingClazz;
   }
+
+  public T getRecord() {
+    return this.record;
+  }
+
+  public long getTraceId() {
+    return this.traceId;
+  }
+
+  public int getOrderIndex() {
+    return this.orderIndex;
+  }
+
+  boolean matches(final long traceId, final int orderIndex) {
+    return this.traceId == traceId && this.orderIndex == orderIndex;
+  }
 }
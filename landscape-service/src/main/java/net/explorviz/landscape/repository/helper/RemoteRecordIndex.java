@@ -0,0 +1,137 @@
+package net.explorviz.landscape.repository.helper;
+
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.util.concurrent.TimeUnit;
+import net.explorviz.landscape.model.application.Clazz;
+
+/**
+ * Buffer for remote call records, which still wait for their counterpart. Records are indexed by a
+ * primitive composite of (traceId, orderIndex), so finding the counterpart of a record is O(1).
+ * Expiry is driven by a {@link RemoteRecordTimerWheel}.
+ *
+ * @param <T> type of the buffered remote call records
+ */
+public class RemoteRecordIndex<T extends AbstractEventRecord> {
+
+  private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private static final int ORDER_INDEX_BITS = 20;
+  private static final long ORDER_INDEX_MASK = (1L << ORDER_INDEX_BITS) - 1;
+
+  private final TLongObjectHashMap<RemoteRecordBuffer<T>> buffers = new TLongObjectHashMap<>();
+  private final RemoteRecordTimerWheel<T> timerWheel;
+
+  private int size;
+
+  /**
+   * Creates a new, empty index.
+   *
+   * @param timeoutNanos - time after which buffered records expire in nanoseconds
+   */
+  public RemoteRecordIndex(final long timeoutNanos) {
+    this.timerWheel =
+        new RemoteRecordTimerWheel<>(TICK_NANOS, timeoutNanos, java.lang.System.nanoTime());
+  }
+
+  /**
+   * Combines trace id and order index to the key of the map. Exact for trace ids below 2^44 and
+   * order indices below 2^20; other collisions are resolved by the bucket chain.
+   */
+  private static long compositeKey(final long traceId, final int orderIndex) {
+    final long shiftedTraceId = traceId << ORDER_INDEX_BITS;
+    final long truncatedTraceId = traceId >>> (Long.SIZE - ORDER_INDEX_BITS);
+    return shiftedTraceId ^ truncatedTraceId ^ (orderIndex & ORDER_INDEX_MASK);
+  }
+
+  /**
+   * Buffers a record until its counterpart arrives or it expires.
+   *
+   * @param traceId - trace id of the call
+   * @param orderIndex - order index of the call
+   * @param record - the record to buffer
+   * @param belongingClazz - the clazz related to the record
+   */
+  public void put(final long traceId, final int orderIndex, final T record,
+      final Clazz belongingClazz) {
+    final RemoteRecordBuffer<T> buffer =
+        new RemoteRecordBuffer<>(record, traceId, orderIndex, java.lang.System.nanoTime());
+    buffer.setBelongingClazz(belongingClazz);
+
+    final long key = compositeKey(traceId, orderIndex);
+    buffer.nextInBucket = this.buffers.put(key, buffer);
+
+    this.timerWheel.schedule(buffer);
+    this.size++;
+  }
+
+  /**
+   * Removes and returns the buffered record for the passed call.
+   *
+   * @param traceId - trace id of the call
+   * @param orderIndex - order index of the call
+   * @return the removed buffer or null, if no matching record is buffered
+   */
+  public RemoteRecordBuffer<T> remove(final long traceId, final int orderIndex) {
+    final long key = compositeKey(traceId, orderIndex);
+
+    RemoteRecordBuffer<T> previous = null;
+    RemoteRecordBuffer<T> buffer = this.buffers.get(key);
+
+    while (buffer != null && !buffer.matches(traceId, orderIndex)) {
+      previous = buffer;
+      buffer = buffer.nextInBucket;
+    }
+
+    if (buffer != null) {
+      this.unlinkFromBucket(key, previous, buffer);
+      this.timerWheel.cancel(buffer);
+    }
+
+    return buffer;
+  }
+
+  /**
+   * Removes all records, which are buffered longer than the timeout.
+   *
+   * @return number of removed records
+   */
+  public int expire() {
+    return this.timerWheel.advance(java.lang.System.nanoTime(), this::removeExpired);
+  }
+
+  private void removeExpired(final RemoteRecordBuffer<T> expired) {
+    final long key = compositeKey(expired.getTraceId(), expired.getOrderIndex());
+
+    RemoteRecordBuffer<T> previous = null;
+    RemoteRecordBuffer<T> buffer = this.buffers.get(key);
+
+    while (buffer != null && buffer != expired) {
+      previous = buffer;
+      buffer = buffer.nextInBucket;
+    }
+
+    if (buffer != null) {
+      this.unlinkFromBucket(key, previous, buffer);
+    }
+  }
+
+  private void unlinkFromBucket(final long key, final RemoteRecordBuffer<T> previous,
+      final RemoteRecordBuffer<T> buffer) {
+    if (previous != null) {
+      previous.nextInBucket = buffer.nextInBucket;
+    } else if (buffer.nextInBucket == null) {
+      this.buffers.remove(key);
+    } else {
+      this.buffers.put(key, buffer.nextInBucket);
+    }
+
+    buffer.nextInBucket = null;
+    this.size--;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+}
@@ -0,0 +1,133 @@
+package net.explorviz.landscape.repository.helper;
+
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for the expiry of {@link RemoteRecordBuffer}. Each buffer is linked into the
+ * slot of its deadline tick. Advancing the wheel only visits the slots passed since the last
+ * advance, so the cost is proportional to the number of expired buffers instead of the number of
+ * buffered ones.
+ *
+ * @param <T> type of the buffered remote call records
+ */
+public class RemoteRecordTimerWheel<T extends AbstractEventRecord> {
+
+  private final long tickNanos;
+  private final long timeoutNanos;
+  private final RemoteRecordBuffer<T>[] slots;
+  private final int mask;
+
+  private long currentTick;
+
+  /**
+   * Creates a new timer wheel.
+   *
+   * @param tickNanos - duration of a single slot in nanoseconds
+   * @param timeoutNanos - time after which a buffer expires in nanoseconds
+   * @param currentNanos - current time in nanoseconds
+   */
+  public RemoteRecordTimerWheel(final long tickNanos, final long timeoutNanos,
+      final long currentNanos) {
+    this.tickNanos = tickNanos;
+    this.timeoutNanos = timeoutNanos;
+
+    // the wheel spans at least the timeout, so buffers never wrap around the wheel
+    int slotCount = 1;
+    while ((long) slotCount * tickNanos <= timeoutNanos) {
+      slotCount <<= 1;
+    }
+
+    this.slots = newSlots(slotCount);
+    this.mask = slotCount - 1;
+    this.currentTick = Math.floorDiv(currentNanos, tickNanos);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends AbstractEventRecord> RemoteRecordBuffer<T>[] newSlots(final int count) {
+    return (RemoteRecordBuffer<T>[]) new RemoteRecordBuffer<?>[count];
+  }
+
+  private long deadline(final RemoteRecordBuffer<T> buffer) {
+    return buffer.getTimestampPutIntoBuffer() + this.timeoutNanos;
+  }
+
+  /**
+   * Links the buffer into the slot of its deadline.
+   *
+   * @param buffer - the buffer to schedule
+   */
+  public void schedule(final RemoteRecordBuffer<T> buffer) {
+    final int slot = (int) (Math.floorDiv(this.deadline(buffer), this.tickNanos) & this.mask);
+
+    buffer.previousInSlot = null;
+    buffer.nextInSlot = this.slots[slot];
+    if (this.slots[slot] != null) {
+      this.slots[slot].previousInSlot = buffer;
+    }
+    this.slots[slot] = buffer;
+    buffer.scheduled = true;
+  }
+
+  /**
+   * Unlinks the buffer from its slot, e.g., since it was matched.
+   *
+   * @param buffer - the buffer to cancel
+   */
+  public void cancel(final RemoteRecordBuffer<T> buffer) {
+    if (!buffer.scheduled) {
+      return;
+    }
+
+    if (buffer.previousInSlot == null) {
+      final int slot = (int) (Math.floorDiv(this.deadline(buffer), this.tickNanos) & this.mask);
+      this.slots[slot] = buffer.nextInSlot;
+    } else {
+      buffer.previousInSlot.nextInSlot = buffer.nextInSlot;
+    }
+    if (buffer.nextInSlot != null) {
+      buffer.nextInSlot.previousInSlot = buffer.previousInSlot;
+    }
+
+    buffer.previousInSlot = null;
+    buffer.nextInSlot = null;
+    buffer.scheduled = false;
+  }
+
+  /**
+   * Advances the wheel to the passed time and hands all buffers whose deadline passed to the
+   * consumer. Expired buffers are unlinked before they are passed.
+   *
+   * @param currentNanos - current time in nanoseconds
+   * @param expiredConsumer - receives the expired buffers
+   * @return number of expired buffers
+   */
+  public int advance(final long currentNanos,
+      final Consumer<RemoteRecordBuffer<T>> expiredConsumer) {
+    final long targetTick = Math.floorDiv(currentNanos, this.tickNanos);
+    // every slot is visited at most once per advance
+    final long firstTick = Math.max(this.currentTick, targetTick - this.mask);
+
+    int expired = 0;
+
+    for (long tick = firstTick; tick <= targetTick; tick++) {
+      RemoteRecordBuffer<T> buffer = this.slots[(int) (tick & this.mask)];
+
+      while (buffer != null) {
+        final RemoteRecordBuffer<T> next = buffer.nextInSlot;
+
+        if (this.deadline(buffer) <= currentNanos) {
+          this.cancel(buffer);
+          expiredConsumer.accept(buffer);
+          expired++;
+        }
+
+        buffer = next;
+      }
+    }
+
+    this.currentTick = targetTick;
+    return expired;
+  }
+
+}
@@ -1,10 +1,12 @@
 package net.explorviz.landscape.repository.helper;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Signature for analyzed records.
+ * Signature for analyzed records. Signatures are only modified by the {@link SignatureParser}, and
+ * shared by its cache afterwards. Hence, they are immutable for all other classes.
  */
 public class Signature {
 
@@ -19,7 +21,7 @@ public class Signature {
     return this.fullQualifiedName;
   }
 
-  public void setFullQualifiedName(final String fullQualifiedName) {
+  void setFullQualifiedName(final String fullQualifiedName) {
     this.fullQualifiedName = fullQualifiedName;
   }
 
@@ -27,7 +29,7 @@ public class Signature {
     return this.name;
   }
 
-  public void setName(final String name) {
+  void setName(final String name) {
     this.name = name;
   }
 
@@ -35,23 +37,31 @@ public class Signature {
     return this.operationName;
   }
 
-  public void setOperationName(final String operationName) {
+  void setOperationName(final String operationName) {
     this.operationName = operationName;
   }
 
   public List<String> getModifierList() {
-    return this.modifierList;
+    return Collections.unmodifiableList(this.modifierList);
+  }
+
+  void addModifier(final String modifier) {
+    this.modifierList.add(modifier);
   }
 
   public String getReturnType() {
     return this.returnType;
   }
 
-  public void setReturnType(final String returnType) {
+  void setReturnType(final String returnType) {
     this.returnType = returnType;
   }
 
   public List<String> getParamTypeList() {
-    return this.paramTypeList;
+    return Collections.unmodifiableList(this.paramTypeList);
+  }
+
+  void addParamType(final String paramType) {
+    this.paramTypeList.add(paramType);
   }
 }
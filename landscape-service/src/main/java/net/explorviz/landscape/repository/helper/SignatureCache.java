@@ -0,0 +1,95 @@
+package net.explorviz.landscape.repository.helper;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of parsed {@link Signature}s keyed by the operation signature and the
+ * constructor flag. If the cache is full, an arbitrary entry is evicted for every new one.
+ */
+public class SignatureCache {
+
+  private final int capacity;
+
+  private final ConcurrentMap<String, Signature> operationSignatures = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Signature> constructorSignatures =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Creates a new, empty cache.
+   *
+   * @param capacity - maximum number of cached signatures
+   */
+  public SignatureCache(final int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns the cached signature or parses and caches it.
+   *
+   * @param operationSignatureStr - the operation signature of a record
+   * @param javaConstructor - whether the operation is a constructor
+   * @return the parsed signature
+   */
+  public Signature get(final String operationSignatureStr, final boolean javaConstructor) {
+    final ConcurrentMap<String, Signature> signatures =
+        javaConstructor ? this.constructorSignatures : this.operationSignatures;
+
+    final Signature cached = signatures.get(operationSignatureStr);
+    if (cached != null) {
+      this.hits.increment();
+      return cached;
+    }
+
+    this.misses.increment();
+
+    final Signature parsed = SignatureParser.parse(operationSignatureStr, javaConstructor);
+    final Signature concurrentlyParsed = signatures.putIfAbsent(operationSignatureStr, parsed);
+    if (concurrentlyParsed != null) {
+      return concurrentlyParsed;
+    }
+
+    if (this.size() > this.capacity && !this.evictOther(signatures, operationSignatureStr)) {
+      this.evictOther(javaConstructor ? this.operationSignatures : this.constructorSignatures,
+          null);
+    }
+
+    return parsed;
+  }
+
+  private boolean evictOther(final ConcurrentMap<String, Signature> signatures,
+      final String retainedSignatureStr) {
+    final Iterator<String> iterator = signatures.keySet().iterator();
+    while (iterator.hasNext()) {
+      if (!iterator.next().equals(retainedSignatureStr)) {
+        iterator.remove();
+        this.evictions.increment();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int size() {
+    return this.operationSignatures.size() + this.constructorSignatures.size();
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  public long getEvictions() {
+    return this.evictions.sum();
+  }
+
+}
@@ -1,7 +1,9 @@
 package net.explorviz.landscape.repository.helper;
 
 /**
- * Parses a class signature for the full-qualified-name and operation name.
+ * Parses a class signature for the full-qualified-name and operation name. The insertion looks up
+ * parsed signatures in a {@link SignatureCache}, since the set of distinct operation signatures of
+ * a monitored system is small and stable.
  */
 public final class SignatureParser {
 
@@ -9,7 +11,15 @@ public final class SignatureParser {
     // Utility Class
   }
 
-  public static Signature parse(final String operationSignatureStr, final boolean javaConstructor) {
+  /**
+   * Parses the passed signature without consulting a cache.
+   *
+   * @param operationSignatureStr - the operation signature of a record
+   * @param javaConstructor - whether the operation is a constructor
+   * @return the parsed signature
+   */
+  public static Signature parse(final String operationSignatureStr,
+      final boolean javaConstructor) {
     final Signature result = new Signature();
 
     final String restOfOperationSignatureStr = parseParameterList(operationSignatureStr, result);
@@ -36,7 +46,7 @@ public final class SignatureParser {
           operationSignatureStr.substring(openParenIdx + 1, operationSignatureStr.length() - 1)
               .split(",");
       for (final String splitParam : splitParams) {
-        sig.getParamTypeList().add(splitParam.trim());
+        sig.addParamType(splitParam.trim());
       }
       return operationSignatureStr.substring(0, openParenIdx);
     }
@@ -68,7 +78,7 @@ public final class SignatureParser {
       }
       int i = 0;
       while (i < modifierEndLength) {
-        sig.getModifierList().add(modRetNameArr[i].trim());
+        sig.addModifier(modRetNameArr[i].trim());
         i = i + 1;
       }
       sig.setName(modRetNameArr[modRetNameArr.length - 1]);
@@ -94,10 +104,10 @@ public final class SignatureParser {
     if (javaConstructor) {
       final String onlyClassName = result.getFullQualifiedName()
           .substring(result.getFullQualifiedName().lastIndexOf('.') + 1);
-      result.setOperationName("new " + onlyClassName);
+      result.setOperationName(("new " + onlyClassName).intern());
       return result.getOperationName();
     } else {
-      result.setOperationName(result.getName().substring(opNameIdx + 1));
+      result.setOperationName(result.getName().substring(opNameIdx + 1).intern());
       return result.getOperationName();
     }
   }
@@ -0,0 +1,122 @@
+package net.explorviz.landscape.repository.helper;
+
+/**
+ * Normalizes and fingerprints SQL statements, such that statements which only differ in their
+ * literals or whitespace are aggregated into a single database query. String and numeric literals
+ * are replaced by <code>?</code>, lists of placeholders like <code>IN (?, ?, ?)</code> are
+ * collapsed to a single placeholder and whitespace is collapsed to single blanks. Generated
+ * statements like bulk inserts are cut after {@link Fingerprint#RETAINED_CHARS}, so that they are
+ * grouped by their leading columns and values instead of their varying number of rows.
+ */
+public final class SqlStatement {
+
+  private SqlStatement() {
+    // Utility Class
+  }
+
+  /**
+   * Returns the normalized statement.
+   *
+   * @param sql - an executed SQL statement
+   * @return the normalized statement
+   */
+  public static String normalize(final String sql) {
+    final int length = Math.min(sql.length(), Fingerprint.RETAINED_CHARS);
+    final StringBuilder normalized = new StringBuilder(length);
+
+    int i = 0;
+    while (i < length) {
+      final char c = sql.charAt(i);
+
+      if (c == '\'') {
+        // string literal, quotes are escaped by doubling them
+        i++;
+        while (i < length) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i++;
+            } else {
+              break;
+            }
+          }
+          i++;
+        }
+        appendPlaceholder(normalized);
+        i++;
+      } else if (isDigit(c) && !isPartOfIdentifier(normalized)) {
+        while (i < length && (isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        appendPlaceholder(normalized);
+      } else if (c == '?') {
+        appendPlaceholder(normalized);
+        i++;
+      } else if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (normalized.length() > 0 && i < length) {
+          normalized.append(' ');
+        }
+      } else {
+        normalized.append(c);
+        i++;
+      }
+    }
+
+    if (length < sql.length()) {
+      normalized.append(' ').append(Fingerprint.TRUNCATION_MARKER);
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Returns the fingerprint of a normalized statement.
+   *
+   * @param normalizedSql - see {@link #normalize(String)}
+   * @return the fingerprint, never 0, which denotes queries without fingerprint
+   */
+  public static long fingerprint(final String normalizedSql) {
+    return Fingerprint.of(normalizedSql, normalizedSql.length());
+  }
+
+  /**
+   * Returns the type of the statement, i.e., the first word of the operation signature, e.g.
+   * Statement or PreparedStatement.
+   *
+   * @param operationSignature - signature of the JDBC operation
+   * @return the statement type
+   */
+  public static String statementType(final String operationSignature) {
+    final int end = operationSignature.indexOf(' ');
+    return end == -1 ? operationSignature : operationSignature.substring(0, end);
+  }
+
+  // collapses lists of placeholders, e.g., IN (?, ?) or VALUES (?, ?)
+  private static void appendPlaceholder(final StringBuilder normalized) {
+    int end = normalized.length();
+    if (end > 0 && normalized.charAt(end - 1) == ' ') {
+      end--;
+    }
+    if (end > 1 && normalized.charAt(end - 1) == ',' && normalized.charAt(end - 2) == '?') {
+      normalized.setLength(end - 1);
+      return;
+    }
+    normalized.append('?');
+  }
+
+  private static boolean isDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  // digits within identifiers like table1 are no literals
+  private static boolean isPartOfIdentifier(final CharSequence normalized) {
+    if (normalized.length() == 0) {
+      return false;
+    }
+    final char previous = normalized.charAt(normalized.length() - 1);
+    return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$'
+        || previous == '"' || previous == '`';
+  }
+
+}
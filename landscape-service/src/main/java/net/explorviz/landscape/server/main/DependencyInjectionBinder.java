@@ -3,6 +3,7 @@ package net.explorviz.landscape.server.main;
 import javax.inject.Singleton;
 import net.explorviz.landscape.injection.KafkaProducerFactory;
 import net.explorviz.landscape.repository.LandscapeRepositoryModel;
+import net.explorviz.landscape.repository.RepositoryConfig;
 import net.explorviz.landscape.repository.helper.LandscapeSerializationHelper;
 import net.explorviz.shared.common.injection.CommonDependencyInjectionBinder;
 import org.apache.kafka.clients.producer.KafkaProducer;
@@ -20,12 +21,16 @@ public class DependencyInjectionBinder extends CommonDependencyInjectionBinder {
 
 
     this.bindFactory(KafkaProducerFactory.class)
-        .to(new TypeLiteral<KafkaProducer<String, String>>() {});
+        .to(new TypeLiteral<KafkaProducer<String, byte[]>>() {});
 
     this.bind(LandscapeSerializationHelper.class)
         .to(LandscapeSerializationHelper.class)
         .in(Singleton.class);
 
+    this.bind(RepositoryConfig.class)
+        .to(RepositoryConfig.class)
+        .in(Singleton.class);
+
     this.bind(LandscapeRepositoryModel.class)
         .to(LandscapeRepositoryModel.class)
         .in(Singleton.class);
@@ -3,6 +3,7 @@ package net.explorviz.landscape.server.main;
 import javax.inject.Inject;
 import net.explorviz.landscape.repository.LandscapeRepositoryModel;
 import net.explorviz.landscape.repository.RepositoryStarter;
+import net.explorviz.shared.config.annotations.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,10 +15,16 @@ public class LandscapeApplication {
   private static final Logger LOGGER = LoggerFactory.getLogger(LandscapeApplication.class);
 
   private final LandscapeRepositoryModel model;
+  private final int sinkQueueCapacity;
+  private final int sinkBatchSize;
 
   @Inject
-  public LandscapeApplication(final LandscapeRepositoryModel model) {
+  public LandscapeApplication(final LandscapeRepositoryModel model,
+      @Config("repository.sink.queueCapacity") final int sinkQueueCapacity,
+      @Config("repository.sink.batchSize") final int sinkBatchSize) {
     this.model = model;
+    this.sinkQueueCapacity = sinkQueueCapacity;
+    this.sinkBatchSize = sinkBatchSize;
   }
 
   /**
@@ -29,7 +36,8 @@ public class LandscapeApplication {
 
       @Override
       public void run() {
-        new RepositoryStarter().start(LandscapeApplication.this.model);
+        new RepositoryStarter(LandscapeApplication.this.sinkQueueCapacity,
+            LandscapeApplication.this.sinkBatchSize).start(LandscapeApplication.this.model);
       }
     }).start();
 
@@ -0,0 +1,107 @@
+package net.explorviz.landscape.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Clazz;
+import net.explorviz.landscape.model.application.Component;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ComponentTrieTest {
+
+  private EntityIdAllocator idGen;
+  private Application application;
+
+  @BeforeEach
+  public void setUp() {
+    this.idGen = new EntityIdAllocator("landscape-test");
+    this.application = new Application(this.idGen.generateId());
+  }
+
+  /**
+   * Check if packages are created once and shared by clazzes of the same package.
+   */
+  @Test
+  public void testCreatesComponentHierarchy() {
+    final ComponentTrie trie = new ComponentTrie(this.application, this.idGen);
+
+    final Clazz first = trie.seekOrCreateClazz("net.explorviz.First");
+    final Clazz second = trie.seekOrCreateClazz("net.explorviz.Second");
+
+    assertEquals(1, this.application.getComponents().size());
+    final Component net = this.application.getComponents().get(0);
+    assertEquals("net", net.getFullQualifiedName());
+    assertEquals(1, net.getChildren().size());
+
+    final Component explorviz = net.getChildren().get(0);
+    assertEquals("net.explorviz", explorviz.getFullQualifiedName());
+    assertSame(net, explorviz.getParentComponent());
+    assertSame(explorviz, first.getParent());
+    assertSame(explorviz, second.getParent());
+    assertEquals(2, explorviz.getClazzes().size());
+  }
+
+  /**
+   * Check if a trie seeded from an existing application resolves its clazzes, ignoring case.
+   */
+  @Test
+  public void testSeedsFromExistingComponents() {
+    final Clazz clazz =
+        new ComponentTrie(this.application, this.idGen).seekOrCreateClazz("net.explorviz.First");
+
+    final ComponentTrie seeded = new ComponentTrie(this.application, this.idGen);
+    assertSame(clazz, seeded.seekOrCreateClazz("net.explorviz.First"));
+    assertSame(clazz, seeded.seekOrCreateClazz("Net.ExplorViz.first"));
+    assertEquals(1, this.application.getComponents().size());
+  }
+
+  /**
+   * Check if clazzes without a package are placed into the default component.
+   */
+  @Test
+  public void testDefaultComponent() {
+    final ComponentTrie trie = new ComponentTrie(this.application, this.idGen);
+
+    final Clazz clazz = trie.seekOrCreateClazz("Main");
+
+    assertEquals("(default)", clazz.getParent().getFullQualifiedName());
+    assertSame(clazz, new ComponentTrie(this.application, this.idGen).seekOrCreateClazz("Main"));
+  }
+
+  /**
+   * Check if idle clazzes and the components left empty are evicted from the trie and the tree.
+   */
+  @Test
+  public void testEvictsIdleClazzes() {
+    final ComponentTrie trie = new ComponentTrie(this.application, this.idGen);
+
+    final Clazz idle = trie.seekOrCreateClazz("net.explorviz.idle.Idle");
+    final Clazz used = trie.seekOrCreateClazz("net.explorviz.Used");
+    final Clazz main = trie.seekOrCreateClazz("Main");
+    idle.setLastUsage(1000);
+    used.setLastUsage(2000);
+    main.setLastUsage(1000);
+
+    final IdleEviction eviction = new IdleEviction(1500);
+    trie.evictIdleClazzes(eviction);
+
+    assertEquals(2, eviction.getClazzes().size());
+    assertTrue(eviction.getClazzes().contains(idle));
+    assertTrue(eviction.getClazzes().contains(main));
+
+    // the default component and net.explorviz.idle are removed
+    assertEquals(1, this.application.getComponents().size());
+    final Component explorviz = this.application.getComponents().get(0).getChildren().get(0);
+    assertEquals(0, explorviz.getChildren().size());
+    assertEquals(1, explorviz.getClazzes().size());
+
+    assertSame(used, trie.seekOrCreateClazz("net.explorviz.Used"));
+    assertNotSame(idle, trie.seekOrCreateClazz("net.explorviz.idle.Idle"));
+  }
+
+}
@@ -0,0 +1,143 @@
+package net.explorviz.landscape.repository;
+
+import static net.explorviz.landscape.repository.RepositoryFixture.findApplication;
+import static net.explorviz.landscape.repository.RepositoryFixture.withStatistics;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import explorviz.live_trace_processing.record.IRecord;
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import explorviz.live_trace_processing.record.event.jdbc.AfterJDBCOperationEventRecord;
+import explorviz.live_trace_processing.record.event.jdbc.BeforeJDBCOperationEventRecord;
+import explorviz.live_trace_processing.record.event.normal.AfterOperationEventRecord;
+import explorviz.live_trace_processing.record.event.normal.BeforeOperationEventRecord;
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.DatabaseQuery;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.System;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the insertion groups database statements and nodes by their fingerprints, i.e.,
+ * regardless of literals and of the order and case of application names.
+ */
+public class FingerprintGroupingTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private LandscapeRepositoryModel model;
+  private long nextTraceId;
+
+  @BeforeEach
+  public void setUp() {
+    this.model = RepositoryFixture.createModel(RepositoryFixture.createConfig(), Clock.systemUTC());
+  }
+
+  @Test
+  public void testStatementsWithDifferentLiterals() {
+    final HostApplicationMetaDataRecord host = createHost("db-host", "shop");
+    this.model.insertIntoModel(Arrays.asList(
+        this.createQueryTrace(host, "SELECT * FROM item WHERE id = 1", 100),
+        this.createQueryTrace(host, "SELECT *\n  FROM item WHERE id = 42", 300),
+        this.createQueryTrace(host, "SELECT * FROM item WHERE name = 'O''Brien'", 200)));
+
+    final Application shop = findApplication(this.model.closePeriod(), "shop");
+    final Map<String, DatabaseQuery> queries = new HashMap<>();
+    for (final DatabaseQuery query : shop.getDatabaseQueries()) {
+      queries.put(query.getSqlStatement(), query);
+    }
+
+    assertEquals(2, queries.size());
+    final DatabaseQuery byId = queries.get("SELECT * FROM item WHERE id = ?");
+    assertEquals(2, byId.getCount());
+    assertEquals(400, byId.getTotalResponseTime());
+    assertEquals(100, byId.getMinResponseTime());
+    assertEquals(300, byId.getMaxResponseTime());
+    assertEquals("PreparedStatement", byId.getStatementType());
+    assertEquals(1, queries.get("SELECT * FROM item WHERE name = ?").getCount());
+  }
+
+  @Test
+  public void testNodesWithSameApplications() {
+    final HostApplicationMetaDataRecord first = createHost("host1", "Shop");
+    final HostApplicationMetaDataRecord second = createHost("host2", "worker");
+    this.model.insertIntoModel(Arrays.asList(this.createTrace(first),
+        this.createTrace(createHost("host1", "worker")),
+        this.createTrace(second),
+        this.createTrace(createHost("host2", "shop"))));
+
+    Landscape landscape = this.model.closePeriod();
+    assertSame(findNode(landscape, "host1").getParent(), findNode(landscape, "host2").getParent());
+    assertEquals(1, landscape.getSystems().get(0).getNodeGroups().size());
+
+    // a node with a further application moves into its own nodeGroup
+    this.model.insertIntoModel(Arrays.asList(this.createTrace(createHost("host2", "cache"))));
+    landscape = this.model.closePeriod();
+    assertNotSame(findNode(landscape, "host1").getParent(),
+        findNode(landscape, "host2").getParent());
+    assertEquals(2, landscape.getSystems().get(0).getNodeGroups().size());
+
+    // and is joined by the other one, whose former nodeGroup is removed
+    this.model.insertIntoModel(Arrays.asList(this.createTrace(createHost("host1", "Cache"))));
+    landscape = this.model.closePeriod();
+    final System system = landscape.getSystems().get(0);
+    assertEquals(1, system.getNodeGroups().size());
+    assertEquals(2, system.getNodeGroups().get(0).getNodes().size());
+  }
+
+  private static HostApplicationMetaDataRecord createHost(final String hostname,
+      final String application) {
+    return new HostApplicationMetaDataRecord("shop", "10.0.0." + hostname.length(), hostname,
+        application, "JAVA");
+  }
+
+  private static Node findNode(final Landscape landscape, final String hostname) {
+    for (final Application application : RepositoryFixture.getApplications(landscape)) {
+      if (hostname.equals(application.getParent().getName())) {
+        return application.getParent();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Dao.find() executes the statement.
+   */
+  private IRecord createQueryTrace(final HostApplicationMetaDataRecord host, final String sql,
+      final long responseTime) {
+    final long traceId = this.nextTraceId++;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 0, 0,
+        "public void net.explorviz.shop.Dao.find()", "net.explorviz.shop.Dao", "", host), 1));
+    events.add(withStatistics(new BeforeJDBCOperationEventRecord(traceId, 1, 1,
+        "PreparedStatement java.sql.PreparedStatement.executeQuery()",
+        "java.sql.PreparedStatement", "", sql, host), 1));
+    events.add(new AfterJDBCOperationEventRecord(responseTime, traceId, 2, "1 row", host));
+    events.add(new AfterOperationEventRecord(1000L, traceId, 3, host));
+    return new Trace(events, true, false);
+  }
+
+  /**
+   * Main.run() of the host application.
+   */
+  private IRecord createTrace(final HostApplicationMetaDataRecord host) {
+    final long traceId = this.nextTraceId++;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 0, 0,
+        "public void net.explorviz.Main.run()", "net.explorviz.Main", "", host), 1));
+    events.add(new AfterOperationEventRecord(1000L, traceId, 1, host));
+    return new Trace(events, true, false);
+  }
+
+}
@@ -0,0 +1,148 @@
+package net.explorviz.landscape.repository;
+
+import static net.explorviz.landscape.repository.RepositoryFixture.countClazzes;
+import static net.explorviz.landscape.repository.RepositoryFixture.findApplication;
+import static net.explorviz.landscape.repository.RepositoryFixture.withStatistics;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import explorviz.live_trace_processing.record.IRecord;
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import explorviz.live_trace_processing.record.event.normal.AfterOperationEventRecord;
+import explorviz.live_trace_processing.record.event.normal.BeforeOperationEventRecord;
+import explorviz.live_trace_processing.record.event.remote.AfterReceivedRemoteCallRecord;
+import explorviz.live_trace_processing.record.event.remote.AfterSentRemoteCallRecord;
+import explorviz.live_trace_processing.record.event.remote.BeforeReceivedRemoteCallRecord;
+import explorviz.live_trace_processing.record.event.remote.BeforeSentRemoteCallRecord;
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.event.EEventType;
+import net.explorviz.landscape.model.event.Event;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.repository.RepositoryFixture.ManualClock;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the eviction of idle applications at the end of a period.
+ */
+public class IdleEvictionTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int IDLE_SECONDS = 1;
+
+  private final HostApplicationMetaDataRecord idleHost =
+      new HostApplicationMetaDataRecord("idle-system", "10.0.0.1", "idle-host", "idle", "JAVA");
+  private final HostApplicationMetaDataRecord activeHost =
+      new HostApplicationMetaDataRecord("system", "10.0.0.2", "host", "active", "JAVA");
+
+  @Test
+  public void testEvictsIdleApplication() {
+    final RepositoryConfig config = RepositoryFixture.createConfig();
+    config.setEvictionIdleSeconds(IDLE_SECONDS);
+    final ManualClock clock = new ManualClock();
+    final LandscapeRepositoryModel model = RepositoryFixture.createModel(config, clock);
+
+    // the idle application calls the active one once
+    model.insertIntoModel(Arrays.asList(this.createSentTrace(1), this.createReceivedTrace(2, 1),
+        this.createActiveTrace(3)));
+    final Landscape initial = model.closePeriod();
+    assertNotNull(findApplication(initial, "idle"));
+    assertEquals(1, initial.getTotalApplicationCommunications().size());
+    final int activeClazzes = countClazzes(findApplication(initial, "active"));
+
+    clock.advance(Duration.ofSeconds(IDLE_SECONDS + 1));
+
+    // evicts the idle application at the end of this period, hence it is missing in the next one
+    model.insertIntoModel(Collections.singletonList(this.createActiveTrace(4)));
+    model.closePeriod();
+    final Landscape evicted = model.closePeriod();
+
+    assertNull(findApplication(evicted, "idle"));
+    assertEquals(1, evicted.getSystems().size());
+    assertEquals("system", evicted.getSystems().get(0).getName());
+    assertTrue(evicted.getTotalApplicationCommunications().isEmpty());
+    assertTrue(containsEvent(evicted, EEventType.REMOVEDAPPLICATION));
+    assertTrue(containsEvent(evicted, EEventType.REMOVEDNODE));
+    assertTrue(containsEvent(evicted, EEventType.REMOVEDSYSTEM));
+
+    final Application active = findApplication(evicted, "active");
+    assertNotNull(active);
+    assertEquals(activeClazzes, countClazzes(active));
+    assertTrue(active.getApplicationCommunications().isEmpty());
+
+    // a trace of the evicted application recreates it
+    model.insertIntoModel(Collections.singletonList(this.createSentTrace(5)));
+    final Landscape recreated = model.closePeriod();
+
+    final Application idle = findApplication(recreated, "idle");
+    assertNotNull(idle);
+    assertEquals("idle-system", idle.getParent().getParent().getParent().getName());
+    assertEquals(1, countClazzes(idle));
+  }
+
+  private static boolean containsEvent(final Landscape landscape, final EEventType type) {
+    for (final Event event : landscape.getEvents()) {
+      if (event.getEventType() == type) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Idle.run() calls the active application.
+   */
+  private IRecord createSentTrace(final long traceId) {
+    final HostApplicationMetaDataRecord host = this.idleHost;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 0, 0,
+        "public void net.explorviz.idle.Idle.run()", "net.explorviz.idle.Idle", "", host), 1));
+    events.add(withStatistics(new BeforeSentRemoteCallRecord("http", traceId, 1, host), 1));
+    events.add(new AfterSentRemoteCallRecord(traceId, 1000L, 2, host));
+    events.add(new AfterOperationEventRecord(traceId, 2000L, 3, host));
+    return new Trace(events, true, true);
+  }
+
+  /**
+   * Active.serve() is called by the idle application.
+   */
+  private IRecord createReceivedTrace(final long traceId, final long callerTraceId) {
+    final HostApplicationMetaDataRecord host = this.activeHost;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(
+        new BeforeReceivedRemoteCallRecord(callerTraceId, 1, traceId, 0, host), 1));
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 1, 1,
+        "public void net.explorviz.active.Active.serve()", "net.explorviz.active.Active", "",
+        host), 1));
+    events.add(new AfterOperationEventRecord(traceId, 1000L, 2, host));
+    events.add(new AfterReceivedRemoteCallRecord(traceId, 1000L, 3, host));
+    return new Trace(events, true, true);
+  }
+
+  /**
+   * Active.serve() calls Helper.help(), i.e., uses all clazzes of the active application.
+   */
+  private IRecord createActiveTrace(final long traceId) {
+    final HostApplicationMetaDataRecord host = this.activeHost;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 0, 0,
+        "public void net.explorviz.active.Active.serve()", "net.explorviz.active.Active", "",
+        host), 1));
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 1, 1,
+        "public void net.explorviz.active.Helper.help()", "net.explorviz.active.Helper", "",
+        host), 1));
+    events.add(new AfterOperationEventRecord(traceId, 1000L, 2, host));
+    events.add(new AfterOperationEventRecord(traceId, 2000L, 3, host));
+    return new Trace(events, true, false);
+  }
+
+}
@@ -0,0 +1,163 @@
+package net.explorviz.landscape.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import net.explorviz.landscape.model.helper.LandscapeCodec;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.store.Timestamp;
+import net.explorviz.landscape.repository.LandscapePublisher.OverflowPolicy;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.InterruptException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the overflow policies and the termination of the {@link LandscapePublisher}, while Kafka
+ * blocks the publisher in send.
+ */
+public class LandscapePublisherTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final long TIMEOUT_SECONDS = 5;
+
+  // ids of the landscapes passed to send
+  private final List<String> sent = new CopyOnWriteArrayList<>();
+  // one permit per sent landscape
+  private final Semaphore sends = new Semaphore(0);
+  // counted down, when the publisher blocks in the first send
+  private final CountDownLatch blocked = new CountDownLatch(1);
+  // releases the first send
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private LandscapePublisher publisher;
+
+  @AfterEach
+  public void tearDown() {
+    this.release.countDown();
+    this.publisher.terminate();
+  }
+
+  @Test
+  public void testCoalesceKeepsLatest() throws InterruptedException {
+    this.publisher = this.createPublisher(2, OverflowPolicy.COALESCE);
+    this.publishWhileBlocked("1", "2", "3", "4");
+    this.release.countDown();
+
+    assertTrue(this.sends.tryAcquire(2, TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("1", "4"), this.sent);
+  }
+
+  @Test
+  public void testDropOldestKeepsCapacity() throws InterruptedException {
+    this.publisher = this.createPublisher(2, OverflowPolicy.DROP_OLDEST);
+    this.publishWhileBlocked("1", "2", "3", "4");
+    this.release.countDown();
+
+    assertTrue(this.sends.tryAcquire(3, TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("1", "3", "4"), this.sent);
+  }
+
+  @Test
+  public void testTerminateDiscardsPending() throws InterruptedException {
+    this.publisher = this.createPublisher(2, OverflowPolicy.DROP_OLDEST);
+    this.publishWhileBlocked("1", "2");
+
+    // interrupts the blocked send like Kafka does
+    this.publisher.terminate();
+    this.publisher.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+    assertFalse(this.publisher.isAlive());
+    assertEquals(Arrays.asList("1"), this.sent);
+  }
+
+  @Test
+  public void testTerminateWhileIdle() throws InterruptedException {
+    this.publisher = this.createPublisher(2, OverflowPolicy.COALESCE);
+    this.publisher.start();
+
+    this.publisher.terminate();
+    this.publisher.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+    assertFalse(this.publisher.isAlive());
+    assertTrue(this.sent.isEmpty());
+  }
+
+  private LandscapePublisher createPublisher(final int queueCapacity,
+      final OverflowPolicy policy) {
+    @SuppressWarnings("unchecked")
+    final KafkaProducer<String, byte[]> kafkaProducer = mock(KafkaProducer.class);
+    when(kafkaProducer.send(any(), any())).thenAnswer(invocation -> {
+      final ProducerRecord<?, ?> record = invocation.getArgument(0);
+      this.sent.add(new String((byte[]) record.value(), StandardCharsets.UTF_8));
+      this.sends.release();
+      this.blocked.countDown();
+      try {
+        if (!this.release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("Send was not released");
+        }
+      } catch (final InterruptedException e) {
+        // like a send blocked on the full buffer of the producer
+        throw new InterruptException(e);
+      }
+      return null;
+    });
+
+    return new LandscapePublisher(kafkaProducer, "landscape-update", new IdCodec(), 1, 0,
+        queueCapacity, policy);
+  }
+
+  /**
+   * Starts the publisher, waits until it blocks in the send of the first landscape and publishes
+   * the remaining ones meanwhile.
+   */
+  private void publishWhileBlocked(final String... ids) throws InterruptedException {
+    this.publisher.start();
+    this.publisher.publish(createLandscape(ids[0]));
+    assertTrue(this.blocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    for (int i = 1; i < ids.length; i++) {
+      this.publisher.publish(createLandscape(ids[i]));
+    }
+  }
+
+  private static Landscape createLandscape(final String id) {
+    return new Landscape(id, new Timestamp("timestamp-" + id, 0, 0));
+  }
+
+  /**
+   * Encodes a landscape as its id.
+   */
+  private static final class IdCodec implements LandscapeCodec {
+
+    @Override
+    public String getName() {
+      return "id";
+    }
+
+    @Override
+    public byte[] encode(final Landscape landscape) {
+      return landscape.getId().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Landscape decode(final byte[] encoded) {
+      return createLandscape(new String(encoded, StandardCharsets.UTF_8));
+    }
+
+  }
+
+}
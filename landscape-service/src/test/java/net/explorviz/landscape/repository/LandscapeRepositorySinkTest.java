@@ -0,0 +1,116 @@
+package net.explorviz.landscape.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import explorviz.live_trace_processing.record.IRecord;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the batching drain loop of the {@link LandscapeRepositorySink}.
+ */
+public class LandscapeRepositorySinkTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final long TIMEOUT_SECONDS = 5;
+  private static final int BATCH_SIZE = 4;
+
+  // copies of the inserted batches, since the sink reuses them
+  private final List<List<IRecord>> batches = new CopyOnWriteArrayList<>();
+  // one permit per inserted batch
+  private final Semaphore inserted = new Semaphore(0);
+
+  private LandscapeRepositorySink sink;
+  private Queue<IRecord> queue;
+
+  @BeforeEach
+  public void setUp() {
+    this.sink = new LandscapeRepositorySink(batch -> {
+      this.batches.add(new ArrayList<>(batch));
+      this.inserted.release();
+    }, 16, BATCH_SIZE);
+    this.queue = this.sink.registerProducer();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    this.sink.terminate();
+  }
+
+  @Test
+  public void testBatchesKeepOrder() throws InterruptedException {
+    final List<IRecord> records = this.offer(10);
+    this.sink.start();
+
+    assertTrue(this.inserted.tryAcquire(3, TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(records.subList(0, 4), records.subList(4, 8),
+        records.subList(8, 10)), this.batches);
+    assertTrue(this.queue.isEmpty());
+  }
+
+  @Test
+  public void testWakesUpWhileIdle() throws InterruptedException {
+    this.sink.start();
+    // long enough to back off to the maximum park time
+    Thread.sleep(50);
+
+    final List<IRecord> records = this.offer(3);
+    assertTrue(this.inserted.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(records), this.batches);
+  }
+
+  @Test
+  public void testFailedBatchIsSkipped() throws InterruptedException {
+    final LandscapeRepositorySink failing = new LandscapeRepositorySink(batch -> {
+      this.inserted.release();
+      throw new IllegalStateException("insertion failed");
+    }, 16, BATCH_SIZE);
+    failing.registerProducer().addAll(this.createRecords(6));
+    failing.start();
+
+    try {
+      assertTrue(this.inserted.tryAcquire(2, TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertTrue(failing.isAlive());
+    } finally {
+      failing.terminate();
+    }
+  }
+
+  @Test
+  public void testTerminate() throws InterruptedException {
+    this.sink.start();
+    this.sink.terminate();
+    this.sink.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+
+    assertFalse(this.sink.isAlive());
+  }
+
+  private List<IRecord> offer(final int count) {
+    final List<IRecord> records = this.createRecords(count);
+    for (final IRecord record : records) {
+      assertTrue(this.queue.offer(record));
+    }
+    return records;
+  }
+
+  private List<IRecord> createRecords(final int count) {
+    final List<IRecord> records = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      records.add(mock(IRecord.class));
+    }
+    return records;
+  }
+
+}
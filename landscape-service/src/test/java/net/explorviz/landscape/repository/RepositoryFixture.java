@@ -0,0 +1,174 @@
+package net.explorviz.landscape.repository;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.jasminb.jsonapi.ResourceConverter;
+import explorviz.live_trace_processing.record.event.AbstractBeforeEventRecord;
+import explorviz.live_trace_processing.record.trace.RuntimeStatisticInformation;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.Component;
+import net.explorviz.landscape.model.helper.ModelHelper;
+import net.explorviz.landscape.model.helper.TypeProvider;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import net.explorviz.landscape.repository.helper.LandscapeSerializationHelper;
+import net.explorviz.shared.common.idgen.IdGenerator;
+import org.apache.kafka.clients.producer.KafkaProducer;
+
+/**
+ * Creates repository models for tests, i.e., without Kafka and without the time signal, and
+ * traverses the landscapes of their periods.
+ */
+public final class RepositoryFixture {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private RepositoryFixture() {
+    // Utility Class
+  }
+
+  /**
+   * Returns the configuration of explorviz-test.properties.
+   *
+   * @return a new configuration, which may be modified by the caller
+   */
+  public static RepositoryConfig createConfig() {
+    final RepositoryConfig config = new RepositoryConfig();
+    config.setOutputIntervalSeconds(10);
+    config.setInsertionShards(1);
+    config.setInsertionQueueCapacity(1024);
+    config.setMaxEventsPerPeriod(1000);
+    config.setMaxDatabaseQueries(100);
+    config.setEvictionIdleSeconds(0);
+    config.setSignatureCacheCapacity(65_536);
+    config.setKafkaTopicName("landscape-update");
+    config.setCodecName("jsonapi");
+    config.setKeyframeInterval(1);
+    config.setChunkSize(1_048_576);
+    config.setPublisherQueueCapacity(2);
+    config.setOverflowPolicy("coalesce");
+    return config;
+  }
+
+  /**
+   * Creates a model with an empty landscape, whose periods are closed by the caller.
+   *
+   * @param config - the configuration
+   * @param clock - the time of the periods and of the last usage of entities
+   * @return the model
+   */
+  public static LandscapeRepositoryModel createModel(final RepositoryConfig config,
+      final Clock clock) {
+    final IdGenerator idGen = mock(IdGenerator.class);
+    when(idGen.generateId()).thenReturn("repository-test");
+
+    @SuppressWarnings("unchecked")
+    final KafkaProducer<String, byte[]> kafkaProducer = mock(KafkaProducer.class);
+
+    final LandscapeRepositoryModel model = new LandscapeRepositoryModel(config,
+        new LandscapeSerializationHelper(
+            new ResourceConverter(TypeProvider.getExplorVizCoreTypesAsArray())),
+        kafkaProducer, idGen, clock);
+    model.createLandscape();
+    return model;
+  }
+
+  /**
+   * Collects the applications of all nodes of a landscape.
+   *
+   * @param landscape - the landscape
+   * @return the applications
+   */
+  public static List<Application> getApplications(final Landscape landscape) {
+    final List<Application> applications = new ArrayList<>();
+    for (final System system : landscape.getSystems()) {
+      for (final NodeGroup nodeGroup : system.getNodeGroups()) {
+        for (final Node node : nodeGroup.getNodes()) {
+          applications.addAll(node.getApplications());
+        }
+      }
+    }
+    return applications;
+  }
+
+  /**
+   * Seeks an application by its name.
+   *
+   * @param landscape - the landscape
+   * @param name - the name of the application
+   * @return the first application with this name or null, if there is none
+   */
+  public static Application findApplication(final Landscape landscape, final String name) {
+    for (final Application application : getApplications(landscape)) {
+      if (name.equals(application.getName())) {
+        return application;
+      }
+    }
+    return null;
+  }
+
+  public static int countClazzes(final Application application) {
+    int clazzes = 0;
+    for (final Component component : application.getComponents()) {
+      clazzes += ModelHelper.getChildrenComponentClazzes(component).size();
+    }
+    return clazzes;
+  }
+
+  /**
+   * Attaches one runtime statistic per host application of the record.
+   *
+   * @param record - the record
+   * @param count - the requests per host application
+   * @return the record
+   */
+  public static AbstractBeforeEventRecord withStatistics(final AbstractBeforeEventRecord record,
+      final int count) {
+    final int hosts = record.getHostApplicationMetadataList().size();
+    final List<RuntimeStatisticInformation> statistics = new ArrayList<>(hosts);
+    for (int h = 0; h < hosts; h++) {
+      statistics.add(new RuntimeStatisticInformation(count, 1000d, 0d));
+    }
+    record.setRuntimeStatisticInformationList(statistics);
+    return record;
+  }
+
+  /**
+   * Clock, which only advances when told to.
+   */
+  public static final class ManualClock extends Clock {
+
+    private volatile Instant instant = Instant.parse("2019-01-01T00:00:00Z");
+
+    public void advance(final Duration duration) {
+      this.instant = this.instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      throw new UnsupportedOperationException("The zone of a manual clock is fixed");
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+
+  }
+
+}
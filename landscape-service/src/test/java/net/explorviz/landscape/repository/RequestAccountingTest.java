@@ -0,0 +1,180 @@
+package net.explorviz.landscape.repository;
+
+import static net.explorviz.landscape.repository.RepositoryFixture.findApplication;
+import static net.explorviz.landscape.repository.RepositoryFixture.getApplications;
+import static net.explorviz.landscape.repository.RepositoryFixture.withStatistics;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import explorviz.live_trace_processing.record.IRecord;
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import explorviz.live_trace_processing.record.event.normal.AfterOperationEventRecord;
+import explorviz.live_trace_processing.record.event.normal.BeforeOperationEventRecord;
+import explorviz.live_trace_processing.record.event.remote.AfterReceivedRemoteCallRecord;
+import explorviz.live_trace_processing.record.event.remote.AfterSentRemoteCallRecord;
+import explorviz.live_trace_processing.record.event.remote.BeforeReceivedRemoteCallRecord;
+import explorviz.live_trace_processing.record.event.remote.BeforeSentRemoteCallRecord;
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.ApplicationCommunication;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the request totals of applications, nodes, systems and the landscape of a period.
+ */
+public class RequestAccountingTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int REMOTE_REQUESTS = 7;
+
+  private final HostApplicationMetaDataRecord frontendHost =
+      new HostApplicationMetaDataRecord("shop", "10.0.0.1", "frontend-host", "frontend", "JAVA");
+  private final HostApplicationMetaDataRecord backendHost =
+      new HostApplicationMetaDataRecord("shop", "10.0.0.2", "backend-host", "backend", "JAVA");
+  private final HostApplicationMetaDataRecord workerHost =
+      new HostApplicationMetaDataRecord("batch", "10.0.0.3", "worker-host", "worker", "JAVA");
+
+  @Test
+  public void testSingleInserter() throws InterruptedException {
+    this.checkPeriodTotals(1);
+  }
+
+  @Test
+  public void testShardedInsertion() throws InterruptedException {
+    this.checkPeriodTotals(3);
+  }
+
+  private void checkPeriodTotals(final int shards) throws InterruptedException {
+    final RepositoryConfig config = RepositoryFixture.createConfig();
+    config.setInsertionShards(shards);
+    final LandscapeRepositoryModel model =
+        RepositoryFixture.createModel(config, Clock.systemUTC());
+
+    model.insertIntoModel(Arrays.asList(this.createSentTrace(1), this.createReceivedTrace(2, 1),
+        this.createLocalTrace(3, this.workerHost, 2), this.createLocalTrace(4, this.workerHost, 3),
+        this.createLocalTrace(5, this.backendHost, 4)));
+    model.awaitInsertion();
+    final Landscape landscape = model.closePeriod();
+
+    // the remote call is credited to the called application
+    final Application backend = findApplication(landscape, "backend");
+    assertEquals(REMOTE_REQUESTS + 4, backend.getTotalRequests());
+    assertEquals(2 + 3, findApplication(landscape, "worker").getTotalRequests());
+
+    long landscapeRequests = 0;
+    for (final System system : landscape.getSystems()) {
+      long systemRequests = 0;
+      for (final NodeGroup nodeGroup : system.getNodeGroups()) {
+        for (final Node node : nodeGroup.getNodes()) {
+          long nodeRequests = 0;
+          for (final Application application : node.getApplications()) {
+            assertEquals(countRequests(landscape, application), application.getTotalRequests());
+            nodeRequests += application.getTotalRequests();
+          }
+          assertEquals(nodeRequests, node.getTotalRequests());
+          systemRequests += nodeRequests;
+        }
+      }
+      assertEquals(systemRequests, system.getTotalRequests());
+      landscapeRequests += systemRequests;
+    }
+    assertTrue(landscapeRequests > 0);
+    assertEquals(landscapeRequests, landscape.getTimestamp().getTotalRequests());
+
+    // the totals belong to a period
+    final Landscape idle = model.closePeriod();
+    for (final Application application : getApplications(idle)) {
+      assertEquals(0, application.getTotalRequests());
+    }
+    for (final System system : idle.getSystems()) {
+      assertEquals(0, system.getTotalRequests());
+    }
+    assertEquals(0, idle.getTimestamp().getTotalRequests());
+
+    model.insertIntoModel(Collections.singletonList(this.createLocalTrace(6, this.workerHost, 5)));
+    model.awaitInsertion();
+    final Landscape next = model.closePeriod();
+    assertEquals(5, findApplication(next, "worker").getTotalRequests());
+    assertEquals(0, findApplication(next, "backend").getTotalRequests());
+    assertEquals(5, next.getTimestamp().getTotalRequests());
+  }
+
+  /**
+   * Sums the requests of the clazz communications and of the incoming remote calls.
+   */
+  private static long countRequests(final Landscape landscape, final Application application) {
+    long requests = 0;
+    for (final AggregatedClazzCommunication commu : application
+        .getAggregatedClazzCommunications()) {
+      requests += commu.getTotalRequests();
+    }
+    for (final ApplicationCommunication commu : landscape.getTotalApplicationCommunications()) {
+      if (commu.getTargetApplication().getId().equals(application.getId())) {
+        requests += commu.getRequests();
+      }
+    }
+    return requests;
+  }
+
+  /**
+   * Frontend.run() calls the backend.
+   */
+  private IRecord createSentTrace(final long traceId) {
+    final HostApplicationMetaDataRecord host = this.frontendHost;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 0, 0,
+        "public void net.explorviz.frontend.Frontend.run()", "net.explorviz.frontend.Frontend", "",
+        host), 1));
+    events.add(withStatistics(new BeforeSentRemoteCallRecord("http", traceId, 1, host),
+        REMOTE_REQUESTS));
+    events.add(new AfterSentRemoteCallRecord(traceId, 1000L, 2, host));
+    events.add(new AfterOperationEventRecord(traceId, 2000L, 3, host));
+    return new Trace(events, true, true);
+  }
+
+  /**
+   * Backend.serve() is called by the frontend.
+   */
+  private IRecord createReceivedTrace(final long traceId, final long callerTraceId) {
+    final HostApplicationMetaDataRecord host = this.backendHost;
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(
+        new BeforeReceivedRemoteCallRecord(callerTraceId, 1, traceId, 0, host), 1));
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 1, 1,
+        "public void net.explorviz.backend.Backend.serve()", "net.explorviz.backend.Backend", "",
+        host), 1));
+    events.add(new AfterOperationEventRecord(traceId, 1000L, 2, host));
+    events.add(new AfterReceivedRemoteCallRecord(traceId, 1000L, 3, host));
+    return new Trace(events, true, true);
+  }
+
+  /**
+   * Local.run() calls Helper.help() the passed number of times.
+   */
+  private IRecord createLocalTrace(final long traceId, final HostApplicationMetaDataRecord host,
+      final int requests) {
+    final List<AbstractEventRecord> events = new ArrayList<>();
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 0, 0,
+        "public void net.explorviz.local.Local.run()", "net.explorviz.local.Local", "", host),
+        requests));
+    events.add(withStatistics(new BeforeOperationEventRecord(traceId, 1, 1,
+        "public void net.explorviz.local.Helper.help()", "net.explorviz.local.Helper", "", host),
+        requests));
+    events.add(new AfterOperationEventRecord(traceId, 1000L, 2, host));
+    events.add(new AfterOperationEventRecord(traceId, 2000L, 3, host));
+    return new Trace(events, true, false);
+  }
+
+}
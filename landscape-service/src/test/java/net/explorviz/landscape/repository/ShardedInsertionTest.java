@@ -0,0 +1,150 @@
+package net.explorviz.landscape.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import explorviz.live_trace_processing.record.IRecord;
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import explorviz.live_trace_processing.record.event.normal.AfterOperationEventRecord;
+import explorviz.live_trace_processing.record.event.normal.BeforeOperationEventRecord;
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.RuntimeStatisticInformation;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import net.explorviz.landscape.model.application.AggregatedClazzCommunication;
+import net.explorviz.landscape.model.application.Application;
+import net.explorviz.landscape.model.application.ClazzCommunication;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.landscape.Node;
+import net.explorviz.landscape.model.landscape.NodeGroup;
+import net.explorviz.landscape.model.landscape.System;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the landscape merged from several insertion shards equals the landscape of a single
+ * inserter.
+ */
+public class ShardedInsertionTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int HOSTS = 3;
+  private static final int APPLICATIONS_PER_HOST = 2;
+  private static final int TRACES = 200;
+  private static final int OPERATIONS = 6;
+
+  @Test
+  public void testShardedPeriodEqualsSingleInserter() throws InterruptedException {
+    final List<HostApplicationMetaDataRecord> hostRecords = new ArrayList<>();
+    for (int h = 0; h < HOSTS; h++) {
+      for (int a = 0; a < APPLICATIONS_PER_HOST; a++) {
+        hostRecords.add(new HostApplicationMetaDataRecord("system", "10.0.0." + h, "host" + h,
+            "application" + a, "JAVA"));
+      }
+    }
+
+    final Landscape single = this.insertAndClosePeriod(1, hostRecords);
+    final Landscape sharded = this.insertAndClosePeriod(4, hostRecords);
+
+    final Map<String, Integer> expected = describe(single);
+    assertEquals(HOSTS * APPLICATIONS_PER_HOST, RepositoryFixture.getApplications(single).size());
+    assertFalse(expected.isEmpty());
+    assertTrue(single.getTimestamp().getTotalRequests() > 0);
+
+    assertEquals(RepositoryFixture.getApplications(single).size(),
+        RepositoryFixture.getApplications(sharded).size());
+    assertEquals(expected, describe(sharded));
+    assertEquals(single.getTimestamp().getTotalRequests(),
+        sharded.getTimestamp().getTotalRequests());
+  }
+
+  private Landscape insertAndClosePeriod(final int shards,
+      final List<HostApplicationMetaDataRecord> hostRecords) throws InterruptedException {
+    final RepositoryConfig config = RepositoryFixture.createConfig();
+    config.setInsertionShards(shards);
+    final LandscapeRepositoryModel model =
+        RepositoryFixture.createModel(config, Clock.systemUTC());
+
+    final List<IRecord> records = new ArrayList<>(TRACES);
+    for (int t = 0; t < TRACES; t++) {
+      // some traces span two host applications
+      final List<HostApplicationMetaDataRecord> traceHosts = new ArrayList<>();
+      traceHosts.add(hostRecords.get(t % hostRecords.size()));
+      if (t % 3 == 0) {
+        traceHosts.add(hostRecords.get((t + 1) % hostRecords.size()));
+      }
+      records.add(createTrace(t, traceHosts));
+    }
+    model.insertIntoModel(records);
+    model.awaitInsertion();
+
+    return model.closePeriod();
+  }
+
+  /**
+   * Maps every clazz communication and every aggregate to its requests, keyed by names.
+   */
+  private static Map<String, Integer> describe(final Landscape landscape) {
+    final Map<String, Integer> requests = new TreeMap<>();
+    for (final System system : landscape.getSystems()) {
+      for (final NodeGroup nodeGroup : system.getNodeGroups()) {
+        for (final Node node : nodeGroup.getNodes()) {
+          for (final Application application : node.getApplications()) {
+            final String prefix =
+                system.getName() + "/" + node.getName() + "/" + application.getName() + ": ";
+
+            for (final AggregatedClazzCommunication aggregated : application
+                .getAggregatedClazzCommunications()) {
+              final String key = prefix + aggregated.getSourceClazz().getFullQualifiedName()
+                  + " -> " + aggregated.getTargetClazz().getFullQualifiedName();
+              requests.put(key, aggregated.getTotalRequests());
+
+              for (final ClazzCommunication communication : aggregated
+                  .getClazzCommunications()) {
+                requests.put(key + "." + communication.getOperationName(),
+                    communication.getTotalRequests());
+              }
+            }
+          }
+        }
+      }
+    }
+    return requests;
+  }
+
+  /**
+   * Creates a trace of nested calls, i.e., every operation calls the next one.
+   */
+  private static Trace createTrace(final long traceId,
+      final List<HostApplicationMetaDataRecord> hostRecords) {
+    final List<AbstractEventRecord> events = new ArrayList<>(2 * OPERATIONS);
+
+    for (int o = 0; o < OPERATIONS; o++) {
+      final String clazz = "net.explorviz.sample.package" + o % 2 + ".Clazz" + (traceId + o) % 4;
+      final BeforeOperationEventRecord before = new BeforeOperationEventRecord(traceId, o, o,
+          "public void " + clazz + ".operation" + o + "()", clazz, "", hostRecords.get(0));
+
+      final List<RuntimeStatisticInformation> statistics = new ArrayList<>(hostRecords.size());
+      for (int h = 0; h < hostRecords.size(); h++) {
+        statistics.add(new RuntimeStatisticInformation(1 + h, 1000d * (OPERATIONS - o), 0d));
+        if (h > 0) {
+          before.getHostApplicationMetadataList().add(hostRecords.get(h));
+        }
+      }
+      before.setRuntimeStatisticInformationList(statistics);
+      events.add(before);
+    }
+    for (int o = OPERATIONS - 1; o >= 0; o--) {
+      events.add(new AfterOperationEventRecord(traceId, 1000L * (OPERATIONS - o),
+          2 * OPERATIONS - o, hostRecords.get(0)));
+    }
+
+    return new Trace(events, true, false);
+  }
+
+}
@@ -0,0 +1,132 @@
+package net.explorviz.landscape.repository;
+
+import explorviz.live_trace_processing.record.event.AbstractEventRecord;
+import explorviz.live_trace_processing.record.event.normal.AfterOperationEventRecord;
+import explorviz.live_trace_processing.record.event.normal.BeforeOperationEventRecord;
+import explorviz.live_trace_processing.record.trace.HostApplicationMetaDataRecord;
+import explorviz.live_trace_processing.record.trace.RuntimeStatisticInformation;
+import explorviz.live_trace_processing.record.trace.Trace;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import net.explorviz.landscape.model.landscape.Landscape;
+import net.explorviz.landscape.model.store.Timestamp;
+import net.explorviz.landscape.repository.helper.EntityIdAllocator;
+import net.explorviz.landscape.repository.helper.SignatureCache;
+
+/**
+ * Measures the allocation and the duration of the insertion of traces by the
+ * {@link InsertionRepositoryPart}. Not a unit test, run the main method manually, e.g., with the
+ * number of operations per trace and of host applications per trace as arguments (defaults to 50
+ * and 2). The allocation is read from the {@link com.sun.management.ThreadMXBean}, hence it
+ * includes the inherent allocation of the model, e.g., new trace steps.
+ */
+public final class TraceInsertionBenchmark {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  private static final int WARMUP_TRACES = 50_000;
+  private static final int MEASURED_TRACES = 200_000;
+  // traces per period, the per-period metrics are reset afterwards
+  private static final int TRACES_PER_EPOCH = 1000;
+  private static final int CLAZZES = 20;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  // of the insertion only, i.e., without the creation of the records
+  private static long allocatedBytes;
+  private static long insertionNanos;
+
+  private TraceInsertionBenchmark() {
+    // Benchmark
+  }
+
+  public static void main(final String[] args) {
+    final int operations = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+    final int hosts = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+    final EntityIdAllocator idGen = new EntityIdAllocator("benchmark");
+    final InsertionRepositoryPart part = new InsertionRepositoryPart(idGen,
+        new TopologyRepositoryPart(idGen, Clock.systemUTC()), 100, new SignatureCache(65_536));
+    final RemoteCallRepositoryPart remoteCallRepositoryPart = new RemoteCallRepositoryPart();
+    final Landscape landscape = new Landscape("landscape", new Timestamp("timestamp", 0, 0));
+
+    final List<HostApplicationMetaDataRecord> hostRecords = new ArrayList<>();
+    for (int h = 0; h < hosts; h++) {
+      hostRecords.add(new HostApplicationMetaDataRecord("system", "10.0.0." + h, "host" + h,
+          "application" + h, "JAVA"));
+    }
+
+    run(part, remoteCallRepositoryPart, landscape, hostRecords, operations, 0, WARMUP_TRACES);
+
+    allocatedBytes = 0;
+    insertionNanos = 0;
+    run(part, remoteCallRepositoryPart, landscape, hostRecords, operations, WARMUP_TRACES,
+        MEASURED_TRACES);
+
+    java.lang.System.out.println(String.format( // NOPMD
+        "%d operations, %d hosts: %,d bytes and %,d ns per trace",
+        operations,
+        hosts,
+        allocatedBytes / MEASURED_TRACES,
+        insertionNanos / MEASURED_TRACES));
+  }
+
+  private static void run(final InsertionRepositoryPart part,
+      final RemoteCallRepositoryPart remoteCallRepositoryPart, final Landscape landscape,
+      final List<HostApplicationMetaDataRecord> hostRecords, final int operations,
+      final int firstTraceId, final int traces) {
+    final long thread = Thread.currentThread().getId();
+    final Trace[] prepared = new Trace[TRACES_PER_EPOCH];
+
+    for (int t = 0; t < traces; t += TRACES_PER_EPOCH) {
+      for (int i = 0; i < TRACES_PER_EPOCH; i++) {
+        prepared[i] = createTrace(firstTraceId + t + i, hostRecords, operations);
+      }
+
+      final long allocatedBefore = THREADS.getThreadAllocatedBytes(thread);
+      final long start = java.lang.System.nanoTime();
+      for (final Trace trace : prepared) {
+        part.insertIntoModel(trace, landscape, remoteCallRepositoryPart);
+      }
+      insertionNanos += java.lang.System.nanoTime() - start;
+      allocatedBytes += THREADS.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+      part.closeEpoch(java.lang.System.currentTimeMillis());
+      landscape.resetPeriod();
+    }
+  }
+
+  /**
+   * Creates a trace of nested calls, i.e., every operation calls the next one.
+   */
+  private static Trace createTrace(final long traceId,
+      final List<HostApplicationMetaDataRecord> hostRecords, final int operations) {
+    final List<AbstractEventRecord> events = new ArrayList<>(2 * operations);
+
+    for (int o = 0; o < operations; o++) {
+      final String clazz = "net.explorviz.sample.package" + o % 4 + ".Clazz" + o % CLAZZES;
+      final BeforeOperationEventRecord before = new BeforeOperationEventRecord(traceId, o, o,
+          "public void " + clazz + ".operation" + o + "()", clazz, "", hostRecords.get(0));
+
+      final List<RuntimeStatisticInformation> statistics = new ArrayList<>(hostRecords.size());
+      for (int h = 0; h < hostRecords.size(); h++) {
+        statistics.add(new RuntimeStatisticInformation(1, 1000d * (operations - o), 0d));
+        if (h > 0) {
+          before.getHostApplicationMetadataList().add(hostRecords.get(h));
+        }
+      }
+      before.setRuntimeStatisticInformationList(statistics);
+      events.add(before);
+    }
+    for (int o = operations - 1; o >= 0; o--) {
+      events.add(new AfterOperationEventRecord(traceId, 1000L * (operations - o),
+          2 * operations - o, hostRecords.get(0)));
+    }
+
+    return new Trace(events, true, false);
+  }
+
+}
@@ -0,0 +1,58 @@
+package net.explorviz.landscape.repository.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+public class EntityIdAllocatorTest {
+
+  private static final int THREADS = 4;
+  private static final int IDS_PER_THREAD = 1000;
+
+  /**
+   * Check if the ids of a thread are consecutive and formatted with the prefix.
+   */
+  @Test
+  public void testBlocks() {
+    final EntityIdAllocator allocator = new EntityIdAllocator("service", 4);
+
+    assertEquals("service-0", allocator.get());
+    assertEquals(1, allocator.nextId());
+    assertEquals(4, allocator.getReservedIds());
+
+    final Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      assertTrue(ids.add(allocator.generateId()));
+    }
+    assertEquals(12, allocator.getReservedIds());
+  }
+
+  /**
+   * Check if concurrently allocated ids are unique.
+   */
+  @Test
+  public void testUniqueAcrossThreads() throws InterruptedException {
+    final EntityIdAllocator allocator = new EntityIdAllocator("service", 16);
+    final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+    final Thread[] threads = new Thread[THREADS];
+    for (int t = 0; t < THREADS; t++) {
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < IDS_PER_THREAD; i++) {
+          ids.add(allocator.generateId());
+        }
+      });
+      threads[t].start();
+    }
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+  }
+
+}
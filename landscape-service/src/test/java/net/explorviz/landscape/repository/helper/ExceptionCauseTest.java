@@ -0,0 +1,56 @@
+package net.explorviz.landscape.repository.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class ExceptionCauseTest {
+
+  private static String stackTrace(final String message, final int frames) {
+    final StringBuilder builder = new StringBuilder("java.lang.IllegalStateException: " + message);
+    for (int i = 0; i < frames; i++) {
+      builder.append("\n\tat net.explorviz.Sample.operation").append(i).append("(Sample.java)");
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Check if only the first six lines of long stack traces are retained.
+   */
+  @Test
+  public void testTruncatesAfterSixLines() {
+    final String cause = stackTrace("failed", 100);
+    final String[] lines = cause.split("\n");
+
+    final String truncated = ExceptionCause.truncate(cause, ExceptionCause.retainedLength(cause));
+
+    assertEquals(lines[0] + "\n" + lines[1] + "\n" + lines[2] + "\n" + lines[3] + "\n" + lines[4]
+        + "\n" + lines[5] + "\n" + "\t ...", truncated);
+  }
+
+  /**
+   * Check if short causes are kept as they are.
+   */
+  @Test
+  public void testKeepsShortCauses() {
+    final String cause = stackTrace("failed", 3);
+    assertEquals(cause, ExceptionCause.truncate(cause, ExceptionCause.retainedLength(cause)));
+  }
+
+  /**
+   * Check if the fingerprint ignores truncated frames, but not the message.
+   */
+  @Test
+  public void testFingerprint() {
+    final String cause = stackTrace("failed", 10);
+    final String deeperCause = stackTrace("failed", 20);
+    final String otherCause = stackTrace("other", 10);
+
+    assertEquals(ExceptionCause.fingerprint(cause, ExceptionCause.retainedLength(cause)),
+        ExceptionCause.fingerprint(deeperCause, ExceptionCause.retainedLength(deeperCause)));
+    assertNotEquals(ExceptionCause.fingerprint(cause, ExceptionCause.retainedLength(cause)),
+        ExceptionCause.fingerprint(otherCause, ExceptionCause.retainedLength(otherCause)));
+  }
+
+}
@@ -0,0 +1,119 @@
+package net.explorviz.landscape.repository.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import explorviz.live_trace_processing.record.IRecord;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RecordQueueTest {
+
+  // CHECKSTYLE.OFF: MagicNumberCheck
+
+  /**
+   * Check if the capacity is not rounded up and full queues reject offers.
+   */
+  @Test
+  public void testExactCapacity() {
+    final RecordQueue queue = new RecordQueue(5);
+    final List<IRecord> records = createRecords(6);
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(queue.offer(records.get(i)));
+    }
+    assertFalse(queue.offer(records.get(5)));
+    assertEquals(5, queue.getCapacity());
+    assertEquals(5, queue.size());
+    assertEquals(1, queue.getRejectedOffers());
+
+    assertSame(records.get(0), queue.poll());
+    assertTrue(queue.offer(records.get(5)));
+    assertEquals(5, queue.size());
+  }
+
+  /**
+   * Check if the records are drained in order across the end of the ring.
+   */
+  @Test
+  public void testDrainWrapsAround() {
+    final RecordQueue queue = new RecordQueue(4);
+    final List<IRecord> records = createRecords(6);
+
+    for (int i = 0; i < 3; i++) {
+      queue.offer(records.get(i));
+    }
+    assertSame(records.get(0), queue.poll());
+    assertSame(records.get(1), queue.poll());
+    for (int i = 3; i < 6; i++) {
+      assertTrue(queue.offer(records.get(i)));
+    }
+    assertEquals(4, queue.size());
+
+    final List<IRecord> batch = new ArrayList<>();
+    assertEquals(3, queue.drainTo(batch, 3));
+    assertEquals(records.subList(2, 5), batch);
+    assertSame(records.get(5), queue.peek());
+    assertEquals(1, queue.drainTo(batch, 10));
+    assertEquals(records.subList(2, 6), batch);
+
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+    assertEquals(0, queue.drainTo(batch, 10));
+  }
+
+  /**
+   * Check if the iterator visits the queued records in order and can not remove them.
+   */
+  @Test
+  public void testIterator() {
+    final RecordQueue queue = new RecordQueue(3);
+    final List<IRecord> records = createRecords(4);
+    queue.addAll(records.subList(0, 3));
+    queue.poll();
+    queue.offer(records.get(3));
+
+    assertEquals(records.subList(1, 4), new ArrayList<>(queue));
+    assertTrue(queue.contains(records.get(3)));
+    assertFalse(queue.contains(records.get(0)));
+
+    final Iterator<IRecord> iterator = queue.iterator();
+    iterator.next();
+    assertThrows(UnsupportedOperationException.class, iterator::remove);
+  }
+
+  /**
+   * Check if an iterator stops at records, which were polled after its creation.
+   */
+  @Test
+  public void testIteratorStopsAtPolledRecords() {
+    final RecordQueue queue = new RecordQueue(2);
+    final List<IRecord> records = createRecords(4);
+    queue.addAll(records.subList(0, 2));
+
+    final Iterator<IRecord> iterator = queue.iterator();
+    queue.poll();
+    queue.poll();
+    queue.addAll(records.subList(2, 4));
+
+    // the first record was read ahead
+    assertSame(records.get(0), iterator.next());
+    assertFalse(iterator.hasNext());
+  }
+
+  private static List<IRecord> createRecords(final int count) {
+    final List<IRecord> records = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      records.add(mock(IRecord.class));
+    }
+    return records;
+  }
+
+}
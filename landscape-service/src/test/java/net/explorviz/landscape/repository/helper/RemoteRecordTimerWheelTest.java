@@ -0,0 +1,67 @@
+package net.explorviz.landscape.repository.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import explorviz.live_trace_processing.record.event.remote.BeforeSentRemoteCallRecord;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RemoteRecordTimerWheelTest {
+
+  private static final long TICK = 10;
+  private static final long TIMEOUT = 100;
+
+  private RemoteRecordTimerWheel<BeforeSentRemoteCallRecord> wheel;
+  private List<RemoteRecordBuffer<BeforeSentRemoteCallRecord>> expired;
+
+  @BeforeEach
+  public void setUp() {
+    this.wheel = new RemoteRecordTimerWheel<>(TICK, TIMEOUT, 0);
+    this.expired = new ArrayList<>();
+  }
+
+  /**
+   * Check if buffers expire exactly once after the timeout passed.
+   */
+  @Test
+  public void testExpiry() {
+    final RemoteRecordBuffer<BeforeSentRemoteCallRecord> early =
+        new RemoteRecordBuffer<>(null, 1L, 1, 5);
+    final RemoteRecordBuffer<BeforeSentRemoteCallRecord> late =
+        new RemoteRecordBuffer<>(null, 2L, 1, 50);
+    this.wheel.schedule(early);
+    this.wheel.schedule(late);
+
+    assertEquals(0, this.wheel.advance(100, this.expired::add));
+    assertEquals(1, this.wheel.advance(105, this.expired::add));
+    assertTrue(this.expired.contains(early));
+
+    // a large jump must visit the whole wheel
+    assertEquals(1, this.wheel.advance(10_000, this.expired::add));
+    assertTrue(this.expired.contains(late));
+    assertEquals(0, this.wheel.advance(20_000, this.expired::add));
+  }
+
+  /**
+   * Check if cancelled buffers never expire.
+   */
+  @Test
+  public void testCancel() {
+    final RemoteRecordBuffer<BeforeSentRemoteCallRecord> first =
+        new RemoteRecordBuffer<>(null, 1L, 1, 0);
+    final RemoteRecordBuffer<BeforeSentRemoteCallRecord> second =
+        new RemoteRecordBuffer<>(null, 1L, 2, 0);
+    this.wheel.schedule(first);
+    this.wheel.schedule(second);
+
+    this.wheel.cancel(second);
+    this.wheel.cancel(second);
+
+    assertEquals(1, this.wheel.advance(TIMEOUT, this.expired::add));
+    assertEquals(first, this.expired.get(0));
+  }
+
+}
@@ -0,0 +1,54 @@
+package net.explorviz.landscape.repository.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+public class SignatureCacheTest {
+
+  private static String signature(final int operation) {
+    return "public void net.explorviz.Sample.operation" + operation + "(int)";
+  }
+
+  /**
+   * Check if the same signature is returned for an equal operation signature, while constructors
+   * are cached separately.
+   */
+  @Test
+  public void testReturnsSameSignature() {
+    final SignatureCache cache = new SignatureCache(10);
+
+    final Signature parsed = cache.get(signature(1), false);
+    // an equal, but not identical string like the one of a new record
+    final Signature cached = cache.get(new String(signature(1)), false); // NOPMD
+
+    assertSame(parsed, cached);
+    assertEquals("operation1", cached.getOperationName());
+    assertNotSame(parsed, cache.get(signature(1), true));
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+  }
+
+  /**
+   * Check if the cache does not grow beyond its capacity and retains the new signature.
+   */
+  @Test
+  public void testEvictsBeyondCapacity() {
+    final SignatureCache cache = new SignatureCache(2);
+
+    cache.get(signature(1), false);
+    cache.get(signature(2), false);
+    final Signature newest = cache.get(signature(3), false);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+    assertSame(newest, cache.get(signature(3), false));
+
+    cache.get(signature(4), true);
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.getEvictions());
+  }
+
+}
@@ -0,0 +1,49 @@
+package net.explorviz.landscape.repository.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class SqlStatementTest {
+
+  /**
+   * Check if literals are replaced and whitespace is collapsed.
+   */
+  @Test
+  public void testNormalizesLiterals() {
+    assertEquals("SELECT * FROM table1 WHERE name = ? AND id > ?",
+        SqlStatement.normalize("SELECT *\n  FROM table1 WHERE name = 'O''Brien' AND id > 42.5 "));
+    assertEquals("SELECT * FROM clazz WHERE id IN (?) AND name = ?",
+        SqlStatement.normalize("SELECT * FROM clazz WHERE id IN (1, 2,3) AND name = ?"));
+    assertEquals("INSERT INTO clazz VALUES (?)",
+        SqlStatement.normalize("INSERT INTO clazz VALUES ('a', 'b', 7)"));
+  }
+
+  /**
+   * Check if statements with different literals share their fingerprint.
+   */
+  @Test
+  public void testFingerprint() {
+    final long first =
+        SqlStatement.fingerprint(SqlStatement.normalize("SELECT * FROM clazz WHERE id = 1"));
+    final long second =
+        SqlStatement.fingerprint(SqlStatement.normalize("SELECT * FROM clazz WHERE id = 2"));
+    final long other =
+        SqlStatement.fingerprint(SqlStatement.normalize("SELECT * FROM component WHERE id = 2"));
+
+    assertEquals(first, second);
+    assertNotEquals(first, other);
+  }
+
+  /**
+   * Check if the statement type is the first word of the operation signature.
+   */
+  @Test
+  public void testStatementType() {
+    assertEquals("PreparedStatement",
+        SqlStatement.statementType("PreparedStatement java.sql.PreparedStatement.executeQuery()"));
+    assertEquals("Statement", SqlStatement.statementType("Statement"));
+  }
+
+}